@@ -4,6 +4,7 @@ import com.qualcomm.robotcore.eventloop.opmode.Autonomous;
 import com.qualcomm.robotcore.eventloop.opmode.OpMode;
 
 import org.firstinspires.ftc.teamcode.pedroPathing.follower.Follower;
+import org.firstinspires.ftc.teamcode.pedroPathing.follower.RobotContext;
 import org.firstinspires.ftc.teamcode.pedroPathing.localization.Pose;
 import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.BezierCurve;
 import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.BezierLine;
@@ -78,7 +79,7 @@ public class SimpleAuto extends OpMode {
     @Override
     public void init() {
         pathTimer = new Timer();
-        follower = new Follower(hardwareMap);
+        follower = RobotContext.getFollower(hardwareMap);
         follower.setStartingPose(pointOne);
         buildPaths();
     }
@@ -5,12 +5,14 @@ import com.qualcomm.robotcore.eventloop.opmode.OpMode;
 
 import org.firstinspires.ftc.robotcore.internal.system.Deadline;
 import org.firstinspires.ftc.teamcode.pedroPathing.follower.Follower;
+import org.firstinspires.ftc.teamcode.pedroPathing.follower.RobotContext;
 import org.firstinspires.ftc.teamcode.pedroPathing.localization.Pose;
 import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.BezierCurve;
 import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.BezierLine;
 import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.Path;
 import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.PathChain;
 import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.Point;
+import org.firstinspires.ftc.teamcode.pedroPathing.util.HardwareInitializer;
 import org.firstinspires.ftc.teamcode.pedroPathing.util.Timer;
 
 import java.util.concurrent.TimeUnit;
@@ -189,7 +191,7 @@ public class testAuto extends OpMode {
 
         opmodeTimer.resetTimer();
 
-        follower = new Follower(hardwareMap);
+        follower = RobotContext.getFollower(hardwareMap);
         follower.setStartingPose(startPose);
 
 
@@ -199,8 +201,9 @@ public class testAuto extends OpMode {
     @Override
     public void init_loop() {
 
-        // After 4 Seconds, Robot Initialization is complete
-        if (opmodeTimer.getElapsedTimeSeconds() > 4) {
+        // Robot Initialization is complete once every device has finished being set up
+        HardwareInitializer.getInstance().debug(telemetry);
+        if (HardwareInitializer.getInstance().isAllDone()) {
             telemetry.addData("Init", "Finished");
         }
     }
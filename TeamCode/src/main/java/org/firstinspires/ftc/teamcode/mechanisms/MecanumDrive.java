@@ -4,12 +4,16 @@ import com.qualcomm.robotcore.hardware.DcMotor;
 import com.qualcomm.robotcore.hardware.DcMotorEx;
 import com.qualcomm.robotcore.hardware.DcMotorSimple;
 import com.qualcomm.robotcore.hardware.HardwareMap;
+
+import org.firstinspires.ftc.teamcode.pedroPathing.util.LatencyTracer;
+
 public class MecanumDrive {
     private DcMotorEx frontLeftMotor;
     private DcMotorEx frontRightMotor;
     private DcMotorEx backLeftMotor;
     private DcMotorEx backRightMotor;
     private DcMotorEx[] motors;
+    private LatencyTracer latencyTracer;
 
     public void init(HardwareMap hardwareMap) {
         frontLeftMotor = hardwareMap.get(DcMotorEx.class, "fl");
@@ -41,8 +45,15 @@ public class MecanumDrive {
         frontRightMotor.setPower(frontRightPower);
         backLeftMotor.setPower(backLeftPower);
         backRightMotor.setPower(backRightPower);
+        if (latencyTracer != null) latencyTracer.onActuation();
     }
+
+    public void setLatencyTracer(LatencyTracer tracer) {
+        latencyTracer = tracer;
+    }
+
     public void drive(double forward, double right, double rotate) {
+        if (latencyTracer != null) latencyTracer.onCommand();
         double frontLeftPower = forward + right + rotate;
         double frontRightPower = forward - right - rotate;
         double backLeftPower = forward - right + rotate;
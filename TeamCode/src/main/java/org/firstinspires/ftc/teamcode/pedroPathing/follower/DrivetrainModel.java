@@ -0,0 +1,170 @@
+package org.firstinspires.ftc.teamcode.pedroPathing.follower;
+
+import org.firstinspires.ftc.teamcode.pedroPathing.localization.Pose;
+import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.Vector;
+import org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants;
+import org.firstinspires.ftc.teamcode.pedroPathing.util.CustomFeedforwardCoefficients;
+
+/**
+ * This is the DrivetrainModel class. This class sits between the DriveVectorScaler and the drive
+ * motors and turns wheel powers into voltage compensated motor powers using a kV/kA/kStatic motor
+ * model for each wheel. This way, a wheel power from the DriveVectorScaler means the same wheel
+ * speed regardless of battery voltage or how much friction each individual wheel has.
+ *
+ * The wheels are ordered left front, left rear, right front, right rear, the same as the
+ * DriveVectorScaler.
+ *
+ * The acceleration for the kA term has to come from what the robot is being asked to do, like the
+ * centripetal acceleration of the Path being followed, and not from the change in the wheel powers,
+ * since those come from PIDF feedback and differencing them mostly amplifies noise.
+ *
+ * @version 1.0, 10/19/2026
+ */
+public class DrivetrainModel {
+    private CustomFeedforwardCoefficients[] wheelCoefficients;
+
+    // This is how much faster the wheels have to spin to strafe at the same speed as driving forward.
+    private double strafeRatio;
+
+    private double[] wheelVelocities = new double[4];
+    private double[] wheelAccelerations = new double[4];
+    private double[] wheelPowers = new double[4];
+
+    /**
+     * This creates a new DrivetrainModel from the per wheel coefficients in FollowerConstants.
+     */
+    public DrivetrainModel() {
+        this(FollowerConstants.leftFrontFeedforward, FollowerConstants.leftRearFeedforward, FollowerConstants.rightFrontFeedforward, FollowerConstants.rightRearFeedforward, FollowerConstants.frontLeftVector);
+    }
+
+    /**
+     * This creates a new DrivetrainModel with specified per wheel coefficients and the front left
+     * wheel's preferred drive vector, which is used to find how efficiently the drivetrain strafes.
+     *
+     * @param leftFront the left front wheel's coefficients.
+     * @param leftRear the left rear wheel's coefficients.
+     * @param rightFront the right front wheel's coefficients.
+     * @param rightRear the right rear wheel's coefficients.
+     * @param frontLeftVector the front left wheel's preferred drive vector.
+     */
+    public DrivetrainModel(CustomFeedforwardCoefficients leftFront, CustomFeedforwardCoefficients leftRear, CustomFeedforwardCoefficients rightFront, CustomFeedforwardCoefficients rightRear, Vector frontLeftVector) {
+        wheelCoefficients = new CustomFeedforwardCoefficients[]{leftFront, leftRear, rightFront, rightRear};
+        strafeRatio = Math.abs(frontLeftVector.getXComponent() / frontLeftVector.getYComponent());
+    }
+
+    /**
+     * This returns the wheel velocity that every wheel can reach at a power of 1 at the nominal
+     * battery voltage, which is the free speed of the slowest wheel.
+     *
+     * @return returns the shared max wheel velocity, in inches/second.
+     */
+    public double getMaxWheelVelocity() {
+        double max = Double.POSITIVE_INFINITY;
+        for (CustomFeedforwardCoefficients coefficients : wheelCoefficients) {
+            max = Math.min(max, coefficients.getMaxVelocity());
+        }
+        return max;
+    }
+
+    /**
+     * This takes in wheel powers from the DriveVectorScaler and returns motor powers compensated
+     * for battery voltage and each wheel's motor model. The input powers are treated as a fraction
+     * of the max wheel velocity.
+     *
+     * IMPORTANT NOTE: the input Array is not modified, but the returned Array is reused between
+     * calls, so copy it if it needs to be kept.
+     *
+     * @param drivePowers the wheel powers from the DriveVectorScaler.
+     * @param acceleration the robot relative feedforward acceleration, or null if there is none.
+     * @param voltageScale the clamped nominal voltage over battery voltage, from the VoltageService.
+     * @return returns the compensated motor powers.
+     */
+    public double[] getCompensatedPowers(double[] drivePowers, Pose acceleration, double voltageScale) {
+        double maxWheelVelocity = getMaxWheelVelocity();
+        if (Double.isInfinite(maxWheelVelocity)) return drivePowers;
+        for (int i = 0; i < wheelVelocities.length; i++) {
+            wheelVelocities[i] = drivePowers[i] * maxWheelVelocity;
+        }
+        setWheelVelocities(acceleration, wheelAccelerations);
+        for (int i = 0; i < wheelPowers.length; i++) {
+            wheelPowers[i] = wheelCoefficients[i].getPower(wheelVelocities[i], wheelAccelerations[i], FollowerConstants.drivetrainModelStaticDeadband);
+        }
+        return compensateVoltage(wheelPowers, voltageScale);
+    }
+
+    /**
+     * This returns the voltage compensated motor powers needed for the robot to reach a specified
+     * robot relative velocity and acceleration.
+     *
+     * @param velocity the robot relative velocity, with x forward, y left, and heading as the
+     *                 counter-clockwise angular velocity, in inches/second and radians/second.
+     * @param acceleration the robot relative acceleration, in the same frame as the velocity.
+     * @param voltageScale the clamped nominal voltage over battery voltage, from the VoltageService.
+     * @return returns the motor powers.
+     */
+    public double[] getWheelPowers(Pose velocity, Pose acceleration, double voltageScale) {
+        double[] velocities = getWheelVelocities(velocity);
+        double[] accelerations = getWheelVelocities(acceleration);
+        double[] powers = new double[4];
+        for (int i = 0; i < powers.length; i++) {
+            powers[i] = wheelCoefficients[i].getPower(velocities[i], accelerations[i], FollowerConstants.drivetrainModelStaticDeadband);
+        }
+        return compensateVoltage(powers, voltageScale);
+    }
+
+    /**
+     * This converts a robot relative velocity into wheel velocities using mecanum kinematics. This
+     * works for accelerations as well.
+     *
+     * @param velocity the robot relative velocity.
+     * @return returns the wheel velocities, in inches/second.
+     */
+    public double[] getWheelVelocities(Pose velocity) {
+        double[] wheels = new double[4];
+        setWheelVelocities(velocity, wheels);
+        return wheels;
+    }
+
+    /**
+     * This converts a robot relative velocity into wheel velocities, writing them into a specified
+     * Array instead of making a new one. A null velocity gives zero for every wheel.
+     *
+     * @param velocity the robot relative velocity, or null.
+     * @param wheels the Array to write the wheel velocities into.
+     */
+    private void setWheelVelocities(Pose velocity, double[] wheels) {
+        if (velocity == null) {
+            for (int i = 0; i < wheels.length; i++) {
+                wheels[i] = 0;
+            }
+            return;
+        }
+        double forward = velocity.getX();
+        double strafe = velocity.getY() * strafeRatio;
+        double turn = velocity.getHeading() * FollowerConstants.wheelTurnRadius;
+        wheels[0] = forward - strafe - turn;
+        wheels[1] = forward + strafe - turn;
+        wheels[2] = forward + strafe + turn;
+        wheels[3] = forward - strafe + turn;
+    }
+
+    /**
+     * This scales powers from the nominal voltage to the current voltage, and then scales all the
+     * powers down together if any of them are above 1 so the direction of travel is kept.
+     *
+     * @param powers the powers at the nominal voltage.
+     * @param voltageScale the clamped nominal voltage over battery voltage.
+     * @return returns the scaled powers.
+     */
+    private double[] compensateVoltage(double[] powers, double voltageScale) {
+        double max = 1;
+        for (int i = 0; i < powers.length; i++) {
+            powers[i] *= voltageScale;
+            max = Math.max(max, Math.abs(powers[i]));
+        }
+        for (int i = 0; i < powers.length; i++) {
+            powers[i] /= max;
+        }
+        return powers;
+    }
+}
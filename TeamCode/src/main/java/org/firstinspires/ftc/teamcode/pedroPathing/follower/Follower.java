@@ -1,16 +1,28 @@
 package org.firstinspires.ftc.teamcode.pedroPathing.follower;
 
+import static org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants.chainTransitionDistanceTolerance;
+import static org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants.chainTransitionHeadingTolerance;
+import static org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants.chainTransitionTangentTolerance;
+import static org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants.cornerBlendMaxDeviation;
+import static org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants.cornerBlendMaxLateralAcceleration;
+import static org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants.cornerBlendMaxLength;
+import static org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants.cornerBlendSpeedGain;
 import static org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants.drivePIDFSwitch;
 import static org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants.forwardZeroPowerAcceleration;
 import static org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants.headingPIDFSwitch;
 import static org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants.drivePIDFFeedForward;
 import static org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants.headingPIDFFeedForward;
+import static org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants.lateralZeroPowerAcceleration;
 import static org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants.leftFrontMotorName;
 import static org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants.leftRearMotorName;
 import static org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants.rightFrontMotorName;
+import static org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants.predictiveSettleHeadingConstraint;
+import static org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants.predictiveSettleTranslationalConstraint;
 import static org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants.rightRearMotorName;
+import static org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants.seamlessChainTransitions;
 import static org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants.translationalPIDFFeedForward;
-import static org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants.lateralZeroPowerAcceleration;
+import static org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants.useCornerBlending;
+import static org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants.usePredictiveSettle;
 import static org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants.secondaryDrivePIDFFeedForward;
 import static org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants.secondaryHeadingPIDFFeedForward;
 import static org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants.secondaryTranslationalPIDFFeedForward;
@@ -18,9 +30,13 @@ import static org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstan
 import static org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants.useSecondaryDrivePID;
 import static org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants.useSecondaryHeadingPID;
 import static org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants.useSecondaryTranslationalPID;
+import static org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants.useDrivetrainModel;
+import static org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants.useModelPredictiveControl;
+import static org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants.useVoltageCompensation;
 
 import com.acmerobotics.dashboard.config.Config;
 import com.acmerobotics.dashboard.telemetry.MultipleTelemetry;
+import com.qualcomm.hardware.lynx.LynxModule;
 import com.qualcomm.robotcore.hardware.DcMotor;
 import com.qualcomm.robotcore.hardware.DcMotorEx;
 import com.qualcomm.robotcore.hardware.DcMotorSimple;
@@ -28,22 +44,31 @@ import com.qualcomm.robotcore.hardware.HardwareMap;
 import com.qualcomm.robotcore.hardware.configuration.typecontainers.MotorConfigurationType;
 
 import org.firstinspires.ftc.robotcore.external.Telemetry;
+import org.firstinspires.ftc.teamcode.pedroPathing.localization.Localizer;
 import org.firstinspires.ftc.teamcode.pedroPathing.localization.Pose;
 import org.firstinspires.ftc.teamcode.pedroPathing.localization.PoseUpdater;
 import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.BezierPoint;
 import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.MathFunctions;
 import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.Path;
 import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.PathBuilder;
-import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.PathCallback;
 import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.PathChain;
 import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.Point;
 import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.Vector;
+import org.firstinspires.ftc.teamcode.pedroPathing.replay.RunFrame;
+import org.firstinspires.ftc.teamcode.pedroPathing.replay.RunRecorder;
 import org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants;
 import org.firstinspires.ftc.teamcode.pedroPathing.util.DashboardPoseTracker;
+import org.firstinspires.ftc.teamcode.pedroPathing.util.DashboardPublisher;
+import org.firstinspires.ftc.teamcode.pedroPathing.util.SettleStatistics;
 import org.firstinspires.ftc.teamcode.pedroPathing.util.Drawing;
 import org.firstinspires.ftc.teamcode.pedroPathing.util.FilteredPIDFController;
+import org.firstinspires.ftc.teamcode.pedroPathing.util.HardwareInitializer;
 import org.firstinspires.ftc.teamcode.pedroPathing.util.KalmanFilter;
+import org.firstinspires.ftc.teamcode.pedroPathing.util.LatencyTracer;
+import org.firstinspires.ftc.teamcode.pedroPathing.util.LoopProfiler;
 import org.firstinspires.ftc.teamcode.pedroPathing.util.PIDFController;
+import org.firstinspires.ftc.teamcode.pedroPathing.util.RobotClock;
+import org.firstinspires.ftc.teamcode.pedroPathing.util.VoltageService;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -67,11 +92,27 @@ public class Follower {
     private DcMotorEx rightFront;
     private DcMotorEx rightRear;
     private List<DcMotorEx> motors;
+    private List<HardwareInitializer.Task> motorInits = new ArrayList<>();
+    private boolean motorsReady = true;
 
     private DriveVectorScaler driveVectorScaler;
+    private DrivetrainModel drivetrainModel;
+    private ModelPredictiveController modelPredictiveController;
 
     private PoseUpdater poseUpdater;
     private DashboardPoseTracker dashboardPoseTracker;
+    private VoltageService voltageService;
+    private LoopProfiler loopProfiler = new LoopProfiler();
+    private DashboardPublisher dashboardPublisher;
+    private LatencyTracer latencyTracer;
+
+    private SettleStatistics settleStatistics = new SettleStatistics();
+
+    private RunRecorder runRecorder;
+    private RunFrame runFrame = new RunFrame();
+    private int runMarker;
+    private long loopStartTime;
+    private long previousLoopStartTime;
 
     private Pose closestPose;
 
@@ -84,7 +125,14 @@ public class Follower {
 
     private int chainIndex;
 
-    private long[] pathStartTimes;
+    // The corner blends into and out of the current Path of a PathChain, as the distance along the
+    // Path the blend covers, the signed angle the robot turns through, and the fastest the robot
+    // can go through the blend
+    private double incomingBlendLength;
+    private double incomingBlendTurn;
+    private double outgoingBlendLength;
+    private double outgoingBlendTurn;
+    private double outgoingBlendSpeed;
 
     private boolean followingPathChain;
     private boolean holdingPosition;
@@ -92,6 +140,8 @@ public class Follower {
     private boolean reachedParametricPathEnd;
     private boolean holdPositionAtEnd;
     private boolean teleopDrive;
+    private boolean teleopRobotCentric = true;
+    private double fieldCentricOffset;
 
     private double maxPower = 1;
     private double previousSecondaryTranslationalIntegral;
@@ -104,6 +154,8 @@ public class Follower {
     private long reachedParametricPathEndTime;
 
     private double[] drivePowers;
+    private double[] commandedPowers = new double[4];
+    private double[] writtenPowers = {Double.NaN, Double.NaN, Double.NaN, Double.NaN};
     private double[] teleopDriveValues;
 
     private ArrayList<Vector> velocities = new ArrayList<>();
@@ -135,13 +187,18 @@ public class Follower {
     private double[] driveErrors;
     private double rawDriveError;
     private double previousRawDriveError;
+    private boolean usedModelPredictiveControl;
 
     public static boolean drawOnDashboard = true;
+    public static boolean publishOnBackgroundThread = false;
     public static boolean useTranslational = true;
     public static boolean useCentripetal = true;
     public static boolean useHeading = true;
     public static boolean useDrive = true;
 
+    // A motor's power is only written to the hub if it changed by more than this, or went to 0
+    public static double motorPowerWriteThreshold = 0.005;
+
     /**
      * This creates a new Follower given a HardwareMap.
      *
@@ -152,6 +209,39 @@ public class Follower {
         initialize();
     }
 
+    /**
+     * This creates a new Follower given a HardwareMap and the Localizer to use, instead of the one
+     * picked in PoseUpdater. The Localizer should be made right before this, since the list of
+     * hardware being set up shown in telemetry is not cleared, so its setup stays in the list.
+     *
+     * @param hardwareMap HardwareMap required
+     * @param localizer the Localizer to get the robot's pose from
+     */
+    public Follower(HardwareMap hardwareMap, Localizer localizer) {
+        this.hardwareMap = hardwareMap;
+        initialize(new PoseUpdater(hardwareMap, localizer));
+    }
+
+    /**
+     * This creates a new Follower that does not use any hardware, from a PoseUpdater. The Follower
+     * runs as normal, but the motor powers are only stored, and can be read with
+     * getCommandedPowers(). This is used by the RunReplayer to run the Follower on recorded runs
+     * off of the robot. This never drives the robot, so to use a different Localizer on the robot,
+     * use Follower(HardwareMap, Localizer) instead.
+     *
+     * @param poseUpdater the PoseUpdater to get the robot's pose from
+     */
+    public Follower(PoseUpdater poseUpdater) {
+        this.poseUpdater = poseUpdater;
+        driveVectorScaler = new DriveVectorScaler(FollowerConstants.frontLeftVector);
+        drivetrainModel = new DrivetrainModel();
+        modelPredictiveController = new ModelPredictiveController();
+        voltageService = new VoltageService();
+        motors = new ArrayList<>();
+        dashboardPoseTracker = new DashboardPoseTracker(poseUpdater);
+        breakFollowing();
+    }
+
     /**
      * This initializes the follower.
      * In this, the DriveVectorScaler and PoseUpdater is instantiated, the drive motors are
@@ -159,36 +249,267 @@ public class Follower {
      * second derivatives for teleop are set.
      */
     public void initialize() {
+        HardwareInitializer.getInstance().clear();
+        initialize(new PoseUpdater(hardwareMap));
+    }
+
+    /**
+     * This initializes the follower with a specified PoseUpdater, in the same way as initialize().
+     *
+     * @param poseUpdater the PoseUpdater to get the robot's pose from
+     */
+    private void initialize(PoseUpdater poseUpdater) {
         driveVectorScaler = new DriveVectorScaler(FollowerConstants.frontLeftVector);
-        poseUpdater = new PoseUpdater(hardwareMap);
+        drivetrainModel = new DrivetrainModel();
+        modelPredictiveController = new ModelPredictiveController();
+        this.poseUpdater = poseUpdater;
+        voltageService = new VoltageService(hardwareMap);
 
         leftFront = hardwareMap.get(DcMotorEx.class, leftFrontMotorName);
         leftRear = hardwareMap.get(DcMotorEx.class, leftRearMotorName);
         rightRear = hardwareMap.get(DcMotorEx.class, rightRearMotorName);
         rightFront = hardwareMap.get(DcMotorEx.class, rightFrontMotorName);
 
+        motors = Arrays.asList(leftFront, leftRear, rightFront, rightRear);
+
+        setUpHardwareForOpMode();
+
+        dashboardPoseTracker = new DashboardPoseTracker(poseUpdater);
+
+        breakFollowing();
+    }
+
+    /**
+     * This sets up the parts of the hardware that the SDK resets before every OpMode, which are the
+     * motor directions, the motor types, and the bulk caching mode of the hubs. This is done when
+     * the Follower is created and again by resetForNewOpMode(), so a reused Follower drives the same
+     * way in every OpMode. The motors are also set to float and the bulk cache is cleared.
+     */
+    private void setUpHardwareForOpMode() {
+        for (LynxModule module : hardwareMap.getAll(LynxModule.class)) {
+            module.setBulkCachingMode(LynxModule.BulkCachingMode.AUTO);
+            module.clearBulkCache();
+        }
+
         // TODO: Make sure that this is the direction your motors need to be reversed in.
         leftFront.setDirection(DcMotorSimple.Direction.REVERSE);
         leftRear.setDirection(DcMotorSimple.Direction.REVERSE);
         rightFront.setDirection(DcMotorSimple.Direction.REVERSE);
+        rightRear.setDirection(DcMotorSimple.Direction.FORWARD);
 
-        motors = Arrays.asList(leftFront, leftRear, rightFront, rightRear);
+        String[] motorNames = {leftFrontMotorName, leftRearMotorName, rightFrontMotorName, rightRearMotorName};
 
-        for (DcMotorEx motor : motors) {
-            MotorConfigurationType motorConfigurationType = motor.getMotorType().clone();
-            motorConfigurationType.setAchieveableMaxRPMFraction(1.0);
-            motor.setMotorType(motorConfigurationType);
+        // Each motor's type is configured on a background thread, and update() waits for them to
+        // finish. The zero power behavior is set here, so OpModes can still change it in init.
+        motorInits = new ArrayList<>();
+        for (int i = 0; i < motors.size(); i++) {
+            DcMotorEx motor = motors.get(i);
+            motorInits.add(HardwareInitializer.getInstance().submit(motorNames[i], () -> {
+                MotorConfigurationType motorConfigurationType = motor.getMotorType().clone();
+                motorConfigurationType.setAchieveableMaxRPMFraction(1.0);
+                motor.setMotorType(motorConfigurationType);
+            }));
         }
+        motorsReady = false;
 
         for (DcMotorEx motor : motors) {
             motor.setZeroPowerBehavior(DcMotor.ZeroPowerBehavior.FLOAT);
         }
+    }
 
-        dashboardPoseTracker = new DashboardPoseTracker(poseUpdater);
+    /**
+     * This checks if the Follower was created from a specified HardwareMap, and if the drive motors
+     * in that HardwareMap are still the same ones the Follower is using. The HardwareMap is only
+     * remade when the robot is restarted or its configuration changes, so this is how the
+     * RobotContext knows if the Follower can be reused.
+     *
+     * @param hardwareMap the HardwareMap to check against.
+     * @return returns if the Follower is still using the hardware in the HardwareMap.
+     */
+    public boolean usesHardware(HardwareMap hardwareMap) {
+        if (hardwareMap == null || hardwareMap != this.hardwareMap) return false;
+        try {
+            return hardwareMap.get(DcMotorEx.class, leftFrontMotorName) == leftFront
+                    && hardwareMap.get(DcMotorEx.class, leftRearMotorName) == leftRear
+                    && hardwareMap.get(DcMotorEx.class, rightFrontMotorName) == rightFront
+                    && hardwareMap.get(DcMotorEx.class, rightRearMotorName) == rightRear;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
 
+    /**
+     * This resets everything in the Follower that only belongs to one OpMode run, so the Follower
+     * can be reused by the next OpMode. The current Path, the PIDFs and filters, the max power, the
+     * recording, the teleop settings, and the debug statistics are all reset, and the motors are
+     * stopped. The SDK resets the motor directions, motor types, and bulk caching mode before every
+     * OpMode, so those are set up again, and the motors are set back to float. The localizer is left
+     * alone, so the robot keeps its pose.
+     */
+    public void resetForNewOpMode() {
+        stopRecording();
+        runMarker = 0;
+        currentPath = null;
+        currentPathChain = null;
+        followingPathChain = false;
+        holdPositionAtEnd = false;
+        chainIndex = 0;
+        maxPower = 1;
+        holdPointTranslationalScaling = FollowerConstants.holdPointTranslationalScaling;
+        holdPointHeadingScaling = FollowerConstants.holdPointHeadingScaling;
+        loopProfiler = new LoopProfiler();
+        settleStatistics = new SettleStatistics();
+        dashboardPoseTracker = new DashboardPoseTracker(poseUpdater);
+        velocities.clear();
+        accelerations.clear();
+        teleopRobotCentric = true;
+        fieldCentricOffset = 0;
+        latencyTracer = null;
+        for (int i = 0; i < writtenPowers.length; i++) {
+            writtenPowers[i] = Double.NaN;
+        }
+        if (hardwareMap != null) setUpHardwareForOpMode();
         breakFollowing();
     }
 
+    /**
+     * This sets the zero power behavior of the drive motors. The Follower uses FLOAT, and
+     * resetForNewOpMode() sets it back to FLOAT, so an OpMode that wants BRAKE has to set it in its
+     * own init.
+     *
+     * @param zeroPowerBehavior the zero power behavior.
+     */
+    public void setZeroPowerBehavior(DcMotor.ZeroPowerBehavior zeroPowerBehavior) {
+        for (DcMotorEx motor : motors) {
+            motor.setZeroPowerBehavior(zeroPowerBehavior);
+        }
+    }
+
+    /**
+     * This stops the localizer's background thread, if it has one. This should be called once the
+     * Follower won't be used anymore, so the thread doesn't keep reading hardware that belongs to
+     * an OpMode that is done.
+     */
+    public void stopPolling() {
+        poseUpdater.getLocalizer().stopPolling();
+    }
+
+    /**
+     * This recalibrates the localizer's IMU, if it has one. The robot has to stay still while this
+     * runs.
+     */
+    public void calibrateIMU() {
+        poseUpdater.getLocalizer().calibrateIMU();
+    }
+
+    /**
+     * This waits for the drive motors to finish being configured, if they haven't already. This is
+     * done on the first update anyway, but OpModes can call this at start to wait there instead.
+     * The localizer waits for its own hardware on its first update.
+     */
+    public void waitForHardware() {
+        if (motorsReady) return;
+        for (HardwareInitializer.Task task : motorInits) {
+            task.await();
+        }
+        motorsReady = true;
+    }
+
+    /**
+     * This returns the filtered battery voltage from the VoltageService.
+     *
+     * @return returns the battery voltage.
+     */
+    public double getBatteryVoltage() {
+        return voltageService.getVoltage();
+    }
+
+    /**
+     * This returns the VoltageService the Follower uses to read the battery voltage.
+     *
+     * @return returns the VoltageService.
+     */
+    public VoltageService getVoltageService() {
+        return voltageService;
+    }
+
+    /**
+     * This returns the ModelPredictiveController used when useModelPredictiveControl is on.
+     *
+     * @return returns the ModelPredictiveController.
+     */
+    public ModelPredictiveController getModelPredictiveController() {
+        return modelPredictiveController;
+    }
+
+    /**
+     * This returns the LoopProfiler that times each section of the Follower's update.
+     *
+     * @return returns the LoopProfiler.
+     */
+    public LoopProfiler getLoopProfiler() {
+        return loopProfiler;
+    }
+
+    /**
+     * This compensates the drive powers array for battery voltage. If the DrivetrainModel is
+     * enabled, the powers are run through it, along with the Path's acceleration from
+     * getFeedforwardAcceleration(). Otherwise, if voltage compensation is enabled, the powers are
+     * scaled by the voltage scale factor, and scaled back down together if any of them go above 1.
+     */
+    public void compensateDrivePowers() {
+        if (useDrivetrainModel) {
+            drivePowers = drivetrainModel.getCompensatedPowers(drivePowers, getFeedforwardAcceleration(), voltageService.getVoltageScale());
+        } else if (useVoltageCompensation) {
+            double scale = voltageService.getVoltageScale();
+            double max = 1;
+            for (int i = 0; i < drivePowers.length; i++) {
+                drivePowers[i] *= scale;
+                max = Math.max(max, Math.abs(drivePowers[i]));
+            }
+            for (int i = 0; i < drivePowers.length; i++) {
+                drivePowers[i] /= max;
+            }
+        }
+    }
+
+    /**
+     * This returns the robot relative acceleration the Path is asking for at the closest point,
+     * which is the centripetal acceleration of the robot's speed along the Path around its
+     * curvature. This is what the DrivetrainModel uses for its kA term.
+     *
+     * @return returns the robot relative acceleration, or null if the Follower is not following a
+     *         Path, like in teleop or when holding a point.
+     */
+    public Pose getFeedforwardAcceleration() {
+        if (teleopDrive || holdingPosition || currentPath == null) return null;
+        double curvature = currentPath.getClosestPointCurvature();
+        if (Double.isNaN(curvature)) return null;
+        Vector tangent = MathFunctions.normalizeVector(currentPath.getClosestPointTangentVector());
+        double speed = MathFunctions.dotProduct(poseUpdater.getVelocity(), tangent);
+        double magnitude = speed * speed * curvature;
+
+        // positive curvature turns counter-clockwise, so the acceleration is the tangent turned left
+        double x = -tangent.getYComponent() * magnitude;
+        double y = tangent.getXComponent() * magnitude;
+        double heading = poseUpdater.getPose().getHeading();
+        double cos = Math.cos(heading);
+        double sin = Math.sin(heading);
+        return new Pose(x * cos + y * sin, -x * sin + y * cos, 0);
+    }
+
+    /**
+     * This returns the factor the PIDF feedforward terms are multiplied by to compensate for
+     * battery voltage.
+     *
+     * @return returns the voltage scale factor if voltage compensation is enabled, or 1 otherwise.
+     *         This is also 1 when the DrivetrainModel is in use, since it already compensates the
+     *         whole drive power for voltage.
+     */
+    public double getFeedForwardScale() {
+        return useVoltageCompensation && !useDrivetrainModel ? voltageService.getVoltageScale() : 1;
+    }
+
     /**
      * This sets the maximum power the motors are allowed to use.
      *
@@ -276,6 +597,15 @@ public class Follower {
         poseUpdater.setStartingPose(pose);
     }
 
+    /**
+     * This sets the starting pose to the pose saved by the PoseStore, if one was saved recently.
+     *
+     * @return returns if a saved pose was restored.
+     */
+    public boolean restoreSavedPose() {
+        return poseUpdater.restoreSavedPose();
+    }
+
     /**
      * This sets the current pose, using offsets so no reset time delay. This is better than the
      * Road Runner reset, in general. Think of using offsets as setting trim in an aircraft. This can
@@ -399,14 +729,15 @@ public class Follower {
     public void followPath(PathChain pathChain, boolean holdEnd) {
         breakFollowing();
         holdPositionAtEnd = holdEnd;
-        pathStartTimes = new long[pathChain.size()];
-        pathStartTimes[0] = System.currentTimeMillis();
         isBusy = true;
         followingPathChain = true;
         chainIndex = 0;
         currentPathChain = pathChain;
+        currentPathChain.getCallbackSchedule().reset(RobotClock.currentTimeMillis());
         currentPath = pathChain.getPath(chainIndex);
         closestPose = currentPath.getClosestPoint(poseUpdater.getPose(), BEZIER_CURVE_BINARY_STEP_LIMIT);
+        outgoingBlendLength = 0;
+        updateCornerBlend();
     }
 
     /**
@@ -431,11 +762,21 @@ public class Follower {
      * This also updates all the Follower's PIDFs, which updates the motor powers.
      */
     public void update() {
+        waitForHardware();
+        loopProfiler.startLoop();
+        previousLoopStartTime = loopStartTime;
+        loopStartTime = RobotClock.nanoTime();
+
         poseUpdater.update();
+        loopProfiler.mark("localization");
+
+        voltageService.update();
+        loopProfiler.mark("voltage");
 
         if (drawOnDashboard) {
             dashboardPoseTracker.update();
         }
+        loopProfiler.mark("dashboard");
 
         if (!teleopDrive) {
             if (currentPath != null) {
@@ -444,44 +785,56 @@ public class Follower {
 
                     drivePowers = driveVectorScaler.getDrivePowers(MathFunctions.scalarMultiplyVector(getTranslationalCorrection(), holdPointTranslationalScaling), MathFunctions.scalarMultiplyVector(getHeadingVector(), holdPointHeadingScaling), new Vector(), poseUpdater.getPose().getHeading());
 
+                    compensateDrivePowers();
                     limitDrivePowers();
 
-                    for (int i = 0; i < motors.size(); i++) {
-                        motors.get(i).setPower(drivePowers[i]);
-                    }
+                    setMotorPowers(drivePowers);
                 } else {
                     if (isBusy) {
                         closestPose = currentPath.getClosestPoint(poseUpdater.getPose(), BEZIER_CURVE_BINARY_STEP_LIMIT);
 
                         if (followingPathChain) updateCallbacks();
 
-                        drivePowers = driveVectorScaler.getDrivePowers(getCorrectiveVector(), getHeadingVector(), getDriveVector(), poseUpdater.getPose().getHeading());
+                        boolean plannedInTime = useModelPredictiveControl && updateModelPredictiveController();
+                        if (!plannedInTime) {
+                            // the PIDFs sat out the loops the ModelPredictiveController planned, so
+                            // their previous errors and integrals are stale
+                            if (usedModelPredictiveControl) resetPIDFs();
 
-                        limitDrivePowers();
+                            drivePowers = driveVectorScaler.getDrivePowers(getCorrectiveVector(), getHeadingVector(), getDriveVector(), poseUpdater.getPose().getHeading());
 
-                        for (int i = 0; i < motors.size(); i++) {
-                            motors.get(i).setPower(drivePowers[i]);
+                            compensateDrivePowers();
                         }
+                        usedModelPredictiveControl = plannedInTime;
+                        limitDrivePowers();
+
+                        setMotorPowers(drivePowers);
                     }
                     if (currentPath.isAtParametricEnd()) {
                         if (followingPathChain && chainIndex < currentPathChain.size() - 1) {
                             // Not at last path, keep going
-                            breakFollowing();
-                            pathStartTimes[chainIndex] = System.currentTimeMillis();
-                            isBusy = true;
-                            followingPathChain = true;
-                            chainIndex++;
-                            currentPath = currentPathChain.getPath(chainIndex);
-                            closestPose = currentPath.getClosestPoint(poseUpdater.getPose(), BEZIER_CURVE_BINARY_STEP_LIMIT);
+                            startNextPathInChain();
                         } else {
                             // At last path, run some end detection stuff
                             // set isBusy to false if at end
                             if (!reachedParametricPathEnd) {
                                 reachedParametricPathEnd = true;
-                                reachedParametricPathEndTime = System.currentTimeMillis();
+                                reachedParametricPathEndTime = RobotClock.currentTimeMillis();
+                            }
+
+                            long settleTime = RobotClock.currentTimeMillis() - reachedParametricPathEndTime;
+                            int settleReason = -1;
+                            if (settleTime > currentPath.getPathEndTimeoutConstraint()) {
+                                settleReason = SettleStatistics.TIMEOUT;
+                            } else if (poseUpdater.getVelocity().getMagnitude() < currentPath.getPathEndVelocityConstraint() && MathFunctions.distance(poseUpdater.getPose(), closestPose) < currentPath.getPathEndTranslationalConstraint() && MathFunctions.getSmallestAngleDifference(poseUpdater.getPose().getHeading(), currentPath.getClosestPointHeadingGoal()) < currentPath.getPathEndHeadingConstraint()) {
+                                settleReason = SettleStatistics.STOPPED;
+                            } else if (usePredictiveSettle && isPredictedToSettle()) {
+                                settleReason = SettleStatistics.PREDICTED;
                             }
 
-                            if ((System.currentTimeMillis() - reachedParametricPathEndTime > currentPath.getPathEndTimeoutConstraint()) || (poseUpdater.getVelocity().getMagnitude() < currentPath.getPathEndVelocityConstraint() && MathFunctions.distance(poseUpdater.getPose(), closestPose) < currentPath.getPathEndTranslationalConstraint() && MathFunctions.getSmallestAngleDifference(poseUpdater.getPose().getHeading(), currentPath.getClosestPointHeadingGoal()) < currentPath.getPathEndHeadingConstraint())) {
+                            if (settleReason >= 0) {
+                                currentPath.getSettleStatistics().record(settleTime, settleReason);
+                                settleStatistics.record(settleTime, settleReason);
                                 if (holdPositionAtEnd) {
                                     holdPositionAtEnd = false;
                                     holdPoint(new BezierPoint(currentPath.getLastControlPoint()), currentPath.getHeadingGoal(1));
@@ -494,21 +847,93 @@ public class Follower {
                 }
             }
         } else {
-            velocities.add(poseUpdater.getVelocity());
-            velocities.remove(velocities.get(velocities.size() - 1));
+            velocities.add(0, poseUpdater.getVelocity());
+            velocities.remove(velocities.size() - 1);
 
             calculateAveragedVelocityAndAcceleration();
 
-            drivePowers = driveVectorScaler.getDrivePowers(getCentripetalForceCorrection(), teleopHeadingVector, teleopDriveVector, poseUpdater.getPose().getHeading());
+            double heading = poseUpdater.getPose().getHeading();
+            updateTeleOpVectors(heading);
 
+            drivePowers = driveVectorScaler.getDrivePowers(getCentripetalForceCorrection(), teleopHeadingVector, teleopDriveVector, heading);
+
+            compensateDrivePowers();
             limitDrivePowers();
 
-            for (int i = 0; i < motors.size(); i++) {
-                motors.get(i).setPower(drivePowers[i]);
-            }
+            setMotorPowers(drivePowers);
+        }
+
+        loopProfiler.mark("control");
+
+        if (runRecorder != null) {
+            recordFrame();
+            loopProfiler.mark("recording");
         }
     }
 
+    /**
+     * This plans the drive powers for the current Path with the ModelPredictiveController. The
+     * powers are already voltage compensated, so they skip compensateDrivePowers().
+     *
+     * @return returns if the plan finished within the time budget. If it didn't, the PIDFs have to
+     *         be used for this loop instead.
+     */
+    private boolean updateModelPredictiveController() {
+        Path nextPath = null;
+        boolean stopAtEnd = true;
+        if (followingPathChain && chainIndex < currentPathChain.size() - 1) {
+            nextPath = currentPathChain.getPath(chainIndex + 1);
+            stopAtEnd = chainIndex + 2 >= currentPathChain.size();
+        }
+        if (!modelPredictiveController.update(poseUpdater.getPose(), poseUpdater.getVelocity(), poseUpdater.getAngularVelocity(), currentPath, nextPath, stopAtEnd, maxPower, voltageService.getVoltageScale())) {
+            return false;
+        }
+        drivePowers = modelPredictiveController.getPowers();
+        // the drive error keeps going through the Kalman filter, so it has the last loop's raw
+        // error if the next loop falls back to the PIDFs
+        driveError = getDriveVelocityError();
+        return true;
+    }
+
+    /**
+     * This returns if the robot will coast to a stop within the predictive settle tolerance of the
+     * end of the current Path, if the motors are turned off now, and is already within the
+     * heading tolerance. The robot's forward and lateral velocities are each assumed to slow down
+     * at the measured zero power acceleration for that direction, scaled by the Path's zero power
+     * acceleration multiplier the same way the drive vector is, so the robot coasts v^2 / (2a)
+     * further in each direction before stopping.
+     *
+     * @return returns if the robot is predicted to settle at the end of the Path.
+     */
+    private boolean isPredictedToSettle() {
+        if (MathFunctions.getSmallestAngleDifference(poseUpdater.getPose().getHeading(), currentPath.getClosestPointHeadingGoal()) >= predictiveSettleHeadingConstraint) return false;
+
+        double heading = poseUpdater.getPose().getHeading();
+        Vector velocity = poseUpdater.getVelocity();
+        Vector forwardHeadingVector = new Vector(1.0, heading);
+        Vector lateralHeadingVector = new Vector(1.0, heading - Math.PI / 2);
+        double forwardVelocity = MathFunctions.dotProduct(forwardHeadingVector, velocity);
+        double lateralVelocity = MathFunctions.dotProduct(lateralHeadingVector, velocity);
+
+        double forwardCoastDistance = MathFunctions.getSign(forwardVelocity) * forwardVelocity * forwardVelocity / (2 * Math.abs(currentPath.getZeroPowerAccelerationMultiplier() * forwardZeroPowerAcceleration));
+        double lateralCoastDistance = MathFunctions.getSign(lateralVelocity) * lateralVelocity * lateralVelocity / (2 * Math.abs(currentPath.getZeroPowerAccelerationMultiplier() * lateralZeroPowerAcceleration));
+
+        Point end = currentPath.getLastControlPoint();
+        double restX = poseUpdater.getPose().getX() + forwardCoastDistance * forwardHeadingVector.getXComponent() + lateralCoastDistance * lateralHeadingVector.getXComponent();
+        double restY = poseUpdater.getPose().getY() + forwardCoastDistance * forwardHeadingVector.getYComponent() + lateralCoastDistance * lateralHeadingVector.getYComponent();
+        return Math.hypot(restX - end.getX(), restY - end.getY()) < predictiveSettleTranslationalConstraint;
+    }
+
+    /**
+     * This returns how long the Follower has taken to settle at the end of every Path it has
+     * finished. Each Path also keeps its own settle statistics.
+     *
+     * @return returns the settle statistics.
+     */
+    public SettleStatistics getSettleStatistics() {
+        return settleStatistics;
+    }
+
     /**
      * This sets the teleop drive vectors. This defaults to robot centric.
      *
@@ -536,19 +961,55 @@ public class Follower {
         teleopDriveValues[0] = MathFunctions.clamp(forwardDrive, -1, 1);
         teleopDriveValues[1] = MathFunctions.clamp(lateralDrive, -1, 1);
         teleopDriveValues[2] = MathFunctions.clamp(heading, -1, 1);
+        teleopRobotCentric = robotCentric;
+        if (latencyTracer != null) latencyTracer.onCommand();
+    }
+
+    /**
+     * This sets the teleop drive for field centric driving from the raw gamepad sticks, so pushing
+     * the left stick away from the driver always drives the robot the same way on the field, no
+     * matter which way the robot is facing. Pushing the left stick up drives towards the field
+     * centric offset heading, which is 0, or the positive x direction, by default.
+     *
+     * @param leftStickX the x value of the left stick, which strafes the robot.
+     * @param leftStickY the y value of the left stick, which drives the robot.
+     * @param rightStickX the x value of the right stick, which turns the robot.
+     */
+    public void setFieldCentricTeleOpDrive(double leftStickX, double leftStickY, double rightStickX) {
+        setTeleOpMovementVectors(-leftStickY, -leftStickX, -rightStickX, false);
+    }
+
+    /**
+     * This sets the field heading that pushing the left stick up drives towards in field centric
+     * teleop, which is normally the direction the driver is facing.
+     *
+     * @param offset the heading, in radians.
+     */
+    public void setFieldCentricOffset(double offset) {
+        fieldCentricOffset = offset;
+    }
+
+    /**
+     * This turns the teleop drive values into the teleop drive and heading Vectors. This is done in
+     * update() with the heading from the same update, instead of when the values are set, so the
+     * rotation never uses the heading from the loop before and the pose is only read once a loop.
+     *
+     * @param heading the robot's heading in this update.
+     */
+    private void updateTeleOpVectors(double heading) {
         teleopDriveVector.setOrthogonalComponents(teleopDriveValues[0], teleopDriveValues[1]);
         teleopDriveVector.setMagnitude(MathFunctions.clamp(teleopDriveVector.getMagnitude(), 0, 1));
+        teleopDriveVector.rotateVector(teleopRobotCentric ? heading : fieldCentricOffset);
 
-        if (robotCentric) {
-            teleopDriveVector.rotateVector(getPose().getHeading());
-        }
-
-        teleopHeadingVector.setComponents(teleopDriveValues[2], getPose().getHeading());
+        teleopHeadingVector.setComponents(teleopDriveValues[2], heading);
     }
 
     /**
      * This calculates an averaged approximate velocity and acceleration. This is used for a
-     * real-time correction of centripetal force, which is used in teleop.
+     * real-time correction of centripetal force, which is used in teleop. The newest velocity is
+     * at the start of the list, so the first half averages to the current velocity and the second
+     * half to the velocity half the samples ago. The acceleration is the change between the two,
+     * not yet divided by the time between them.
      */
     public void calculateAveragedVelocityAndAcceleration() {
         averageVelocity = new Vector();
@@ -564,7 +1025,7 @@ public class Follower {
         }
         averagePreviousVelocity = MathFunctions.scalarMultiplyVector(averagePreviousVelocity, 1.0 / ((double) velocities.size() / 2));
 
-        accelerations.add(MathFunctions.subtractVectors(averageVelocity, averagePreviousVelocity));
+        accelerations.add(0, MathFunctions.subtractVectors(averageVelocity, averagePreviousVelocity));
         accelerations.remove(accelerations.size() - 1);
 
         averageAcceleration = new Vector();
@@ -576,27 +1037,228 @@ public class Follower {
     }
 
     /**
-     * This checks if any PathCallbacks should be run right now, and runs them if applicable.
+     * This checks if any PathCallbacks should be run right now, and runs them if applicable. Only
+     * the next PathCallback due on the current PathChain's schedule is checked.
      */
     public void updateCallbacks() {
-        for (PathCallback callback : currentPathChain.getCallbacks()) {
-            if (!callback.hasBeenRun()) {
-                if (callback.getType() == PathCallback.PARAMETRIC) {
-                    // parametric call back
-                    if (chainIndex == callback.getIndex() && (getCurrentTValue() >= callback.getStartCondition() || MathFunctions.roughlyEquals(getCurrentTValue(), callback.getStartCondition()))) {
-                        callback.run();
-                    }
-                } else {
-                    // time based call back
-                    if (chainIndex >= callback.getIndex() && System.currentTimeMillis() - pathStartTimes[callback.getIndex()] > callback.getStartCondition()) {
-                        callback.run();
-                    }
+        currentPathChain.getCallbackSchedule().update(chainIndex, getCurrentTValue(), RobotClock.currentTimeMillis());
+    }
 
-                }
+    /**
+     * This returns if every PathCallback of the current PathChain that has been run so far has
+     * finished. Asynchronous PathCallbacks keep running after the Follower moves on, so an OpMode can
+     * check this along with isBusy() to wait for them without blocking the loop.
+     *
+     * @return returns if no PathCallbacks of the current PathChain are still running.
+     */
+    public boolean areCallbacksFinished() {
+        return currentPathChain == null || currentPathChain.getCallbackSchedule().areCallbacksFinished();
+    }
+
+    /**
+     * This moves on to the next Path in the current PathChain. If seamless chain transitions are
+     * off, this stops and resets everything like the start of a new PathChain. Otherwise, the motors
+     * keep running and the controllers keep their state, except for the translational controllers
+     * where the Paths meet at a corner and the heading controllers where the heading goal jumps.
+     */
+    private void startNextPathInChain() {
+        Path previousPath = currentPath;
+
+        if (!seamlessChainTransitions) {
+            breakFollowing();
+            isBusy = true;
+            followingPathChain = true;
+        }
+
+        chainIndex++;
+        currentPathChain.getCallbackSchedule().startPath(chainIndex, RobotClock.currentTimeMillis());
+        currentPath = currentPathChain.getPath(chainIndex);
+        closestPose = currentPath.getClosestPoint(poseUpdater.getPose(), BEZIER_CURVE_BINARY_STEP_LIMIT);
+        updateCornerBlend();
+
+        if (seamlessChainTransitions) {
+            reachedParametricPathEnd = false;
+
+            if (!isTangentContinuous(previousPath, currentPath)) {
+                secondaryTranslationalPIDF.reset();
+                secondaryTranslationalIntegral.reset();
+                secondaryTranslationalIntegralVector = new Vector();
+                previousSecondaryTranslationalIntegral = 0;
+                translationalPIDF.reset();
+                translationalIntegral.reset();
+                translationalIntegralVector = new Vector();
+                previousTranslationalIntegral = 0;
+            }
+
+            if (MathFunctions.getSmallestAngleDifference(previousPath.getHeadingGoal(1), currentPath.getHeadingGoal(0)) > chainTransitionHeadingTolerance) {
+                secondaryHeadingPIDF.reset();
+                headingPIDF.reset();
             }
         }
     }
 
+    /**
+     * This works out the corner blends into and out of the current Path of the PathChain. The blend
+     * out of the previous Path becomes the blend into this one, and the blend out of this one is
+     * found from the corner between it and the next Path.
+     *
+     * The blend is treated as a circular arc that is tangent to both Paths, starting and ending a
+     * blend length away from the corner. For a turn of angle a, the arc cuts the corner by the blend
+     * length times tan(a / 4) and has a radius of the blend length divided by tan(a / 2), so the
+     * blend length is picked to keep the first under cornerBlendMaxDeviation, and the radius sets
+     * how fast the robot can go through the arc.
+     */
+    private void updateCornerBlend() {
+        incomingBlendLength = outgoingBlendLength;
+        incomingBlendTurn = outgoingBlendTurn;
+        outgoingBlendLength = 0;
+        outgoingBlendTurn = 0;
+        outgoingBlendSpeed = Double.POSITIVE_INFINITY;
+
+        if (!useCornerBlending || !followingPathChain || chainIndex >= currentPathChain.size() - 1) return;
+
+        Path nextPath = currentPathChain.getPath(chainIndex + 1);
+        Point end = currentPath.getLastControlPoint();
+        Point start = nextPath.getFirstControlPoint();
+        if (Math.hypot(end.getX() - start.getX(), end.getY() - start.getY()) > chainTransitionDistanceTolerance) return;
+
+        Vector endTangent = currentPath.getEndTangent();
+        Vector startTangent = nextPath.getStartTangent();
+        if (endTangent.getMagnitude() == 0 || startTangent.getMagnitude() == 0) return;
+
+        double turn = MathFunctions.getTurnDirection(endTangent.getTheta(), startTangent.getTheta()) * MathFunctions.getSmallestAngleDifference(endTangent.getTheta(), startTangent.getTheta());
+        // nearly straight joints don't need a blend, and nearly reversing ones can't be blended
+        if (Math.abs(turn) <= chainTransitionTangentTolerance || Math.abs(turn) > Math.toRadians(150)) return;
+
+        double length = Math.min(cornerBlendMaxLength, cornerBlendMaxDeviation / Math.tan(Math.abs(turn) / 4));
+        length = Math.min(length, Math.min(currentPath.length(), nextPath.length()) / 2);
+        if (length <= 0) return;
+
+        outgoingBlendLength = length;
+        outgoingBlendTurn = turn;
+        outgoingBlendSpeed = Math.sqrt(cornerBlendMaxLateralAcceleration * length / Math.tan(Math.abs(turn) / 2));
+    }
+
+    /**
+     * This returns the direction to drive in along the current Path, turned toward the next Path
+     * when close to a blended corner, or away from the previous Path just after one. At the corner
+     * itself, the direction is halfway between the two Paths.
+     *
+     * @return returns the drive direction in radians.
+     */
+    private double getBlendedDriveDirection() {
+        double direction = currentPath.getClosestPointTangentVector().getTheta();
+        if (!followingPathChain) return direction;
+
+        if (outgoingBlendLength > 0) {
+            double distanceToCorner = currentPath.length() * (1 - currentPath.getClosestPointTValue());
+            if (distanceToCorner < outgoingBlendLength) {
+                direction += outgoingBlendTurn * (1 - distanceToCorner / outgoingBlendLength) / 2;
+            }
+        }
+        if (incomingBlendLength > 0) {
+            double distanceFromCorner = currentPath.length() * currentPath.getClosestPointTValue();
+            if (distanceFromCorner < incomingBlendLength) {
+                direction -= incomingBlendTurn * (1 - distanceFromCorner / incomingBlendLength) / 2;
+            }
+        }
+        return direction;
+    }
+
+    /**
+     * This returns the drive power to use before a blended corner. The allowed speed is the
+     * fastest the robot could go and still slow down to the blend speed by the start of the blend
+     * using zero power deceleration. Below the allowed speed, this is full power, and above it, the
+     * power is cut in proportion to how much faster than the allowed speed the robot is going, so
+     * the robot eases down to the allowed speed instead of switching between full and no power.
+     *
+     * @return returns the drive power, from 0 to 1.
+     */
+    private double getCornerBlendDrivePower() {
+        if (outgoingBlendLength <= 0) return 1;
+        double distanceToBlend = Math.max(currentPath.length() * (1 - currentPath.getClosestPointTValue()) - outgoingBlendLength, 0);
+        double deceleration = Math.abs(forwardZeroPowerAcceleration * currentPath.getZeroPowerAccelerationMultiplier());
+        double allowedSpeed = Math.sqrt(outgoingBlendSpeed * outgoingBlendSpeed + 2 * deceleration * distanceToBlend);
+        return MathFunctions.clamp(1 - cornerBlendSpeedGain * (getVelocity().getMagnitude() - allowedSpeed), 0, 1);
+    }
+
+    /**
+     * This returns the point the translational correction pulls the robot toward. This is the
+     * closest point on the Path, except close to a blended corner, where it is moved onto the blend
+     * arc. This way, the translational correction follows the same blend as the drive direction
+     * instead of pulling the robot back into the corner, and the robot cuts the corner by at most
+     * cornerBlendMaxDeviation.
+     *
+     * @return returns the translational target.
+     */
+    private Pose getTranslationalTarget() {
+        if (!useCornerBlending || !followingPathChain || holdingPosition) return closestPose;
+
+        if (outgoingBlendLength > 0) {
+            double distanceToCorner = currentPath.length() * (1 - currentPath.getClosestPointTValue());
+            if (distanceToCorner < outgoingBlendLength) {
+                return getBlendArcPoint(currentPath.getLastControlPoint(), currentPath.getEndTangent().getTheta(), outgoingBlendTurn, outgoingBlendLength, distanceToCorner);
+            }
+        }
+        if (incomingBlendLength > 0) {
+            double distanceFromCorner = currentPath.length() * currentPath.getClosestPointTValue();
+            if (distanceFromCorner < incomingBlendLength) {
+                return getBlendArcPoint(currentPath.getFirstControlPoint(), currentPath.getStartTangent().getTheta() - incomingBlendTurn, incomingBlendTurn, incomingBlendLength, distanceFromCorner);
+            }
+        }
+        return closestPose;
+    }
+
+    /**
+     * This returns the point on a blend arc across from the closest point. The arc leaves the Path
+     * a blend length away from the corner, so for the first half of it, the point is the closest
+     * point moved toward the inside of the turn by how far the arc has pulled away from the Path.
+     * Past the middle of the arc, the closest point gets stuck at the corner, so the middle of the
+     * arc is used, which is where it cuts the corner the most.
+     *
+     * @param corner the corner between the two Paths.
+     * @param incomingDirection the direction of the Path going into the corner, in radians.
+     * @param turn the signed angle the robot turns through at the corner, in radians.
+     * @param length the blend length.
+     * @param distance the distance along the Path between the closest point and the corner.
+     * @return returns the point on the arc.
+     */
+    private Pose getBlendArcPoint(Point corner, double incomingDirection, double turn, double length, double distance) {
+        double halfTurn = Math.abs(turn) / 2;
+        double radius = length / Math.tan(halfTurn);
+        double alongArc = length - distance;
+        double inside = MathFunctions.getSign(turn) * Math.PI / 2;
+
+        if (alongArc < radius * Math.sin(halfTurn)) {
+            double offset = radius - Math.sqrt(radius * radius - alongArc * alongArc);
+            double normal = currentPath.getClosestPointTangentVector().getTheta() + inside;
+            return new Pose(closestPose.getX() + offset * Math.cos(normal), closestPose.getY() + offset * Math.sin(normal), closestPose.getHeading());
+        }
+
+        double cut = radius / Math.cos(halfTurn) - radius;
+        double bisector = incomingDirection + turn / 2 + inside;
+        return new Pose(corner.getX() + cut * Math.cos(bisector), corner.getY() + cut * Math.sin(bisector), closestPose.getHeading());
+    }
+
+    /**
+     * This returns if one Path continues smoothly into another, meaning the end of the first and
+     * the start of the second are in the same place and go in the same direction.
+     *
+     * @param previousPath the first Path.
+     * @param nextPath the Path that follows it.
+     * @return returns if the Paths are tangent-continuous where they meet.
+     */
+    private boolean isTangentContinuous(Path previousPath, Path nextPath) {
+        Point end = previousPath.getLastControlPoint();
+        Point start = nextPath.getFirstControlPoint();
+        if (Math.hypot(end.getX() - start.getX(), end.getY() - start.getY()) > chainTransitionDistanceTolerance) return false;
+
+        Vector endTangent = previousPath.getEndTangent();
+        Vector startTangent = nextPath.getStartTangent();
+        if (endTangent.getMagnitude() == 0 || startTangent.getMagnitude() == 0) return false;
+        return MathFunctions.getSmallestAngleDifference(endTangent.getTheta(), startTangent.getTheta()) <= chainTransitionTangentTolerance;
+    }
+
     /**
      * This resets the PIDFs and stops following the current Path.
      */
@@ -605,18 +1267,7 @@ public class Follower {
         holdingPosition = false;
         isBusy = false;
         reachedParametricPathEnd = false;
-        secondaryDrivePIDF.reset();
-        drivePIDF.reset();
-        secondaryHeadingPIDF.reset();
-        headingPIDF.reset();
-        secondaryTranslationalPIDF.reset();
-        secondaryTranslationalIntegral.reset();
-        secondaryTranslationalIntegralVector = new Vector();
-        previousSecondaryTranslationalIntegral = 0;
-        translationalPIDF.reset();
-        translationalIntegral.reset();
-        translationalIntegralVector = new Vector();
-        previousTranslationalIntegral = 0;
+        resetPIDFs();
         driveVector = new Vector();
         headingVector = new Vector();
         translationalVector = new Vector();
@@ -631,7 +1282,11 @@ public class Follower {
             driveErrors[i] = 0;
         }
         driveKalmanFilter.reset();
+        modelPredictiveController.reset();
+        usedModelPredictiveControl = false;
 
+        velocities.clear();
+        accelerations.clear();
         for (int i = 0; i < AVERAGED_VELOCITY_SAMPLE_NUMBER; i++) {
             velocities.add(new Vector());
         }
@@ -643,9 +1298,126 @@ public class Follower {
         teleopDriveVector = new Vector();
         teleopHeadingVector = new Vector();
 
+        for (int i = 0; i < commandedPowers.length; i++) {
+            commandedPowers[i] = 0;
+        }
+        setMotorPowers(commandedPowers);
+    }
+
+    /**
+     * This resets the PIDFs and the translational integrals.
+     */
+    private void resetPIDFs() {
+        secondaryDrivePIDF.reset();
+        drivePIDF.reset();
+        secondaryHeadingPIDF.reset();
+        headingPIDF.reset();
+        secondaryTranslationalPIDF.reset();
+        secondaryTranslationalIntegral.reset();
+        secondaryTranslationalIntegralVector = new Vector();
+        previousSecondaryTranslationalIntegral = 0;
+        translationalPIDF.reset();
+        translationalIntegral.reset();
+        translationalIntegralVector = new Vector();
+        previousTranslationalIntegral = 0;
+    }
+
+    /**
+     * This sets the power of the drive motors, in the order left front, left rear, right front,
+     * right rear, and keeps a copy of the powers for recording.
+     *
+     * @param powers the motor powers.
+     */
+    private void setMotorPowers(double[] powers) {
+        for (int i = 0; i < commandedPowers.length; i++) {
+            commandedPowers[i] = powers[i];
+        }
+        boolean wrote = false;
         for (int i = 0; i < motors.size(); i++) {
-            motors.get(i).setPower(0);
+            // each write is a command to the hub, so powers that barely changed are skipped
+            if (Math.abs(powers[i] - writtenPowers[i]) > motorPowerWriteThreshold || (powers[i] == 0 && writtenPowers[i] != 0) || Double.isNaN(writtenPowers[i])) {
+                motors.get(i).setPower(powers[i]);
+                writtenPowers[i] = powers[i];
+                wrote = true;
+            }
         }
+        if (wrote && latencyTracer != null) latencyTracer.onActuation();
+    }
+
+    /**
+     * This sets the LatencyTracer that is marked when the teleop drive values are set and when the
+     * motor powers are written, to measure the latency from the gamepad to the motors.
+     *
+     * @param tracer the LatencyTracer, or null to stop tracing.
+     */
+    public void setLatencyTracer(LatencyTracer tracer) {
+        latencyTracer = tracer;
+    }
+
+    /**
+     * This returns the motor powers the Follower last set, in the order left front, left rear,
+     * right front, right rear.
+     *
+     * @return returns the last commanded motor powers.
+     */
+    public double[] getCommandedPowers() {
+        return commandedPowers;
+    }
+
+    /**
+     * This starts recording a RunFrame every update to a RunRecorder. Recording is stopped with
+     * stopRecording(), but the RunRecorder has to be closed by whoever opened it.
+     *
+     * @param recorder the RunRecorder to record to.
+     */
+    public void startRecording(RunRecorder recorder) {
+        runRecorder = recorder;
+    }
+
+    /**
+     * This stops recording RunFrames.
+     */
+    public void stopRecording() {
+        runRecorder = null;
+    }
+
+    /**
+     * This sets the marker that is recorded with every RunFrame. OpModes can set this to their
+     * current state, so a replay knows when to start following each Path.
+     *
+     * @param marker the marker to record.
+     */
+    public void setRunMarker(int marker) {
+        runMarker = marker;
+    }
+
+    /**
+     * This returns the marker that is recorded with every RunFrame.
+     *
+     * @return returns the marker.
+     */
+    public int getRunMarker() {
+        return runMarker;
+    }
+
+    /**
+     * This records the current loop to the RunRecorder. Nothing here reads any hardware, since the
+     * Localizer only copies the readings it already made this loop.
+     */
+    private void recordFrame() {
+        runFrame.timestamp = loopStartTime;
+        runFrame.marker = runMarker;
+        Pose pose = poseUpdater.getLocalizer().getPose();
+        runFrame.x = pose.getX();
+        runFrame.y = pose.getY();
+        runFrame.heading = pose.getHeading();
+        runFrame.clearRawData();
+        poseUpdater.getLocalizer().recordRawData(runFrame);
+        for (int i = 0; i < RunFrame.MOTOR_COUNT; i++) {
+            runFrame.motorPowers[i] = commandedPowers[i];
+        }
+        runFrame.voltage = voltageService.getVoltage();
+        runRecorder.record(runFrame);
     }
 
     /**
@@ -668,19 +1440,21 @@ public class Follower {
     public Vector getDriveVector() {
         if (!useDrive) return new Vector();
         if (followingPathChain && chainIndex < currentPathChain.size() - 1) {
+            if (useCornerBlending) return new Vector(getCornerBlendDrivePower(), getBlendedDriveDirection());
             return new Vector(1, currentPath.getClosestPointTangentVector().getTheta());
         }
 
         driveError = getDriveVelocityError();
+        double direction = useCornerBlending ? getBlendedDriveDirection() : currentPath.getClosestPointTangentVector().getTheta();
 
         if (Math.abs(driveError) < drivePIDFSwitch && useSecondaryDrivePID) {
             secondaryDrivePIDF.updateError(driveError);
-            driveVector = new Vector(MathFunctions.clamp(secondaryDrivePIDF.runPIDF() + secondaryDrivePIDFFeedForward * MathFunctions.getSign(driveError), -1, 1), currentPath.getClosestPointTangentVector().getTheta());
+            driveVector = new Vector(MathFunctions.clamp(secondaryDrivePIDF.runPIDF() + secondaryDrivePIDFFeedForward * getFeedForwardScale() * MathFunctions.getSign(driveError), -1, 1), direction);
             return MathFunctions.copyVector(driveVector);
         }
 
         drivePIDF.updateError(driveError);
-        driveVector = new Vector(MathFunctions.clamp(drivePIDF.runPIDF() + drivePIDFFeedForward * MathFunctions.getSign(driveError), -1, 1), currentPath.getClosestPointTangentVector().getTheta());
+        driveVector = new Vector(MathFunctions.clamp(drivePIDF.runPIDF() + drivePIDFFeedForward * getFeedForwardScale() * MathFunctions.getSign(driveError), -1, 1), direction);
         return MathFunctions.copyVector(driveVector);
     }
 
@@ -749,11 +1523,11 @@ public class Follower {
         headingError = MathFunctions.getTurnDirection(poseUpdater.getPose().getHeading(), currentPath.getClosestPointHeadingGoal()) * MathFunctions.getSmallestAngleDifference(poseUpdater.getPose().getHeading(), currentPath.getClosestPointHeadingGoal());
         if (Math.abs(headingError) < headingPIDFSwitch && useSecondaryHeadingPID) {
             secondaryHeadingPIDF.updateError(headingError);
-            headingVector = new Vector(MathFunctions.clamp(secondaryHeadingPIDF.runPIDF() + secondaryHeadingPIDFFeedForward * MathFunctions.getTurnDirection(poseUpdater.getPose().getHeading(), currentPath.getClosestPointHeadingGoal()), -1, 1), poseUpdater.getPose().getHeading());
+            headingVector = new Vector(MathFunctions.clamp(secondaryHeadingPIDF.runPIDF() + secondaryHeadingPIDFFeedForward * getFeedForwardScale() * MathFunctions.getTurnDirection(poseUpdater.getPose().getHeading(), currentPath.getClosestPointHeadingGoal()), -1, 1), poseUpdater.getPose().getHeading());
             return MathFunctions.copyVector(headingVector);
         }
         headingPIDF.updateError(headingError);
-        headingVector = new Vector(MathFunctions.clamp(headingPIDF.runPIDF() + headingPIDFFeedForward * MathFunctions.getTurnDirection(poseUpdater.getPose().getHeading(), currentPath.getClosestPointHeadingGoal()), -1, 1), poseUpdater.getPose().getHeading());
+        headingVector = new Vector(MathFunctions.clamp(headingPIDF.runPIDF() + headingPIDFFeedForward * getFeedForwardScale() * MathFunctions.getTurnDirection(poseUpdater.getPose().getHeading(), currentPath.getClosestPointHeadingGoal()), -1, 1), poseUpdater.getPose().getHeading());
         return MathFunctions.copyVector(headingVector);
     }
 
@@ -790,8 +1564,9 @@ public class Follower {
     public Vector getTranslationalCorrection() {
         if (!useTranslational) return new Vector();
         Vector translationalVector = new Vector();
-        double x = closestPose.getX() - poseUpdater.getPose().getX();
-        double y = closestPose.getY() - poseUpdater.getPose().getY();
+        Pose target = getTranslationalTarget();
+        double x = target.getX() - poseUpdater.getPose().getX();
+        double y = target.getY() - poseUpdater.getPose().getY();
         translationalVector.setOrthogonalComponents(x, y);
 
         if (!(currentPath.isAtParametricEnd() || currentPath.isAtParametricStart())) {
@@ -801,13 +1576,13 @@ public class Follower {
             translationalIntegralVector = MathFunctions.subtractVectors(translationalIntegralVector, new Vector(MathFunctions.dotProduct(translationalIntegralVector, MathFunctions.normalizeVector(currentPath.getClosestPointTangentVector())), currentPath.getClosestPointTangentVector().getTheta()));
         }
 
-        if (MathFunctions.distance(poseUpdater.getPose(), closestPose) < translationalPIDFSwitch && useSecondaryTranslationalPID) {
+        if (MathFunctions.distance(poseUpdater.getPose(), target) < translationalPIDFSwitch && useSecondaryTranslationalPID) {
             secondaryTranslationalIntegral.updateError(translationalVector.getMagnitude());
             secondaryTranslationalIntegralVector = MathFunctions.addVectors(secondaryTranslationalIntegralVector, new Vector(secondaryTranslationalIntegral.runPIDF() - previousSecondaryTranslationalIntegral, translationalVector.getTheta()));
             previousSecondaryTranslationalIntegral = secondaryTranslationalIntegral.runPIDF();
 
             secondaryTranslationalPIDF.updateError(translationalVector.getMagnitude());
-            translationalVector.setMagnitude(secondaryTranslationalPIDF.runPIDF() + secondaryTranslationalPIDFFeedForward);
+            translationalVector.setMagnitude(secondaryTranslationalPIDF.runPIDF() + secondaryTranslationalPIDFFeedForward * getFeedForwardScale());
             translationalVector = MathFunctions.addVectors(translationalVector, secondaryTranslationalIntegralVector);
         } else {
             translationalIntegral.updateError(translationalVector.getMagnitude());
@@ -815,7 +1590,7 @@ public class Follower {
             previousTranslationalIntegral = translationalIntegral.runPIDF();
 
             translationalPIDF.updateError(translationalVector.getMagnitude());
-            translationalVector.setMagnitude(translationalPIDF.runPIDF() + translationalPIDFFeedForward);
+            translationalVector.setMagnitude(translationalPIDF.runPIDF() + translationalPIDFFeedForward * getFeedForwardScale());
             translationalVector = MathFunctions.addVectors(translationalVector, translationalIntegralVector);
         }
 
@@ -833,8 +1608,9 @@ public class Follower {
      */
     public Vector getTranslationalError() {
         Vector error = new Vector();
-        double x = closestPose.getX() - poseUpdater.getPose().getX();
-        double y = closestPose.getY() - poseUpdater.getPose().getY();
+        Pose target = getTranslationalTarget();
+        double x = target.getX() - poseUpdater.getPose().getX();
+        double y = target.getY() - poseUpdater.getPose().getY();
         error.setOrthogonalComponents(x, y);
         return error;
     }
@@ -849,19 +1625,33 @@ public class Follower {
      */
     public Vector getCentripetalForceCorrection() {
         if (!useCentripetal) return new Vector();
-        double curvature;
-        if (!teleopDrive) {
-            curvature = currentPath.getClosestPointCurvature();
-        } else {
-            double yPrime = averageVelocity.getYComponent() / averageVelocity.getXComponent();
-            double yDoublePrime = averageAcceleration.getYComponent() / averageVelocity.getXComponent();
-            curvature = (yDoublePrime) / (Math.pow(Math.sqrt(1 + Math.pow(yPrime, 2)), 3));
-        }
+        // the DrivetrainModel already gets the Path's centripetal acceleration as feedforward
+        if (useDrivetrainModel && !teleopDrive) return new Vector();
+        if (teleopDrive) return getTeleOpCentripetalForceCorrection();
+        double curvature = currentPath.getClosestPointCurvature();
         if (Double.isNaN(curvature)) return new Vector();
         centripetalVector = new Vector(MathFunctions.clamp(FollowerConstants.centripetalScaling * FollowerConstants.mass * Math.pow(MathFunctions.dotProduct(poseUpdater.getVelocity(), MathFunctions.normalizeVector(currentPath.getClosestPointTangentVector())), 2) * curvature, -1, 1), currentPath.getClosestPointTangentVector().getTheta() + Math.PI / 2 * MathFunctions.getSign(currentPath.getClosestPointNormalVector().getTheta()));
         return centripetalVector;
     }
 
+    /**
+     * This returns the centripetal force correction in teleop, where there is no Path. The
+     * curvature is that of the robot's own motion, from the averaged velocity and acceleration, and
+     * the correction points to the left of the averaged velocity when the robot is turning left.
+     *
+     * @return returns the teleop centripetal force correction vector.
+     */
+    private Vector getTeleOpCentripetalForceCorrection() {
+        double speed = averageVelocity.getMagnitude();
+        double sampleTime = (AVERAGED_VELOCITY_SAMPLE_NUMBER / 2) * (loopStartTime - previousLoopStartTime) / Math.pow(10.0, 9);
+        if (speed == 0 || sampleTime <= 0) return new Vector();
+        Vector acceleration = MathFunctions.scalarMultiplyVector(averageAcceleration, 1 / sampleTime);
+        double curvature = (averageVelocity.getXComponent() * acceleration.getYComponent() - averageVelocity.getYComponent() * acceleration.getXComponent()) / Math.pow(speed, 3);
+        if (Double.isNaN(curvature)) return new Vector();
+        centripetalVector = new Vector(MathFunctions.clamp(FollowerConstants.centripetalScaling * FollowerConstants.mass * Math.pow(speed, 2) * curvature, -1, 1), averageVelocity.getTheta() + Math.PI / 2);
+        return centripetalVector;
+    }
+
     /**
      * This returns the closest pose to the robot on the Path the Follower is currently following.
      * This closest pose is calculated through a binary search method with some specified number of
@@ -922,6 +1712,9 @@ public class Follower {
 
     /**
      * This writes out information about the various motion Vectors to the Telemetry specified.
+     * If publishOnBackgroundThread is on, the drawings are sent to FTC Dashboard through the
+     * DashboardPublisher's background thread instead of here. The Telemetry is always written and
+     * updated here, on the OpMode thread.
      *
      * @param telemetry this is an instance of Telemetry or the FTC Dashboard telemetry that this
      *                  method will use to output the debug data.
@@ -948,12 +1741,31 @@ public class Follower {
         telemetry.addData("velocity magnitude", getVelocity().getMagnitude());
         telemetry.addData("velocity heading", getVelocity().getTheta());
         driveKalmanFilter.debug(telemetry);
+        if (useModelPredictiveControl) modelPredictiveController.debug(telemetry);
+        voltageService.debug(telemetry);
+        loopProfiler.debug(telemetry);
+        settleStatistics.debug(telemetry);
         telemetry.update();
         if (drawOnDashboard) {
-            Drawing.drawDebug(this);
+            if (publishOnBackgroundThread) {
+                publishDebug();
+            } else {
+                Drawing.drawDebug(this);
+            }
         }
     }
 
+    /**
+     * This sends the same debug data and drawings as telemetryDebug() to FTC Dashboard, but through
+     * the DashboardPublisher, so the packet is built and sent on a background thread at a capped
+     * rate. This only copies a few numbers on the calling thread, so it is much cheaper to call every
+     * loop than telemetryDebug().
+     */
+    public void publishDebug() {
+        if (dashboardPublisher == null) dashboardPublisher = DashboardPublisher.getInstance();
+        dashboardPublisher.publish(this);
+    }
+
     /**
      * This writes out information about the various motion Vectors to the Telemetry specified.
      *
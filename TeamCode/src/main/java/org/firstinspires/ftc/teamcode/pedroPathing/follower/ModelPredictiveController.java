@@ -0,0 +1,553 @@
+package org.firstinspires.ftc.teamcode.pedroPathing.follower;
+
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+import org.firstinspires.ftc.teamcode.pedroPathing.localization.Pose;
+import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.Path;
+import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.Point;
+import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.Vector;
+import org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants;
+import org.firstinspires.ftc.teamcode.pedroPathing.util.BoxQPSolver;
+import org.firstinspires.ftc.teamcode.pedroPathing.util.CustomFeedforwardCoefficients;
+import org.firstinspires.ftc.teamcode.pedroPathing.util.LatencyHistogram;
+import org.firstinspires.ftc.teamcode.pedroPathing.util.RobotClock;
+
+/**
+ * This is the ModelPredictiveController class. It is an alternative to the PIDFs and the
+ * DriveVectorScaler for following Paths. Instead of reacting to the current error, every loop it
+ * plans the motor powers for the next few tenths of a second, picking the powers that keep the
+ * robot closest to where it should be along the Path over that whole time, and then uses the
+ * first step of the plan.
+ *
+ * The plan is made with a model of each wheel from its feedforward coefficients, where the power
+ * past kStatic accelerates the wheel against kV like a first order lag, and mecanum kinematics to
+ * turn the wheel speeds into robot motion. The robot's heading over the plan is taken from the
+ * previous plan, which makes the whole problem linear, so it becomes a quadratic program with a
+ * bound on every motor power. The bounds are the max power, so saturation is part of the plan
+ * instead of something that is scaled away afterwards. The quadratic program is solved by a
+ * BoxQPSolver, warm started from the previous plan.
+ *
+ * The reference is sampled from the Path ahead of the closest point, spaced by how far the robot
+ * should go each step. That speed is limited by the drivetrain's top speed in the direction of
+ * travel, the lateral acceleration on curves, and the deceleration for the end of the last Path.
+ *
+ * Everything is preallocated for the horizon in FollowerConstants when the controller is created
+ * or reset, and planning does not allocate besides sampling the Path. Planning has a hard time
+ * budget, and if it runs past the budget, update() returns false so the Follower uses the PIDFs
+ * for that loop instead. The budget is not used while the RobotClock is replaying a run, so a
+ * replay always finishes its plans.
+ *
+ * @version 1.0, 10/19/2026
+ */
+public class ModelPredictiveController {
+    private static final int WHEELS = 4;
+
+    // How much each wheel's velocity adds to the robot's forward, left strafe, and counter-clockwise
+    // turn velocities, in the order left front, left rear, right front, right rear
+    private static final double[] FORWARD = {1, 1, 1, 1};
+    private static final double[] STRAFE = {-1, 1, 1, -1};
+    private static final double[] TURN = {-1, -1, 1, 1};
+
+    private int horizon;
+    private int size;
+    private double timeStep;
+
+    private BoxQPSolver solver;
+
+    // The wheel model: each step, a wheel's velocity becomes decay * velocity + gain * power
+    private final double[] decay = new double[WHEELS];
+    private final double[] gain = new double[WHEELS];
+    private final double[] kStatic = new double[WHEELS];
+    private double maxWheelVelocity;
+    private double strafeRatio;
+
+    private final double[] wheelVelocities = new double[WHEELS];
+    private final double[] previousPowers = new double[WHEELS];
+    private final double[] powers = new double[WHEELS];
+
+    // These are all per step of the horizon
+    private double[] staticDirections;
+    private double[] headings;
+    private double[] headingCos;
+    private double[] headingSin;
+    private double[] referenceX;
+    private double[] referenceY;
+    private double[] referenceHeading;
+    private double[] tangentX;
+    private double[] tangentY;
+
+    // The predicted x, y, and heading at each step are freeResponse + sensitivity * powers, where
+    // sensitivity is stored row major with three rows per step
+    private double[] freeResponse;
+    private double[] sensitivity;
+    private double[] weightedSensitivity;
+
+    private long previousPlanTime = -1;
+
+    private final LatencyHistogram solveTimes = new LatencyHistogram();
+    private long solves;
+    private long overruns;
+    private long unconverged;
+    private int lastIterations;
+
+    /**
+     * This creates a new ModelPredictiveController with the horizon and the wheel model from
+     * FollowerConstants.
+     */
+    public ModelPredictiveController() {
+        reset();
+    }
+
+    /**
+     * This forgets the previous plan, so the next plan starts from nothing, and picks up any changes
+     * to the horizon or the wheel model in FollowerConstants. This allocates if the horizon changed,
+     * so it should only be called when starting a new Path.
+     */
+    public void reset() {
+        if (solver == null || horizon != Math.max(1, FollowerConstants.mpcHorizon)) {
+            horizon = Math.max(1, FollowerConstants.mpcHorizon);
+            size = horizon * WHEELS;
+            solver = new BoxQPSolver(size);
+            staticDirections = new double[size];
+            headings = new double[horizon];
+            headingCos = new double[horizon];
+            headingSin = new double[horizon];
+            referenceX = new double[horizon];
+            referenceY = new double[horizon];
+            referenceHeading = new double[horizon];
+            tangentX = new double[horizon];
+            tangentY = new double[horizon];
+            freeResponse = new double[3 * horizon];
+            sensitivity = new double[3 * horizon * size];
+            weightedSensitivity = new double[3 * horizon * size];
+        }
+
+        timeStep = FollowerConstants.mpcTimeStep;
+        CustomFeedforwardCoefficients[] coefficients = {FollowerConstants.leftFrontFeedforward, FollowerConstants.leftRearFeedforward, FollowerConstants.rightFrontFeedforward, FollowerConstants.rightRearFeedforward};
+        maxWheelVelocity = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < WHEELS; i++) {
+            decay[i] = Math.exp(-coefficients[i].kV * timeStep / coefficients[i].kA);
+            gain[i] = (1 - decay[i]) / coefficients[i].kV;
+            kStatic[i] = coefficients[i].kStatic;
+            maxWheelVelocity = Math.min(maxWheelVelocity, coefficients[i].getMaxVelocity());
+        }
+        strafeRatio = Math.abs(FollowerConstants.frontLeftVector.getXComponent() / FollowerConstants.frontLeftVector.getYComponent());
+
+        double[] solution = solver.getSolution();
+        for (int i = 0; i < size; i++) {
+            solution[i] = 0;
+        }
+        for (int i = 0; i < WHEELS; i++) {
+            previousPowers[i] = 0;
+        }
+        previousPlanTime = -1;
+    }
+
+    /**
+     * This plans the motor powers for following a Path, and if planning finishes within the time
+     * budget, makes them available from getPowers().
+     *
+     * @param pose the robot's current pose.
+     * @param velocity the robot's current velocity, in inches/second.
+     * @param angularVelocity the robot's current angular velocity, in radians/second.
+     * @param path the Path being followed. Its closest point has to have been found this loop.
+     * @param nextPath the Path after it in the PathChain, or null if there isn't one.
+     * @param stopAtEnd if the robot should stop at the end of the last of those Paths.
+     * @param maxPower the max power any motor can be set to.
+     * @param voltageScale the nominal voltage divided by the battery voltage.
+     * @return returns if the powers were planned in time.
+     */
+    public boolean update(Pose pose, Vector velocity, double angularVelocity, Path path, Path nextPath, boolean stopAtEnd, double maxPower, double voltageScale) {
+        long startTime = System.nanoTime();
+        // a replay runs at a different speed than the robot did, so the budget is left out to make
+        // every replay plan the same way
+        long deadline = RobotClock.isUsingSystemTime() ? startTime + (long) (FollowerConstants.mpcTimeBudget * 1e6) : Long.MAX_VALUE;
+
+        long planTime = RobotClock.nanoTime();
+        shiftPlan(planTime);
+        setWheelVelocities(pose.getHeading(), velocity, angularVelocity);
+        rolloutHeadings(pose.getHeading());
+        sampleReference(pose.getHeading(), path, nextPath, stopAtEnd);
+        buildPredictions(pose);
+        buildProblem(maxPower / voltageScale);
+
+        boolean finished = System.nanoTime() <= deadline && solver.solve(FollowerConstants.mpcMaxIterations, FollowerConstants.mpcTolerance, deadline);
+        solveTimes.record(System.nanoTime() - startTime);
+        solves++;
+        lastIterations = solver.getIterations();
+        if (!finished) {
+            overruns++;
+            previousPlanTime = -1;
+            return false;
+        }
+        if (!solver.isConverged()) unconverged++;
+
+        double[] solution = solver.getSolution();
+        for (int i = 0; i < WHEELS; i++) {
+            previousPowers[i] = solution[i];
+            powers[i] = Math.max(-maxPower, Math.min(maxPower, (solution[i] + kStatic[i] * staticDirections[i]) * voltageScale));
+        }
+        previousPlanTime = planTime;
+        return true;
+    }
+
+    /**
+     * This moves the previous plan forward by the time since it was made, so it lines up with the
+     * steps of the new plan. The loop is normally shorter than a step, so this interpolates between
+     * steps instead of dropping a whole one.
+     *
+     * @param now the current time, from the RobotClock.
+     */
+    private void shiftPlan(long now) {
+        if (previousPlanTime < 0) return;
+        double shift = Math.min(1, (now - previousPlanTime) / 1e9 / timeStep);
+        double[] solution = solver.getSolution();
+        for (int k = 0; k < horizon - 1; k++) {
+            for (int i = 0; i < WHEELS; i++) {
+                int index = k * WHEELS + i;
+                solution[index] += shift * (solution[index + WHEELS] - solution[index]);
+            }
+        }
+    }
+
+    /**
+     * This finds each wheel's velocity from the robot's velocity with mecanum kinematics.
+     *
+     * @param heading the robot's heading.
+     * @param velocity the robot's field relative velocity.
+     * @param angularVelocity the robot's angular velocity.
+     */
+    private void setWheelVelocities(double heading, Vector velocity, double angularVelocity) {
+        double x = finiteOrZero(velocity.getXComponent());
+        double y = finiteOrZero(velocity.getYComponent());
+        double cos = Math.cos(heading);
+        double sin = Math.sin(heading);
+        double forward = cos * x + sin * y;
+        double strafe = (-sin * x + cos * y) * strafeRatio;
+        double turn = finiteOrZero(angularVelocity) * FollowerConstants.wheelTurnRadius;
+        for (int i = 0; i < WHEELS; i++) {
+            wheelVelocities[i] = FORWARD[i] * forward + STRAFE[i] * strafe + TURN[i] * turn;
+        }
+    }
+
+    /**
+     * This runs the previous plan on the wheel model from the current state, to get the headings
+     * the robot will be at over the new plan and which way each wheel will be turning for kStatic.
+     *
+     * @param heading the robot's current heading.
+     */
+    private void rolloutHeadings(double heading) {
+        double[] solution = solver.getSolution();
+        double w0 = wheelVelocities[0], w1 = wheelVelocities[1], w2 = wheelVelocities[2], w3 = wheelVelocities[3];
+        double turnScale = timeStep / (WHEELS * FollowerConstants.wheelTurnRadius);
+        for (int k = 0; k < horizon; k++) {
+            headings[k] = heading;
+            headingCos[k] = Math.cos(heading);
+            headingSin[k] = Math.sin(heading);
+            int index = k * WHEELS;
+            staticDirections[index] = getStaticDirection(w0, solution[index]);
+            staticDirections[index + 1] = getStaticDirection(w1, solution[index + 1]);
+            staticDirections[index + 2] = getStaticDirection(w2, solution[index + 2]);
+            staticDirections[index + 3] = getStaticDirection(w3, solution[index + 3]);
+            w0 = decay[0] * w0 + gain[0] * solution[index];
+            w1 = decay[1] * w1 + gain[1] * solution[index + 1];
+            w2 = decay[2] * w2 + gain[2] * solution[index + 2];
+            w3 = decay[3] * w3 + gain[3] * solution[index + 3];
+            heading += turnScale * (-w0 - w1 + w2 + w3);
+        }
+    }
+
+    /**
+     * This returns which way kStatic pushes a wheel, which is the way it is turning, or the way it
+     * is being pushed if it is barely moving.
+     *
+     * @param wheelVelocity the wheel's velocity.
+     * @param power the power planned for the wheel.
+     * @return returns 1, -1, or 0 if the wheel is stopped and not being pushed.
+     */
+    private static double getStaticDirection(double wheelVelocity, double power) {
+        if (Math.abs(wheelVelocity) > 1) return Math.signum(wheelVelocity);
+        if (Math.abs(power) > 0.01) return Math.signum(power);
+        return 0;
+    }
+
+    /**
+     * This samples the pose the robot should be at after each step of the plan, starting from the
+     * closest point on the Path and moving along it at the reference speed.
+     *
+     * @param heading the robot's current heading, which the heading goals are unwrapped around.
+     * @param path the Path being followed.
+     * @param nextPath the next Path, or null.
+     * @param stopAtEnd if the robot stops at the end of the last Path.
+     */
+    private void sampleReference(double heading, Path path, Path nextPath, boolean stopAtEnd) {
+        double t = path.getClosestPointTValue();
+        boolean onNextPath = false;
+        double lastLength = nextPath != null ? nextPath.length() : path.length();
+        double deceleration = Math.abs(FollowerConstants.forwardZeroPowerAcceleration * path.getZeroPowerAccelerationMultiplier());
+        double previousGoal = heading;
+
+        for (int k = 0; k < horizon; k++) {
+            Path current = onNextPath ? nextPath : path;
+            Vector derivative = current.getDerivative(t);
+            double speed = derivative.getMagnitude();
+
+            double travelAngle = derivative.getTheta() - headings[k];
+            double wheelSpeedPerSpeed = Math.abs(Math.cos(travelAngle)) + strafeRatio * Math.abs(Math.sin(travelAngle));
+            double referenceSpeed = FollowerConstants.mpcMaxSpeedFraction * maxWheelVelocity / wheelSpeedPerSpeed;
+            double curvature = Math.abs(current.getCurvature(t));
+            if (curvature > 1e-6) {
+                referenceSpeed = Math.min(referenceSpeed, Math.sqrt(FollowerConstants.mpcMaxLateralAcceleration / curvature));
+            }
+            if (stopAtEnd && (onNextPath || nextPath == null)) {
+                referenceSpeed = Math.min(referenceSpeed, Math.sqrt(2 * deceleration * lastLength * (1 - t)));
+            }
+
+            if (speed > 1e-9) t += referenceSpeed * timeStep / speed;
+            if (t > 1) {
+                if (!onNextPath && nextPath != null) {
+                    t = Math.min(1, (t - 1) * speed / Math.max(1e-9, nextPath.getDerivative(0).getMagnitude()));
+                    onNextPath = true;
+                    current = nextPath;
+                } else {
+                    t = 1;
+                }
+            }
+
+            Point point = current.getPoint(t);
+            Vector tangent = current.getDerivative(t);
+            referenceX[k] = point.getX();
+            referenceY[k] = point.getY();
+            double tangentMagnitude = tangent.getMagnitude();
+            if (tangentMagnitude > 1e-9) {
+                tangentX[k] = tangent.getXComponent() / tangentMagnitude;
+                tangentY[k] = tangent.getYComponent() / tangentMagnitude;
+            } else {
+                tangentX[k] = Math.cos(previousGoal);
+                tangentY[k] = Math.sin(previousGoal);
+            }
+            previousGoal += getSignedAngleDifference(previousGoal, current.getHeadingGoal(t));
+            referenceHeading[k] = previousGoal;
+        }
+    }
+
+    /**
+     * This finds how the predicted pose at each step depends on the planned powers, and what it
+     * would be with all of the powers at 0.
+     *
+     * @param pose the robot's current pose.
+     */
+    private void buildPredictions(Pose pose) {
+        double forwardScale = timeStep / WHEELS;
+        double strafeScale = timeStep / (WHEELS * strafeRatio);
+        double turnScale = timeStep / (WHEELS * FollowerConstants.wheelTurnRadius);
+
+        double x = pose.getX(), y = pose.getY(), heading = pose.getHeading();
+        double w0 = wheelVelocities[0], w1 = wheelVelocities[1], w2 = wheelVelocities[2], w3 = wheelVelocities[3];
+        for (int k = 0; k < horizon; k++) {
+            w0 *= decay[0];
+            w1 *= decay[1];
+            w2 *= decay[2];
+            w3 *= decay[3];
+            double forward = forwardScale * (w0 + w1 + w2 + w3);
+            double strafe = strafeScale * (-w0 + w1 + w2 - w3);
+            double cos = headingCos[k];
+            double sin = headingSin[k];
+            x += cos * forward - sin * strafe;
+            y += sin * forward + cos * strafe;
+            heading += turnScale * (-w0 - w1 + w2 + w3);
+            freeResponse[3 * k] = x;
+            freeResponse[3 * k + 1] = y;
+            freeResponse[3 * k + 2] = heading;
+        }
+
+        // a power at step j changes its wheel's velocity at every step m after it by
+        // gain * decay^(m - 1 - j), which moves the pose at every step from m on
+        for (int j = 0; j < horizon; j++) {
+            for (int i = 0; i < WHEELS; i++) {
+                int column = j * WHEELS + i;
+                for (int k = 0; k < j; k++) {
+                    sensitivity[3 * k * size + column] = 0;
+                    sensitivity[(3 * k + 1) * size + column] = 0;
+                    sensitivity[(3 * k + 2) * size + column] = 0;
+                }
+                double velocityChange = gain[i];
+                double dx = 0, dy = 0, dHeading = 0;
+                for (int m = j; m < horizon; m++) {
+                    double forward = forwardScale * FORWARD[i] * velocityChange;
+                    double strafe = strafeScale * STRAFE[i] * velocityChange;
+                    double cos = headingCos[m];
+                    double sin = headingSin[m];
+                    dx += cos * forward - sin * strafe;
+                    dy += sin * forward + cos * strafe;
+                    dHeading += turnScale * TURN[i] * velocityChange;
+                    sensitivity[3 * m * size + column] = dx;
+                    sensitivity[(3 * m + 1) * size + column] = dy;
+                    sensitivity[(3 * m + 2) * size + column] = dHeading;
+                    velocityChange *= decay[i];
+                }
+            }
+        }
+    }
+
+    /**
+     * This fills in the quadratic program: the cost of the pose errors along the whole plan, split
+     * into the errors along and across the Path, plus the cost of the powers and of changing them,
+     * with each power bounded so the motor power stays within the max power.
+     *
+     * @param powerLimit the max power at the nominal voltage.
+     */
+    private void buildProblem(double powerLimit) {
+        double[] hessian = solver.getHessian();
+        double[] linear = solver.getLinear();
+        double[] lower = solver.getLower();
+        double[] upper = solver.getUpper();
+        double along = FollowerConstants.mpcAlongTrackWeight;
+        double across = FollowerConstants.mpcCrossTrackWeight;
+        double headingWeight = FollowerConstants.mpcHeadingWeight;
+        double powerWeight = FollowerConstants.mpcPowerWeight;
+        double changeWeight = FollowerConstants.mpcPowerChangeWeight;
+
+        for (int i = 0; i < size; i++) {
+            linear[i] = 0;
+        }
+
+        // weightedSensitivity = Q * sensitivity, and linear = sensitivityT * Q * (free - reference)
+        for (int k = 0; k < horizon; k++) {
+            double tx = tangentX[k], ty = tangentY[k];
+            double qxx = along * tx * tx + across * ty * ty;
+            double qyy = along * ty * ty + across * tx * tx;
+            double qxy = (along - across) * tx * ty;
+            double errorX = freeResponse[3 * k] - referenceX[k];
+            double errorY = freeResponse[3 * k + 1] - referenceY[k];
+            double errorHeading = freeResponse[3 * k + 2] - referenceHeading[k];
+            double weightedX = qxx * errorX + qxy * errorY;
+            double weightedY = qxy * errorX + qyy * errorY;
+            double weightedHeading = headingWeight * errorHeading;
+
+            int rowX = 3 * k * size, rowY = rowX + size, rowHeading = rowY + size;
+            for (int c = 0; c < size; c++) {
+                double sx = sensitivity[rowX + c], sy = sensitivity[rowY + c], sh = sensitivity[rowHeading + c];
+                weightedSensitivity[rowX + c] = qxx * sx + qxy * sy;
+                weightedSensitivity[rowY + c] = qxy * sx + qyy * sy;
+                weightedSensitivity[rowHeading + c] = headingWeight * sh;
+                linear[c] += sx * weightedX + sy * weightedY + sh * weightedHeading;
+            }
+        }
+
+        // hessian = sensitivityT * Q * sensitivity, which is symmetric, so only half is summed.
+        // The pose at step k only depends on powers up to step k, so rows before the later of the
+        // two columns' steps are all 0.
+        int rows = 3 * horizon;
+        for (int a = 0; a < size; a++) {
+            for (int b = a; b < size; b++) {
+                double sum = 0;
+                for (int r = 3 * (b / WHEELS); r < rows; r++) {
+                    sum += sensitivity[r * size + a] * weightedSensitivity[r * size + b];
+                }
+                hessian[a * size + b] = sum;
+                hessian[b * size + a] = sum;
+            }
+        }
+
+        // the power cost, and the cost of changing power from one step to the next, starting from
+        // the powers that were just used
+        for (int k = 0; k < horizon; k++) {
+            for (int i = 0; i < WHEELS; i++) {
+                int index = k * WHEELS + i;
+                hessian[index * size + index] += powerWeight + changeWeight * (k < horizon - 1 ? 2 : 1);
+                if (k < horizon - 1) {
+                    hessian[index * size + index + WHEELS] -= changeWeight;
+                    hessian[(index + WHEELS) * size + index] -= changeWeight;
+                }
+                lower[index] = -powerLimit - kStatic[i] * staticDirections[index];
+                upper[index] = powerLimit - kStatic[i] * staticDirections[index];
+            }
+        }
+        for (int i = 0; i < WHEELS; i++) {
+            linear[i] -= changeWeight * previousPowers[i];
+        }
+    }
+
+    /**
+     * This returns the signed angle to turn from one heading to another, between -pi and pi.
+     *
+     * @param from the heading to turn from.
+     * @param to the heading to turn to.
+     * @return returns the signed angle, positive being counter-clockwise.
+     */
+    private static double getSignedAngleDifference(double from, double to) {
+        double difference = (to - from) % (2 * Math.PI);
+        if (difference > Math.PI) difference -= 2 * Math.PI;
+        if (difference < -Math.PI) difference += 2 * Math.PI;
+        return difference;
+    }
+
+    /**
+     * @param value a value.
+     * @return returns the value, or 0 if it isn't finite.
+     */
+    private static double finiteOrZero(double value) {
+        return Double.isNaN(value) || Double.isInfinite(value) ? 0 : value;
+    }
+
+    /**
+     * This returns the motor powers from the last plan that finished in time, in the order left
+     * front, left rear, right front, right rear.
+     *
+     * IMPORTANT NOTE: the returned Array is reused between calls, so copy it if it needs to be kept.
+     *
+     * @return returns the motor powers.
+     */
+    public double[] getPowers() {
+        return powers;
+    }
+
+    /**
+     * @return returns how long planning takes, from the start of update() to the end of the solve.
+     */
+    public LatencyHistogram getSolveTimes() {
+        return solveTimes;
+    }
+
+    /**
+     * @return returns how many plans ran past the time budget.
+     */
+    public long getOverruns() {
+        return overruns;
+    }
+
+    /**
+     * @return returns how many plans have been solved.
+     */
+    public long getSolves() {
+        return solves;
+    }
+
+    /**
+     * @return returns how many plans ran out of iterations before converging.
+     */
+    public long getUnconverged() {
+        return unconverged;
+    }
+
+    /**
+     * @return returns how many iterations the last solve ran.
+     */
+    public int getLastIterations() {
+        return lastIterations;
+    }
+
+    /**
+     * This writes the planning times and how often planning ran out of time or iterations to the
+     * Telemetry specified.
+     *
+     * @param telemetry the Telemetry to write to.
+     */
+    public void debug(Telemetry telemetry) {
+        telemetry.addData("mpc solve p50/p99 (ms)", String.format("%.2f / %.2f", solveTimes.getPercentile(50), solveTimes.getPercentile(99)));
+        telemetry.addData("mpc iterations", lastIterations);
+        telemetry.addData("mpc solves", solves);
+        telemetry.addData("mpc overruns", overruns);
+        telemetry.addData("mpc unconverged", unconverged);
+    }
+}
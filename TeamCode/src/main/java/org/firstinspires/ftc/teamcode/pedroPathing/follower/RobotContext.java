@@ -0,0 +1,91 @@
+package org.firstinspires.ftc.teamcode.pedroPathing.follower;
+
+import com.qualcomm.robotcore.hardware.HardwareMap;
+
+/**
+ * This is the RobotContext class. It keeps one Follower, along with its drive motors and
+ * localizer, for the whole app, so OpModes don't have to set up the hardware again every time they
+ * are initialized. Setting up the localizer can take seconds, like when calibrating the OTOS IMU,
+ * and it also throws away the pose the robot ended the last OpMode at.
+ *
+ * The first call to getFollower() creates the Follower like normal. After that, the same Follower
+ * is returned as long as it is still using the hardware in the HardwareMap, and only the state that
+ * belongs to a single OpMode run, like the current Path and the PIDFs, is reset. If the robot was
+ * restarted or its configuration changed, the HardwareMap is new, so a new Follower is created.
+ *
+ * To use this, replace
+ * follower = new Follower(hardwareMap);
+ * with
+ * follower = RobotContext.getFollower(hardwareMap);
+ *
+ * When a new Follower is created, it starts at the pose saved to the PoseStore by the last OpMode,
+ * if that was recent, so the pose survives a robot controller restart too. OpModes that know where
+ * they start, like autonomous, should still call setStartingPose(). The tuning OpModes still
+ * create their own Follower, so they always start fresh at the origin.
+ *
+ * @version 1.0, 10/19/2026
+ */
+public class RobotContext {
+    private static Follower follower;
+    private static int followersCreated;
+    private static int followersReused;
+    private static boolean lastInitWasWarm;
+
+    private RobotContext() {
+    }
+
+    /**
+     * This returns the Follower for the app, creating it the first time or when the hardware has
+     * changed, and otherwise resetting it for a new OpMode. This should be called once in each
+     * OpMode's init.
+     *
+     * @param hardwareMap the HardwareMap of the OpMode.
+     * @return returns the Follower.
+     */
+    public static synchronized Follower getFollower(HardwareMap hardwareMap) {
+        if (follower != null && follower.usesHardware(hardwareMap)) {
+            follower.resetForNewOpMode();
+            followersReused++;
+            lastInitWasWarm = true;
+        } else {
+            // the old Follower's localizer may still be polling hardware from the old HardwareMap
+            if (follower != null) follower.stopPolling();
+            follower = new Follower(hardwareMap);
+            // a new Follower starts at the pose saved by the last OpMode, like after a restart
+            follower.restoreSavedPose();
+            followersCreated++;
+            lastInitWasWarm = false;
+        }
+        return follower;
+    }
+
+    /**
+     * This makes the next call to getFollower() create a new Follower, like if the drive or
+     * localizer setup was changed.
+     */
+    public static synchronized void invalidate() {
+        if (follower != null) follower.stopPolling();
+        follower = null;
+    }
+
+    /**
+     * @return returns if the last call to getFollower() reused the Follower.
+     */
+    public static synchronized boolean wasLastInitWarm() {
+        return lastInitWasWarm;
+    }
+
+    /**
+     * @return returns the number of Followers created so far.
+     */
+    public static synchronized int getFollowersCreated() {
+        return followersCreated;
+    }
+
+    /**
+     * @return returns the number of times the Follower was reused so far.
+     */
+    public static synchronized int getFollowersReused() {
+        return followersReused;
+    }
+}
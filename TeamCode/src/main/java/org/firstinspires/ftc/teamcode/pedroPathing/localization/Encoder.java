@@ -4,18 +4,29 @@ import com.qualcomm.robotcore.hardware.DcMotor;
 import com.qualcomm.robotcore.hardware.DcMotorEx;
 import com.qualcomm.robotcore.hardware.DcMotorSimple;
 
+import org.firstinspires.ftc.teamcode.pedroPathing.replay.RunFrame;
+import org.firstinspires.ftc.teamcode.pedroPathing.util.NanoTimer;
+
 /**
  * This is the Encoder class. This tracks the position of a motor of class DcMotorEx. The motor
- * must have an encoder attached. It can also get changes in position.
+ * must have an encoder attached. It can also get changes in position, and the velocity measured by
+ * the hub, which comes in the same bulk read as the position. An Encoder can also play back the
+ * raw positions recorded in a run log instead, so a Localizer can be re-run off of the robot.
  *
  * @author Anyi Lin - 10158 Scott's Bots
  * @version 1.0, 4/2/2024
  */
 public class Encoder {
     private DcMotorEx motor;
+    private RunFrame replayFrame;
+    private int replayIndex;
+    private double replayMotorDirection;
     private double previousPosition;
     private double currentPosition;
+    private double zeroOffset;
+    private double currentVelocity;
     private double multiplier;
+    private NanoTimer timer;
 
     public final static double FORWARD = 1, REVERSE = -1;
 
@@ -27,6 +38,31 @@ public class Encoder {
     public Encoder(DcMotorEx setMotor) {
         motor = setMotor;
         multiplier = FORWARD;
+        timer = new NanoTimer();
+        motor.setMode(DcMotor.RunMode.RUN_WITHOUT_ENCODER);
+        previousPosition = motor.getCurrentPosition();
+        currentPosition = previousPosition;
+        reset();
+    }
+
+    /**
+     * This creates a new Encoder that plays back the raw positions recorded in a RunFrame instead of
+     * reading a motor. The frame is read again on every update, so it should be the frame the
+     * RunReplayer plays back. The hub's velocity is not recorded, so the velocity is found from the
+     * change in position over the change in time instead.
+     *
+     * @param frame the frame to read the raw positions from
+     * @param index which of the frame's encoder readings to play back
+     * @param motorDirection the direction the motor was set to on the robot, FORWARD or REVERSE
+     */
+    public Encoder(RunFrame frame, int index, double motorDirection) {
+        replayFrame = frame;
+        replayIndex = index;
+        replayMotorDirection = motorDirection;
+        multiplier = FORWARD;
+        timer = new NanoTimer();
+        previousPosition = frame.encoderTicks[index];
+        currentPosition = previousPosition;
         reset();
     }
 
@@ -42,21 +78,41 @@ public class Encoder {
     }
 
     /**
-     * This resets the Encoder's position and the current and previous position in the code.
+     * This resets the Encoder's position to 0. This only moves the software zero offset to the
+     * position read in the last update, so it never touches the motor and can be done in the middle
+     * of a path without stopping the drivetrain. The change in position since the last update is
+     * still counted in the next update, so no movement is lost.
      */
     public void reset() {
-        motor.setMode(DcMotor.RunMode.STOP_AND_RESET_ENCODER);
-        previousPosition = motor.getCurrentPosition();
-        currentPosition = motor.getCurrentPosition();
-        motor.setMode(DcMotor.RunMode.RUN_WITHOUT_ENCODER);
+        zeroOffset = currentPosition;
     }
 
     /**
-     * This updates the Encoder's tracked current position and previous position.
+     * This updates the Encoder's tracked current position, previous position, and velocity.
      */
     public void update() {
         previousPosition = currentPosition;
-        currentPosition = motor.getCurrentPosition();
+        currentPosition = motor != null ? motor.getCurrentPosition() : replayFrame.encoderTicks[replayIndex];
+
+        double deltaTime = timer.getElapsedTimeSeconds();
+        timer.resetTimer();
+        double estimatedVelocity = deltaTime > 0 ? (currentPosition - previousPosition) / deltaTime : 0;
+        currentVelocity = motor != null ? correctOverflow(motor.getVelocity(), estimatedVelocity) : estimatedVelocity;
+    }
+
+    /**
+     * This fixes a velocity read from the hub that has overflowed. The hub sends velocities as 16 bit
+     * numbers, so high resolution encoders like the REV Through Bore Encoder wrap around past
+     * 32767 ticks per second. The change in position over the last loop is not precise, but it is
+     * easily good enough to tell how many times the velocity has wrapped around.
+     *
+     * @param velocity the velocity read from the hub, in ticks per second.
+     * @param estimatedVelocity the change in position divided by the change in time, in ticks per
+     *                          second.
+     * @return returns the corrected velocity, in ticks per second.
+     */
+    private static double correctOverflow(double velocity, double estimatedVelocity) {
+        return velocity + Math.round((estimatedVelocity - velocity) / 65536.0) * 65536.0;
     }
 
     /**
@@ -65,19 +121,58 @@ public class Encoder {
      * @return returns the multiplier
      */
     public double getMultiplier() {
+        if (motor == null) return multiplier * replayMotorDirection;
         return multiplier * (motor.getDirection() == DcMotorSimple.Direction.FORWARD ? 1 : -1);
     }
 
     /**
-     * This returns the change in position from the previous position to the current position. One
-     * important thing to note is that this encoder does not track velocity, only change in position.
-     * This is because I am using a pose exponential method of localization, which doesn't need the
-     * velocity of the encoders. Velocity of the robot is calculated in the localizer using an elapsed
-     * time timer there.
+     * This returns the position of the Encoder, in ticks, since the last reset, as of the last
+     * update. This does not read the motor again.
+     *
+     * @return returns the position of the Encoder
+     */
+    public int getCurrentPosition() {
+        return (int) (currentPosition - zeroOffset);
+    }
+
+    /**
+     * This returns the position the motor reported in the last update, in ticks, without the zero
+     * offset from reset() taken off. This does not read the motor again.
+     *
+     * @return returns the raw position of the Encoder
+     */
+    public int getRawPosition() {
+        return (int) currentPosition;
+    }
+
+    /**
+     * This returns the raw position that reset() last made the zero of the Encoder, in ticks.
+     *
+     * @return returns the zero offset of the Encoder
+     */
+    public int getZeroOffset() {
+        return (int) zeroOffset;
+    }
+
+    /**
+     * This returns the change in position from the previous position to the current position. The
+     * localizers use this with the pose exponential method to track position.
      *
      * @return returns the change in position of the Encoder
      */
     public double getDeltaPosition() {
         return getMultiplier() * (currentPosition - previousPosition);
     }
+
+    /**
+     * This returns the velocity of the Encoder measured by the hub, as of the last update. The hub
+     * times the encoder counts itself, so this is much less noisy than dividing the change in
+     * position by the loop time, and it is part of the bulk read, so it costs no extra hardware
+     * calls.
+     *
+     * @return returns the velocity of the Encoder, in ticks per second
+     */
+    public double getVelocity() {
+        return getMultiplier() * currentVelocity;
+    }
 }
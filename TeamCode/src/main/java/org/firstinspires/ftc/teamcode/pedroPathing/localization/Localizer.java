@@ -1,6 +1,7 @@
 package org.firstinspires.ftc.teamcode.pedroPathing.localization;
 
 import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.Vector;
+import org.firstinspires.ftc.teamcode.pedroPathing.replay.RunFrame;
 
 /**
  * This is the Localizer class. It is an abstract superclass of all localizers used in Pedro Pathing,
@@ -86,4 +87,30 @@ public abstract class Localizer {
      * @return returns the turning ticks to radians multiplier
      */
     public abstract double getTurningMultiplier();
+
+    /**
+     * This writes the raw sensor readings from the last update into a RunFrame, so they can be
+     * recorded with the RunRecorder. This should only copy readings that were already made in
+     * update(), and never read the hardware again. Localizers without raw readings to record can
+     * leave this as is.
+     *
+     * @param frame the frame to write the readings into
+     */
+    public void recordRawData(RunFrame frame) {
+    }
+
+    /**
+     * This stops any background thread the localizer reads its hardware on, so it doesn't keep
+     * running after the OpMode that made it is done. Localizers that only read on the calling
+     * thread can leave this as is.
+     */
+    public void stopPolling() {
+    }
+
+    /**
+     * This recalibrates the localizer's IMU, if it has one that can be. The robot has to stay still
+     * while this runs. Localizers without one can leave this as is.
+     */
+    public void calibrateIMU() {
+    }
 }
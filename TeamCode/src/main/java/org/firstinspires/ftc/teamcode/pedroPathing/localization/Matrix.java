@@ -8,17 +8,28 @@ import java.util.Arrays;
  * MathFunctions class can absolutely be used there as well. It's similar to Mats in OpenCV if you've
  * used them before, but with more limited functionality.
  *
+ * The elements are stored in one flat Array in row-major order, so getting and setting elements
+ * never copies anything. A Matrix can also be a view into a block of another Matrix, sharing its
+ * memory. The static methods ending in Into write their result into a Matrix that already exists,
+ * and the Cholesky and LU methods solve small systems in place, so none of these allocate and they
+ * can all be used in the control loop.
+ *
  * @author Anyi Lin - 10158 Scott's Bots
  * @version 1.0, 4/2/2024
  */
 public class Matrix {
-    private double[][] matrix;
+    private double[] data;
+    private int offset;
+    private int stride;
+    private int rows;
+    private int columns;
+    private boolean isView;
 
     /**
      * This creates a new Matrix of width and height 0.
      */
     public Matrix() {
-        matrix = new double[0][0];
+        this(0, 0);
     }
 
     /**
@@ -28,7 +39,11 @@ public class Matrix {
      * @param columns the number of columns, or width
      */
     public Matrix(int rows, int columns) {
-        matrix = new double[rows][columns];
+        data = new double[rows * columns];
+        offset = 0;
+        stride = columns;
+        this.rows = rows;
+        this.columns = columns;
     }
 
     /**
@@ -38,6 +53,7 @@ public class Matrix {
      * @param setMatrix the 2D Array of doubles
      */
     public Matrix(double[][] setMatrix) {
+        this(0, 0);
         setMatrix(setMatrix);
     }
 
@@ -47,7 +63,26 @@ public class Matrix {
      * @param setMatrix the Matrix input.
      */
     public Matrix(Matrix setMatrix) {
-        setMatrix(setMatrix);
+        this(setMatrix.rows, setMatrix.columns);
+        copyInto(setMatrix, this);
+    }
+
+    /**
+     * This creates a new Matrix that is a view into a block of another Matrix's memory.
+     *
+     * @param data the memory of the other Matrix
+     * @param offset the index in the memory of the view's first element
+     * @param stride the distance in the memory between rows
+     * @param rows the number of rows of the view
+     * @param columns the number of columns of the view
+     */
+    private Matrix(double[] data, int offset, int stride, int rows, int columns) {
+        this.data = data;
+        this.offset = offset;
+        this.stride = stride;
+        this.rows = rows;
+        this.columns = columns;
+        isView = true;
     }
 
     /**
@@ -66,12 +101,33 @@ public class Matrix {
     }
 
     /**
-     * This returns a deep copy of the 2D Array that this Matrix is based on.
+     * This returns a deep copy of the elements of this Matrix as a 2D Array.
      *
-     * @return returns the 2D Array of doubles this Matrix is built on
+     * @return returns the 2D Array of doubles this Matrix holds
      */
     public double[][] getMatrix() {
-        return deepCopy(matrix);
+        double[][] returnMatrix = new double[rows][];
+        for (int i = 0; i < rows; i++) {
+            returnMatrix[i] = get(i);
+        }
+        return returnMatrix;
+    }
+
+    /**
+     * This returns a view into a block of this Matrix. The view shares this Matrix's memory, so
+     * changing an element of one changes it in the other.
+     *
+     * @param startRow the row of this Matrix the view starts at
+     * @param startColumn the column of this Matrix the view starts at
+     * @param viewRows the number of rows of the view
+     * @param viewColumns the number of columns of the view
+     * @return returns the view
+     */
+    public Matrix view(int startRow, int startColumn, int viewRows, int viewColumns) {
+        if (startRow < 0 || startColumn < 0 || viewRows < 0 || viewColumns < 0 || startRow + viewRows > rows || startColumn + viewColumns > columns) {
+            throw new IndexOutOfBoundsException("view of " + viewRows + "x" + viewColumns + " at (" + startRow + ", " + startColumn + ") does not fit in a " + rows + "x" + columns + " Matrix");
+        }
+        return new Matrix(data, index(startRow, startColumn), stride, viewRows, viewColumns);
     }
 
     /**
@@ -81,7 +137,7 @@ public class Matrix {
      * @return returns the row of the Matrix specified
      */
     public double[] get(int row) {
-        return Arrays.copyOf(matrix[row], matrix[row].length);
+        return Arrays.copyOfRange(data, index(row, 0), index(row, 0) + columns);
     }
 
     /**
@@ -92,53 +148,58 @@ public class Matrix {
      * @return returns the element of the Matrix specified
      */
     public double get(int row, int column) {
-        return get(row)[column];
+        return data[index(row, column)];
     }
 
     /**
-     * This returns the number of rows of the Matrix, as determined by the length of the 2D Array.
-     * If the Matrix/2D Array is not rectangular, issues arise.
+     * This returns the number of rows of the Matrix.
      *
      * @return returns the number of rows in the Matrix
      */
     public int getRows() {
-        return matrix.length;
+        return rows;
     }
 
     /**
-     * This returns the number of columns of the Matrix, as determined by the length of the first Array
-     * in the 2D Array. If the Matrix/2D Array is not rectangular, issues arise.
+     * This returns the number of columns of the Matrix.
      *
      * @return returns the number of columns in the Matrix
      */
     public int getColumns() {
-        return matrix[0].length;
+        return columns;
     }
 
     /**
-     * This sets the 2D Array of this Matrix to a copy of the 2D Array of another Matrix.
+     * This sets the elements of this Matrix to a copy of the elements of another Matrix. If the
+     * sizes are different, this Matrix takes the other one's size, unless this Matrix is a view.
      *
      * @param setMatrix the Matrix to copy from
      * @return returns if the operation was successful
      */
     public boolean setMatrix(Matrix setMatrix) {
-        return setMatrix(setMatrix.getMatrix());
+        if (!resize(setMatrix.rows, setMatrix.columns)) return false;
+        copyInto(setMatrix, this);
+        return true;
     }
 
     /**
-     * This sets the 2D Array of this Matrix to a copy of a specified 2D Array.
+     * This sets the elements of this Matrix to a copy of a specified 2D Array. If the sizes are
+     * different, this Matrix takes the Array's size, unless this Matrix is a view.
      *
      * @param setMatrix the 2D Array to copy from
      * @return returns if the operation was successful
      */
     public boolean setMatrix(double[][] setMatrix) {
-        int columns = setMatrix[0].length;
+        int setColumns = setMatrix[0].length;
         for (int i = 0; i < setMatrix.length; i++) {
-            if (setMatrix[i].length != columns) {
+            if (setMatrix[i].length != setColumns) {
                 return false;
             }
         }
-        matrix = deepCopy(setMatrix);
+        if (!resize(setMatrix.length, setColumns)) return false;
+        for (int i = 0; i < rows; i++) {
+            System.arraycopy(setMatrix[i], 0, data, index(i, 0), columns);
+        }
         return true;
     }
 
@@ -153,7 +214,7 @@ public class Matrix {
         if (input.length != getColumns()) {
             return false;
         }
-        matrix[row] = Arrays.copyOf(input, input.length);
+        System.arraycopy(input, 0, data, index(row, 0), columns);
         return true;
     }
 
@@ -166,10 +227,29 @@ public class Matrix {
      * @return returns if the operation was successful
      */
     public boolean set(int row, int column, double input) {
-        matrix[row][column] = input;
+        data[index(row, column)] = input;
         return true;
     }
 
+    /**
+     * This sets every element of the Matrix to 0.
+     */
+    public void clear() {
+        for (int i = 0; i < rows; i++) {
+            Arrays.fill(data, index(i, 0), index(i, 0) + columns, 0);
+        }
+    }
+
+    /**
+     * This sets this Matrix to the identity matrix. The Matrix should be square.
+     */
+    public void setIdentity() {
+        clear();
+        for (int i = 0; i < Math.min(rows, columns); i++) {
+            set(i, i, 1);
+        }
+    }
+
     /**
      * This adds a Matrix to this Matrix.
      *
@@ -177,15 +257,7 @@ public class Matrix {
      * @return returns if the operation was successful
      */
     public boolean add(Matrix input) {
-        if (input.getRows() == getRows() && input.getColumns() == getColumns()) {
-            for (int i = 0; i < getRows(); i++) {
-                for (int j = 0; j < getColumns(); j++) {
-                    set(i, j, get(i,j) + input.get(i,j));
-                }
-            }
-            return true;
-        }
-        return false;
+        return addInto(this, input, this);
     }
 
     /**
@@ -195,15 +267,7 @@ public class Matrix {
      * @return returns if the operation was successful
      */
     public boolean subtract(Matrix input) {
-        if (input.getRows() == getRows() && input.getColumns() == getColumns()) {
-            for (int i = 0; i < getRows(); i++) {
-                for (int j = 0; j < getColumns(); j++) {
-                    set(i, j, get(i,j) - input.get(i,j));
-                }
-            }
-            return true;
-        }
-        return false;
+        return subtractInto(this, input, this);
     }
 
     /**
@@ -213,9 +277,10 @@ public class Matrix {
      * @return returns if the operation was successful
      */
     public boolean scalarMultiply(double scalar) {
-        for (int i = 0; i < getRows(); i++) {
-            for (int j = 0; j < getColumns(); j++) {
-                set(i, j, scalar * get(i,j));
+        for (int i = 0; i < rows; i++) {
+            int rowStart = index(i, 0);
+            for (int j = 0; j < columns; j++) {
+                data[rowStart + j] *= scalar;
             }
         }
         return true;
@@ -231,7 +296,8 @@ public class Matrix {
     }
 
     /**
-     * This multiplies a Matrix to this Matrix.
+     * This multiplies a Matrix to this Matrix. If the product is a different size, this Matrix
+     * takes its size, which allocates new memory, so multiplyInto() should be used in loops.
      *
      * @param input the Matrix to multiply to this. Nothing will change in this Matrix
      * @return returns if the operation was successful
@@ -239,17 +305,8 @@ public class Matrix {
     public boolean multiply(Matrix input) {
         if (getColumns() == input.getRows()) {
             Matrix product = new Matrix(getRows(), input.getColumns());
-            for (int i = 0; i < product.getRows(); i++) {
-                for (int j = 0; j < product.getColumns(); j++) {
-                    double value = 0;
-                    for (int k = 0; k < get(i).length; k++) {
-                        value += get(i, k) * input.get(k, j);
-                    }
-                    product.set(i, j, value);
-                }
-            }
-            setMatrix(product);
-            return true;
+            multiplyInto(this, input, product);
+            return setMatrix(product);
         }
         return false;
     }
@@ -263,11 +320,335 @@ public class Matrix {
      * @return returns if the operation was successful
      */
     public static Matrix multiply(Matrix one, Matrix two) {
-        Matrix returnMatrix = new Matrix(one);
-        if (returnMatrix.multiply(two)) {
-            return returnMatrix;
-        } else {
+        if (one.getColumns() != two.getRows()) {
             return new Matrix();
         }
+        Matrix returnMatrix = new Matrix(one.getRows(), two.getColumns());
+        multiplyInto(one, two, returnMatrix);
+        return returnMatrix;
+    }
+
+    /**
+     * This multiplies two Matrices and writes the product into a third Matrix of the right size.
+     * The output can't be either of the inputs or share memory with them.
+     *
+     * @param one the first Matrix to multiply
+     * @param two the second Matrix to multiply
+     * @param out the Matrix to write the product into
+     * @return returns if the operation was successful
+     */
+    public static boolean multiplyInto(Matrix one, Matrix two, Matrix out) {
+        if (one.columns != two.rows || out.rows != one.rows || out.columns != two.columns || out.data == one.data || out.data == two.data) {
+            return false;
+        }
+        for (int i = 0; i < one.rows; i++) {
+            int oneRow = one.index(i, 0);
+            int outRow = out.index(i, 0);
+            for (int j = 0; j < two.columns; j++) {
+                double value = 0;
+                int twoIndex = two.index(0, j);
+                for (int k = 0; k < one.columns; k++) {
+                    value += one.data[oneRow + k] * two.data[twoIndex];
+                    twoIndex += two.stride;
+                }
+                out.data[outRow + j] = value;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * This adds two Matrices of the same size and writes the sum into a third Matrix of that size.
+     * The output can be one of the inputs.
+     *
+     * @param one the first Matrix to add
+     * @param two the second Matrix to add
+     * @param out the Matrix to write the sum into
+     * @return returns if the operation was successful
+     */
+    public static boolean addInto(Matrix one, Matrix two, Matrix out) {
+        if (!sameSize(one, two) || !sameSize(one, out)) {
+            return false;
+        }
+        for (int i = 0; i < one.rows; i++) {
+            int oneRow = one.index(i, 0);
+            int twoRow = two.index(i, 0);
+            int outRow = out.index(i, 0);
+            for (int j = 0; j < one.columns; j++) {
+                out.data[outRow + j] = one.data[oneRow + j] + two.data[twoRow + j];
+            }
+        }
+        return true;
+    }
+
+    /**
+     * This subtracts a Matrix from another of the same size and writes the difference into a third
+     * Matrix of that size. The output can be one of the inputs.
+     *
+     * @param one the Matrix to subtract from
+     * @param two the Matrix to subtract
+     * @param out the Matrix to write the difference into
+     * @return returns if the operation was successful
+     */
+    public static boolean subtractInto(Matrix one, Matrix two, Matrix out) {
+        if (!sameSize(one, two) || !sameSize(one, out)) {
+            return false;
+        }
+        for (int i = 0; i < one.rows; i++) {
+            int oneRow = one.index(i, 0);
+            int twoRow = two.index(i, 0);
+            int outRow = out.index(i, 0);
+            for (int j = 0; j < one.columns; j++) {
+                out.data[outRow + j] = one.data[oneRow + j] - two.data[twoRow + j];
+            }
+        }
+        return true;
+    }
+
+    /**
+     * This transposes a Matrix and writes the result into another Matrix with the rows and columns
+     * swapped. The output can't be the input or share memory with it.
+     *
+     * @param input the Matrix to transpose
+     * @param out the Matrix to write the transpose into
+     * @return returns if the operation was successful
+     */
+    public static boolean transposeInto(Matrix input, Matrix out) {
+        if (out.rows != input.columns || out.columns != input.rows || out.data == input.data) {
+            return false;
+        }
+        for (int i = 0; i < input.rows; i++) {
+            for (int j = 0; j < input.columns; j++) {
+                out.data[out.index(j, i)] = input.data[input.index(i, j)];
+            }
+        }
+        return true;
+    }
+
+    /**
+     * This copies the elements of a Matrix into another Matrix of the same size.
+     *
+     * @param input the Matrix to copy from
+     * @param out the Matrix to copy into
+     * @return returns if the operation was successful
+     */
+    public static boolean copyInto(Matrix input, Matrix out) {
+        if (!sameSize(input, out)) {
+            return false;
+        }
+        for (int i = 0; i < input.rows; i++) {
+            System.arraycopy(input.data, input.index(i, 0), out.data, out.index(i, 0), input.columns);
+        }
+        return true;
+    }
+
+    /**
+     * This finds the Cholesky decomposition of a symmetric positive definite Matrix, which is the
+     * lower triangular Matrix L where L * L^T is the input. Only the lower triangle of the input is
+     * read. The output can be the input, to decompose it in place.
+     *
+     * @param input the symmetric positive definite Matrix to decompose
+     * @param out the Matrix to write L into, which has the same size as the input
+     * @return returns if the operation was successful, which it is not if the input is not positive
+     *         definite
+     */
+    public static boolean choleskyDecompose(Matrix input, Matrix out) {
+        int n = input.rows;
+        if (input.columns != n || !sameSize(input, out)) {
+            return false;
+        }
+        for (int j = 0; j < n; j++) {
+            double diagonal = input.get(j, j);
+            for (int k = 0; k < j; k++) {
+                diagonal -= out.get(j, k) * out.get(j, k);
+            }
+            if (!(diagonal > 0)) {
+                return false;
+            }
+            diagonal = Math.sqrt(diagonal);
+            out.set(j, j, diagonal);
+
+            for (int i = j + 1; i < n; i++) {
+                double value = input.get(i, j);
+                for (int k = 0; k < j; k++) {
+                    value -= out.get(i, k) * out.get(j, k);
+                }
+                out.set(i, j, value / diagonal);
+            }
+            for (int i = 0; i < j; i++) {
+                out.set(i, j, 0);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * This solves A * X = B for X, using the Cholesky decomposition L of A from
+     * choleskyDecompose(). B can have more than one column. The output can be B, to solve in place.
+     *
+     * @param decomposition the Cholesky decomposition of A
+     * @param input the right hand side B
+     * @param out the Matrix to write X into, which has the same size as B
+     * @return returns if the operation was successful
+     */
+    public static boolean choleskySolve(Matrix decomposition, Matrix input, Matrix out) {
+        int n = decomposition.rows;
+        if (decomposition.columns != n || input.rows != n || !sameSize(input, out)) {
+            return false;
+        }
+        for (int column = 0; column < input.columns; column++) {
+            // L * y = b, going forward
+            for (int i = 0; i < n; i++) {
+                double value = input.get(i, column);
+                for (int k = 0; k < i; k++) {
+                    value -= decomposition.get(i, k) * out.get(k, column);
+                }
+                out.set(i, column, value / decomposition.get(i, i));
+            }
+            // L^T * x = y, going backward
+            for (int i = n - 1; i >= 0; i--) {
+                double value = out.get(i, column);
+                for (int k = i + 1; k < n; k++) {
+                    value -= decomposition.get(k, i) * out.get(k, column);
+                }
+                out.set(i, column, value / decomposition.get(i, i));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * This finds the LU decomposition of a square Matrix with partial pivoting. The output holds
+     * both L, below the diagonal with an implied diagonal of ones, and U, on and above the diagonal.
+     * The output can be the input, to decompose it in place.
+     *
+     * @param input the square Matrix to decompose
+     * @param out the Matrix to write L and U into, which has the same size as the input
+     * @param pivots an Array with one element per row, which the row swaps are written into
+     * @return returns if the operation was successful, which it is not if the input is singular
+     */
+    public static boolean luDecompose(Matrix input, Matrix out, int[] pivots) {
+        int n = input.rows;
+        if (input.columns != n || !sameSize(input, out) || pivots.length < n) {
+            return false;
+        }
+        if (out != input) {
+            copyInto(input, out);
+        }
+        for (int k = 0; k < n; k++) {
+            int pivot = k;
+            double largest = Math.abs(out.get(k, k));
+            for (int i = k + 1; i < n; i++) {
+                if (Math.abs(out.get(i, k)) > largest) {
+                    largest = Math.abs(out.get(i, k));
+                    pivot = i;
+                }
+            }
+            if (largest == 0) {
+                return false;
+            }
+            pivots[k] = pivot;
+            if (pivot != k) {
+                for (int j = 0; j < n; j++) {
+                    double swap = out.get(k, j);
+                    out.set(k, j, out.get(pivot, j));
+                    out.set(pivot, j, swap);
+                }
+            }
+            for (int i = k + 1; i < n; i++) {
+                double factor = out.get(i, k) / out.get(k, k);
+                out.set(i, k, factor);
+                for (int j = k + 1; j < n; j++) {
+                    out.set(i, j, out.get(i, j) - factor * out.get(k, j));
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * This solves A * X = B for X, using the LU decomposition of A from luDecompose(). B can have
+     * more than one column. The output can be B, to solve in place.
+     *
+     * @param decomposition the LU decomposition of A
+     * @param pivots the row swaps from the decomposition
+     * @param input the right hand side B
+     * @param out the Matrix to write X into, which has the same size as B
+     * @return returns if the operation was successful
+     */
+    public static boolean luSolve(Matrix decomposition, int[] pivots, Matrix input, Matrix out) {
+        int n = decomposition.rows;
+        if (decomposition.columns != n || input.rows != n || !sameSize(input, out) || pivots.length < n) {
+            return false;
+        }
+        if (out != input) {
+            copyInto(input, out);
+        }
+        for (int column = 0; column < out.columns; column++) {
+            for (int i = 0; i < n; i++) {
+                if (pivots[i] != i) {
+                    double swap = out.get(i, column);
+                    out.set(i, column, out.get(pivots[i], column));
+                    out.set(pivots[i], column, swap);
+                }
+            }
+            // L * y = Pb, going forward
+            for (int i = 1; i < n; i++) {
+                double value = out.get(i, column);
+                for (int k = 0; k < i; k++) {
+                    value -= decomposition.get(i, k) * out.get(k, column);
+                }
+                out.set(i, column, value);
+            }
+            // U * x = y, going backward
+            for (int i = n - 1; i >= 0; i--) {
+                double value = out.get(i, column);
+                for (int k = i + 1; k < n; k++) {
+                    value -= decomposition.get(i, k) * out.get(k, column);
+                }
+                out.set(i, column, value / decomposition.get(i, i));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * This returns if two Matrices have the same number of rows and columns.
+     *
+     * @param one the first Matrix
+     * @param two the second Matrix
+     * @return returns if the sizes match
+     */
+    private static boolean sameSize(Matrix one, Matrix two) {
+        return one.rows == two.rows && one.columns == two.columns;
+    }
+
+    /**
+     * This changes the size of this Matrix, allocating new memory if the size is different. Views
+     * can't change size.
+     *
+     * @param newRows the new number of rows
+     * @param newColumns the new number of columns
+     * @return returns if this Matrix now has the new size
+     */
+    private boolean resize(int newRows, int newColumns) {
+        if (newRows == rows && newColumns == columns) return true;
+        if (isView) return false;
+        data = new double[newRows * newColumns];
+        stride = newColumns;
+        rows = newRows;
+        columns = newColumns;
+        return true;
+    }
+
+    /**
+     * This returns the index in the memory of an element of this Matrix.
+     *
+     * @param row the row of the element
+     * @param column the column of the element
+     * @return returns the index of the element
+     */
+    private int index(int row, int column) {
+        return offset + row * stride + column;
     }
 }
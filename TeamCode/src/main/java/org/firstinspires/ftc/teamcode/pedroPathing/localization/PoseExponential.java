@@ -0,0 +1,96 @@
+package org.firstinspires.ftc.teamcode.pedroPathing.localization;
+
+/**
+ * This is the PoseExponential class. It turns movement measured from the robot's perspective into
+ * movement on the field, which is what every odometry localizer needs to do each update.
+ *
+ * A change in position from the robot's perspective is integrated with the pose exponential, which
+ * assumes the robot moved along a constant curvature arc over the update instead of in a straight
+ * line, so turning while driving does not add up to drift. A velocity only needs to be rotated by
+ * the robot's heading.
+ *
+ * Both methods write into an Array of length 3 holding x, y, and heading, so they can be used from
+ * high rate loops without allocating anything.
+ *
+ * @version 1.0, 10/19/2026
+ */
+public class PoseExponential {
+
+    /**
+     * This calculates the change in position on the field from a change in position from the
+     * perspective of the robot, using the pose exponential method.
+     *
+     * @param heading the heading of the robot before the change, in radians.
+     * @param forward the robot relative forward movement, in inches.
+     * @param strafe the robot relative strafe movement, in inches, with left being positive.
+     * @param turn the change in heading, in radians.
+     * @param globalDeltas the Array to write the field relative change in x, y, and heading into.
+     */
+    public static void getGlobalDeltas(double heading, double forward, double strafe, double turn, double[] globalDeltas) {
+        double sinTerm;
+        double cosTerm;
+        if (Math.abs(turn) < 0.001) {
+            sinTerm = 1.0 - (turn * turn / 6.0);
+            cosTerm = turn / 2.0;
+        } else {
+            sinTerm = Math.sin(turn) / turn;
+            cosTerm = (1.0 - Math.cos(turn)) / turn;
+        }
+
+        double arcForward = sinTerm * forward - cosTerm * strafe;
+        double arcStrafe = cosTerm * forward + sinTerm * strafe;
+
+        double cos = Math.cos(heading);
+        double sin = Math.sin(heading);
+        globalDeltas[0] = cos * arcForward - sin * arcStrafe;
+        globalDeltas[1] = sin * arcForward + cos * arcStrafe;
+        globalDeltas[2] = turn;
+    }
+
+    /**
+     * This calculates the change in position on the field from a change in position from the
+     * perspective of the robot, using the pose exponential method.
+     *
+     * @param heading the heading of the robot before the change, in radians.
+     * @param robotDeltas a Matrix containing the robot relative forward, strafe, and turning
+     *                    movement.
+     * @return returns the field relative change in position as a Pose.
+     */
+    public static Pose getGlobalDeltas(double heading, Matrix robotDeltas) {
+        double[] globalDeltas = new double[3];
+        getGlobalDeltas(heading, robotDeltas.get(0, 0), robotDeltas.get(1, 0), robotDeltas.get(2, 0), globalDeltas);
+        return new Pose(globalDeltas[0], globalDeltas[1], globalDeltas[2]);
+    }
+
+    /**
+     * This calculates the velocity on the field from a velocity from the perspective of the robot.
+     *
+     * @param heading the current heading of the robot, in radians.
+     * @param forward the robot relative forward velocity, in inches per second.
+     * @param strafe the robot relative strafe velocity, in inches per second, with left being
+     *               positive.
+     * @param turn the turning velocity, in radians per second.
+     * @param globalVelocity the Array to write the field relative x, y, and heading velocity into.
+     */
+    public static void getGlobalVelocity(double heading, double forward, double strafe, double turn, double[] globalVelocity) {
+        double cos = Math.cos(heading);
+        double sin = Math.sin(heading);
+        globalVelocity[0] = cos * forward - sin * strafe;
+        globalVelocity[1] = sin * forward + cos * strafe;
+        globalVelocity[2] = turn;
+    }
+
+    /**
+     * This calculates the velocity on the field from a velocity from the perspective of the robot.
+     *
+     * @param heading the current heading of the robot, in radians.
+     * @param robotVelocities a Matrix containing the robot relative forward, strafe, and turning
+     *                        velocity.
+     * @return returns the field relative velocity as a Pose.
+     */
+    public static Pose getGlobalVelocity(double heading, Matrix robotVelocities) {
+        double[] globalVelocity = new double[3];
+        getGlobalVelocity(heading, robotVelocities.get(0, 0), robotVelocities.get(1, 0), robotVelocities.get(2, 0), globalVelocity);
+        return new Pose(globalVelocity[0], globalVelocity[1], globalVelocity[2]);
+    }
+}
@@ -0,0 +1,228 @@
+package org.firstinspires.ftc.teamcode.pedroPathing.localization;
+
+import com.acmerobotics.dashboard.config.Config;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * This is the PoseStore class. It keeps the latest pose of the robot in a small file, so the pose
+ * survives between OpModes, like going from autonomous to teleop, and through a robot controller
+ * restart in the middle of a match.
+ *
+ * The file is memory mapped, so saving a pose is just a few writes to memory, and the operating
+ * system writes the page to storage on its own. The file is never synced, so saving never waits.
+ * Since the page belongs to the operating system and not the app, the last saved pose is kept even
+ * if the app crashes.
+ *
+ * The file has two slots, and saves alternate between them. Each slot has a sequence number, the
+ * time it was saved, the pose, and a checksum of all of those. When loading, the newest slot with a
+ * matching checksum is used, so a save that was cut off halfway through, like by a power loss, just
+ * falls back to the save before it.
+ *
+ * There is only one PoseStore per app, and it should only be saved to from one thread, which is
+ * normally the OpMode thread through the PoseUpdater.
+ *
+ * @version 1.0, 10/19/2026
+ */
+@Config
+public class PoseStore {
+    public static final int MAGIC = 0x50505053;
+    public static final int VERSION = 1;
+
+    // When this is true, the PoseUpdater saves the pose every update, and restoreSavedPose() can
+    // restore it
+    public static boolean ENABLED = true;
+
+    // The file the pose is kept in
+    public static String POSE_FILE = "/sdcard/FIRST/pedroPathing/pose.dat";
+
+    // How old a saved pose can be and still be restored, in milliseconds
+    public static long MAX_RESTORE_AGE = 60000;
+
+    private static final int HEADER_SIZE = 16;
+    private static final int SLOT_SIZE = 48;
+    private static final int FILE_SIZE = HEADER_SIZE + 2 * SLOT_SIZE;
+
+    private static final int SEQUENCE = 0;
+    private static final int TIME = 8;
+    private static final int X = 16;
+    private static final int Y = 24;
+    private static final int HEADING = 32;
+    private static final int CHECKSUM = 40;
+
+    private static PoseStore instance;
+
+    private final MappedByteBuffer buffer;
+    private long sequence;
+
+    /**
+     * This returns the PoseStore, opening the file the first time this is called. If the file can't
+     * be opened, like when not on the robot, the PoseStore returned doesn't save or load anything.
+     *
+     * @return returns the PoseStore.
+     */
+    public static synchronized PoseStore getInstance() {
+        if (instance == null) {
+            instance = new PoseStore(new File(POSE_FILE));
+        }
+        return instance;
+    }
+
+    /**
+     * This creates a new PoseStore that keeps the pose in a specified file.
+     *
+     * @param file the file to keep the pose in.
+     */
+    PoseStore(File file) {
+        MappedByteBuffer mappedBuffer = null;
+        File parent = file.getParentFile();
+        if (parent != null) parent.mkdirs();
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            if (randomAccessFile.length() != FILE_SIZE) randomAccessFile.setLength(FILE_SIZE);
+            // the mapping stays valid after the file is closed
+            mappedBuffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE);
+        } catch (IOException | RuntimeException e) {
+            mappedBuffer = null;
+        }
+        buffer = mappedBuffer;
+
+        if (buffer != null) {
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                for (int i = 0; i < FILE_SIZE; i += 8) {
+                    buffer.putLong(i, 0);
+                }
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+            }
+            sequence = Math.max(readSequence(0), readSequence(1));
+        }
+    }
+
+    /**
+     * This saves a pose, along with the current time.
+     *
+     * @param x the x position, in inches.
+     * @param y the y position, in inches.
+     * @param heading the heading, in radians.
+     */
+    public void save(double x, double y, double heading) {
+        if (buffer == null) return;
+        sequence++;
+        long time = System.currentTimeMillis();
+        int slot = getSlotOffset((int) (sequence & 1));
+        buffer.putLong(slot + SEQUENCE, sequence);
+        buffer.putLong(slot + TIME, time);
+        buffer.putDouble(slot + X, x);
+        buffer.putDouble(slot + Y, y);
+        buffer.putDouble(slot + HEADING, heading);
+        buffer.putLong(slot + CHECKSUM, checksum(sequence, time, Double.doubleToRawLongBits(x), Double.doubleToRawLongBits(y), Double.doubleToRawLongBits(heading)));
+    }
+
+    /**
+     * This saves a pose, along with the current time.
+     *
+     * @param pose the pose to save.
+     */
+    public void save(Pose pose) {
+        save(pose.getX(), pose.getY(), pose.getHeading());
+    }
+
+    /**
+     * This returns the last saved pose, if it was saved within MAX_RESTORE_AGE milliseconds.
+     *
+     * @return returns the last saved pose, or null if there is none or it is too old.
+     */
+    public Pose loadFresh() {
+        return load(MAX_RESTORE_AGE);
+    }
+
+    /**
+     * This returns the last saved pose, if it was saved within a specified age.
+     *
+     * @param maxAge how old the pose can be, in milliseconds.
+     * @return returns the last saved pose, or null if there is none or it is too old.
+     */
+    public Pose load(long maxAge) {
+        int slot = getNewestValidSlot();
+        if (slot < 0) return null;
+        long age = System.currentTimeMillis() - buffer.getLong(slot + TIME);
+        if (age < 0 || age > maxAge) return null;
+        return new Pose(buffer.getDouble(slot + X), buffer.getDouble(slot + Y), buffer.getDouble(slot + HEADING));
+    }
+
+    /**
+     * This clears the saved pose, so it won't be restored.
+     */
+    public void clear() {
+        if (buffer == null) return;
+        for (int i = HEADER_SIZE; i < FILE_SIZE; i += 8) {
+            buffer.putLong(i, 0);
+        }
+    }
+
+    /**
+     * @return returns if the file was opened, so poses are actually being saved.
+     */
+    public boolean isAvailable() {
+        return buffer != null;
+    }
+
+    /**
+     * This returns the offset of the newest slot with a matching checksum.
+     *
+     * @return returns the offset of the slot, or -1 if neither slot is valid.
+     */
+    private int getNewestValidSlot() {
+        if (buffer == null) return -1;
+        long first = readSequence(0);
+        long second = readSequence(1);
+        if (first <= 0 && second <= 0) return -1;
+        return getSlotOffset(first > second ? 0 : 1);
+    }
+
+    /**
+     * This returns the sequence number of a slot, if its checksum matches.
+     *
+     * @param index which slot, 0 or 1.
+     * @return returns the sequence number, or 0 if the checksum doesn't match.
+     */
+    private long readSequence(int index) {
+        int slot = getSlotOffset(index);
+        long slotSequence = buffer.getLong(slot + SEQUENCE);
+        long expected = checksum(slotSequence, buffer.getLong(slot + TIME), buffer.getLong(slot + X), buffer.getLong(slot + Y), buffer.getLong(slot + HEADING));
+        if (slotSequence <= 0 || buffer.getLong(slot + CHECKSUM) != expected) return 0;
+        return slotSequence;
+    }
+
+    /**
+     * @param index which slot, 0 or 1.
+     * @return returns the offset of the slot in the file.
+     */
+    private static int getSlotOffset(int index) {
+        return HEADER_SIZE + index * SLOT_SIZE;
+    }
+
+    /**
+     * This mixes the contents of a slot into a checksum. Every bit of every value changes the result.
+     *
+     * @param sequence the sequence number.
+     * @param time the time saved.
+     * @param x the bits of the x position.
+     * @param y the bits of the y position.
+     * @param heading the bits of the heading.
+     * @return returns the checksum.
+     */
+    private static long checksum(long sequence, long time, long x, long y, long heading) {
+        long hash = 0x9E3779B97F4A7C15L;
+        hash = (hash ^ sequence) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ time) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ x) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ y) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ heading) * 0xBF58476D1CE4E5B9L;
+        return hash ^ (hash >>> 31);
+    }
+}
@@ -9,6 +9,7 @@ import org.firstinspires.ftc.teamcode.pedroPathing.localization.localizers.OTOSL
 import org.firstinspires.ftc.teamcode.pedroPathing.localization.localizers.ThreeWheelLocalizer;
 import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.MathFunctions;
 import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.Vector;
+import org.firstinspires.ftc.teamcode.pedroPathing.util.RobotClock;
 
 /**
  * This is the PoseUpdater class. This class handles getting pose data from the localizer and returning
@@ -45,8 +46,11 @@ public class PoseUpdater {
     private long previousPoseTime;
     private long currentPoseTime;
 
+    private PoseStore poseStore;
+
     /**
-     * Creates a new PoseUpdater from a HardwareMap and a Localizer.
+     * Creates a new PoseUpdater from a HardwareMap and a Localizer. The pose is saved to the
+     * PoseStore every update, but a saved pose is only used if restoreSavedPose() is called.
      *
      * @param hardwareMap the HardwareMap
      * @param localizer the Localizer
@@ -59,6 +63,20 @@ public class PoseUpdater {
         }
 
         this.localizer = localizer;
+
+        if (PoseStore.ENABLED) {
+            poseStore = PoseStore.getInstance();
+        }
+    }
+
+    /**
+     * Creates a new PoseUpdater from just a Localizer, without any hardware. This is used when
+     * replaying a recorded run off of the robot.
+     *
+     * @param localizer the Localizer
+     */
+    public PoseUpdater(Localizer localizer) {
+        this.localizer = localizer;
     }
 
     /**
@@ -74,7 +92,7 @@ public class PoseUpdater {
     /**
      * This updates the robot's pose, as well as updating the previous pose, velocity, and
      * acceleration. The cache for the current pose, velocity, and acceleration is cleared, and
-     * the time stamps are updated as well.
+     * the time stamps are updated as well. The new pose is then saved to the PoseStore.
      */
     public void update() {
         previousVelocity = getVelocity();
@@ -83,21 +101,41 @@ public class PoseUpdater {
         currentVelocity = null;
         currentAcceleration = null;
         previousPoseTime = currentPoseTime;
-        currentPoseTime = System.nanoTime();
+        currentPoseTime = RobotClock.nanoTime();
         localizer.update();
+        if (poseStore != null) poseStore.save(getPose());
     }
 
     /**
-     * This sets the starting pose. Do not run this after moving at all.
+     * This sets the starting pose, and moves the current pose to it. Since the Localizer can be
+     * kept between OpModes by the RobotContext, the robot may have moved before this is called, so
+     * the current pose is set too instead of only shifting the start.
      *
      * @param set the Pose to set the starting pose to.
      */
     public void setStartingPose(Pose set) {
         startingPose = set;
         previousPose = startingPose;
-        previousPoseTime = System.nanoTime();
-        currentPoseTime = System.nanoTime();
+        previousPoseTime = RobotClock.nanoTime();
+        currentPoseTime = RobotClock.nanoTime();
+        currentPose = null;
         localizer.setStartPose(set);
+        localizer.setPose(set);
+    }
+
+    /**
+     * This sets the starting pose to the pose saved by the PoseStore, if one was saved recently,
+     * like at the end of autonomous or before a robot controller restart. This is not done on its
+     * own, since OpModes like the tuners need to start at the origin.
+     *
+     * @return returns if a saved pose was restored.
+     */
+    public boolean restoreSavedPose() {
+        if (poseStore == null) return false;
+        Pose savedPose = poseStore.loadFresh();
+        if (savedPose == null) return false;
+        setStartingPose(savedPose);
+        return true;
     }
 
     /**
@@ -0,0 +1,365 @@
+package org.firstinspires.ftc.teamcode.pedroPathing.localization;
+
+import com.acmerobotics.dashboard.config.Config;
+
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.MathFunctions;
+
+/**
+ * This is the SlipMonitor class. It compares the movement reported by two localization sources
+ * every loop and notices when they stop agreeing, which happens when a drive wheel slips or the
+ * robot gets pushed or runs into something.
+ *
+ * Each loop, the difference between the two sources' changes in position is turned into a rate, so
+ * it does not depend on the loop time. The rates from recent loops where the sources agreed are
+ * kept in a sliding window, and a loop disagrees if its rate is more than THRESHOLD_DEVIATIONS
+ * standard deviations above the window's average. This way, the threshold adapts to how noisy the
+ * two sources normally are. There are also minimum thresholds, so perfectly agreeing sources do not
+ * make the threshold 0, and a part of the threshold grows with speed, to allow for small
+ * differences in tuning.
+ *
+ * An event starts after EVENT_START_LOOPS loops in a row disagree, and ends after EVENT_END_LOOPS
+ * loops in a row agree. The event's start time and drift are counted from the first of the loops
+ * that disagreed, and hasEventStarted() is true for the update that started it, so whatever uses
+ * the sources can go back and correct those first loops. An event is a slip if the primary source moved more than the reference
+ * source, like a wheel spinning in place, and a collision if it moved less, like the robot being
+ * pushed.
+ *
+ * Each update only does a handful of arithmetic operations on primitive Arrays, and nothing is
+ * allocated except when an event starts.
+ *
+ * @version 1.0, 10/19/2026
+ */
+@Config
+public class SlipMonitor {
+    public static final int NONE = 0;
+    public static final int SLIP = 1;
+    public static final int COLLISION = 2;
+
+    // The number of loops in the sliding windows of differences
+    public static int WINDOW_SIZE = 50;
+
+    // How many standard deviations above average a difference has to be to count as disagreeing
+    public static double THRESHOLD_DEVIATIONS = 4;
+
+    // The smallest thresholds, in inches per second and radians per second
+    public static double MINIMUM_TRANSLATIONAL_THRESHOLD = 3;
+    public static double MINIMUM_HEADING_THRESHOLD = 0.3;
+
+    // The part of the reference source's speed added to the translational threshold
+    public static double SPEED_THRESHOLD_FRACTION = 0.15;
+
+    // The number of loops in a row that have to disagree to start an event, or agree to end one
+    public static int EVENT_START_LOOPS = 3;
+    public static int EVENT_END_LOOPS = 5;
+
+    private final double[] translationalWindow;
+    private final double[] headingWindow;
+    private int windowIndex;
+    private int windowCount;
+    private double translationalSum, translationalSquaredSum;
+    private double headingSum, headingSquaredSum;
+
+    private int disagreeingLoops;
+    private long disagreeingStartTime;
+    private double disagreeingTranslationalDrift;
+    private double disagreeingHeadingDrift;
+    private double disagreeingPeakDifference;
+    private boolean eventStarted;
+    private int agreeingLoops;
+    private int currentType = NONE;
+    private Event currentEvent;
+    private Event lastEvent;
+    private int slipCount;
+    private int collisionCount;
+
+    private double translationalDifference;
+    private double headingDifference;
+    private double translationalThreshold;
+    private double headingThreshold;
+
+    /**
+     * This is the Event class. It holds one slip or collision, from when it was noticed to when the
+     * sources agreed again, and how far apart the sources drifted during it.
+     */
+    public static class Event {
+        private final int type;
+        private final long startTime;
+        private long endTime = -1;
+        private double translationalDrift;
+        private double headingDrift;
+        private double peakTranslationalDifference;
+
+        /**
+         * This creates a new Event.
+         *
+         * @param type the type of the Event, using the class constants.
+         * @param startTime the time the Event started, in nanoseconds.
+         */
+        Event(int type, long startTime) {
+            this.type = type;
+            this.startTime = startTime;
+        }
+
+        /**
+         * @return returns the type of the Event, using the class constants.
+         */
+        public int getType() {
+            return type;
+        }
+
+        /**
+         * @return returns the time the Event started, in nanoseconds.
+         */
+        public long getStartTime() {
+            return startTime;
+        }
+
+        /**
+         * @return returns the time the Event ended, in nanoseconds, or -1 if it is still going.
+         */
+        public long getEndTime() {
+            return endTime;
+        }
+
+        /**
+         * @return returns if the Event is still going.
+         */
+        public boolean isActive() {
+            return endTime < 0;
+        }
+
+        /**
+         * @return returns how far apart the two sources' positions drifted during the Event, in
+         *         inches.
+         */
+        public double getTranslationalDrift() {
+            return translationalDrift;
+        }
+
+        /**
+         * @return returns how far apart the two sources' headings drifted during the Event, in
+         *         radians.
+         */
+        public double getHeadingDrift() {
+            return headingDrift;
+        }
+
+        /**
+         * @return returns the largest difference between the sources during the Event, in inches
+         *         per second.
+         */
+        public double getPeakTranslationalDifference() {
+            return peakTranslationalDifference;
+        }
+    }
+
+    /**
+     * This creates a new SlipMonitor with WINDOW_SIZE loops in its windows.
+     */
+    public SlipMonitor() {
+        int size = Math.max(WINDOW_SIZE, 2);
+        translationalWindow = new double[size];
+        headingWindow = new double[size];
+    }
+
+    /**
+     * This compares the changes in position of the two sources over one loop. Both changes should be
+     * field relative, and cover the same loop.
+     *
+     * @param primaryX the primary source's change in x, in inches.
+     * @param primaryY the primary source's change in y, in inches.
+     * @param primaryHeading the primary source's change in heading, in radians.
+     * @param referenceX the reference source's change in x, in inches.
+     * @param referenceY the reference source's change in y, in inches.
+     * @param referenceHeading the reference source's change in heading, in radians.
+     * @param deltaTime the length of the loop, in seconds.
+     * @param time the current time, in nanoseconds.
+     */
+    public void update(double primaryX, double primaryY, double primaryHeading, double referenceX, double referenceY, double referenceHeading, double deltaTime, long time) {
+        if (deltaTime <= 0) return;
+
+        translationalDifference = Math.hypot(primaryX - referenceX, primaryY - referenceY) / deltaTime;
+        headingDifference = Math.abs(MathFunctions.getSmallestAngleDifference(primaryHeading, referenceHeading)) / deltaTime;
+
+        translationalThreshold = getThreshold(translationalSum, translationalSquaredSum, MINIMUM_TRANSLATIONAL_THRESHOLD) + SPEED_THRESHOLD_FRACTION * Math.hypot(referenceX, referenceY) / deltaTime;
+        headingThreshold = getThreshold(headingSum, headingSquaredSum, MINIMUM_HEADING_THRESHOLD);
+
+        boolean disagrees = translationalDifference > translationalThreshold || headingDifference > headingThreshold;
+        eventStarted = false;
+        if (disagrees) {
+            if (disagreeingLoops == 0) {
+                disagreeingStartTime = time;
+                disagreeingTranslationalDrift = 0;
+                disagreeingHeadingDrift = 0;
+                disagreeingPeakDifference = 0;
+            }
+            disagreeingLoops++;
+            agreeingLoops = 0;
+            disagreeingTranslationalDrift += translationalDifference * deltaTime;
+            disagreeingHeadingDrift += headingDifference * deltaTime;
+            disagreeingPeakDifference = Math.max(disagreeingPeakDifference, translationalDifference);
+        } else {
+            agreeingLoops++;
+            disagreeingLoops = 0;
+            // only loops where the sources agree are added, so an event can't raise the threshold
+            addToWindow(translationalDifference, headingDifference);
+        }
+
+        if (currentEvent == null && disagreeingLoops >= EVENT_START_LOOPS) {
+            int type = Math.hypot(primaryX, primaryY) >= Math.hypot(referenceX, referenceY) ? SLIP : COLLISION;
+            currentEvent = new Event(type, disagreeingStartTime);
+            currentEvent.translationalDrift = disagreeingTranslationalDrift;
+            currentEvent.headingDrift = disagreeingHeadingDrift;
+            currentEvent.peakTranslationalDifference = disagreeingPeakDifference;
+            currentType = type;
+            eventStarted = true;
+            if (type == SLIP) {
+                slipCount++;
+            } else {
+                collisionCount++;
+            }
+        } else if (currentEvent != null) {
+            currentEvent.translationalDrift += translationalDifference * deltaTime;
+            currentEvent.headingDrift += headingDifference * deltaTime;
+            currentEvent.peakTranslationalDifference = Math.max(currentEvent.peakTranslationalDifference, translationalDifference);
+            if (agreeingLoops >= EVENT_END_LOOPS) {
+                currentEvent.endTime = time;
+                lastEvent = currentEvent;
+                currentEvent = null;
+                currentType = NONE;
+            }
+        }
+    }
+
+    /**
+     * This returns the threshold for one of the windows.
+     *
+     * @param sum the sum of the window.
+     * @param squaredSum the sum of the squares of the window.
+     * @param minimum the smallest the threshold can be.
+     * @return returns the threshold.
+     */
+    private double getThreshold(double sum, double squaredSum, double minimum) {
+        if (windowCount < 2) return minimum;
+        double mean = sum / windowCount;
+        double variance = Math.max(squaredSum / windowCount - mean * mean, 0);
+        return Math.max(mean + THRESHOLD_DEVIATIONS * Math.sqrt(variance), minimum);
+    }
+
+    /**
+     * This adds the differences from one loop to the sliding windows, replacing the oldest loop once
+     * the windows are full, and keeps the sums up to date.
+     *
+     * @param translational the translational difference.
+     * @param heading the heading difference.
+     */
+    private void addToWindow(double translational, double heading) {
+        if (windowCount == translationalWindow.length) {
+            double oldTranslational = translationalWindow[windowIndex];
+            double oldHeading = headingWindow[windowIndex];
+            translationalSum -= oldTranslational;
+            translationalSquaredSum -= oldTranslational * oldTranslational;
+            headingSum -= oldHeading;
+            headingSquaredSum -= oldHeading * oldHeading;
+        } else {
+            windowCount++;
+        }
+        translationalWindow[windowIndex] = translational;
+        headingWindow[windowIndex] = heading;
+        translationalSum += translational;
+        translationalSquaredSum += translational * translational;
+        headingSum += heading;
+        headingSquaredSum += heading * heading;
+        windowIndex = (windowIndex + 1) % translationalWindow.length;
+    }
+
+    /**
+     * This clears the windows and ends any event, for when one of the sources is moved on purpose,
+     * like when the pose is set.
+     */
+    public void reset() {
+        windowIndex = 0;
+        windowCount = 0;
+        translationalSum = 0;
+        translationalSquaredSum = 0;
+        headingSum = 0;
+        headingSquaredSum = 0;
+        disagreeingLoops = 0;
+        agreeingLoops = 0;
+        eventStarted = false;
+        currentEvent = null;
+        currentType = NONE;
+    }
+
+    /**
+     * @return returns if a slip or collision is happening right now.
+     */
+    public boolean isInEvent() {
+        return currentEvent != null;
+    }
+
+    /**
+     * @return returns if the last update started an event.
+     */
+    public boolean hasEventStarted() {
+        return eventStarted;
+    }
+
+    /**
+     * @return returns how many loops in a row, up to and including the last update, the sources
+     *         have disagreed.
+     */
+    public int getDisagreeingLoops() {
+        return disagreeingLoops;
+    }
+
+    /**
+     * @return returns the type of the event happening right now, using the class constants.
+     */
+    public int getCurrentType() {
+        return currentType;
+    }
+
+    /**
+     * @return returns the event happening right now, or null if there is none.
+     */
+    public Event getCurrentEvent() {
+        return currentEvent;
+    }
+
+    /**
+     * @return returns the last event that ended, or null if none have.
+     */
+    public Event getLastEvent() {
+        return lastEvent;
+    }
+
+    /**
+     * @return returns the number of slips so far.
+     */
+    public int getSlipCount() {
+        return slipCount;
+    }
+
+    /**
+     * @return returns the number of collisions so far.
+     */
+    public int getCollisionCount() {
+        return collisionCount;
+    }
+
+    /**
+     * This writes the state of the SlipMonitor to the Telemetry specified.
+     *
+     * @param telemetry the Telemetry to write to.
+     */
+    public void debug(Telemetry telemetry) {
+        telemetry.addData("slip state", currentType == SLIP ? "slip" : currentType == COLLISION ? "collision" : "none");
+        telemetry.addData("translational difference (in/s)", translationalDifference);
+        telemetry.addData("translational threshold (in/s)", translationalThreshold);
+        telemetry.addData("heading difference (rad/s)", headingDifference);
+        telemetry.addData("heading threshold (rad/s)", headingThreshold);
+        telemetry.addData("slips/collisions", slipCount + "/" + collisionCount);
+    }
+}
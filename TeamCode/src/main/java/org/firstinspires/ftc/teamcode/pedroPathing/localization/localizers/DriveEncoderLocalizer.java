@@ -13,9 +13,10 @@ import org.firstinspires.ftc.teamcode.pedroPathing.localization.Encoder;
 import org.firstinspires.ftc.teamcode.pedroPathing.localization.Localizer;
 import org.firstinspires.ftc.teamcode.pedroPathing.localization.Matrix;
 import org.firstinspires.ftc.teamcode.pedroPathing.localization.Pose;
+import org.firstinspires.ftc.teamcode.pedroPathing.localization.PoseExponential;
 import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.MathFunctions;
 import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.Vector;
-import org.firstinspires.ftc.teamcode.pedroPathing.util.NanoTimer;
+import org.firstinspires.ftc.teamcode.pedroPathing.replay.RunFrame;
 
 /**
  * This is the DriveEncoderLocalizer class. This class extends the Localizer superclass and is a
@@ -30,9 +31,6 @@ public class DriveEncoderLocalizer extends Localizer {
     private Pose startPose;
     private Pose displacementPose;
     private Pose currentVelocity;
-    private Matrix prevRotationMatrix;
-    private NanoTimer timer;
-    private long deltaTimeNano;
     private Encoder leftFront;
     private Encoder rightFront;
     private Encoder leftRear;
@@ -76,8 +74,6 @@ public class DriveEncoderLocalizer extends Localizer {
         rightRear.setDirection(Encoder.FORWARD);
 
         setStartPose(setStartPose);
-        timer = new NanoTimer();
-        deltaTimeNano = 1;
         displacementPose = new Pose();
         currentVelocity = new Pose();
     }
@@ -123,20 +119,6 @@ public class DriveEncoderLocalizer extends Localizer {
         startPose = setStart;
     }
 
-    /**
-     * This sets the Matrix that contains the previous pose's heading rotation.
-     *
-     * @param heading the rotation of the Matrix
-     */
-    public void setPrevRotationMatrix(double heading) {
-        prevRotationMatrix = new Matrix(3,3);
-        prevRotationMatrix.set(0, 0, Math.cos(heading));
-        prevRotationMatrix.set(0, 1, -Math.sin(heading));
-        prevRotationMatrix.set(1, 0, Math.sin(heading));
-        prevRotationMatrix.set(1, 1, Math.cos(heading));
-        prevRotationMatrix.set(2, 2, 1.0);
-    }
-
     /**
      * This sets the current pose estimate. Changing this should just change the robot's current
      * pose estimate, not anything to do with the start pose.
@@ -150,41 +132,20 @@ public class DriveEncoderLocalizer extends Localizer {
     }
 
     /**
-     * This updates the elapsed time timer that keeps track of time between updates, as well as the
-     * change position of the Encoders. Then, the robot's global change in position is calculated
-     * using the pose exponential method.
+     * This updates the change in position of the Encoders. Then, the robot's global change in
+     * position is calculated using the pose exponential method, and the robot's velocity is
+     * calculated from the Encoder velocities measured by the hub.
      */
     @Override
     public void update() {
-        deltaTimeNano = timer.getElapsedTime();
-        timer.resetTimer();
-
         updateEncoders();
         Matrix robotDeltas = getRobotDeltas();
-        Matrix globalDeltas;
-        setPrevRotationMatrix(getPose().getHeading());
-
-        Matrix transformation = new Matrix(3,3);
-        if (Math.abs(robotDeltas.get(2, 0)) < 0.001) {
-            transformation.set(0, 0, 1.0 - (Math.pow(robotDeltas.get(2, 0), 2) / 6.0));
-            transformation.set(0, 1, -robotDeltas.get(2, 0) / 2.0);
-            transformation.set(1, 0, robotDeltas.get(2, 0) / 2.0);
-            transformation.set(1, 1, 1.0 - (Math.pow(robotDeltas.get(2, 0), 2) / 6.0));
-            transformation.set(2, 2, 1.0);
-        } else {
-            transformation.set(0, 0, Math.sin(robotDeltas.get(2, 0)) / robotDeltas.get(2, 0));
-            transformation.set(0, 1, (Math.cos(robotDeltas.get(2, 0)) - 1.0) / robotDeltas.get(2, 0));
-            transformation.set(1, 0, (1.0 - Math.cos(robotDeltas.get(2, 0))) / robotDeltas.get(2, 0));
-            transformation.set(1, 1, Math.sin(robotDeltas.get(2, 0)) / robotDeltas.get(2, 0));
-            transformation.set(2, 2, 1.0);
-        }
+        Pose globalDeltas = PoseExponential.getGlobalDeltas(getPose().getHeading(), robotDeltas);
+        displacementPose.add(globalDeltas);
 
-        globalDeltas = Matrix.multiply(Matrix.multiply(prevRotationMatrix, transformation), robotDeltas);
+        currentVelocity = PoseExponential.getGlobalVelocity(getPose().getHeading(), getRobotVelocities());
 
-        displacementPose.add(new Pose(globalDeltas.get(0, 0), globalDeltas.get(1, 0), globalDeltas.get(2, 0)));
-        currentVelocity = new Pose(globalDeltas.get(0, 0) / (deltaTimeNano * Math.pow(10.0, 9)), globalDeltas.get(1, 0) / (deltaTimeNano * Math.pow(10.0, 9)), globalDeltas.get(2, 0) / (deltaTimeNano * Math.pow(10.0, 9)));
-
-        totalHeading += globalDeltas.get(2, 0);
+        totalHeading += globalDeltas.getHeading();
     }
 
     /**
@@ -214,13 +175,38 @@ public class DriveEncoderLocalizer extends Localizer {
      * @return returns a Matrix containing the robot relative movement.
      */
     public Matrix getRobotDeltas() {
+        return getRobotMovement(leftFront.getDeltaPosition(), leftRear.getDeltaPosition(), rightFront.getDeltaPosition(), rightRear.getDeltaPosition());
+    }
+
+    /**
+     * This calculates the velocity from the perspective of the robot using the velocities of the
+     * Encoders measured by the hub.
+     *
+     * @return returns a Matrix containing the robot relative velocity, in inches and radians per
+     *         second.
+     */
+    public Matrix getRobotVelocities() {
+        return getRobotMovement(leftFront.getVelocity(), leftRear.getVelocity(), rightFront.getVelocity(), rightRear.getVelocity());
+    }
+
+    /**
+     * This converts movement of the Encoders into movement from the perspective of the robot. This
+     * works the same for changes in position and for velocities.
+     *
+     * @param leftFrontMovement the movement of the left front Encoder, in ticks.
+     * @param leftRearMovement the movement of the left rear Encoder, in ticks.
+     * @param rightFrontMovement the movement of the right front Encoder, in ticks.
+     * @param rightRearMovement the movement of the right rear Encoder, in ticks.
+     * @return returns a Matrix containing the robot relative movement.
+     */
+    private Matrix getRobotMovement(double leftFrontMovement, double leftRearMovement, double rightFrontMovement, double rightRearMovement) {
         Matrix returnMatrix = new Matrix(3,1);
         // x/forward movement
-        returnMatrix.set(0,0, FORWARD_TICKS_TO_INCHES * (leftFront.getDeltaPosition() + rightFront.getDeltaPosition() + leftRear.getDeltaPosition() + rightRear.getDeltaPosition()));
+        returnMatrix.set(0,0, FORWARD_TICKS_TO_INCHES * (leftFrontMovement + rightFrontMovement + leftRearMovement + rightRearMovement));
         //y/strafe movement
-        returnMatrix.set(1,0, STRAFE_TICKS_TO_INCHES * (-leftFront.getDeltaPosition() + rightFront.getDeltaPosition() + leftRear.getDeltaPosition() - rightRear.getDeltaPosition()));
+        returnMatrix.set(1,0, STRAFE_TICKS_TO_INCHES * (-leftFrontMovement + rightFrontMovement + leftRearMovement - rightRearMovement));
         // theta/turning
-        returnMatrix.set(2,0, TURN_TICKS_TO_RADIANS * ((-leftFront.getDeltaPosition() + rightFront.getDeltaPosition() - leftRear.getDeltaPosition() + rightRear.getDeltaPosition()) / (ROBOT_WIDTH + ROBOT_LENGTH)));
+        returnMatrix.set(2,0, TURN_TICKS_TO_RADIANS * ((-leftFrontMovement + rightFrontMovement - leftRearMovement + rightRearMovement) / (ROBOT_WIDTH + ROBOT_LENGTH)));
         return returnMatrix;
     }
 
@@ -263,4 +249,15 @@ public class DriveEncoderLocalizer extends Localizer {
     public double getTurningMultiplier() {
         return TURN_TICKS_TO_RADIANS;
     }
+
+    /**
+     * This writes the raw Encoder positions from the last update into a RunFrame.
+     *
+     * @param frame the frame to write the readings into
+     */
+    @Override
+    public void recordRawData(RunFrame frame) {
+        frame.setEncoderTicks(leftFront.getRawPosition(), leftRear.getRawPosition(), rightFront.getRawPosition(), rightRear.getRawPosition());
+        frame.setEncoderOffsets(leftFront.getZeroOffset(), leftRear.getZeroOffset(), rightFront.getZeroOffset(), rightRear.getZeroOffset());
+    }
 }
@@ -1,5 +1,6 @@
 package org.firstinspires.ftc.teamcode.pedroPathing.localization.localizers;
 
+import com.acmerobotics.dashboard.config.Config;
 import com.qualcomm.hardware.sparkfun.SparkFunOTOS;
 import com.qualcomm.robotcore.hardware.HardwareMap;
 
@@ -9,6 +10,8 @@ import org.firstinspires.ftc.teamcode.pedroPathing.localization.Localizer;
 import org.firstinspires.ftc.teamcode.pedroPathing.localization.Pose;
 import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.MathFunctions;
 import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.Vector;
+import org.firstinspires.ftc.teamcode.pedroPathing.replay.RunFrame;
+import org.firstinspires.ftc.teamcode.pedroPathing.util.HardwareInitializer;
 import org.firstinspires.ftc.teamcode.support.Constants;
 
 /**
@@ -38,12 +41,23 @@ import org.firstinspires.ftc.teamcode.support.Constants;
  * @author Anyi Lin - 10158 Scott's Bots
  * @version 1.0, 7/20/2024
  */
+@Config
 public class OTOSLocalizer extends Localizer {
     private HardwareMap hardwareMap;
     private Pose startPose;
     private SparkFunOTOS otos;
+    private OTOSReader otosReader;
     private double previousHeading;
     private double totalHeading;
+    private HardwareInitializer.Task otosInit;
+    private Pose pendingPose;
+
+    // When this is true, the OTOS is read on a background thread every OTOS_POLLING_PERIOD
+    // milliseconds instead of once per update() on the OpMode thread.
+    public static boolean useBackgroundPolling = false;
+
+    // The time between background reads of the OTOS, in milliseconds.
+    public static double OTOS_POLLING_PERIOD = 2.5;
 
     /**
      * This creates a new OTOSLocalizer from a HardwareMap, with a starting Pose at (0,0)
@@ -67,28 +81,36 @@ public class OTOSLocalizer extends Localizer {
 
         // TODO: replace this with your OTOS port
         otos = hardwareMap.get(SparkFunOTOS.class, "sensor_otos");
+        otosReader = new OTOSReader(otos);
 
-        otos.setLinearUnit(DistanceUnit.INCH);
-        otos.setAngularUnit(AngleUnit.RADIANS);
+        setStartPose(setStartPose);
+        totalHeading = 0;
+        previousHeading = startPose.getHeading();
 
-        // TODO: replace this with your OTOS offset from the center of the robot
-        // For the OTOS, left/right is the y axis and forward/backward is the x axis, with left being
-        // positive y and forward being positive x. PI/2 radians is facing forward, and clockwise
-        // rotation is negative rotation.
-        otos.setOffset(new SparkFunOTOS.Pose2D(Constants.X_OFFSET, Constants.Y_OFFSET, Constants.H_OFFSET));
+        // The OTOS is set up and its IMU calibrated on a background thread, which takes a while, so
+        // other hardware can be set up at the same time. update() waits for this to finish.
+        otosInit = HardwareInitializer.getInstance().submit("otos", () -> {
+            otos.setLinearUnit(DistanceUnit.INCH);
+            otos.setAngularUnit(AngleUnit.RADIANS);
 
-        // TODO: replace these with your tuned multipliers
-        otos.setLinearScalar(Constants.L_SCALER);
-        otos.setAngularScalar(Constants.A_SCALER);
+            // TODO: replace this with your OTOS offset from the center of the robot
+            // For the OTOS, left/right is the y axis and forward/backward is the x axis, with left being
+            // positive y and forward being positive x. PI/2 radians is facing forward, and clockwise
+            // rotation is negative rotation.
+            otos.setOffset(new SparkFunOTOS.Pose2D(Constants.X_OFFSET, Constants.Y_OFFSET, Constants.H_OFFSET));
 
-        otos.calibrateImu();
-        otos.resetTracking();
+            // TODO: replace these with your tuned multipliers
+            otos.setLinearScalar(Constants.L_SCALER);
+            otos.setAngularScalar(Constants.A_SCALER);
 
-        setStartPose(setStartPose);
-        totalHeading = 0;
-        previousHeading = startPose.getHeading();
+            otos.calibrateImu();
+            otos.resetTracking();
+            otosReader.readNow();
 
-        resetOTOS();
+            if (useBackgroundPolling) {
+                otosReader.startPolling(OTOS_POLLING_PERIOD);
+            }
+        });
     }
 
     /**
@@ -98,8 +120,9 @@ public class OTOSLocalizer extends Localizer {
      */
     @Override
     public Pose getPose() {
-        SparkFunOTOS.Pose2D pose = otos.getPosition();
-        return MathFunctions.addPoses(startPose, new Pose(pose.x, pose.y, pose.h));
+        if (pendingPose != null) return pendingPose.copy();
+        OTOSReader.Snapshot snapshot = otosReader.getSnapshot();
+        return MathFunctions.addPoses(startPose, new Pose(snapshot.x, snapshot.y, snapshot.heading));
     }
 
     /**
@@ -109,8 +132,18 @@ public class OTOSLocalizer extends Localizer {
      */
     @Override
     public Pose getVelocity() {
-        SparkFunOTOS.Pose2D OTOSVelocity = otos.getVelocity();
-        return new Pose(OTOSVelocity.x, OTOSVelocity.y, OTOSVelocity.h);
+        OTOSReader.Snapshot snapshot = otosReader.getSnapshot();
+        return new Pose(snapshot.xVelocity, snapshot.yVelocity, snapshot.headingVelocity);
+    }
+
+    /**
+     * This returns the current acceleration estimate from the latest OTOS read.
+     *
+     * @return returns the current acceleration estimate as a Pose
+     */
+    public Pose getAcceleration() {
+        OTOSReader.Snapshot snapshot = otosReader.getSnapshot();
+        return new Pose(snapshot.xAcceleration, snapshot.yAcceleration, snapshot.headingAcceleration);
     }
 
     /**
@@ -136,31 +169,75 @@ public class OTOSLocalizer extends Localizer {
 
     /**
      * This sets the current pose estimate. Changing this should just change the robot's current
-     * pose estimate, not anything to do with the start pose.
+     * pose estimate, not anything to do with the start pose. If the OTOS is still being set up,
+     * the pose is set on the first update() instead, so setting the pose in init doesn't wait.
      *
      * @param setPose the new current pose estimate
      */
     @Override
     public void setPose(Pose setPose) {
+        if (!otosInit.isDone()) {
+            pendingPose = setPose;
+            return;
+        }
+        pendingPose = null;
         resetOTOS();
         Pose setOTOSPose = MathFunctions.subtractPoses(setPose, startPose);
         otos.setPosition(new SparkFunOTOS.Pose2D(setOTOSPose.getX(), setOTOSPose.getY(), setOTOSPose.getHeading()));
+        otosReader.readNow();
     }
 
     /**
-     * This updates the total heading of the robot. The OTOS handles all other updates itself.
+     * This reads the OTOS once, in a single burst read of position, velocity, and acceleration,
+     * and updates the total heading of the robot. If the OTOS is being polled on a background
+     * thread, no read is done here and the latest background read is used instead. The first
+     * update waits for the OTOS to finish being set up.
      */
     @Override
     public void update() {
-        totalHeading += MathFunctions.getSmallestAngleDifference(otos.getPosition().h, previousHeading);
-        previousHeading = otos.getPosition().h;
+        otosInit.await();
+        if (pendingPose != null) setPose(pendingPose);
+        otosReader.read();
+        double heading = otosReader.getSnapshot().heading;
+        totalHeading += MathFunctions.getSmallestAngleDifference(heading, previousHeading);
+        previousHeading = heading;
     }
 
     /**
      * This resets the OTOS.
      */
     public void resetOTOS() {
+        otosInit.await();
         otos.resetTracking();
+        otosReader.readNow();
+    }
+
+    /**
+     * This recalibrates the OTOS's IMU, which blocks until it is done. The robot has to stay still
+     * while this runs.
+     */
+    @Override
+    public void calibrateIMU() {
+        otosInit.await();
+        otos.calibrateImu();
+    }
+
+    /**
+     * This returns the OTOSReader that all the pose, velocity, and acceleration reads go through.
+     *
+     * @return returns the OTOSReader
+     */
+    public OTOSReader getOTOSReader() {
+        return otosReader;
+    }
+
+    /**
+     * This stops the background OTOS polling thread, if it is running. This should be called when
+     * the OpMode using this localizer stops.
+     */
+    @Override
+    public void stopPolling() {
+        otosReader.stopPolling();
     }
 
     /**
@@ -204,4 +281,17 @@ public class OTOSLocalizer extends Localizer {
     public double getTurningMultiplier() {
         return otos.getAngularScalar();
     }
-}
\ No newline at end of file
+
+    /**
+     * This writes the raw OTOS pose from the latest read into a RunFrame.
+     *
+     * @param frame the frame to write the readings into
+     */
+    @Override
+    public void recordRawData(RunFrame frame) {
+        OTOSReader.Snapshot snapshot = otosReader.getSnapshot();
+        frame.otosX = snapshot.x;
+        frame.otosY = snapshot.y;
+        frame.otosHeading = snapshot.heading;
+    }
+}
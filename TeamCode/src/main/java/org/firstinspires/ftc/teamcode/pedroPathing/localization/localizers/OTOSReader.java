@@ -0,0 +1,189 @@
+package org.firstinspires.ftc.teamcode.pedroPathing.localization.localizers;
+
+import com.qualcomm.hardware.sparkfun.SparkFunOTOS;
+
+/**
+ * This is the OTOSReader class. This handles reading the SparkFun OTOS for the OTOSLocalizer. The
+ * position, velocity, and acceleration are all read in one burst I2C read, and the result is
+ * published as a timestamped Snapshot that every getter on the OTOSLocalizer shares. This way, one
+ * loop only ever costs one I2C transaction instead of one per getter call.
+ *
+ * The reads can either be done on the calling thread through read(), or on a background thread
+ * started through startPolling(), in which case the latest Snapshot is always available without
+ * blocking the OpMode thread. If a read on the background thread throws, the thread stops and
+ * keeps the exception, and read() goes back to reading on the calling thread, so an I2C problem
+ * that doesn't go away shows up on the OpMode thread instead of silently freezing the Snapshot.
+ *
+ * @version 1.0, 10/19/2026
+ */
+public class OTOSReader {
+    private final SparkFunOTOS otos;
+
+    private final SparkFunOTOS.Pose2D position = new SparkFunOTOS.Pose2D();
+    private final SparkFunOTOS.Pose2D velocity = new SparkFunOTOS.Pose2D();
+    private final SparkFunOTOS.Pose2D acceleration = new SparkFunOTOS.Pose2D();
+
+    private volatile Snapshot snapshot = new Snapshot();
+
+    private volatile Thread pollingThread;
+    private volatile boolean polling;
+    private volatile RuntimeException pollingError;
+    private long pollingPeriodNano;
+
+    /**
+     * This is the Snapshot class. It holds one burst read of the OTOS, in the units the OTOS is
+     * set to, along with the System.nanoTime() time stamp of when the read finished. Snapshots are
+     * never modified after being published, so they can be shared across threads.
+     */
+    public static class Snapshot {
+        public final double x, y, heading;
+        public final double xVelocity, yVelocity, headingVelocity;
+        public final double xAcceleration, yAcceleration, headingAcceleration;
+        public final long timestamp;
+
+        /**
+         * This creates an empty Snapshot at the origin, with a time stamp of 0.
+         */
+        public Snapshot() {
+            this(new SparkFunOTOS.Pose2D(), new SparkFunOTOS.Pose2D(), new SparkFunOTOS.Pose2D(), 0);
+        }
+
+        /**
+         * This creates a new Snapshot from the position, velocity, and acceleration of a read.
+         *
+         * @param position the position read
+         * @param velocity the velocity read
+         * @param acceleration the acceleration read
+         * @param timestamp the time of the read, in nanoseconds
+         */
+        public Snapshot(SparkFunOTOS.Pose2D position, SparkFunOTOS.Pose2D velocity, SparkFunOTOS.Pose2D acceleration, long timestamp) {
+            x = position.x;
+            y = position.y;
+            heading = position.h;
+            xVelocity = velocity.x;
+            yVelocity = velocity.y;
+            headingVelocity = velocity.h;
+            xAcceleration = acceleration.x;
+            yAcceleration = acceleration.y;
+            headingAcceleration = acceleration.h;
+            this.timestamp = timestamp;
+        }
+    }
+
+    /**
+     * This creates a new OTOSReader for a SparkFun OTOS. The OTOS should already have its units,
+     * offset, and scalars set.
+     *
+     * @param otos the OTOS to read from
+     */
+    public OTOSReader(SparkFunOTOS otos) {
+        this.otos = otos;
+    }
+
+    /**
+     * This does one burst read of the position, velocity, and acceleration of the OTOS and
+     * publishes the result as the latest Snapshot. If the background thread is polling, this does
+     * nothing, since the background thread is already keeping the Snapshot up to date.
+     */
+    public void read() {
+        if (polling) return;
+        readNow();
+    }
+
+    /**
+     * This does one burst read of the OTOS regardless of whether the background thread is
+     * polling. This is used after the OTOS position is written to, so the next Snapshot does not
+     * contain a stale pose.
+     */
+    public synchronized void readNow() {
+        otos.getPosVelAcc(position, velocity, acceleration);
+        snapshot = new Snapshot(position, velocity, acceleration, System.nanoTime());
+    }
+
+    /**
+     * This returns the latest Snapshot. This never does any I2C reads.
+     *
+     * @return returns the latest Snapshot
+     */
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * This starts a background thread that reads the OTOS every specified number of milliseconds.
+     * If the background thread is already running, this does nothing.
+     *
+     * @param periodMilliseconds the time between reads, in milliseconds
+     */
+    public synchronized void startPolling(double periodMilliseconds) {
+        if (polling) return;
+        pollingPeriodNano = (long) (periodMilliseconds * Math.pow(10.0, 6));
+        pollingError = null;
+        polling = true;
+        pollingThread = new Thread(this::poll, "OTOSReader");
+        pollingThread.setDaemon(true);
+        pollingThread.start();
+    }
+
+    /**
+     * This stops the background thread, if it is running, and waits for it to finish its current
+     * read. Reads will be done on the calling thread through read() again after this.
+     */
+    public void stopPolling() {
+        Thread thread = pollingThread;
+        polling = false;
+        pollingThread = null;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * This returns if the background thread is currently polling the OTOS.
+     *
+     * @return returns if polling
+     */
+    public boolean isPolling() {
+        return polling;
+    }
+
+    /**
+     * This returns the exception that stopped the background thread, if a read on it failed.
+     *
+     * @return returns the exception, or null if the background thread hasn't failed
+     */
+    public RuntimeException getPollingError() {
+        return pollingError;
+    }
+
+    /**
+     * This is the loop the background thread runs. It reads the OTOS, then sleeps for whatever is
+     * left of the polling period. If a read fails, the exception is kept and the thread stops
+     * polling, so read() goes back to reading on the calling thread.
+     */
+    private void poll() {
+        while (polling && !Thread.currentThread().isInterrupted()) {
+            long startTime = System.nanoTime();
+            try {
+                readNow();
+            } catch (RuntimeException e) {
+                pollingError = e;
+                polling = false;
+                break;
+            }
+            long sleepTime = pollingPeriodNano - (System.nanoTime() - startTime);
+            if (sleepTime > 0) {
+                try {
+                    Thread.sleep(sleepTime / 1000000, (int) (sleepTime % 1000000));
+                } catch (InterruptedException e) {
+                    break;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,486 @@
+package org.firstinspires.ftc.teamcode.pedroPathing.localization.localizers;
+
+import com.acmerobotics.dashboard.config.Config;
+import com.qualcomm.hardware.digitalchickenlabs.OctoQuad;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+
+import org.firstinspires.ftc.teamcode.pedroPathing.localization.Encoder;
+import org.firstinspires.ftc.teamcode.pedroPathing.localization.Localizer;
+import org.firstinspires.ftc.teamcode.pedroPathing.localization.Pose;
+import org.firstinspires.ftc.teamcode.pedroPathing.localization.PoseExponential;
+import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.MathFunctions;
+import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.Vector;
+import org.firstinspires.ftc.teamcode.pedroPathing.replay.RunFrame;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * This is the OctoQuadLocalizer class. This class extends the Localizer superclass and is a
+ * localizer that uses the three wheel odometry set up, with the odometry pods plugged into a
+ * DigitalChickenLabs OctoQuad instead of the hubs. The diagram below, which is modified from
+ * Road Runner, shows a typical set up.
+ *
+ * The view is from the top of the robot looking downwards.
+ *
+ * left on robot is the y positive direction
+ *
+ * forward on robot is the x positive direction
+ *
+ *    /--------------\
+ *    |     ____     |
+ *    |     ----     |
+ *    | ||        || |
+ *    | ||        || |  ----> left (y positive)
+ *    |              |
+ *    |              |
+ *    \--------------/
+ *           |
+ *           |
+ *           V
+ *    forward (x positive)
+ *
+ * Every read gets the positions and velocities of all the pods in one burst I2C read, and is
+ * integrated right away with the pose exponential, so the hubs' bulk reads are left for the motors.
+ * The result is published as a Snapshot that every getter shares. The reads can either be done once
+ * per update() on the OpMode thread, or on a background thread every OCTOQUAD_POLLING_PERIOD
+ * milliseconds, in which case the pose is integrated at a much higher rate than the OpMode loop.
+ *
+ * Reads never allocate. There are three Snapshots that get passed around: the reading side fills
+ * its own and swaps it into a shared slot, and update() swaps the latest one out of the slot for the
+ * getters to use, the same way the DashboardPublisher hands off its Snapshots. This way, the
+ * Snapshot the getters use is never written to while they read it.
+ *
+ * @version 1.0, 10/19/2026
+ */
+@Config
+public class OctoQuadLocalizer extends Localizer {
+    private final OctoQuad octoQuad;
+    private final OctoQuad.EncoderDataBlock encoderData = new OctoQuad.EncoderDataBlock();
+
+    private volatile Pose startPose;
+    private final AtomicReference<Snapshot> slot = new AtomicReference<>(new Snapshot());
+    private Snapshot writeSnapshot = new Snapshot();
+    private Snapshot snapshot = new Snapshot();
+
+    private final Pose leftEncoderPose;
+    private final Pose rightEncoderPose;
+    private final Pose strafeEncoderPose;
+    private final int leftChannel;
+    private final int rightChannel;
+    private final int strafeChannel;
+    private final double leftDirection;
+    private final double rightDirection;
+    private final double strafeDirection;
+    private final int velocitySampleInterval;
+
+    private final int[] previousPositions = new int[3];
+    private final double[] robotMovement = new double[3];
+    private final double[] globalMovement = new double[3];
+    private final double[] globalVelocity = new double[3];
+    private double x, y, heading;
+    private double totalHeading;
+
+    private volatile Thread pollingThread;
+    private volatile boolean polling;
+    private volatile RuntimeException pollingError;
+
+    public static double FORWARD_TICKS_TO_INCHES = 0.00052189;//8192 * 1.37795 * 2 * Math.PI * 0.5008239963;
+    public static double STRAFE_TICKS_TO_INCHES = 0.00052189;//8192 * 1.37795 * 2 * Math.PI * 0.5018874659;
+    public static double TURN_TICKS_TO_RADIANS = 0.00053717;//8192 * 1.37795 * 2 * Math.PI * 0.5;
+
+    // The time the OctoQuad counts ticks over to measure each velocity, in milliseconds. Shorter
+    // intervals respond faster but are noisier. This is sent to the OctoQuad when the localizer is
+    // created.
+    public static int VELOCITY_SAMPLE_INTERVAL = 25;
+
+    // When this is true, the OctoQuad is read on a background thread every OCTOQUAD_POLLING_PERIOD
+    // milliseconds instead of once per update() on the OpMode thread.
+    public static boolean useBackgroundPolling = false;
+
+    // The time between background reads of the OctoQuad, in milliseconds.
+    public static double OCTOQUAD_POLLING_PERIOD = 2;
+
+    /**
+     * This is the Snapshot class. It holds the pose and velocity found from one read of the
+     * OctoQuad, along with the raw positions of the pods and the System.nanoTime() time stamp of
+     * when the read finished. Snapshots are reused, so one from getSnapshot() only stays the same
+     * until the next update().
+     */
+    public static class Snapshot {
+        volatile boolean fresh;
+
+        public double x, y, heading;
+        public double xVelocity, yVelocity, headingVelocity;
+        public double totalHeading;
+        public int leftTicks, rightTicks, strafeTicks;
+        public long timestamp;
+
+        /**
+         * This sets every value in the Snapshot.
+         *
+         * @param x the x displacement from the start pose
+         * @param y the y displacement from the start pose
+         * @param heading the heading displacement from the start pose
+         * @param velocity the field relative velocity, as x, y, and heading
+         * @param totalHeading the total heading turned, not clamped between 0 and 2 * pi
+         * @param ticks the raw positions of the left, right, and strafe pods
+         * @param timestamp the time of the read, in nanoseconds
+         */
+        void set(double x, double y, double heading, double[] velocity, double totalHeading, int[] ticks, long timestamp) {
+            this.x = x;
+            this.y = y;
+            this.heading = heading;
+            xVelocity = velocity[0];
+            yVelocity = velocity[1];
+            headingVelocity = velocity[2];
+            this.totalHeading = totalHeading;
+            leftTicks = ticks[0];
+            rightTicks = ticks[1];
+            strafeTicks = ticks[2];
+            this.timestamp = timestamp;
+        }
+    }
+
+    /**
+     * This creates a new OctoQuadLocalizer from a HardwareMap, with a starting Pose at (0,0)
+     * facing 0 heading.
+     *
+     * @param map the HardwareMap
+     */
+    public OctoQuadLocalizer(HardwareMap map) {
+        this(map, new Pose());
+    }
+
+    /**
+     * This creates a new OctoQuadLocalizer from a HardwareMap and a Pose, with the Pose
+     * specifying the starting pose of the localizer.
+     *
+     * @param map the HardwareMap
+     * @param setStartPose the Pose to start from
+     */
+    public OctoQuadLocalizer(HardwareMap map, Pose setStartPose) {
+        // TODO: replace this with your OctoQuad's name
+        octoQuad = map.get(OctoQuad.class, "octoquad");
+
+        // TODO: replace these with your encoder positions
+        leftEncoderPose = new Pose(-18.5/25.4 - 0.1, 164.4/25.4, 0);
+        rightEncoderPose = new Pose(-18.4/25.4 - 0.1, -159.6/25.4, 0);
+        strafeEncoderPose = new Pose(-107.9/25.4+0.25, -1.1/25.4-0.23, Math.toRadians(90));
+
+        // TODO: replace these with your OctoQuad channels
+        leftChannel = 0;
+        rightChannel = 1;
+        strafeChannel = 2;
+
+        // TODO: reverse any encoders necessary
+        leftDirection = Encoder.REVERSE;
+        rightDirection = Encoder.REVERSE;
+        strafeDirection = Encoder.FORWARD;
+
+        velocitySampleInterval = VELOCITY_SAMPLE_INTERVAL;
+        octoQuad.setSingleVelocitySampleInterval(leftChannel, velocitySampleInterval);
+        octoQuad.setSingleVelocitySampleInterval(rightChannel, velocitySampleInterval);
+        octoQuad.setSingleVelocitySampleInterval(strafeChannel, velocitySampleInterval);
+
+        setStartPose(setStartPose);
+
+        octoQuad.readAllEncoderData(encoderData);
+        previousPositions[0] = encoderData.positions[leftChannel];
+        previousPositions[1] = encoderData.positions[rightChannel];
+        previousPositions[2] = encoderData.positions[strafeChannel];
+        publish(new double[3]);
+        takeLatest();
+
+        if (useBackgroundPolling) {
+            startPolling(OCTOQUAD_POLLING_PERIOD);
+        }
+    }
+
+    /**
+     * This returns the current pose estimate.
+     *
+     * @return returns the current pose estimate as a Pose
+     */
+    @Override
+    public Pose getPose() {
+        Snapshot current = snapshot;
+        return MathFunctions.addPoses(startPose, new Pose(current.x, current.y, current.heading));
+    }
+
+    /**
+     * This returns the current velocity estimate.
+     *
+     * @return returns the current velocity estimate as a Pose
+     */
+    @Override
+    public Pose getVelocity() {
+        Snapshot current = snapshot;
+        return new Pose(current.xVelocity, current.yVelocity, current.headingVelocity);
+    }
+
+    /**
+     * This returns the current velocity estimate.
+     *
+     * @return returns the current velocity estimate as a Vector
+     */
+    @Override
+    public Vector getVelocityVector() {
+        return getVelocity().getVector();
+    }
+
+    /**
+     * This sets the start pose. Changing the start pose should move the robot as if all its
+     * previous movements were displacing it from its new start pose.
+     *
+     * @param setStart the new start pose
+     */
+    @Override
+    public void setStartPose(Pose setStart) {
+        startPose = setStart;
+    }
+
+    /**
+     * This sets the current pose estimate. Changing this should just change the robot's current
+     * pose estimate, not anything to do with the start pose.
+     *
+     * @param setPose the new current pose estimate
+     */
+    @Override
+    public synchronized void setPose(Pose setPose) {
+        Pose displacement = MathFunctions.subtractPoses(setPose, startPose);
+        x = displacement.getX();
+        y = displacement.getY();
+        heading = displacement.getHeading();
+        publish(globalVelocity);
+        takeLatest();
+    }
+
+    /**
+     * This reads the OctoQuad once and integrates the movement since the last read. If the OctoQuad
+     * is being polled on a background thread, no read is done here and the latest background read is
+     * used instead.
+     */
+    @Override
+    public void update() {
+        if (!polling) readNow();
+        takeLatest();
+    }
+
+    /**
+     * This swaps the latest published Snapshot out of the shared slot for the getters to use, if
+     * there is a newer one than the getters already have. This should only be called on the thread
+     * that uses the getters.
+     */
+    private void takeLatest() {
+        if (!slot.get().fresh) return;
+        snapshot.fresh = false;
+        snapshot = slot.getAndSet(snapshot);
+    }
+
+    /**
+     * This fills in the reading side's Snapshot with the current pose and a specified velocity, and
+     * swaps it into the shared slot. This has to be called while holding the lock, like readNow().
+     *
+     * @param velocity the field relative velocity, as x, y, and heading
+     */
+    private void publish(double[] velocity) {
+        Snapshot current = writeSnapshot;
+        current.set(x, y, heading, velocity, totalHeading, previousPositions, System.nanoTime());
+        current.fresh = true;
+        writeSnapshot = slot.getAndSet(current);
+    }
+
+    /**
+     * This does one burst read of the positions and velocities of all the pods, integrates the
+     * change in position with the pose exponential, and publishes the result as the latest
+     * Snapshot. The getters see it after the next update().
+     */
+    public synchronized void readNow() {
+        octoQuad.readAllEncoderData(encoderData);
+        int left = encoderData.positions[leftChannel];
+        int right = encoderData.positions[rightChannel];
+        int strafe = encoderData.positions[strafeChannel];
+
+        // subtracting ints still gives the right change if a position has wrapped around
+        getRobotMovement(leftDirection * (left - previousPositions[0]), rightDirection * (right - previousPositions[1]), strafeDirection * (strafe - previousPositions[2]), robotMovement);
+        previousPositions[0] = left;
+        previousPositions[1] = right;
+        previousPositions[2] = strafe;
+
+        PoseExponential.getGlobalDeltas(startPose.getHeading() + heading, robotMovement[0], robotMovement[1], robotMovement[2], globalMovement);
+        x += globalMovement[0];
+        y += globalMovement[1];
+        heading += globalMovement[2];
+        totalHeading += globalMovement[2];
+
+        // the OctoQuad reports velocities in ticks per sample interval
+        double samplesPerSecond = 1000.0 / velocitySampleInterval;
+        getRobotMovement(leftDirection * encoderData.velocities[leftChannel] * samplesPerSecond, rightDirection * encoderData.velocities[rightChannel] * samplesPerSecond, strafeDirection * encoderData.velocities[strafeChannel] * samplesPerSecond, robotMovement);
+        PoseExponential.getGlobalVelocity(startPose.getHeading() + heading, robotMovement[0], robotMovement[1], robotMovement[2], globalVelocity);
+
+        publish(globalVelocity);
+    }
+
+    /**
+     * This converts movement of the pods into movement from the perspective of the robot. This
+     * works the same for changes in position and for velocities.
+     *
+     * @param left the movement of the left pod, in ticks.
+     * @param right the movement of the right pod, in ticks.
+     * @param strafe the movement of the strafe pod, in ticks.
+     * @param movement the Array to write the robot relative forward, strafe, and turning movement
+     *                 into.
+     */
+    private void getRobotMovement(double left, double right, double strafe, double[] movement) {
+        double trackWidth = leftEncoderPose.getY() - rightEncoderPose.getY();
+        // x/forward movement
+        movement[0] = FORWARD_TICKS_TO_INCHES * ((right * leftEncoderPose.getY() - left * rightEncoderPose.getY()) / trackWidth);
+        //y/strafe movement
+        movement[1] = STRAFE_TICKS_TO_INCHES * (strafe - strafeEncoderPose.getX() * ((right - left) / trackWidth));
+        // theta/turning
+        movement[2] = TURN_TICKS_TO_RADIANS * ((right - left) / trackWidth);
+    }
+
+    /**
+     * This returns the Snapshot the getters are using, from the last update(). This never does any
+     * I2C reads.
+     *
+     * @return returns the latest Snapshot
+     */
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * This starts a background thread that reads the OctoQuad every specified number of
+     * milliseconds. If the background thread is already running, this does nothing.
+     *
+     * @param periodMilliseconds the time between reads, in milliseconds
+     */
+    public synchronized void startPolling(double periodMilliseconds) {
+        if (polling) return;
+        long pollingPeriodNano = (long) (periodMilliseconds * Math.pow(10.0, 6));
+        pollingError = null;
+        polling = true;
+        pollingThread = new Thread(() -> poll(pollingPeriodNano), "OctoQuadLocalizer");
+        pollingThread.setDaemon(true);
+        pollingThread.start();
+    }
+
+    /**
+     * This stops the background thread, if it is running, and waits for it to finish its current
+     * read. This should be called when the OpMode using this localizer stops.
+     */
+    @Override
+    public void stopPolling() {
+        Thread thread = pollingThread;
+        polling = false;
+        pollingThread = null;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * This returns if the background thread is currently polling the OctoQuad.
+     *
+     * @return returns if polling
+     */
+    public boolean isPolling() {
+        return polling;
+    }
+
+    /**
+     * This returns the exception that stopped the background thread, if a read on it failed.
+     *
+     * @return returns the exception, or null if the background thread hasn't failed
+     */
+    public RuntimeException getPollingError() {
+        return pollingError;
+    }
+
+    /**
+     * This is the loop the background thread runs. It reads the OctoQuad, then sleeps for whatever
+     * is left of the polling period. If a read fails, which happens once the OpMode has stopped and
+     * the OctoQuad is closed, the exception is kept and the thread stops polling, so update() goes
+     * back to reading on the OpMode thread.
+     *
+     * @param pollingPeriodNano the time between reads, in nanoseconds
+     */
+    private void poll(long pollingPeriodNano) {
+        while (polling && !Thread.currentThread().isInterrupted()) {
+            long startTime = System.nanoTime();
+            try {
+                readNow();
+            } catch (RuntimeException e) {
+                pollingError = e;
+                polling = false;
+                break;
+            }
+            long sleepTime = pollingPeriodNano - (System.nanoTime() - startTime);
+            if (sleepTime > 0) {
+                try {
+                    Thread.sleep(sleepTime / 1000000, (int) (sleepTime % 1000000));
+                } catch (InterruptedException e) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * This returns how far the robot has turned in radians, in a number not clamped between 0 and
+     * 2 * pi radians. This is used for some tuning things and nothing actually within the following.
+     *
+     * @return returns how far the robot has turned in total, in radians.
+     */
+    public double getTotalHeading() {
+        return snapshot.totalHeading;
+    }
+
+    /**
+     * This returns the multiplier applied to forward movement measurement to convert from encoder
+     * ticks to inches. This is found empirically through a tuner.
+     *
+     * @return returns the forward ticks to inches multiplier
+     */
+    public double getForwardMultiplier() {
+        return FORWARD_TICKS_TO_INCHES;
+    }
+
+    /**
+     * This returns the multiplier applied to lateral/strafe movement measurement to convert from
+     * encoder ticks to inches. This is found empirically through a tuner.
+     *
+     * @return returns the lateral/strafe ticks to inches multiplier
+     */
+    public double getLateralMultiplier() {
+        return STRAFE_TICKS_TO_INCHES;
+    }
+
+    /**
+     * This returns the multiplier applied to turning movement measurement to convert from encoder
+     * ticks to radians. This is found empirically through a tuner.
+     *
+     * @return returns the turning ticks to radians multiplier
+     */
+    public double getTurningMultiplier() {
+        return TURN_TICKS_TO_RADIANS;
+    }
+
+    /**
+     * This writes the raw pod positions from the latest read into a RunFrame.
+     *
+     * @param frame the frame to write the readings into
+     */
+    @Override
+    public void recordRawData(RunFrame frame) {
+        Snapshot current = snapshot;
+        frame.setEncoderTicks(current.leftTicks, current.rightTicks, current.strafeTicks);
+    }
+}
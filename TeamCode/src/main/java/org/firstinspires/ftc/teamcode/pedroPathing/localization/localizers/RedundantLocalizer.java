@@ -0,0 +1,328 @@
+package org.firstinspires.ftc.teamcode.pedroPathing.localization.localizers;
+
+import com.acmerobotics.dashboard.config.Config;
+
+import org.firstinspires.ftc.teamcode.pedroPathing.localization.Localizer;
+import org.firstinspires.ftc.teamcode.pedroPathing.localization.Pose;
+import org.firstinspires.ftc.teamcode.pedroPathing.localization.SlipMonitor;
+import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.MathFunctions;
+import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.Vector;
+import org.firstinspires.ftc.teamcode.pedroPathing.replay.RunFrame;
+import org.firstinspires.ftc.teamcode.pedroPathing.util.RobotClock;
+
+/**
+ * This is the RedundantLocalizer class. This class extends the Localizer superclass and runs two
+ * other localizers side by side, like the drive encoders and dead wheels, or dead wheels and the
+ * OTOS. The primary localizer is followed normally, and the reference localizer is used to check
+ * it with a SlipMonitor.
+ *
+ * When the SlipMonitor finds a slip or collision, the change in pose each update is blended
+ * between the two localizers, with PRIMARY_WEIGHT_DURING_SLIP or PRIMARY_WEIGHT_DURING_COLLISION
+ * of it coming from the primary localizer. The default of 0 ignores the primary localizer
+ * completely until the localizers agree again. To follow the reference localizer during only one
+ * type of event, set the other weight to 1. An event is only noticed after a few loops disagree,
+ * so when it starts, the movement from those loops is blended again with the same weight.
+ *
+ * To use this, pass it into the Follower along with the HardwareMap:
+ * new Follower(hardwareMap, new RedundantLocalizer(new DriveEncoderLocalizer(hardwareMap), new ThreeWheelLocalizer(hardwareMap)))
+ *
+ * @version 1.0, 10/19/2026
+ */
+@Config
+public class RedundantLocalizer extends Localizer {
+    private final Localizer primary;
+    private final Localizer reference;
+    private final SlipMonitor slipMonitor;
+
+    private Pose startPose;
+    private Pose displacementPose;
+    private Pose currentVelocity;
+    private double totalHeading;
+
+    // How far the primary localizer moved past the reference localizer in the loops that disagreed
+    // before an event started
+    private double pendingX, pendingY, pendingHeading;
+
+    private Pose previousPrimaryPose;
+    private Pose previousReferencePose;
+    private long previousUpdateTimeNano;
+
+    // How much of the primary localizer's movement is used during a slip, from 0 to 1
+    public static double PRIMARY_WEIGHT_DURING_SLIP = 0;
+
+    // How much of the primary localizer's movement is used during a collision, from 0 to 1
+    public static double PRIMARY_WEIGHT_DURING_COLLISION = 0;
+
+    /**
+     * This creates a new RedundantLocalizer from two localizers, with a starting Pose at (0,0)
+     * facing 0 heading.
+     *
+     * @param primary the localizer that is followed normally.
+     * @param reference the localizer that is used to check the primary localizer.
+     */
+    public RedundantLocalizer(Localizer primary, Localizer reference) {
+        this(primary, reference, new Pose());
+    }
+
+    /**
+     * This creates a new RedundantLocalizer from two localizers and a Pose, with the Pose
+     * specifying the starting pose of the localizer.
+     *
+     * @param primary the localizer that is followed normally.
+     * @param reference the localizer that is used to check the primary localizer.
+     * @param setStartPose the Pose to start from.
+     */
+    public RedundantLocalizer(Localizer primary, Localizer reference, Pose setStartPose) {
+        this.primary = primary;
+        this.reference = reference;
+        slipMonitor = new SlipMonitor();
+
+        startPose = setStartPose;
+        displacementPose = new Pose();
+        currentVelocity = new Pose();
+        setPose(setStartPose);
+    }
+
+    /**
+     * This returns the current pose estimate.
+     *
+     * @return returns the current pose estimate as a Pose
+     */
+    @Override
+    public Pose getPose() {
+        return MathFunctions.addPoses(startPose, displacementPose);
+    }
+
+    /**
+     * This returns the current velocity estimate.
+     *
+     * @return returns the current velocity estimate as a Pose
+     */
+    @Override
+    public Pose getVelocity() {
+        return currentVelocity.copy();
+    }
+
+    /**
+     * This returns the current velocity estimate.
+     *
+     * @return returns the current velocity estimate as a Vector
+     */
+    @Override
+    public Vector getVelocityVector() {
+        return currentVelocity.getVector();
+    }
+
+    /**
+     * This sets the start pose. Changing the start pose should move the robot as if all its
+     * previous movements were displacing it from its new start pose.
+     *
+     * @param setStart the new start pose
+     */
+    @Override
+    public void setStartPose(Pose setStart) {
+        startPose = setStart;
+    }
+
+    /**
+     * This sets the current pose estimate of this localizer and both localizers inside it. Since
+     * this moves the localizers on purpose, the SlipMonitor is reset too.
+     *
+     * @param setPose the new current pose estimate
+     */
+    @Override
+    public void setPose(Pose setPose) {
+        displacementPose = MathFunctions.subtractPoses(setPose, startPose);
+        primary.setPose(setPose);
+        reference.setPose(setPose);
+        previousPrimaryPose = primary.getPose();
+        previousReferencePose = reference.getPose();
+        previousUpdateTimeNano = RobotClock.nanoTime();
+        pendingX = 0;
+        pendingY = 0;
+        pendingHeading = 0;
+        slipMonitor.reset();
+    }
+
+    /**
+     * This updates both localizers, checks them against each other, and then moves the pose
+     * estimate by the primary localizer's change in pose, or by a blend of both if they disagree.
+     */
+    @Override
+    public void update() {
+        primary.update();
+        reference.update();
+
+        long now = RobotClock.nanoTime();
+        double deltaTime = (now - previousUpdateTimeNano) / 1e9;
+        previousUpdateTimeNano = now;
+
+        Pose primaryPose = primary.getPose();
+        Pose referencePose = reference.getPose();
+        double primaryX = primaryPose.getX() - previousPrimaryPose.getX();
+        double primaryY = primaryPose.getY() - previousPrimaryPose.getY();
+        double primaryHeading = getHeadingChange(previousPrimaryPose.getHeading(), primaryPose.getHeading());
+        double referenceX = referencePose.getX() - previousReferencePose.getX();
+        double referenceY = referencePose.getY() - previousReferencePose.getY();
+        double referenceHeading = getHeadingChange(previousReferencePose.getHeading(), referencePose.getHeading());
+        previousPrimaryPose = primaryPose;
+        previousReferencePose = referencePose;
+
+        slipMonitor.update(primaryX, primaryY, primaryHeading, referenceX, referenceY, referenceHeading, deltaTime, now);
+
+        double weight = getPrimaryWeight();
+        double correctionX = 0, correctionY = 0, correctionHeading = 0;
+        if (slipMonitor.hasEventStarted()) {
+            // the loops before this one that disagreed were used as is, so they are blended now
+            correctionX = (1 - weight) * pendingX;
+            correctionY = (1 - weight) * pendingY;
+            correctionHeading = (1 - weight) * pendingHeading;
+        }
+        if (slipMonitor.getDisagreeingLoops() > 0 && !slipMonitor.isInEvent()) {
+            pendingX += primaryX - referenceX;
+            pendingY += primaryY - referenceY;
+            pendingHeading += primaryHeading - referenceHeading;
+        } else {
+            pendingX = 0;
+            pendingY = 0;
+            pendingHeading = 0;
+        }
+
+        double headingChange = weight * primaryHeading + (1 - weight) * referenceHeading - correctionHeading;
+        displacementPose.add(new Pose(
+                weight * primaryX + (1 - weight) * referenceX - correctionX,
+                weight * primaryY + (1 - weight) * referenceY - correctionY,
+                headingChange));
+        totalHeading += headingChange;
+
+        if (weight == 1) {
+            currentVelocity = primary.getVelocity();
+        } else if (weight == 0) {
+            currentVelocity = reference.getVelocity();
+        } else {
+            Pose primaryVelocity = primary.getVelocity();
+            Pose referenceVelocity = reference.getVelocity();
+            currentVelocity = new Pose(
+                    weight * primaryVelocity.getX() + (1 - weight) * referenceVelocity.getX(),
+                    weight * primaryVelocity.getY() + (1 - weight) * referenceVelocity.getY(),
+                    weight * primaryVelocity.getHeading() + (1 - weight) * referenceVelocity.getHeading());
+        }
+    }
+
+    /**
+     * This returns how much of the primary localizer's movement should be used right now, based on
+     * the type of event the SlipMonitor is in.
+     *
+     * @return returns the weight of the primary localizer, from 0 to 1.
+     */
+    private double getPrimaryWeight() {
+        switch (slipMonitor.getCurrentType()) {
+            case SlipMonitor.SLIP:
+                return MathFunctions.clamp(PRIMARY_WEIGHT_DURING_SLIP, 0, 1);
+            case SlipMonitor.COLLISION:
+                return MathFunctions.clamp(PRIMARY_WEIGHT_DURING_COLLISION, 0, 1);
+            default:
+                return 1;
+        }
+    }
+
+    /**
+     * This returns the signed change from one heading to another, between -pi and pi radians.
+     *
+     * @param previousHeading the heading before the change.
+     * @param currentHeading the heading after the change.
+     * @return returns the change in heading.
+     */
+    private static double getHeadingChange(double previousHeading, double currentHeading) {
+        return MathFunctions.getTurnDirection(previousHeading, currentHeading) * MathFunctions.getSmallestAngleDifference(currentHeading, previousHeading);
+    }
+
+    /**
+     * This returns how far the robot has turned in radians, in a number not clamped between 0 and
+     * 2 * pi radians. This is used for some tuning things and nothing actually within the following.
+     *
+     * @return returns how far the robot has turned in total, in radians.
+     */
+    public double getTotalHeading() {
+        return totalHeading;
+    }
+
+    /**
+     * This returns the forward multiplier of the primary localizer.
+     *
+     * @return returns the forward ticks to inches multiplier
+     */
+    public double getForwardMultiplier() {
+        return primary.getForwardMultiplier();
+    }
+
+    /**
+     * This returns the lateral multiplier of the primary localizer.
+     *
+     * @return returns the lateral/strafe ticks to inches multiplier
+     */
+    public double getLateralMultiplier() {
+        return primary.getLateralMultiplier();
+    }
+
+    /**
+     * This returns the turning multiplier of the primary localizer.
+     *
+     * @return returns the turning ticks to radians multiplier
+     */
+    public double getTurningMultiplier() {
+        return primary.getTurningMultiplier();
+    }
+
+    /**
+     * This records the raw readings of the primary localizer.
+     *
+     * @param frame the frame to write the readings into
+     */
+    @Override
+    public void recordRawData(RunFrame frame) {
+        primary.recordRawData(frame);
+    }
+
+    /**
+     * This stops the background threads of both localizers, if they have any.
+     */
+    @Override
+    public void stopPolling() {
+        primary.stopPolling();
+        reference.stopPolling();
+    }
+
+    /**
+     * This recalibrates the IMUs of both localizers, if they have any.
+     */
+    @Override
+    public void calibrateIMU() {
+        primary.calibrateIMU();
+        reference.calibrateIMU();
+    }
+
+    /**
+     * This returns the SlipMonitor checking the two localizers, to see if a slip or collision is
+     * happening and the events so far.
+     *
+     * @return returns the SlipMonitor.
+     */
+    public SlipMonitor getSlipMonitor() {
+        return slipMonitor;
+    }
+
+    /**
+     * @return returns the primary localizer.
+     */
+    public Localizer getPrimary() {
+        return primary;
+    }
+
+    /**
+     * @return returns the reference localizer.
+     */
+    public Localizer getReference() {
+        return reference;
+    }
+}
@@ -0,0 +1,155 @@
+package org.firstinspires.ftc.teamcode.pedroPathing.localization.localizers;
+
+import org.firstinspires.ftc.teamcode.pedroPathing.localization.Localizer;
+import org.firstinspires.ftc.teamcode.pedroPathing.localization.Pose;
+import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.MathFunctions;
+import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.Vector;
+import org.firstinspires.ftc.teamcode.pedroPathing.replay.RunFrame;
+
+/**
+ * This is the ReplayLocalizer class. This class extends the Localizer superclass and is a
+ * localizer that plays back the poses recorded in a run log instead of reading any hardware. It is
+ * used by the RunReplayer, which sets the frame to play back before every update.
+ *
+ * The recorded poses are the poses the Localizer on the robot put out, which already include any
+ * start pose or pose that was set on the robot. Because of this, setStartPose() and setPose() do
+ * nothing, so the same OpMode code that set them on the robot can be replayed as is.
+ *
+ * @version 1.0, 10/19/2026
+ */
+public class ReplayLocalizer extends Localizer {
+    private RunFrame frame = new RunFrame();
+
+    private Pose recordedPose = new Pose();
+    private Pose previousRecordedPose;
+    private Pose currentVelocity = new Pose();
+
+    private long previousTimestamp;
+
+    private double totalHeading;
+
+    /**
+     * This sets the frame that the next call to update() plays back. The frame is copied, so the
+     * caller can reuse it.
+     *
+     * @param setFrame the frame to play back.
+     */
+    public void setFrame(RunFrame setFrame) {
+        frame.set(setFrame);
+    }
+
+    /**
+     * This returns the frame that is currently being played back.
+     *
+     * @return returns the current frame.
+     */
+    public RunFrame getFrame() {
+        return frame;
+    }
+
+    /**
+     * This returns the played back pose.
+     *
+     * @return returns the current pose estimate
+     */
+    @Override
+    public Pose getPose() {
+        return recordedPose.copy();
+    }
+
+    /**
+     * This returns the velocity found from the change in the recorded pose between the last two
+     * played back frames.
+     *
+     * @return returns the current velocity estimate
+     */
+    @Override
+    public Pose getVelocity() {
+        return currentVelocity.copy();
+    }
+
+    /**
+     * This returns the velocity as a Vector.
+     *
+     * @return returns the current velocity estimate as a Vector
+     */
+    @Override
+    public Vector getVelocityVector() {
+        return currentVelocity.getVector();
+    }
+
+    /**
+     * This does nothing, since the recorded poses already include the start pose.
+     *
+     * @param setStart the new start pose
+     */
+    @Override
+    public void setStartPose(Pose setStart) {
+    }
+
+    /**
+     * This does nothing, since the recorded poses already include any pose set on the robot.
+     *
+     * @param setPose the new current pose estimate
+     */
+    @Override
+    public void setPose(Pose setPose) {
+    }
+
+    /**
+     * This plays back the current frame, and finds the velocity from the time stamps of the frames.
+     */
+    @Override
+    public void update() {
+        recordedPose = new Pose(frame.x, frame.y, frame.heading);
+        if (previousRecordedPose != null && frame.timestamp > previousTimestamp) {
+            double deltaTime = (frame.timestamp - previousTimestamp) / Math.pow(10.0, 9);
+            Pose delta = MathFunctions.subtractPoses(recordedPose, previousRecordedPose);
+            double deltaHeading = MathFunctions.getTurnDirection(previousRecordedPose.getHeading(), recordedPose.getHeading()) * MathFunctions.getSmallestAngleDifference(recordedPose.getHeading(), previousRecordedPose.getHeading());
+            currentVelocity = new Pose(delta.getX() / deltaTime, delta.getY() / deltaTime, deltaHeading / deltaTime);
+            totalHeading += deltaHeading;
+        }
+        previousRecordedPose = recordedPose;
+        previousTimestamp = frame.timestamp;
+    }
+
+    /**
+     * This returns how far the played back heading has turned in total.
+     *
+     * @return returns how far the robot has turned in total, in radians.
+     */
+    @Override
+    public double getTotalHeading() {
+        return totalHeading;
+    }
+
+    /**
+     * The played back poses are already scaled, so this returns 1.
+     *
+     * @return returns the forward multiplier
+     */
+    @Override
+    public double getForwardMultiplier() {
+        return 1;
+    }
+
+    /**
+     * The played back poses are already scaled, so this returns 1.
+     *
+     * @return returns the lateral multiplier
+     */
+    @Override
+    public double getLateralMultiplier() {
+        return 1;
+    }
+
+    /**
+     * The played back poses are already scaled, so this returns 1.
+     *
+     * @return returns the turning multiplier
+     */
+    @Override
+    public double getTurningMultiplier() {
+        return 1;
+    }
+}
@@ -11,9 +11,11 @@ import org.firstinspires.ftc.teamcode.pedroPathing.localization.Encoder;
 import org.firstinspires.ftc.teamcode.pedroPathing.localization.Localizer;
 import org.firstinspires.ftc.teamcode.pedroPathing.localization.Matrix;
 import org.firstinspires.ftc.teamcode.pedroPathing.localization.Pose;
+import org.firstinspires.ftc.teamcode.pedroPathing.localization.PoseExponential;
 import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.MathFunctions;
 import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.Vector;
-import org.firstinspires.ftc.teamcode.pedroPathing.util.NanoTimer;
+import org.firstinspires.ftc.teamcode.pedroPathing.replay.RunFrame;
+import org.firstinspires.ftc.teamcode.pedroPathing.util.HardwareInitializer;
 
 /**
  * This is the ThreeWheelIMULocalizer class. This class extends the Localizer superclass and is a
@@ -49,9 +51,6 @@ public class ThreeWheelIMULocalizer extends Localizer {
     private Pose startPose;
     private Pose displacementPose;
     private Pose currentVelocity;
-    private Matrix prevRotationMatrix;
-    private NanoTimer timer;
-    private long deltaTimeNano;
     private Encoder leftEncoder;
     private Encoder rightEncoder;
     private Encoder strafeEncoder;
@@ -60,6 +59,7 @@ public class ThreeWheelIMULocalizer extends Localizer {
     private Pose strafeEncoderPose;
 
     public final IMU imu;
+    private HardwareInitializer.Task imuInit;
     private double previousIMUOrientation;
     private double deltaRadians;
     private double totalHeading;
@@ -90,8 +90,11 @@ public class ThreeWheelIMULocalizer extends Localizer {
         hardwareMap = map;
         imu = hardwareMap.get(IMU.class, "imu");
 
-        // TODO: replace this with your IMU's orientation
-        imu.initialize(new IMU.Parameters(new RevHubOrientationOnRobot(RevHubOrientationOnRobot.LogoFacingDirection.LEFT, RevHubOrientationOnRobot.UsbFacingDirection.UP)));
+        // The IMU is set up on a background thread, and updateEncoders() waits for it to finish
+        imuInit = HardwareInitializer.getInstance().submit("imu", () -> {
+            // TODO: replace this with your IMU's orientation
+            imu.initialize(new IMU.Parameters(new RevHubOrientationOnRobot(RevHubOrientationOnRobot.LogoFacingDirection.LEFT, RevHubOrientationOnRobot.UsbFacingDirection.UP)));
+        });
 
         // TODO: replace these with your encoder positions
         leftEncoderPose = new Pose(-3, 5.7, 0);
@@ -110,8 +113,6 @@ public class ThreeWheelIMULocalizer extends Localizer {
         strafeEncoder.setDirection(Encoder.FORWARD);
 
         setStartPose(setStartPose);
-        timer = new NanoTimer();
-        deltaTimeNano = 1;
         displacementPose = new Pose();
         currentVelocity = new Pose();
         totalHeading = 0;
@@ -160,20 +161,6 @@ public class ThreeWheelIMULocalizer extends Localizer {
         startPose = setStart;
     }
 
-    /**
-     * This sets the Matrix that contains the previous pose's heading rotation.
-     *
-     * @param heading the rotation of the Matrix
-     */
-    public void setPrevRotationMatrix(double heading) {
-        prevRotationMatrix = new Matrix(3,3);
-        prevRotationMatrix.set(0, 0, Math.cos(heading));
-        prevRotationMatrix.set(0, 1, -Math.sin(heading));
-        prevRotationMatrix.set(1, 0, Math.sin(heading));
-        prevRotationMatrix.set(1, 1, Math.cos(heading));
-        prevRotationMatrix.set(2, 2, 1.0);
-    }
-
     /**
      * This sets the current pose estimate. Changing this should just change the robot's current
      * pose estimate, not anything to do with the start pose.
@@ -187,41 +174,20 @@ public class ThreeWheelIMULocalizer extends Localizer {
     }
 
     /**
-     * This updates the elapsed time timer that keeps track of time between updates, as well as the
-     * change position of the Encoders. Then, the robot's global change in position is calculated
-     * using the pose exponential method.
+     * This updates the change in position of the Encoders. Then, the robot's global change in
+     * position is calculated using the pose exponential method, and the robot's velocity is
+     * calculated from the Encoder velocities measured by the hub.
      */
     @Override
     public void update() {
-        deltaTimeNano = timer.getElapsedTime();
-        timer.resetTimer();
-
         updateEncoders();
         Matrix robotDeltas = getRobotDeltas();
-        Matrix globalDeltas;
-        setPrevRotationMatrix(getPose().getHeading());
-
-        Matrix transformation = new Matrix(3,3);
-        if (Math.abs(robotDeltas.get(2, 0)) < 0.001) {
-            transformation.set(0, 0, 1.0 - (Math.pow(robotDeltas.get(2, 0), 2) / 6.0));
-            transformation.set(0, 1, -robotDeltas.get(2, 0) / 2.0);
-            transformation.set(1, 0, robotDeltas.get(2, 0) / 2.0);
-            transformation.set(1, 1, 1.0 - (Math.pow(robotDeltas.get(2, 0), 2) / 6.0));
-            transformation.set(2, 2, 1.0);
-        } else {
-            transformation.set(0, 0, Math.sin(robotDeltas.get(2, 0)) / robotDeltas.get(2, 0));
-            transformation.set(0, 1, (Math.cos(robotDeltas.get(2, 0)) - 1.0) / robotDeltas.get(2, 0));
-            transformation.set(1, 0, (1.0 - Math.cos(robotDeltas.get(2, 0))) / robotDeltas.get(2, 0));
-            transformation.set(1, 1, Math.sin(robotDeltas.get(2, 0)) / robotDeltas.get(2, 0));
-            transformation.set(2, 2, 1.0);
-        }
+        Pose globalDeltas = PoseExponential.getGlobalDeltas(getPose().getHeading(), robotDeltas);
+        displacementPose.add(globalDeltas);
 
-        globalDeltas = Matrix.multiply(Matrix.multiply(prevRotationMatrix, transformation), robotDeltas);
+        currentVelocity = PoseExponential.getGlobalVelocity(getPose().getHeading(), getRobotVelocities());
 
-        displacementPose.add(new Pose(globalDeltas.get(0, 0), globalDeltas.get(1, 0), globalDeltas.get(2, 0)));
-        currentVelocity = new Pose(globalDeltas.get(0, 0) / (deltaTimeNano * Math.pow(10.0, 9)), globalDeltas.get(1, 0) / (deltaTimeNano * Math.pow(10.0, 9)), globalDeltas.get(2, 0) / (deltaTimeNano * Math.pow(10.0, 9)));
-
-        totalHeading += globalDeltas.get(2, 0);
+        totalHeading += globalDeltas.getHeading();
     }
 
     /**
@@ -232,6 +198,7 @@ public class ThreeWheelIMULocalizer extends Localizer {
         rightEncoder.update();
         strafeEncoder.update();
 
+        imuInit.await();
         double currentIMUOrientation = MathFunctions.normalizeAngle(imu.getRobotYawPitchRollAngles().getYaw(AngleUnit.RADIANS));
         deltaRadians = MathFunctions.getTurnDirection(previousIMUOrientation, currentIMUOrientation) * MathFunctions.getSmallestAngleDifference(currentIMUOrientation, previousIMUOrientation);
         previousIMUOrientation = currentIMUOrientation;
@@ -253,20 +220,46 @@ public class ThreeWheelIMULocalizer extends Localizer {
      * @return returns a Matrix containing the robot relative movement.
      */
     public Matrix getRobotDeltas() {
-        Matrix returnMatrix = new Matrix(3,1);
-        // x/forward movement
-        returnMatrix.set(0,0, FORWARD_TICKS_TO_INCHES * ((rightEncoder.getDeltaPosition() * leftEncoderPose.getY() - leftEncoder.getDeltaPosition() * rightEncoderPose.getY()) / (leftEncoderPose.getY() - rightEncoderPose.getY())));
-        //y/strafe movement
-        returnMatrix.set(1,0, STRAFE_TICKS_TO_INCHES * (strafeEncoder.getDeltaPosition() - strafeEncoderPose.getX() * ((rightEncoder.getDeltaPosition() - leftEncoder.getDeltaPosition()) / (leftEncoderPose.getY() - rightEncoderPose.getY()))));
+        Matrix returnMatrix = getRobotMovement(leftEncoder.getDeltaPosition(), rightEncoder.getDeltaPosition(), strafeEncoder.getDeltaPosition());
         // theta/turning
         if (MathFunctions.getSmallestAngleDifference(0, deltaRadians) > 0.00005 && useIMU) {
             returnMatrix.set(2, 0, deltaRadians);
-        } else {
-            returnMatrix.set(2,0, TURN_TICKS_TO_RADIANS * ((rightEncoder.getDeltaPosition() - leftEncoder.getDeltaPosition()) / (leftEncoderPose.getY() - rightEncoderPose.getY())));
         }
         return returnMatrix;
     }
 
+    /**
+     * This calculates the velocity from the perspective of the robot using the velocities of the
+     * Encoders measured by the hub. The turning velocity comes from the Encoders too, since reading
+     * the IMU's angular velocity would be another slow I2C call.
+     *
+     * @return returns a Matrix containing the robot relative velocity, in inches and radians per
+     *         second.
+     */
+    public Matrix getRobotVelocities() {
+        return getRobotMovement(leftEncoder.getVelocity(), rightEncoder.getVelocity(), strafeEncoder.getVelocity());
+    }
+
+    /**
+     * This converts movement of the Encoders into movement from the perspective of the robot. This
+     * works the same for changes in position and for velocities.
+     *
+     * @param left the movement of the left Encoder, in ticks.
+     * @param right the movement of the right Encoder, in ticks.
+     * @param strafe the movement of the strafe Encoder, in ticks.
+     * @return returns a Matrix containing the robot relative movement.
+     */
+    private Matrix getRobotMovement(double left, double right, double strafe) {
+        Matrix returnMatrix = new Matrix(3,1);
+        // x/forward movement
+        returnMatrix.set(0,0, FORWARD_TICKS_TO_INCHES * ((right * leftEncoderPose.getY() - left * rightEncoderPose.getY()) / (leftEncoderPose.getY() - rightEncoderPose.getY())));
+        //y/strafe movement
+        returnMatrix.set(1,0, STRAFE_TICKS_TO_INCHES * (strafe - strafeEncoderPose.getX() * ((right - left) / (leftEncoderPose.getY() - rightEncoderPose.getY()))));
+        // theta/turning
+        returnMatrix.set(2,0, TURN_TICKS_TO_RADIANS * ((right - left) / (leftEncoderPose.getY() - rightEncoderPose.getY())));
+        return returnMatrix;
+    }
+
     /**
      * This returns how far the robot has turned in radians, in a number not clamped between 0 and
      * 2 * pi radians. This is used for some tuning things and nothing actually within the following.
@@ -306,4 +299,16 @@ public class ThreeWheelIMULocalizer extends Localizer {
     public double getTurningMultiplier() {
         return TURN_TICKS_TO_RADIANS;
     }
-}
\ No newline at end of file
+
+    /**
+     * This writes the raw Encoder positions and IMU yaw from the last update into a RunFrame.
+     *
+     * @param frame the frame to write the readings into
+     */
+    @Override
+    public void recordRawData(RunFrame frame) {
+        frame.setEncoderTicks(leftEncoder.getRawPosition(), rightEncoder.getRawPosition(), strafeEncoder.getRawPosition());
+        frame.setEncoderOffsets(leftEncoder.getZeroOffset(), rightEncoder.getZeroOffset(), strafeEncoder.getZeroOffset());
+        frame.imuYaw = previousIMUOrientation;
+    }
+}
@@ -8,9 +8,10 @@ import org.firstinspires.ftc.teamcode.pedroPathing.localization.Encoder;
 import org.firstinspires.ftc.teamcode.pedroPathing.localization.Localizer;
 import org.firstinspires.ftc.teamcode.pedroPathing.localization.Matrix;
 import org.firstinspires.ftc.teamcode.pedroPathing.localization.Pose;
+import org.firstinspires.ftc.teamcode.pedroPathing.localization.PoseExponential;
 import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.MathFunctions;
 import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.Vector;
-import org.firstinspires.ftc.teamcode.pedroPathing.util.NanoTimer;
+import org.firstinspires.ftc.teamcode.pedroPathing.replay.RunFrame;
 
 /**
  * This is the ThreeWheelLocalizer class. This class extends the Localizer superclass and is a
@@ -45,9 +46,6 @@ public class ThreeWheelLocalizer extends Localizer {
     private Pose startPose;
     private Pose displacementPose;
     private Pose currentVelocity;
-    private Matrix prevRotationMatrix;
-    private NanoTimer timer;
-    private long deltaTimeNano;
     private Encoder leftEncoder;
     private Encoder rightEncoder;
     private Encoder strafeEncoder;
@@ -77,17 +75,50 @@ public class ThreeWheelLocalizer extends Localizer {
      * @param setStartPose the Pose to start from
      */
     public ThreeWheelLocalizer(HardwareMap map, Pose setStartPose) {
+        // TODO: replace these with your encoder ports
+        this(new Encoder(map.get(DcMotorEx.class, "leftRear")),
+                new Encoder(map.get(DcMotorEx.class, "rightFront")),
+                new Encoder(map.get(DcMotorEx.class, "strafeEncoder")),
+                setStartPose);
+        hardwareMap = map;
+    }
+
+    /**
+     * This creates a new ThreeWheelLocalizer that re-runs the odometry from the raw Encoder
+     * positions recorded in a run log, instead of reading any hardware. This is used by the
+     * RunReplayer to rebuild the pose off of the robot.
+     *
+     * @param frame the frame the RunReplayer plays back
+     * @param setStartPose the Pose to start from
+     * @return returns the new ThreeWheelLocalizer
+     */
+    public static ThreeWheelLocalizer fromRunFrame(RunFrame frame, Pose setStartPose) {
+        // TODO: replace these with the directions your encoder motors are set to on the robot, in
+        // the same order that recordRawData() records them
+        return new ThreeWheelLocalizer(new Encoder(frame, 0, Encoder.REVERSE),
+                new Encoder(frame, 1, Encoder.REVERSE),
+                new Encoder(frame, 2, Encoder.FORWARD),
+                setStartPose);
+    }
+
+    /**
+     * This creates a new ThreeWheelLocalizer from three Encoders and a Pose, with the Pose
+     * specifying the starting pose of the localizer.
+     *
+     * @param left the left Encoder
+     * @param right the right Encoder
+     * @param strafe the strafe Encoder
+     * @param setStartPose the Pose to start from
+     */
+    private ThreeWheelLocalizer(Encoder left, Encoder right, Encoder strafe, Pose setStartPose) {
         // TODO: replace these with your encoder positions
         leftEncoderPose = new Pose(-18.5/25.4 - 0.1, 164.4/25.4, 0);
         rightEncoderPose = new Pose(-18.4/25.4 - 0.1, -159.6/25.4, 0);
         strafeEncoderPose = new Pose(0*(-107.9/25.4+8)+-107.9/25.4+0.25, -1.1/25.4-0.23, Math.toRadians(90));
 
-        hardwareMap = map;
-
-        // TODO: replace these with your encoder ports
-        leftEncoder = new Encoder(hardwareMap.get(DcMotorEx.class, "leftRear"));
-        rightEncoder = new Encoder(hardwareMap.get(DcMotorEx.class, "rightFront"));
-        strafeEncoder = new Encoder(hardwareMap.get(DcMotorEx.class, "strafeEncoder"));
+        leftEncoder = left;
+        rightEncoder = right;
+        strafeEncoder = strafe;
 
         // TODO: reverse any encoders necessary
         leftEncoder.setDirection(Encoder.REVERSE);
@@ -95,8 +126,6 @@ public class ThreeWheelLocalizer extends Localizer {
         strafeEncoder.setDirection(Encoder.FORWARD);
 
         setStartPose(setStartPose);
-        timer = new NanoTimer();
-        deltaTimeNano = 1;
         displacementPose = new Pose();
         currentVelocity = new Pose();
         totalHeading = 0;
@@ -145,20 +174,6 @@ public class ThreeWheelLocalizer extends Localizer {
         startPose = setStart;
     }
 
-    /**
-     * This sets the Matrix that contains the previous pose's heading rotation.
-     *
-     * @param heading the rotation of the Matrix
-     */
-    public void setPrevRotationMatrix(double heading) {
-        prevRotationMatrix = new Matrix(3,3);
-        prevRotationMatrix.set(0, 0, Math.cos(heading));
-        prevRotationMatrix.set(0, 1, -Math.sin(heading));
-        prevRotationMatrix.set(1, 0, Math.sin(heading));
-        prevRotationMatrix.set(1, 1, Math.cos(heading));
-        prevRotationMatrix.set(2, 2, 1.0);
-    }
-
     /**
      * This sets the current pose estimate. Changing this should just change the robot's current
      * pose estimate, not anything to do with the start pose.
@@ -172,41 +187,20 @@ public class ThreeWheelLocalizer extends Localizer {
     }
 
     /**
-     * This updates the elapsed time timer that keeps track of time between updates, as well as the
-     * change position of the Encoders. Then, the robot's global change in position is calculated
-     * using the pose exponential method.
+     * This updates the change in position of the Encoders. Then, the robot's global change in
+     * position is calculated using the pose exponential method, and the robot's velocity is
+     * calculated from the Encoder velocities measured by the hub.
      */
     @Override
     public void update() {
-        deltaTimeNano = timer.getElapsedTime();
-        timer.resetTimer();
-
         updateEncoders();
         Matrix robotDeltas = getRobotDeltas();
-        Matrix globalDeltas;
-        setPrevRotationMatrix(getPose().getHeading());
-
-        Matrix transformation = new Matrix(3,3);
-        if (Math.abs(robotDeltas.get(2, 0)) < 0.001) {
-            transformation.set(0, 0, 1.0 - (Math.pow(robotDeltas.get(2, 0), 2) / 6.0));
-            transformation.set(0, 1, -robotDeltas.get(2, 0) / 2.0);
-            transformation.set(1, 0, robotDeltas.get(2, 0) / 2.0);
-            transformation.set(1, 1, 1.0 - (Math.pow(robotDeltas.get(2, 0), 2) / 6.0));
-            transformation.set(2, 2, 1.0);
-        } else {
-            transformation.set(0, 0, Math.sin(robotDeltas.get(2, 0)) / robotDeltas.get(2, 0));
-            transformation.set(0, 1, (Math.cos(robotDeltas.get(2, 0)) - 1.0) / robotDeltas.get(2, 0));
-            transformation.set(1, 0, (1.0 - Math.cos(robotDeltas.get(2, 0))) / robotDeltas.get(2, 0));
-            transformation.set(1, 1, Math.sin(robotDeltas.get(2, 0)) / robotDeltas.get(2, 0));
-            transformation.set(2, 2, 1.0);
-        }
+        Pose globalDeltas = PoseExponential.getGlobalDeltas(getPose().getHeading(), robotDeltas);
+        displacementPose.add(globalDeltas);
 
-        globalDeltas = Matrix.multiply(Matrix.multiply(prevRotationMatrix, transformation), robotDeltas);
+        currentVelocity = PoseExponential.getGlobalVelocity(getPose().getHeading(), getRobotVelocities());
 
-        displacementPose.add(new Pose(globalDeltas.get(0, 0), globalDeltas.get(1, 0), globalDeltas.get(2, 0)));
-        currentVelocity = new Pose(globalDeltas.get(0, 0) / (deltaTimeNano * Math.pow(10.0, 9)), globalDeltas.get(1, 0) / (deltaTimeNano * Math.pow(10.0, 9)), globalDeltas.get(2, 0) / (deltaTimeNano * Math.pow(10.0, 9)));
-
-        totalHeading += globalDeltas.get(2, 0);
+        totalHeading += globalDeltas.getHeading();
     }
 
     /**
@@ -234,13 +228,37 @@ public class ThreeWheelLocalizer extends Localizer {
      * @return returns a Matrix containing the robot relative movement.
      */
     public Matrix getRobotDeltas() {
+        return getRobotMovement(leftEncoder.getDeltaPosition(), rightEncoder.getDeltaPosition(), strafeEncoder.getDeltaPosition());
+    }
+
+    /**
+     * This calculates the velocity from the perspective of the robot using the velocities of the
+     * Encoders measured by the hub.
+     *
+     * @return returns a Matrix containing the robot relative velocity, in inches and radians per
+     *         second.
+     */
+    public Matrix getRobotVelocities() {
+        return getRobotMovement(leftEncoder.getVelocity(), rightEncoder.getVelocity(), strafeEncoder.getVelocity());
+    }
+
+    /**
+     * This converts movement of the Encoders into movement from the perspective of the robot. This
+     * works the same for changes in position and for velocities.
+     *
+     * @param left the movement of the left Encoder, in ticks.
+     * @param right the movement of the right Encoder, in ticks.
+     * @param strafe the movement of the strafe Encoder, in ticks.
+     * @return returns a Matrix containing the robot relative movement.
+     */
+    private Matrix getRobotMovement(double left, double right, double strafe) {
         Matrix returnMatrix = new Matrix(3,1);
         // x/forward movement
-        returnMatrix.set(0,0, FORWARD_TICKS_TO_INCHES * ((rightEncoder.getDeltaPosition() * leftEncoderPose.getY() - leftEncoder.getDeltaPosition() * rightEncoderPose.getY()) / (leftEncoderPose.getY() - rightEncoderPose.getY())));
+        returnMatrix.set(0,0, FORWARD_TICKS_TO_INCHES * ((right * leftEncoderPose.getY() - left * rightEncoderPose.getY()) / (leftEncoderPose.getY() - rightEncoderPose.getY())));
         //y/strafe movement
-        returnMatrix.set(1,0, STRAFE_TICKS_TO_INCHES * (strafeEncoder.getDeltaPosition() - strafeEncoderPose.getX() * ((rightEncoder.getDeltaPosition() - leftEncoder.getDeltaPosition()) / (leftEncoderPose.getY() - rightEncoderPose.getY()))));
+        returnMatrix.set(1,0, STRAFE_TICKS_TO_INCHES * (strafe - strafeEncoderPose.getX() * ((right - left) / (leftEncoderPose.getY() - rightEncoderPose.getY()))));
         // theta/turning
-        returnMatrix.set(2,0, TURN_TICKS_TO_RADIANS * ((rightEncoder.getDeltaPosition() - leftEncoder.getDeltaPosition()) / (leftEncoderPose.getY() - rightEncoderPose.getY())));
+        returnMatrix.set(2,0, TURN_TICKS_TO_RADIANS * ((right - left) / (leftEncoderPose.getY() - rightEncoderPose.getY())));
         return returnMatrix;
     }
 
@@ -283,4 +301,15 @@ public class ThreeWheelLocalizer extends Localizer {
     public double getTurningMultiplier() {
         return TURN_TICKS_TO_RADIANS;
     }
+
+    /**
+     * This writes the raw Encoder positions from the last update into a RunFrame.
+     *
+     * @param frame the frame to write the readings into
+     */
+    @Override
+    public void recordRawData(RunFrame frame) {
+        frame.setEncoderTicks(leftEncoder.getRawPosition(), rightEncoder.getRawPosition(), strafeEncoder.getRawPosition());
+        frame.setEncoderOffsets(leftEncoder.getZeroOffset(), rightEncoder.getZeroOffset(), strafeEncoder.getZeroOffset());
+    }
 }
@@ -11,8 +11,11 @@ import org.firstinspires.ftc.teamcode.pedroPathing.localization.Encoder;
 import org.firstinspires.ftc.teamcode.pedroPathing.localization.Localizer;
 import org.firstinspires.ftc.teamcode.pedroPathing.localization.Matrix;
 import org.firstinspires.ftc.teamcode.pedroPathing.localization.Pose;
+import org.firstinspires.ftc.teamcode.pedroPathing.localization.PoseExponential;
 import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.MathFunctions;
 import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.Vector;
+import org.firstinspires.ftc.teamcode.pedroPathing.replay.RunFrame;
+import org.firstinspires.ftc.teamcode.pedroPathing.util.HardwareInitializer;
 import org.firstinspires.ftc.teamcode.pedroPathing.util.NanoTimer;
 
 /**
@@ -46,10 +49,10 @@ import org.firstinspires.ftc.teamcode.pedroPathing.util.NanoTimer;
 public class TwoWheelLocalizer extends Localizer { // todo: make two wheel odo work
     private HardwareMap hardwareMap;
     private IMU imu;
+    private HardwareInitializer.Task imuInit;
     private Pose startPose;
     private Pose displacementPose;
     private Pose currentVelocity;
-    private Matrix prevRotationMatrix;
     private NanoTimer timer;
     private long deltaTimeNano;
     private Encoder forwardEncoder;
@@ -87,8 +90,12 @@ public class TwoWheelLocalizer extends Localizer { // todo: make two wheel odo w
         hardwareMap = map;
 
         imu = hardwareMap.get(IMU.class, "imu");
-        // TODO: replace this with your IMU's orientation
-        imu.initialize(new IMU.Parameters(new RevHubOrientationOnRobot(RevHubOrientationOnRobot.LogoFacingDirection.UP, RevHubOrientationOnRobot.UsbFacingDirection.LEFT)));
+        // The IMU is set up on a background thread, and updateEncoders() waits for it to finish
+        imuInit = HardwareInitializer.getInstance().submit("imu", () -> {
+            // TODO: replace this with your IMU's orientation
+            imu.initialize(new IMU.Parameters(new RevHubOrientationOnRobot(RevHubOrientationOnRobot.LogoFacingDirection.UP, RevHubOrientationOnRobot.UsbFacingDirection.LEFT)));
+            previousIMUOrientation = MathFunctions.normalizeAngle(imu.getRobotYawPitchRollAngles().getYaw(AngleUnit.RADIANS));
+        });
 
         // TODO: replace these with your encoder ports
         forwardEncoder = new Encoder(hardwareMap.get(DcMotorEx.class, "leftRear"));
@@ -104,7 +111,6 @@ public class TwoWheelLocalizer extends Localizer { // todo: make two wheel odo w
         displacementPose = new Pose();
         currentVelocity = new Pose();
 
-        previousIMUOrientation = MathFunctions.normalizeAngle(imu.getRobotYawPitchRollAngles().getYaw(AngleUnit.RADIANS));
         deltaRadians = 0;
     }
 
@@ -149,20 +155,6 @@ public class TwoWheelLocalizer extends Localizer { // todo: make two wheel odo w
         startPose = setStart;
     }
 
-    /**
-     * This sets the Matrix that contains the previous pose's heading rotation.
-     *
-     * @param heading the rotation of the Matrix
-     */
-    public void setPrevRotationMatrix(double heading) {
-        prevRotationMatrix = new Matrix(3,3);
-        prevRotationMatrix.set(0, 0, Math.cos(heading));
-        prevRotationMatrix.set(0, 1, -Math.sin(heading));
-        prevRotationMatrix.set(1, 0, Math.sin(heading));
-        prevRotationMatrix.set(1, 1, Math.cos(heading));
-        prevRotationMatrix.set(2, 2, 1.0);
-    }
-
     /**
      * This sets the current pose estimate. Changing this should just change the robot's current
      * pose estimate, not anything to do with the start pose.
@@ -178,7 +170,8 @@ public class TwoWheelLocalizer extends Localizer { // todo: make two wheel odo w
     /**
      * This updates the elapsed time timer that keeps track of time between updates, as well as the
      * change position of the Encoders and the IMU readings. Then, the robot's global change in
-     * position is calculated using the pose exponential method.
+     * position is calculated using the pose exponential method, and the robot's velocity is
+     * calculated from the Encoder velocities measured by the hub.
      */
     @Override
     public void update() {
@@ -187,30 +180,12 @@ public class TwoWheelLocalizer extends Localizer { // todo: make two wheel odo w
 
         updateEncoders();
         Matrix robotDeltas = getRobotDeltas();
-        Matrix globalDeltas;
-        setPrevRotationMatrix(getPose().getHeading());
-
-        Matrix transformation = new Matrix(3,3);
-        if (Math.abs(robotDeltas.get(2, 0)) < 0.001) {
-            transformation.set(0, 0, 1.0 - (Math.pow(robotDeltas.get(2, 0), 2) / 6.0));
-            transformation.set(0, 1, -robotDeltas.get(2, 0) / 2.0);
-            transformation.set(1, 0, robotDeltas.get(2, 0) / 2.0);
-            transformation.set(1, 1, 1.0 - (Math.pow(robotDeltas.get(2, 0), 2) / 6.0));
-            transformation.set(2, 2, 1.0);
-        } else {
-            transformation.set(0, 0, Math.sin(robotDeltas.get(2, 0)) / robotDeltas.get(2, 0));
-            transformation.set(0, 1, (Math.cos(robotDeltas.get(2, 0)) - 1.0) / robotDeltas.get(2, 0));
-            transformation.set(1, 0, (1.0 - Math.cos(robotDeltas.get(2, 0))) / robotDeltas.get(2, 0));
-            transformation.set(1, 1, Math.sin(robotDeltas.get(2, 0)) / robotDeltas.get(2, 0));
-            transformation.set(2, 2, 1.0);
-        }
+        Pose globalDeltas = PoseExponential.getGlobalDeltas(getPose().getHeading(), robotDeltas);
+        displacementPose.add(globalDeltas);
 
-        globalDeltas = Matrix.multiply(Matrix.multiply(prevRotationMatrix, transformation), robotDeltas);
+        currentVelocity = PoseExponential.getGlobalVelocity(getPose().getHeading(), getRobotVelocities());
 
-        displacementPose.add(new Pose(globalDeltas.get(0, 0), globalDeltas.get(1, 0), globalDeltas.get(2, 0)));
-        currentVelocity = new Pose(globalDeltas.get(0, 0) / (deltaTimeNano * Math.pow(10.0, 9)), globalDeltas.get(1, 0) / (deltaTimeNano * Math.pow(10.0, 9)), globalDeltas.get(2, 0) / (deltaTimeNano * Math.pow(10.0, 9)));
-
-        totalHeading += globalDeltas.get(2, 0);
+        totalHeading += globalDeltas.getHeading();
     }
 
     /**
@@ -220,6 +195,7 @@ public class TwoWheelLocalizer extends Localizer { // todo: make two wheel odo w
         forwardEncoder.update();
         strafeEncoder.update();
 
+        imuInit.await();
         double currentIMUOrientation =MathFunctions.normalizeAngle(imu.getRobotYawPitchRollAngles().getYaw(AngleUnit.RADIANS));
         deltaRadians = MathFunctions.getTurnDirection(previousIMUOrientation, currentIMUOrientation) * MathFunctions.getSmallestAngleDifference(currentIMUOrientation, previousIMUOrientation);
         previousIMUOrientation = currentIMUOrientation;
@@ -240,13 +216,39 @@ public class TwoWheelLocalizer extends Localizer { // todo: make two wheel odo w
      * @return returns a Matrix containing the robot relative movement.
      */
     public Matrix getRobotDeltas() {
+        return getRobotMovement(forwardEncoder.getDeltaPosition(), strafeEncoder.getDeltaPosition(), deltaRadians);
+    }
+
+    /**
+     * This calculates the velocity from the perspective of the robot using the velocities of the
+     * Encoders measured by the hub. The IMU does not come with an angular velocity in the same read
+     * as its heading, so the turning velocity is the change in heading divided by the loop time.
+     *
+     * @return returns a Matrix containing the robot relative velocity, in inches and radians per
+     *         second.
+     */
+    public Matrix getRobotVelocities() {
+        double deltaTime = deltaTimeNano / Math.pow(10.0, 9);
+        return getRobotMovement(forwardEncoder.getVelocity(), strafeEncoder.getVelocity(), deltaTime > 0 ? deltaRadians / deltaTime : 0);
+    }
+
+    /**
+     * This converts movement of the Encoders and IMU into movement from the perspective of the robot.
+     * This works the same for changes in position and for velocities.
+     *
+     * @param forward the movement of the forward Encoder, in ticks.
+     * @param strafe the movement of the strafe Encoder, in ticks.
+     * @param turn the turning measured by the IMU, in radians.
+     * @return returns a Matrix containing the robot relative movement.
+     */
+    private Matrix getRobotMovement(double forward, double strafe, double turn) {
         Matrix returnMatrix = new Matrix(3,1);
         // x/forward movement
-        returnMatrix.set(0,0, FORWARD_TICKS_TO_INCHES * (forwardEncoder.getDeltaPosition() - forwardEncoderPose.getY() * deltaRadians));
+        returnMatrix.set(0,0, FORWARD_TICKS_TO_INCHES * (forward - forwardEncoderPose.getY() * turn));
         //y/strafe movement
-        returnMatrix.set(1,0, STRAFE_TICKS_TO_INCHES * (strafeEncoder.getDeltaPosition() - strafeEncoderPose.getX() * deltaRadians));
+        returnMatrix.set(1,0, STRAFE_TICKS_TO_INCHES * (strafe - strafeEncoderPose.getX() * turn));
         // theta/turning
-        returnMatrix.set(2,0, deltaRadians);
+        returnMatrix.set(2,0, turn);
         return returnMatrix;
     }
 
@@ -289,4 +291,16 @@ public class TwoWheelLocalizer extends Localizer { // todo: make two wheel odo w
     public double getTurningMultiplier() {
         return 1;
     }
+
+    /**
+     * This writes the raw Encoder positions and IMU yaw from the last update into a RunFrame.
+     *
+     * @param frame the frame to write the readings into
+     */
+    @Override
+    public void recordRawData(RunFrame frame) {
+        frame.setEncoderTicks(forwardEncoder.getRawPosition(), strafeEncoder.getRawPosition());
+        frame.setEncoderOffsets(forwardEncoder.getZeroOffset(), strafeEncoder.getZeroOffset());
+        frame.imuYaw = previousIMUOrientation;
+    }
 }
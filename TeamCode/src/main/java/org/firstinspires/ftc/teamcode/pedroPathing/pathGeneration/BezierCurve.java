@@ -1,6 +1,7 @@
 package org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration;
 
 
+import org.firstinspires.ftc.teamcode.pedroPathing.localization.Pose;
 import org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants;
 
 import java.util.ArrayList;
@@ -29,13 +30,29 @@ public class BezierCurve {
 
     private final int APPROXIMATION_STEPS = FollowerConstants.APPROXIMATION_STEPS;
 
-    private final int DASHBOARD_DRAWING_APPROXIMATION_STEPS = 100;
+    // The most times a section of the curve is split in half when drawing it on FTC Dashboard
+    private final int DASHBOARD_DRAWING_MAX_DEPTH = 7;
 
-    private double[][] dashboardDrawingPoints;
+    // Curves are always split at least this many times, so S-shaped curves with a middle Point on
+    // the line between their ends are not drawn as a straight line
+    private final int DASHBOARD_DRAWING_MIN_DEPTH = 2;
+
+    private volatile double[][] dashboardDrawingPoints;
 
     private double UNIT_TO_TIME;
     private double length;
 
+    // For quadratic curves, the curve written as a t^2 + b t + c, which is used to find the closest
+    // point exactly
+    private double quadraticAX, quadraticAY;
+    private double quadraticBX, quadraticBY;
+    private double quadraticCX, quadraticCY;
+
+    private final double[] closestPointRoots = new double[3];
+
+    // For curves with four or more control points, the pieces used to find the closest point
+    private CurveSubdivisionIndex subdivisionIndex;
+
     /**
      * This creates an empty BezierCurve.
      * IMPORTANT NOTE: Only use this for the constructors of classes extending this. If you try to
@@ -89,32 +106,86 @@ public class BezierCurve {
      */
     public void initialize() {
         generateBezierCurve();
+        if (controlPoints.size() == 3) initializeQuadraticCoefficients();
+        if (controlPoints.size() > 3) subdivisionIndex = new CurveSubdivisionIndex(controlPoints);
         length = approximateLength();
         UNIT_TO_TIME = 1/length;
         endTangent.setOrthogonalComponents(controlPoints.get(controlPoints.size()-1).getX()-controlPoints.get(controlPoints.size()-2).getX(), controlPoints.get(controlPoints.size()-1).getY()-controlPoints.get(controlPoints.size()-2).getY());
         endTangent = MathFunctions.normalizeVector(endTangent);
-        initializeDashboardDrawingPoints();
     }
 
     /**
-     * This creates the Array that holds the Points to draw on the Dashboard.
+     * This creates the Array that holds the Points to draw on the Dashboard. Sections of the curve
+     * are split in half until the middle of each section is within the dashboard drawing tolerance
+     * of a straight line, so straight sections only take a few Points and tight bends get more.
      */
     public void initializeDashboardDrawingPoints() {
-        dashboardDrawingPoints = new double[2][DASHBOARD_DRAWING_APPROXIMATION_STEPS + 1];
-        for (int i = 0; i <= DASHBOARD_DRAWING_APPROXIMATION_STEPS; i++) {
-            Point currentPoint = getPoint(i/(double) (DASHBOARD_DRAWING_APPROXIMATION_STEPS));
-            dashboardDrawingPoints[0][i] = currentPoint.getX();
-            dashboardDrawingPoints[1][i] = currentPoint.getY();
+        ArrayList<Point> points = new ArrayList<>();
+        Point start = getPoint(0);
+        points.add(start);
+        addDashboardDrawingPoints(points, 0, start, 1, getPoint(1), 0);
+
+        double[][] drawingPoints = new double[2][points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            drawingPoints[0][i] = points.get(i).getX();
+            drawingPoints[1][i] = points.get(i).getY();
+        }
+        dashboardDrawingPoints = drawingPoints;
+    }
+
+    /**
+     * This adds the Points to draw for a section of the curve, not including the start Point, by
+     * splitting the section in half until it is close enough to a straight line.
+     *
+     * @param points the list of Points to add to.
+     * @param startT the t-value of the start of the section.
+     * @param start the start Point of the section.
+     * @param endT the t-value of the end of the section.
+     * @param end the end Point of the section.
+     * @param depth how many times the curve has been split to get this section.
+     */
+    private void addDashboardDrawingPoints(ArrayList<Point> points, double startT, Point start, double endT, Point end, int depth) {
+        double middleT = (startT + endT) / 2;
+        Point middle = getPoint(middleT);
+
+        boolean split = depth < DASHBOARD_DRAWING_MAX_DEPTH
+                && ((depth < DASHBOARD_DRAWING_MIN_DEPTH && controlPoints.size() > 2)
+                || distanceFromLine(middle, start, end) > FollowerConstants.dashboardDrawingTolerance);
+
+        if (split) {
+            addDashboardDrawingPoints(points, startT, start, middleT, middle, depth + 1);
+            addDashboardDrawingPoints(points, middleT, middle, endT, end, depth + 1);
+        } else {
+            points.add(end);
         }
     }
 
+    /**
+     * This returns the distance from a Point to the line segment between two other Points.
+     *
+     * @param point the Point to find the distance from.
+     * @param start the start of the line segment.
+     * @param end the end of the line segment.
+     * @return returns the distance.
+     */
+    private static double distanceFromLine(Point point, Point start, Point end) {
+        double dx = end.getX() - start.getX();
+        double dy = end.getY() - start.getY();
+        double lengthSquared = dx * dx + dy * dy;
+        if (lengthSquared == 0) return Math.hypot(point.getX() - start.getX(), point.getY() - start.getY());
+        double t = MathFunctions.clamp(((point.getX() - start.getX()) * dx + (point.getY() - start.getY()) * dy) / lengthSquared, 0, 1);
+        return Math.hypot(point.getX() - (start.getX() + t * dx), point.getY() - (start.getY() + t * dy));
+    }
+
     /**
      * This returns a 2D Array of doubles containing the x and y positions of points to draw on FTC
-     * Dashboard.
+     * Dashboard. These are only created the first time this is called, so curves that are never
+     * drawn never create them.
      *
      * @return returns the 2D Array to draw on FTC Dashboard
      */
     public double[][] getDashboardDrawingPoints() {
+        if (dashboardDrawingPoints == null) initializeDashboardDrawingPoints();
         return dashboardDrawingPoints;
     }
 
@@ -133,6 +204,22 @@ public class BezierCurve {
         }
     }
 
+    /**
+     * This writes a quadratic curve with control points P0, P1, and P2 in polynomial form, as
+     * (P0 - 2 P1 + P2) t^2 + 2 (P1 - P0) t + P0.
+     */
+    private void initializeQuadraticCoefficients() {
+        Point p0 = controlPoints.get(0);
+        Point p1 = controlPoints.get(1);
+        Point p2 = controlPoints.get(2);
+        quadraticAX = p0.getX() - 2 * p1.getX() + p2.getX();
+        quadraticAY = p0.getY() - 2 * p1.getY() + p2.getY();
+        quadraticBX = 2 * (p1.getX() - p0.getX());
+        quadraticBY = 2 * (p1.getY() - p0.getY());
+        quadraticCX = p0.getX();
+        quadraticCY = p0.getY();
+    }
+
     /**
      * This returns the unit tangent Vector at the end of the BezierCurve.
      *
@@ -142,6 +229,102 @@ public class BezierCurve {
         return MathFunctions.copyVector(endTangent);
     }
 
+    /**
+     * This returns the t-value of the closest point on the BezierCurve to a specified pose. Quadratic
+     * curves are solved exactly, and higher order curves are searched through their
+     * CurveSubdivisionIndex, which always finds the closest point on the whole curve. Classes
+     * extending this can override this with their own solution, and otherwise use a binary search
+     * that is limited to some specified step limit.
+     *
+     * @param pose the pose.
+     * @param searchStepLimit the binary search step limit, which is only used by the binary search.
+     * @return returns the t-value of the closest point.
+     */
+    public double getClosestPointTValue(Pose pose, int searchStepLimit) {
+        if (controlPoints.size() == 3) return getQuadraticClosestPointTValue(pose);
+        if (subdivisionIndex != null) return subdivisionIndex.getClosestPointTValue(pose);
+        return searchClosestPointTValue(pose, searchStepLimit);
+    }
+
+    /**
+     * This finds the closest point on a quadratic curve exactly. The squared distance from the pose
+     * to the curve is a quartic in t, so its minimum is either at an end of the curve or where its
+     * derivative, which is a cubic, is 0. The real roots of the cubic between 0 and 1 and the two
+     * ends are the only places the closest point can be, so the closest of those is returned.
+     *
+     * @param pose the pose.
+     * @return returns the t-value of the closest point.
+     */
+    private double getQuadraticClosestPointTValue(Pose pose) {
+        double dx = quadraticCX - pose.getX();
+        double dy = quadraticCY - pose.getY();
+
+        // half the derivative of |a t^2 + b t + d|^2, where d is c minus the pose
+        double aa = quadraticAX * quadraticAX + quadraticAY * quadraticAY;
+        double ab = quadraticAX * quadraticBX + quadraticAY * quadraticBY;
+        double bb = quadraticBX * quadraticBX + quadraticBY * quadraticBY;
+        double ad = quadraticAX * dx + quadraticAY * dy;
+        double bd = quadraticBX * dx + quadraticBY * dy;
+        int rootCount = MathFunctions.solveCubic(2 * aa, 3 * ab, bb + 2 * ad, bd, closestPointRoots);
+
+        double bestT = 0;
+        double bestDistance = getQuadraticSquaredDistance(0, dx, dy);
+        double endDistance = getQuadraticSquaredDistance(1, dx, dy);
+        if (endDistance < bestDistance) {
+            bestT = 1;
+            bestDistance = endDistance;
+        }
+        for (int i = 0; i < rootCount; i++) {
+            double t = closestPointRoots[i];
+            if (t > 0 && t < 1) {
+                double distance = getQuadraticSquaredDistance(t, dx, dy);
+                if (distance < bestDistance) {
+                    bestT = t;
+                    bestDistance = distance;
+                }
+            }
+        }
+        return bestT;
+    }
+
+    /**
+     * This returns the squared distance from a pose to a point on a quadratic curve.
+     *
+     * @param t the t-value of the point.
+     * @param dx the x coordinate of the start of the curve minus the x coordinate of the pose.
+     * @param dy the y coordinate of the start of the curve minus the y coordinate of the pose.
+     * @return returns the squared distance.
+     */
+    private double getQuadraticSquaredDistance(double t, double dx, double dy) {
+        double x = (quadraticAX * t + quadraticBX) * t + dx;
+        double y = (quadraticAY * t + quadraticBY) * t + dy;
+        return x * x + y * y;
+    }
+
+    /**
+     * This finds the closest point on the BezierCurve with a binary search that is limited to some
+     * specified step limit. This assumes the distance to the curve only has one minimum.
+     *
+     * @param pose the pose.
+     * @param searchStepLimit the binary search step limit.
+     * @return returns the t-value of the closest point.
+     */
+    protected double searchClosestPointTValue(Pose pose, int searchStepLimit) {
+        double lower = 0;
+        double upper = 1;
+
+        // we don't need to calculate the midpoint, so we start off at the 1/4 and 3/4 point
+        for (int i = 0; i < searchStepLimit; i++) {
+            if (MathFunctions.distance(pose, getPoint(lower + 0.25 * (upper-lower))) > MathFunctions.distance(pose, getPoint(lower + 0.75 * (upper-lower)))) {
+                lower += (upper-lower)/2.0;
+            } else {
+                upper -= (upper-lower)/2.0;
+            }
+        }
+
+        return lower + 0.5 * (upper-lower);
+    }
+
     /**
      * This approximates the length of the BezierCurve in APPROXIMATION_STEPS number of steps. It's
      * like a Riemann's sum, but for a parametric function's arc length.
@@ -1,5 +1,7 @@
 package org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration;
 
+import org.firstinspires.ftc.teamcode.pedroPathing.localization.Pose;
+
 import java.util.ArrayList;
 
 /**
@@ -37,7 +39,6 @@ public class BezierLine extends BezierCurve {
         length = approximateLength();
         UNIT_TO_TIME = 1 / length;
         endTangent = MathFunctions.normalizeVector(getDerivative(1));
-        super.initializeDashboardDrawingPoints();
     }
 
     /**
@@ -50,6 +51,23 @@ public class BezierLine extends BezierCurve {
         return MathFunctions.copyVector(endTangent);
     }
 
+    /**
+     * This returns the t-value of the closest point on the BezierLine to a specified pose, by
+     * projecting the pose onto the line and clamping the result to the ends of the line.
+     *
+     * @param pose the pose.
+     * @param searchStepLimit this is not used, since the projection is exact.
+     * @return returns the t-value of the closest point.
+     */
+    @Override
+    public double getClosestPointTValue(Pose pose, int searchStepLimit) {
+        double dx = endPoint.getX() - startPoint.getX();
+        double dy = endPoint.getY() - startPoint.getY();
+        double lengthSquared = dx * dx + dy * dy;
+        if (lengthSquared == 0) return 0;
+        return MathFunctions.clamp(((pose.getX() - startPoint.getX()) * dx + (pose.getY() - startPoint.getY()) * dy) / lengthSquared, 0, 1);
+    }
+
     /**
      * This gets the length of the BezierLine.
      *
@@ -32,7 +32,6 @@ public class BezierPoint extends BezierCurve {
         super();
         this.point = point;
         length = approximateLength();
-        super.initializeDashboardDrawingPoints();
     }
 
     /**
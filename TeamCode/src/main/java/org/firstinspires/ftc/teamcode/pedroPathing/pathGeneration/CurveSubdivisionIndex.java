@@ -0,0 +1,505 @@
+package org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration;
+
+import org.firstinspires.ftc.teamcode.pedroPathing.localization.Pose;
+import org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants;
+
+import java.util.ArrayList;
+
+/**
+ * This is the CurveSubdivisionIndex class. This class handles finding the closest point on a
+ * BezierCurve of any order, without assuming the distance to the curve only has one minimum.
+ *
+ * When it is created, the curve is split in half over and over with de Casteljau's algorithm until
+ * every piece is nearly a straight line and only moves forward along its chord. Each piece keeps
+ * its own control points, which describe that piece of the curve exactly, and the box around them.
+ * A Bezier curve always stays inside the box around its control points, so the distance to a
+ * piece's box is never more than the distance to any point on the piece.
+ *
+ * To find the closest point, every piece gets a quick estimate from projecting the pose onto its
+ * chord, and the piece with the closest estimate is searched first. Any other piece whose box is
+ * closer than the best point found so far might still hold the closest point, so only those are
+ * searched too. A piece is refined with Newton's method once the distance to it provably has only
+ * one minimum, and is split in half again until then, which only happens for poses far from a
+ * bent piece. This always finds the closest point on the whole curve, and usually only refines one
+ * piece.
+ *
+ * @version 1.0, 10/19/2026
+ */
+public class CurveSubdivisionIndex {
+    // The most times the curve is split in half
+    private static final int MAX_DEPTH = 10;
+
+    // The most times a piece is split in half while searching it, for poses where the distance to
+    // the piece might have more than one minimum
+    private static final int MAX_QUERY_DEPTH = 12;
+
+    // The most steps used to refine the closest point on a piece, and the change in t-value on the
+    // piece at which the refinement stops early
+    private static final int MAX_REFINEMENT_STEPS = 30;
+    private static final double REFINEMENT_TOLERANCE = 1e-9;
+
+    private final int degree;
+    private final int pieceCount;
+
+    // The control points of every piece, one after another, degree + 1 per piece
+    private final double[] pieceX;
+    private final double[] pieceY;
+
+    // The t-values on the whole curve where each piece starts and ends
+    private final double[] pieceStartT;
+    private final double[] pieceEndT;
+
+    // The box around each piece's control points
+    private final double[] minX, minY, maxX, maxY;
+
+    // Buffers for the control points of the sections a piece is split into while searching it, one
+    // per split depth, so searching does not allocate anything
+    private final double[][] queryX, queryY;
+    private final double[][] queryRightX, queryRightY;
+
+    private final double[] scratchX;
+    private final double[] scratchY;
+
+    // The weights for multiplying the Bernstein forms of B - Q and B'
+    private final double[][] productWeights;
+
+    private double poseX, poseY;
+    private double bestDistance;
+    private double bestT;
+
+    private final double[] lastPoint = new double[2];
+    private final double[] lastDerivative = new double[2];
+    private final double[] lastSecondDerivative = new double[2];
+
+    /**
+     * This creates a new CurveSubdivisionIndex for a BezierCurve with some specified control points.
+     *
+     * @param controlPoints the control points of the BezierCurve.
+     */
+    public CurveSubdivisionIndex(ArrayList<Point> controlPoints) {
+        degree = controlPoints.size() - 1;
+        scratchX = new double[degree + 1];
+        scratchY = new double[degree + 1];
+
+        // n * C(n, i) * C(n - 1, j) / C(2n - 1, i + j), where the n is from the derivative
+        productWeights = new double[degree + 1][degree];
+        for (int i = 0; i <= degree; i++) {
+            for (int j = 0; j < degree; j++) {
+                productWeights[i][j] = degree * binomial(degree, i) * binomial(degree - 1, j) / binomial(2 * degree - 1, i + j);
+            }
+        }
+
+        double[] x = new double[degree + 1];
+        double[] y = new double[degree + 1];
+        for (int i = 0; i <= degree; i++) {
+            x[i] = controlPoints.get(i).getX();
+            y[i] = controlPoints.get(i).getY();
+        }
+
+        ArrayList<double[]> pieces = new ArrayList<>();
+        subdivide(x, y, 0, 1, 0, pieces);
+
+        pieceCount = pieces.size();
+        pieceX = new double[pieceCount * (degree + 1)];
+        pieceY = new double[pieceCount * (degree + 1)];
+        pieceStartT = new double[pieceCount];
+        pieceEndT = new double[pieceCount];
+        minX = new double[pieceCount];
+        minY = new double[pieceCount];
+        maxX = new double[pieceCount];
+        maxY = new double[pieceCount];
+
+        for (int piece = 0; piece < pieceCount; piece++) {
+            double[] data = pieces.get(piece);
+            pieceStartT[piece] = data[0];
+            pieceEndT[piece] = data[1];
+            minX[piece] = Double.POSITIVE_INFINITY;
+            minY[piece] = Double.POSITIVE_INFINITY;
+            maxX[piece] = Double.NEGATIVE_INFINITY;
+            maxY[piece] = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i <= degree; i++) {
+                double pointX = data[2 + i];
+                double pointY = data[3 + degree + i];
+                pieceX[piece * (degree + 1) + i] = pointX;
+                pieceY[piece * (degree + 1) + i] = pointY;
+                minX[piece] = Math.min(minX[piece], pointX);
+                minY[piece] = Math.min(minY[piece], pointY);
+                maxX[piece] = Math.max(maxX[piece], pointX);
+                maxY[piece] = Math.max(maxY[piece], pointY);
+            }
+        }
+
+        queryX = new double[MAX_QUERY_DEPTH + 1][degree + 1];
+        queryY = new double[MAX_QUERY_DEPTH + 1][degree + 1];
+        queryRightX = new double[MAX_QUERY_DEPTH + 1][degree + 1];
+        queryRightY = new double[MAX_QUERY_DEPTH + 1][degree + 1];
+    }
+
+    /**
+     * This returns n choose k.
+     *
+     * @param n the number of things to choose from.
+     * @param k the number of things to choose.
+     * @return returns the number of ways to choose them.
+     */
+    private static double binomial(int n, int k) {
+        double result = 1;
+        for (int i = 1; i <= k; i++) {
+            result = result * (n - k + i) / i;
+        }
+        return result;
+    }
+
+    /**
+     * This splits a piece of the curve in half until it is flat and moves forward along its chord,
+     * and adds the final pieces to a list in order. Each piece is stored as its start and end
+     * t-values, then its x control points, then its y control points.
+     *
+     * @param x the x coordinates of the piece's control points.
+     * @param y the y coordinates of the piece's control points.
+     * @param startT the t-value on the whole curve where the piece starts.
+     * @param endT the t-value on the whole curve where the piece ends.
+     * @param depth how many times the curve has been split to get this piece.
+     * @param pieces the list of pieces to add to.
+     */
+    private void subdivide(double[] x, double[] y, double startT, double endT, int depth, ArrayList<double[]> pieces) {
+        if (depth >= MAX_DEPTH || isSimple(x, y)) {
+            double[] data = new double[2 + 2 * (degree + 1)];
+            data[0] = startT;
+            data[1] = endT;
+            System.arraycopy(x, 0, data, 2, degree + 1);
+            System.arraycopy(y, 0, data, 3 + degree, degree + 1);
+            pieces.add(data);
+            return;
+        }
+
+        double[] leftX = new double[degree + 1], leftY = new double[degree + 1];
+        double[] rightX = new double[degree + 1], rightY = new double[degree + 1];
+        split(x, y, leftX, leftY, rightX, rightY);
+
+        double middleT = (startT + endT) / 2;
+        subdivide(leftX, leftY, startT, middleT, depth + 1, pieces);
+        subdivide(rightX, rightY, middleT, endT, depth + 1, pieces);
+    }
+
+    /**
+     * This returns if a piece of the curve is simple enough to search directly. That means every
+     * control point is within the subdivision tolerance of the chord, and every leg of the control
+     * polygon goes forward along the chord, so the piece never turns back on itself.
+     *
+     * @param x the x coordinates of the piece's control points.
+     * @param y the y coordinates of the piece's control points.
+     * @return returns if the piece is simple.
+     */
+    private boolean isSimple(double[] x, double[] y) {
+        double chordX = x[degree] - x[0];
+        double chordY = y[degree] - y[0];
+        double chordLength = Math.hypot(chordX, chordY);
+        if (chordLength == 0) return false;
+
+        for (int i = 1; i < degree; i++) {
+            double offset = Math.abs((x[i] - x[0]) * chordY - (y[i] - y[0]) * chordX) / chordLength;
+            if (offset > FollowerConstants.BEZIER_CURVE_SUBDIVISION_TOLERANCE) return false;
+        }
+        for (int i = 0; i < degree; i++) {
+            if ((x[i + 1] - x[i]) * chordX + (y[i + 1] - y[i]) * chordY < 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * This returns the t-value of the closest point on the curve to a specified pose.
+     *
+     * @param pose the pose.
+     * @return returns the t-value of the closest point.
+     */
+    public double getClosestPointTValue(Pose pose) {
+        poseX = pose.getX();
+        poseY = pose.getY();
+
+        // a quick estimate from projecting onto each piece's chord gives a good first guess
+        int bestPiece = 0;
+        bestDistance = Double.POSITIVE_INFINITY;
+        for (int piece = 0; piece < pieceCount; piece++) {
+            loadPiece(piece);
+            double u = getChordProjection(queryX[0], queryY[0]);
+            evaluate(queryX[0], queryY[0], u);
+            double distance = Math.hypot(lastPoint[0] - poseX, lastPoint[1] - poseY);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                bestT = pieceStartT[piece] + u * (pieceEndT[piece] - pieceStartT[piece]);
+                bestPiece = piece;
+            }
+        }
+
+        loadPiece(bestPiece);
+        search(queryX[0], queryY[0], 0, pieceStartT[bestPiece], pieceEndT[bestPiece]);
+
+        // only pieces whose boxes are closer than the best point so far can hold a closer point
+        for (int piece = 0; piece < pieceCount; piece++) {
+            if (piece == bestPiece || getBoxDistance(piece) >= bestDistance) continue;
+            loadPiece(piece);
+            search(queryX[0], queryY[0], 0, pieceStartT[piece], pieceEndT[piece]);
+        }
+
+        return bestT;
+    }
+
+    /**
+     * This copies the control points of a piece into the first level of the query buffers.
+     *
+     * @param piece the piece.
+     */
+    private void loadPiece(int piece) {
+        System.arraycopy(pieceX, piece * (degree + 1), queryX[0], 0, degree + 1);
+        System.arraycopy(pieceY, piece * (degree + 1), queryY[0], 0, degree + 1);
+    }
+
+    /**
+     * This searches a section of the curve for a point closer than the best one found so far. If
+     * the squared distance to the section might have more than one minimum for this pose, the
+     * section is split in half and both halves are searched. Otherwise, its minimum is refined
+     * directly.
+     *
+     * @param x the x coordinates of the section's control points.
+     * @param y the y coordinates of the section's control points.
+     * @param depth how many times the piece has been split to get this section.
+     * @param startT the t-value on the whole curve where the section starts.
+     * @param endT the t-value on the whole curve where the section ends.
+     */
+    private void search(double[] x, double[] y, int depth, double startT, double endT) {
+        if (getBoxDistance(x, y) >= bestDistance) return;
+
+        if (depth < MAX_QUERY_DEPTH && !hasSingleMinimum(x, y)) {
+            double[] leftX = queryX[depth + 1], leftY = queryY[depth + 1];
+            double[] rightX = queryRightX[depth + 1], rightY = queryRightY[depth + 1];
+            split(x, y, leftX, leftY, rightX, rightY);
+            double middleT = (startT + endT) / 2;
+            search(leftX, leftY, depth + 1, startT, middleT);
+            search(rightX, rightY, depth + 1, middleT, endT);
+            return;
+        }
+
+        // if the slope crosses 0 going down, that is the farthest point, so the ends are checked too
+        double u = refine(x, y);
+        evaluate(x, y, u);
+        updateBest(Math.hypot(lastPoint[0] - poseX, lastPoint[1] - poseY), startT + u * (endT - startT));
+        updateBest(Math.hypot(x[0] - poseX, y[0] - poseY), startT);
+        updateBest(Math.hypot(x[degree] - poseX, y[degree] - poseY), endT);
+    }
+
+    /**
+     * This replaces the best point found so far if a new point is closer.
+     *
+     * @param distance the distance from the pose to the new point.
+     * @param t the t-value on the whole curve of the new point.
+     */
+    private void updateBest(double distance, double t) {
+        if (distance < bestDistance) {
+            bestDistance = distance;
+            bestT = t;
+        }
+    }
+
+    /**
+     * This returns if the squared distance from the pose to a section of the curve has at most one
+     * minimum inside the section. Half its derivative is (B - Q) . B', which is a polynomial of
+     * degree 2n - 1, and multiplying the Bernstein forms of B - Q and B' gives its Bernstein
+     * coefficients. A polynomial in Bernstein form has no more roots in the section than its
+     * coefficients have sign changes, so with at most one sign change there is at most one place
+     * the slope crosses 0. The coefficients get closer to the polynomial itself every time the
+     * section is split, so splitting a few times is usually enough.
+     *
+     * @param x the x coordinates of the section's control points.
+     * @param y the y coordinates of the section's control points.
+     * @return returns if there is provably at most one minimum inside the section.
+     */
+    private boolean hasSingleMinimum(double[] x, double[] y) {
+        int signChanges = 0;
+        double lastSign = 0;
+        for (int k = 0; k < 2 * degree; k++) {
+            double coefficient = 0;
+            for (int i = Math.max(0, k - degree + 1); i <= Math.min(degree, k); i++) {
+                int j = k - i;
+                coefficient += productWeights[i][j] * ((x[i] - poseX) * (x[j + 1] - x[j]) + (y[i] - poseY) * (y[j + 1] - y[j]));
+            }
+            if (coefficient == 0) continue;
+            double sign = Math.signum(coefficient);
+            if (lastSign != 0 && sign != lastSign && ++signChanges > 1) return false;
+            lastSign = sign;
+        }
+        return true;
+    }
+
+    /**
+     * This refines the closest point on a section of the curve with only one minimum, by finding
+     * where the derivative of the squared distance is 0. This uses Newton's method starting from
+     * the projection onto the chord, but keeps track of the range the answer must be in, and halves
+     * that range instead whenever a Newton step would leave it, so it can't diverge. An end is only
+     * returned right away if the slope there points away from the section, since the slope is
+     * also 0 at an end where control points repeat, even if the closest point is inside.
+     *
+     * @param x the x coordinates of the section's control points.
+     * @param y the y coordinates of the section's control points.
+     * @return returns the t-value on the section of the closest point.
+     */
+    private double refine(double[] x, double[] y) {
+        if (getSlope(x, y, 0) > 0) return 0;
+        if (getSlope(x, y, 1) < 0) return 1;
+
+        double lower = 0;
+        double upper = 1;
+        // the projection can land on an end where the slope is 0, which would close the range onto
+        // that end, so the search starts in the middle instead
+        double u = getChordProjection(x, y);
+        if (u <= 0 || u >= 1) u = 0.5;
+        for (int i = 0; i < MAX_REFINEMENT_STEPS; i++) {
+            double slope = getSlope(x, y, u);
+            if (slope > 0) {
+                upper = u;
+            } else {
+                lower = u;
+            }
+
+            double offsetX = lastPoint[0] - poseX;
+            double offsetY = lastPoint[1] - poseY;
+            double curvature = lastDerivative[0] * lastDerivative[0] + lastDerivative[1] * lastDerivative[1] + offsetX * lastSecondDerivative[0] + offsetY * lastSecondDerivative[1];
+            double next = u - slope / curvature;
+            if (!(curvature > 0 && next > lower && next < upper)) next = (lower + upper) / 2;
+
+            if (Math.abs(next - u) < REFINEMENT_TOLERANCE) return next;
+            u = next;
+        }
+        return u;
+    }
+
+    /**
+     * This returns where the pose projects onto the chord of a section of the curve, as a fraction
+     * of the chord from 0 to 1.
+     *
+     * @param x the x coordinates of the section's control points.
+     * @param y the y coordinates of the section's control points.
+     * @return returns the projection.
+     */
+    private double getChordProjection(double[] x, double[] y) {
+        double chordX = x[degree] - x[0];
+        double chordY = y[degree] - y[0];
+        double chordLengthSquared = chordX * chordX + chordY * chordY;
+        if (chordLengthSquared == 0) return 0;
+        return MathFunctions.clamp(((poseX - x[0]) * chordX + (poseY - y[0]) * chordY) / chordLengthSquared, 0, 1);
+    }
+
+    /**
+     * This returns half the derivative of the squared distance from the pose to a section of the
+     * curve. This also leaves the point and its derivatives from the evaluation.
+     *
+     * @param x the x coordinates of the section's control points.
+     * @param y the y coordinates of the section's control points.
+     * @param u the t-value on the section.
+     * @return returns the slope.
+     */
+    private double getSlope(double[] x, double[] y, double u) {
+        evaluate(x, y, u);
+        return (lastPoint[0] - poseX) * lastDerivative[0] + (lastPoint[1] - poseY) * lastDerivative[1];
+    }
+
+    /**
+     * This returns the distance from the pose to the box around a piece, which is 0 if the pose is
+     * inside the box.
+     *
+     * @param piece the piece.
+     * @return returns the distance to the box.
+     */
+    private double getBoxDistance(int piece) {
+        double dx = Math.max(Math.max(minX[piece] - poseX, poseX - maxX[piece]), 0);
+        double dy = Math.max(Math.max(minY[piece] - poseY, poseY - maxY[piece]), 0);
+        return Math.hypot(dx, dy);
+    }
+
+    /**
+     * This returns the distance from the pose to the box around some control points, which is 0 if
+     * the pose is inside the box.
+     *
+     * @param x the x coordinates of the control points.
+     * @param y the y coordinates of the control points.
+     * @return returns the distance to the box.
+     */
+    private double getBoxDistance(double[] x, double[] y) {
+        double boxMinX = x[0], boxMaxX = x[0], boxMinY = y[0], boxMaxY = y[0];
+        for (int i = 1; i <= degree; i++) {
+            boxMinX = Math.min(boxMinX, x[i]);
+            boxMaxX = Math.max(boxMaxX, x[i]);
+            boxMinY = Math.min(boxMinY, y[i]);
+            boxMaxY = Math.max(boxMaxY, y[i]);
+        }
+        double dx = Math.max(Math.max(boxMinX - poseX, poseX - boxMaxX), 0);
+        double dy = Math.max(Math.max(boxMinY - poseY, poseY - boxMaxY), 0);
+        return Math.hypot(dx, dy);
+    }
+
+    /**
+     * This splits some control points in half with de Casteljau's algorithm at t = 0.5, giving the
+     * control points of both halves of the curve.
+     *
+     * @param x the x coordinates of the control points.
+     * @param y the y coordinates of the control points.
+     * @param leftX the Array to write the x coordinates of the first half into.
+     * @param leftY the Array to write the y coordinates of the first half into.
+     * @param rightX the Array to write the x coordinates of the second half into.
+     * @param rightY the Array to write the y coordinates of the second half into.
+     */
+    private void split(double[] x, double[] y, double[] leftX, double[] leftY, double[] rightX, double[] rightY) {
+        System.arraycopy(x, 0, scratchX, 0, degree + 1);
+        System.arraycopy(y, 0, scratchY, 0, degree + 1);
+        for (int level = 0; level <= degree; level++) {
+            leftX[level] = scratchX[0];
+            leftY[level] = scratchY[0];
+            rightX[degree - level] = scratchX[degree - level];
+            rightY[degree - level] = scratchY[degree - level];
+            for (int i = 0; i < degree - level; i++) {
+                scratchX[i] = (scratchX[i] + scratchX[i + 1]) / 2;
+                scratchY[i] = (scratchY[i] + scratchY[i + 1]) / 2;
+            }
+        }
+    }
+
+    /**
+     * This finds the point, first derivative, and second derivative of a section of the curve at a
+     * t-value on the section with de Casteljau's algorithm. The last three levels of the algorithm
+     * give the derivatives, so this does not allocate anything.
+     *
+     * @param x the x coordinates of the section's control points.
+     * @param y the y coordinates of the section's control points.
+     * @param u the t-value on the section.
+     */
+    private void evaluate(double[] x, double[] y, double u) {
+        System.arraycopy(x, 0, scratchX, 0, degree + 1);
+        System.arraycopy(y, 0, scratchY, 0, degree + 1);
+
+        for (int level = degree; level > 0; level--) {
+            if (level == 2) {
+                lastSecondDerivative[0] = degree * (degree - 1) * (scratchX[2] - 2 * scratchX[1] + scratchX[0]);
+                lastSecondDerivative[1] = degree * (degree - 1) * (scratchY[2] - 2 * scratchY[1] + scratchY[0]);
+            }
+            if (level == 1) {
+                lastDerivative[0] = degree * (scratchX[1] - scratchX[0]);
+                lastDerivative[1] = degree * (scratchY[1] - scratchY[0]);
+            }
+            for (int i = 0; i < level; i++) {
+                scratchX[i] = scratchX[i] + u * (scratchX[i + 1] - scratchX[i]);
+                scratchY[i] = scratchY[i] + u * (scratchY[i + 1] - scratchY[i]);
+            }
+        }
+        lastPoint[0] = scratchX[0];
+        lastPoint[1] = scratchY[0];
+    }
+
+    /**
+     * This returns the number of pieces the curve was split into.
+     *
+     * @return returns the number of pieces.
+     */
+    public int getPieceCount() {
+        return pieceCount;
+    }
+}
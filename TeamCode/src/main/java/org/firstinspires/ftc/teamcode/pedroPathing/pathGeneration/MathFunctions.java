@@ -304,4 +304,71 @@ public class MathFunctions {
     public static boolean roughlyEquals(double one, double two) {
         return roughlyEquals(one, two, 0.0001);
     }
+
+    /**
+     * This finds the real roots of a quadratic equation ax^2 + bx + c = 0. If a is 0, this solves
+     * the linear equation bx + c = 0 instead.
+     *
+     * @param a the x^2 coefficient.
+     * @param b the x coefficient.
+     * @param c the constant.
+     * @param roots an Array of at least 2 doubles that the roots are written into.
+     * @return returns the number of real roots written into the Array.
+     */
+    public static int solveQuadratic(double a, double b, double c, double[] roots) {
+        if (Math.abs(a) <= 1e-12 * Math.max(Math.abs(b), Math.abs(c))) {
+            if (b == 0) return 0;
+            roots[0] = -c / b;
+            return 1;
+        }
+        double discriminant = b * b - 4 * a * c;
+        if (discriminant < 0) return 0;
+        // this avoids subtracting two nearly equal numbers, which loses precision
+        double q = -0.5 * (b + Math.copySign(Math.sqrt(discriminant), b));
+        roots[0] = q / a;
+        if (q == 0) return 1;
+        roots[1] = c / q;
+        return 2;
+    }
+
+    /**
+     * This finds the real roots of a cubic equation ax^3 + bx^2 + cx + d = 0 in closed form, using
+     * Cardano's formula when there is one real root and the trigonometric method when there are
+     * three. If a is 0, this solves the quadratic equation instead.
+     *
+     * @param a the x^3 coefficient.
+     * @param b the x^2 coefficient.
+     * @param c the x coefficient.
+     * @param d the constant.
+     * @param roots an Array of at least 3 doubles that the roots are written into.
+     * @return returns the number of real roots written into the Array.
+     */
+    public static int solveCubic(double a, double b, double c, double d, double[] roots) {
+        if (Math.abs(a) <= 1e-12 * Math.max(Math.max(Math.abs(b), Math.abs(c)), Math.abs(d))) {
+            return solveQuadratic(b, c, d, roots);
+        }
+
+        // substituting x = y - b / 3a gives the depressed cubic y^3 + py + q = 0
+        double shift = b / (3 * a);
+        double p = (3 * a * c - b * b) / (3 * a * a);
+        double q = (2 * b * b * b - 9 * a * b * c + 27 * a * a * d) / (27 * a * a * a);
+        double discriminant = q * q / 4 + p * p * p / 27;
+
+        if (discriminant > 0) {
+            double sqrtDiscriminant = Math.sqrt(discriminant);
+            roots[0] = Math.cbrt(-q / 2 + sqrtDiscriminant) + Math.cbrt(-q / 2 - sqrtDiscriminant) - shift;
+            return 1;
+        }
+        if (p == 0) {
+            roots[0] = -shift;
+            return 1;
+        }
+
+        double radius = 2 * Math.sqrt(-p / 3);
+        double angle = Math.acos(clamp(3 * q / (2 * p) * Math.sqrt(-3 / p), -1, 1)) / 3;
+        for (int k = 0; k < 3; k++) {
+            roots[k] = radius * Math.cos(angle - 2 * Math.PI * k / 3) - shift;
+        }
+        return 3;
+    }
 }
@@ -2,6 +2,7 @@ package org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration;
 
 import org.firstinspires.ftc.teamcode.pedroPathing.localization.Pose;
 import org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants;
+import org.firstinspires.ftc.teamcode.pedroPathing.util.SettleStatistics;
 
 import java.util.ArrayList;
 
@@ -64,6 +65,8 @@ public class Path {
     // This can be custom set for each Path.
     private double pathEndTimeoutConstraint = FollowerConstants.pathEndTimeoutConstraint;
 
+    private SettleStatistics settleStatistics = new SettleStatistics();
+
     /**
      * Creates a new Path from a BezierCurve. The default heading interpolation is tangential.
      *
@@ -124,28 +127,18 @@ public class Path {
     }
 
     /**
-     * This gets the closest Point from a specified pose to the BezierCurve with a binary search
-     * that is limited to some specified step limit.
+     * This gets the closest Point from a specified pose to the BezierCurve. Lines and quadratic
+     * curves are solved exactly, and other curves use a search that is limited to some specified
+     * step limit.
      *
      * @param pose the pose.
-     * @param searchStepLimit the binary search step limit.
+     * @param searchStepLimit the search step limit.
      * @return returns the closest Point.
      */
     public Pose getClosestPoint(Pose pose, int searchStepLimit) {
-        double lower = 0;
-        double upper = 1;
         Point returnPoint;
 
-        // we don't need to calculate the midpoint, so we start off at the 1/4 and 3/4 point
-        for (int i = 0; i < searchStepLimit; i++) {
-            if (MathFunctions.distance(pose, getPoint(lower + 0.25 * (upper-lower))) > MathFunctions.distance(pose, getPoint(lower + 0.75 * (upper-lower)))) {
-                lower += (upper-lower)/2.0;
-            } else {
-                upper -= (upper-lower)/2.0;
-            }
-        }
-
-        closestPointTValue = lower + 0.5 * (upper-lower);
+        closestPointTValue = curve.getClosestPointTValue(pose, searchStepLimit);
 
         returnPoint = getPoint(closestPointTValue);
 
@@ -186,6 +179,27 @@ public class Path {
         return curve.getEndTangent();
     }
 
+    /**
+     * This returns the unit tangent Vector at the start of the BezierCurve, or a Vector with a
+     * magnitude of 0 if the curve does not move at its start.
+     *
+     * @return returns the start tangent Vector.
+     */
+    public Vector getStartTangent() {
+        return MathFunctions.normalizeVector(curve.getDerivative(0));
+    }
+
+    /**
+     * This returns the derivative of the BezierCurve at a specified t-value. This points along the
+     * curve, and its magnitude is how many inches the curve moves per unit of t.
+     *
+     * @param t the specified t-value.
+     * @return returns the derivative Vector.
+     */
+    public Vector getDerivative(double t) {
+        return curve.getDerivative(t);
+    }
+
     /**
      * This returns the point on the Bezier curve that is specified by the parametric t value. A
      * Bezier curve is a parametric function that returns points along it with t ranging from [0, 1],
@@ -464,6 +478,16 @@ public class Path {
         return pathEndTimeoutConstraint;
     }
 
+    /**
+     * This returns how long the Follower has taken to settle at the end of this Path each time it
+     * was followed.
+     *
+     * @return returns the settle statistics of this Path.
+     */
+    public SettleStatistics getSettleStatistics() {
+        return settleStatistics;
+    }
+
     /**
      * Returns the type of path. This is used in case we need to identify the type of BezierCurve
      * this is.
@@ -204,6 +204,35 @@ public class PathBuilder {
         return this;
     }
 
+    /**
+     * This adds an asynchronous temporal callback on the last Path added to the PathBuilder.
+     * This callback is set to run at a specified number of milliseconds after the start of the path,
+     * on a worker thread, so it does not slow down the Follower.
+     *
+     * @param time This sets the number of milliseconds of wait between the start of the Path and
+     *             the calling of the callback.
+     * @param runnable This sets the code for the callback to run. Use lambda statements for this.
+     * @return This returns itself with the updated data.
+     */
+    public PathBuilder addAsyncTemporalCallback(double time, Runnable runnable) {
+        this.callbacks.add(new PathCallback(time, runnable, PathCallback.TIME, paths.size()-1, true));
+        return this;
+    }
+
+    /**
+     * This adds an asynchronous parametric callback on the last Path added to the PathBuilder.
+     * This callback is set to run at a certain point on the Path, on a worker thread, so it does not
+     * slow down the Follower.
+     *
+     * @param t This sets the t-value (parametric time) on the Path for when to run the callback.
+     * @param runnable This sets the code for the callback to run. Use lambda statements for this.
+     * @return This returns itself with the updated data.
+     */
+    public PathBuilder addAsyncParametricCallback(double t, Runnable runnable) {
+        this.callbacks.add(new PathCallback(t, runnable, PathCallback.PARAMETRIC, paths.size()-1, true));
+        return this;
+    }
+
     /**
      * This builds all the Path and callback information together into a PathChain.
      *
@@ -1,11 +1,18 @@
 package org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration;
 
+import org.firstinspires.ftc.teamcode.pedroPathing.util.CallbackExecutor;
 import org.firstinspires.ftc.teamcode.pedroPathing.util.SingleRunAction;
 
+import java.util.concurrent.Future;
+
 /**
  * This is the PathCallback class. This class handles callbacks of Runnables in PathChains.
  * Basically, this allows you to run non-blocking code in the middle of PathChains.
  *
+ * Asynchronous PathCallbacks are run on the CallbackExecutor's worker threads instead of inside
+ * the Follower's update, so slow code in them does not slow down path following. Their code must
+ * be safe to run alongside the OpMode thread.
+ *
  * @author Anyi Lin - 10158 Scott's Bots
  * @author Aaron Yang - 10158 Scott's Bots
  * @author Harrison Womack - 10158 Scott's Bots
@@ -18,6 +25,10 @@ public class PathCallback extends SingleRunAction {
     private int type;
     private int index;
 
+    private boolean async;
+    private volatile Future<?> future;
+    private volatile long runTime = -1;
+
     public static final int TIME = 0;
     public static final int PARAMETRIC = 1;
 
@@ -36,7 +47,7 @@ public class PathCallback extends SingleRunAction {
         super(runnable);
         this.startCondition = startCondition;
         this.type = type;
-        if (this.type != TIME || this.type != PARAMETRIC) {
+        if (this.type != TIME && this.type != PARAMETRIC) {
             this.type = PARAMETRIC;
         }
         if (this.type == TIME && this.startCondition < 0) {
@@ -48,6 +59,108 @@ public class PathCallback extends SingleRunAction {
         this.index = index;
     }
 
+    /**
+     * This creates a new PathCallback that can be run asynchronously.
+     *
+     * @param startCondition This defines when the callback is to be run, either as a wait time in
+     *                       milliseconds or a t-value (parametric time) point.
+     * @param runnable This contains the code to run when the callback is called.
+     * @param type This defines the type of callback using the class constants.
+     * @param index This defines which Path within the PathChain the callback is to run on.
+     * @param async This defines if the callback runs on a worker thread instead of in the Follower's
+     *              update.
+     */
+    public PathCallback(double startCondition, Runnable runnable, int type, int index, boolean async) {
+        this(startCondition, runnable, type, index);
+        this.async = async;
+    }
+
+    /**
+     * This runs the callback. Synchronous callbacks run right away. Asynchronous callbacks are
+     * queued on the CallbackExecutor, and if its queue is full, nothing happens and this returns
+     * false without marking the callback as run, so it can be tried again.
+     *
+     * @return This returns if the callback was run or queued.
+     */
+    @Override
+    public boolean run() {
+        if (hasBeenRun()) return false;
+
+        if (!async) {
+            long startTime = System.nanoTime();
+            super.run();
+            runTime = System.nanoTime() - startTime;
+            return true;
+        }
+
+        Runnable runnable = getRunnable();
+        Future<?> submitted = CallbackExecutor.getInstance().submit(() -> {
+            long startTime = System.nanoTime();
+            try {
+                runnable.run();
+            } finally {
+                runTime = System.nanoTime() - startTime;
+            }
+        });
+        if (submitted == null) return false;
+
+        future = submitted;
+        setHasBeenRun(true);
+        return true;
+    }
+
+    /**
+     * This resets the callback so it can run again. An asynchronous run that is still going is left
+     * to finish, but is no longer tracked.
+     */
+    @Override
+    public void reset() {
+        super.reset();
+        future = null;
+        runTime = -1;
+    }
+
+    /**
+     * This returns if the callback has run and its code has finished, including code that threw an
+     * exception.
+     *
+     * @return This returns if the callback is finished.
+     */
+    public boolean isFinished() {
+        if (!hasBeenRun()) return false;
+        return !async || future.isDone();
+    }
+
+    /**
+     * This returns how long the callback's code took to run the last time it finished. Asynchronous
+     * callbacks do not count the time they waited in the queue.
+     *
+     * @return This returns the run time in milliseconds, or -1 if it has not finished.
+     */
+    public double getRunTime() {
+        long time = runTime;
+        return time < 0 ? -1 : time / Math.pow(10.0, 6);
+    }
+
+    /**
+     * This returns the Future of the last asynchronous run, which can be used to wait for the
+     * callback or get the exception it threw.
+     *
+     * @return This returns the Future, or null if the callback is synchronous or has not run.
+     */
+    public Future<?> getFuture() {
+        return future;
+    }
+
+    /**
+     * This returns if the callback runs on a worker thread instead of in the Follower's update.
+     *
+     * @return This returns if the callback is asynchronous.
+     */
+    public boolean isAsync() {
+        return async;
+    }
+
     /**
      * This returns the type of callback this is (time or parametric).
      *
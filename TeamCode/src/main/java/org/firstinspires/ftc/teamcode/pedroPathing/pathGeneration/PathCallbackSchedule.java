@@ -0,0 +1,233 @@
+package org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration;
+
+import org.firstinspires.ftc.teamcode.pedroPathing.util.CallbackExecutor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * This is the PathCallbackSchedule class. This class handles deciding when the PathCallbacks of a
+ * PathChain run. The PathCallbacks are sorted once, when the PathChain is built, by which Path they
+ * are on and then by their start condition, into separate arrays for parametric and time callbacks.
+ *
+ * Since the callbacks on each Path are in order, only the next callback that has not been run can
+ * be the next one to run. Parametric callbacks keep one cursor into their array, and time callbacks
+ * keep one cursor per Path along with the time the earliest of them is due, so each update only
+ * does a couple of comparisons no matter how many callbacks the PathChain has.
+ *
+ * Time callbacks run a set number of milliseconds after their Path starts, even if the Follower has
+ * moved on to a later Path by then. Parametric callbacks only run while their Path is being
+ * followed.
+ *
+ * @version 1.0, 10/19/2026
+ */
+public class PathCallbackSchedule {
+    private final int pathCount;
+
+    private final PathCallback[] parametricCallbacks;
+    private final double[] parametricConditions;
+    private final int[] parametricPathStarts;
+
+    private final PathCallback[] temporalCallbacks;
+    private final double[] temporalConditions;
+    private final int[] temporalPathStarts;
+
+    private final int[] temporalCursors;
+    private final long[] pathStartTimes;
+
+    private final boolean hasAsyncCallbacks;
+
+    private int parametricCursor;
+    private int parametricPath = -1;
+    private int startedPaths;
+
+    private double nextTemporalTime = Double.POSITIVE_INFINITY;
+    private int nextTemporalPath = -1;
+
+    /**
+     * This creates a new PathCallbackSchedule for a PathChain with a specified number of Paths.
+     * PathCallbacks with an index outside of the PathChain are never run.
+     *
+     * @param pathCount the number of Paths in the PathChain.
+     * @param callbacks the PathCallbacks of the PathChain.
+     */
+    public PathCallbackSchedule(int pathCount, List<PathCallback> callbacks) {
+        this.pathCount = pathCount;
+
+        ArrayList<PathCallback> parametric = new ArrayList<>();
+        ArrayList<PathCallback> temporal = new ArrayList<>();
+        boolean async = false;
+        for (PathCallback callback : callbacks) {
+            if (callback.getIndex() < 0 || callback.getIndex() >= pathCount) continue;
+            async |= callback.isAsync();
+            if (callback.getType() == PathCallback.TIME) {
+                temporal.add(callback);
+            } else {
+                parametric.add(callback);
+            }
+        }
+
+        Comparator<PathCallback> order = Comparator.comparingInt(PathCallback::getIndex).thenComparingDouble(PathCallback::getStartCondition);
+        parametricCallbacks = parametric.toArray(new PathCallback[0]);
+        temporalCallbacks = temporal.toArray(new PathCallback[0]);
+        Arrays.sort(parametricCallbacks, order);
+        Arrays.sort(temporalCallbacks, order);
+
+        parametricConditions = getConditions(parametricCallbacks);
+        temporalConditions = getConditions(temporalCallbacks);
+        parametricPathStarts = getPathStarts(parametricCallbacks, pathCount);
+        temporalPathStarts = getPathStarts(temporalCallbacks, pathCount);
+
+        temporalCursors = new int[pathCount];
+        pathStartTimes = new long[pathCount];
+        hasAsyncCallbacks = async;
+
+        // starts the worker threads now, so the first asynchronous callback does not wait for them
+        if (hasAsyncCallbacks) CallbackExecutor.getInstance();
+    }
+
+    /**
+     * This returns the start conditions of some sorted PathCallbacks.
+     *
+     * @param callbacks the PathCallbacks.
+     * @return returns the start conditions, in the same order.
+     */
+    private static double[] getConditions(PathCallback[] callbacks) {
+        double[] conditions = new double[callbacks.length];
+        for (int i = 0; i < callbacks.length; i++) {
+            conditions[i] = callbacks[i].getStartCondition();
+        }
+        return conditions;
+    }
+
+    /**
+     * This returns where each Path's PathCallbacks start in an array of sorted PathCallbacks. The
+     * callbacks of Path i are from index i up to, but not including, index i + 1 of the result.
+     *
+     * @param callbacks the PathCallbacks, sorted by Path.
+     * @param pathCount the number of Paths.
+     * @return returns the start index of each Path, plus the total number of PathCallbacks.
+     */
+    private static int[] getPathStarts(PathCallback[] callbacks, int pathCount) {
+        int[] starts = new int[pathCount + 1];
+        int index = 0;
+        for (int path = 0; path <= pathCount; path++) {
+            while (index < callbacks.length && callbacks[index].getIndex() < path) index++;
+            starts[path] = index;
+        }
+        return starts;
+    }
+
+    /**
+     * This resets the schedule and all of its PathCallbacks, so the PathChain can be followed from
+     * the start again, and starts the first Path.
+     *
+     * @param time the time the PathChain was started, in milliseconds.
+     */
+    public void reset(long time) {
+        for (PathCallback callback : parametricCallbacks) callback.reset();
+        for (PathCallback callback : temporalCallbacks) callback.reset();
+        startedPaths = 0;
+        parametricPath = -1;
+        nextTemporalTime = Double.POSITIVE_INFINITY;
+        nextTemporalPath = -1;
+        if (pathCount > 0) startPath(0, time);
+    }
+
+    /**
+     * This marks a Path as started. This should be called when the Follower moves on to the next
+     * Path in the PathChain.
+     *
+     * @param index the index of the Path.
+     * @param time the time the Path was started, in milliseconds.
+     */
+    public void startPath(int index, long time) {
+        if (index < 0 || index >= pathCount) return;
+
+        parametricPath = index;
+        parametricCursor = parametricPathStarts[index];
+
+        while (startedPaths <= index) {
+            pathStartTimes[startedPaths] = time;
+            temporalCursors[startedPaths] = temporalPathStarts[startedPaths];
+            startedPaths++;
+        }
+        findNextTemporalCallback();
+    }
+
+    /**
+     * This runs any PathCallbacks that should run right now.
+     *
+     * @param index the index of the Path being followed.
+     * @param t the t-value of the closest point on the Path being followed.
+     * @param time the current time, in milliseconds.
+     * @throws IllegalStateException if an asynchronous PathCallback threw an exception since the
+     *                               last update.
+     */
+    public void update(int index, double t, long time) {
+        if (hasAsyncCallbacks) CallbackExecutor.getInstance().throwIfFailed();
+        if (index != parametricPath) startPath(index, time);
+        if (parametricPath < 0) return;
+
+        int parametricEnd = parametricPathStarts[parametricPath + 1];
+        while (parametricCursor < parametricEnd && (t >= parametricConditions[parametricCursor] || MathFunctions.roughlyEquals(t, parametricConditions[parametricCursor]))) {
+            if (!runCallback(parametricCallbacks[parametricCursor])) break;
+            parametricCursor++;
+        }
+
+        while (time > nextTemporalTime) {
+            if (!runCallback(temporalCallbacks[temporalCursors[nextTemporalPath]])) break;
+            temporalCursors[nextTemporalPath]++;
+            findNextTemporalCallback();
+        }
+    }
+
+    /**
+     * This runs a PathCallback, unless it is asynchronous and could not be queued, in which case it
+     * is tried again on the next update.
+     *
+     * @param callback the PathCallback to run.
+     * @return returns if the PathCallback has been run.
+     */
+    private boolean runCallback(PathCallback callback) {
+        callback.run();
+        return callback.hasBeenRun();
+    }
+
+    /**
+     * This returns if every PathCallback that has been run so far has finished. Only asynchronous
+     * PathCallbacks can still be running, so this only checks those.
+     *
+     * @return returns if no PathCallbacks are still running.
+     */
+    public boolean areCallbacksFinished() {
+        for (PathCallback callback : parametricCallbacks) {
+            if (callback.isAsync() && callback.hasBeenRun() && !callback.isFinished()) return false;
+        }
+        for (PathCallback callback : temporalCallbacks) {
+            if (callback.isAsync() && callback.hasBeenRun() && !callback.isFinished()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * This finds the time callback that is due the soonest, out of the next time callback on each
+     * Path that has started. This is only done when a Path starts or a time callback runs.
+     */
+    private void findNextTemporalCallback() {
+        nextTemporalTime = Double.POSITIVE_INFINITY;
+        nextTemporalPath = -1;
+        for (int path = 0; path < startedPaths; path++) {
+            int cursor = temporalCursors[path];
+            if (cursor < temporalPathStarts[path + 1]) {
+                double dueTime = pathStartTimes[path] + temporalConditions[cursor];
+                if (dueTime < nextTemporalTime) {
+                    nextTemporalTime = dueTime;
+                    nextTemporalPath = path;
+                }
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * This is the PathChain class. This class handles chaining together multiple Paths into a larger
@@ -18,6 +19,10 @@ public class PathChain {
 
     private ArrayList<PathCallback> callbacks = new ArrayList<>();
 
+    private PathCallbackSchedule callbackSchedule;
+
+    private volatile double[][] dashboardDrawingPoints;
+
     /**
      * This creates a new PathChain from some specified Paths.
      *
@@ -72,6 +77,7 @@ public class PathChain {
         for (PathCallback callback : callbacks) {
             this.callbacks.add(callback);
         }
+        callbackSchedule = null;
     }
 
     /**
@@ -81,6 +87,7 @@ public class PathChain {
      */
     public void setCallbacks(ArrayList<PathCallback> callbacks) {
         this.callbacks = callbacks;
+        callbackSchedule = new PathCallbackSchedule(pathChain.size(), callbacks);
     }
 
     /**
@@ -91,4 +98,51 @@ public class PathChain {
     public ArrayList<PathCallback> getCallbacks() {
         return callbacks;
     }
+
+    /**
+     * This returns the PathCallbackSchedule that runs the PathCallbacks of this PathChain. This is
+     * built when the PathCallbacks are set, so PathCallbacks added to the ArrayList returned by
+     * getCallbacks() afterwards are not scheduled unless setCallbacks() is called again.
+     *
+     * @return returns the PathCallbackSchedule.
+     */
+    public PathCallbackSchedule getCallbackSchedule() {
+        if (callbackSchedule == null) callbackSchedule = new PathCallbackSchedule(pathChain.size(), callbacks);
+        return callbackSchedule;
+    }
+
+    /**
+     * This returns a 2D Array of doubles containing the x and y positions of points to draw the
+     * whole PathChain on FTC Dashboard as one line. These are only created the first time this is
+     * called, from the drawing points of each Path, and shared Points between Paths are only kept
+     * once.
+     *
+     * @return returns the 2D Array to draw on FTC Dashboard
+     */
+    public double[][] getDashboardDrawingPoints() {
+        if (dashboardDrawingPoints == null) {
+            int length = 0;
+            for (Path path : pathChain) {
+                length += path.getDashboardDrawingPoints()[0].length;
+            }
+
+            double[][] drawingPoints = new double[2][length];
+            int index = 0;
+            for (Path path : pathChain) {
+                double[][] pathPoints = path.getDashboardDrawingPoints();
+                int start = 0;
+                if (index > 0 && drawingPoints[0][index - 1] == pathPoints[0][0] && drawingPoints[1][index - 1] == pathPoints[1][0]) {
+                    start = 1;
+                }
+                System.arraycopy(pathPoints[0], start, drawingPoints[0], index, pathPoints[0].length - start);
+                System.arraycopy(pathPoints[1], start, drawingPoints[1], index, pathPoints[1].length - start);
+                index += pathPoints[0].length - start;
+            }
+
+            drawingPoints[0] = Arrays.copyOf(drawingPoints[0], index);
+            drawingPoints[1] = Arrays.copyOf(drawingPoints[1], index);
+            dashboardDrawingPoints = drawingPoints;
+        }
+        return dashboardDrawingPoints;
+    }
 }
@@ -0,0 +1,161 @@
+package org.firstinspires.ftc.teamcode.pedroPathing.replay;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * This is the RunFrame class. It holds everything recorded in one loop of a run: the loop time
+ * stamp, a marker the OpMode can use for its state, the pose the Localizer put out, the raw sensor
+ * readings the Localizer used, the motor powers the Follower commanded, and the battery voltage
+ * the Follower compensated for.
+ *
+ * RunFrames are mutable and meant to be reused, so recording and replaying do not allocate a new
+ * object every loop. Raw readings that a Localizer does not have are left as NaN, or with an
+ * encoder count of 0.
+ *
+ * @version 1.0, 10/19/2026
+ */
+public class RunFrame {
+    public static final int MAX_ENCODERS = 4;
+    public static final int MOTOR_COUNT = 4;
+
+    // The number of bytes one frame takes up in a run log
+    public static final int SIZE = 8 + 4 + 3 * 8 + 8 + 3 * 8 + 1 + 2 * MAX_ENCODERS * 4 + MOTOR_COUNT * 8 + 8;
+
+    public long timestamp;
+    public int marker;
+
+    public double x;
+    public double y;
+    public double heading;
+
+    public double imuYaw = Double.NaN;
+
+    public double otosX = Double.NaN;
+    public double otosY = Double.NaN;
+    public double otosHeading = Double.NaN;
+
+    public int encoderCount;
+    public final int[] encoderTicks = new int[MAX_ENCODERS];
+    public final int[] encoderOffsets = new int[MAX_ENCODERS];
+
+    public final double[] motorPowers = new double[MOTOR_COUNT];
+
+    public double voltage;
+
+    /**
+     * This clears the raw readings, so readings from a previous loop are not recorded again if the
+     * Localizer does not set them this loop.
+     */
+    public void clearRawData() {
+        imuYaw = Double.NaN;
+        otosX = Double.NaN;
+        otosY = Double.NaN;
+        otosHeading = Double.NaN;
+        encoderCount = 0;
+    }
+
+    /**
+     * This sets the encoder readings of this frame. Only the first MAX_ENCODERS are kept. The zero
+     * offsets are cleared, so they have to be set after this with setEncoderOffsets().
+     *
+     * @param ticks the raw encoder positions the motors reported, in ticks.
+     */
+    public void setEncoderTicks(int... ticks) {
+        encoderCount = Math.min(ticks.length, MAX_ENCODERS);
+        System.arraycopy(ticks, 0, encoderTicks, 0, encoderCount);
+        for (int i = 0; i < MAX_ENCODERS; i++) {
+            encoderOffsets[i] = 0;
+        }
+    }
+
+    /**
+     * This sets the zero offsets of the encoders of this frame, in the same order as the readings.
+     * The position of an encoder since its last reset is its reading minus its offset.
+     *
+     * @param offsets the raw encoder positions each encoder was last reset at, in ticks.
+     */
+    public void setEncoderOffsets(int... offsets) {
+        System.arraycopy(offsets, 0, encoderOffsets, 0, Math.min(offsets.length, MAX_ENCODERS));
+    }
+
+    /**
+     * This copies another frame into this one.
+     *
+     * @param other the frame to copy.
+     */
+    public void set(RunFrame other) {
+        timestamp = other.timestamp;
+        marker = other.marker;
+        x = other.x;
+        y = other.y;
+        heading = other.heading;
+        imuYaw = other.imuYaw;
+        otosX = other.otosX;
+        otosY = other.otosY;
+        otosHeading = other.otosHeading;
+        encoderCount = other.encoderCount;
+        System.arraycopy(other.encoderTicks, 0, encoderTicks, 0, MAX_ENCODERS);
+        System.arraycopy(other.encoderOffsets, 0, encoderOffsets, 0, MAX_ENCODERS);
+        System.arraycopy(other.motorPowers, 0, motorPowers, 0, MOTOR_COUNT);
+        voltage = other.voltage;
+    }
+
+    /**
+     * This writes this frame into a ByteBuffer, which needs to have at least SIZE bytes remaining.
+     *
+     * @param buffer the buffer to write to.
+     */
+    public void write(ByteBuffer buffer) {
+        buffer.putLong(timestamp);
+        buffer.putInt(marker);
+        buffer.putDouble(x);
+        buffer.putDouble(y);
+        buffer.putDouble(heading);
+        buffer.putDouble(imuYaw);
+        buffer.putDouble(otosX);
+        buffer.putDouble(otosY);
+        buffer.putDouble(otosHeading);
+        buffer.put((byte) encoderCount);
+        for (int i = 0; i < MAX_ENCODERS; i++) {
+            buffer.putInt(encoderTicks[i]);
+        }
+        for (int i = 0; i < MAX_ENCODERS; i++) {
+            buffer.putInt(encoderOffsets[i]);
+        }
+        for (int i = 0; i < MOTOR_COUNT; i++) {
+            buffer.putDouble(motorPowers[i]);
+        }
+        buffer.putDouble(voltage);
+    }
+
+    /**
+     * This reads a frame written by write() into this frame.
+     *
+     * @param input the stream to read from.
+     * @throws IOException if the stream can't be read, or ends partway through the frame.
+     */
+    public void read(DataInputStream input) throws IOException {
+        timestamp = input.readLong();
+        marker = input.readInt();
+        x = input.readDouble();
+        y = input.readDouble();
+        heading = input.readDouble();
+        imuYaw = input.readDouble();
+        otosX = input.readDouble();
+        otosY = input.readDouble();
+        otosHeading = input.readDouble();
+        encoderCount = input.readByte();
+        for (int i = 0; i < MAX_ENCODERS; i++) {
+            encoderTicks[i] = input.readInt();
+        }
+        for (int i = 0; i < MAX_ENCODERS; i++) {
+            encoderOffsets[i] = input.readInt();
+        }
+        for (int i = 0; i < MOTOR_COUNT; i++) {
+            motorPowers[i] = input.readDouble();
+        }
+        voltage = input.readDouble();
+    }
+}
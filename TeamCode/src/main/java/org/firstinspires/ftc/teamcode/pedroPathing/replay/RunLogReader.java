@@ -0,0 +1,68 @@
+package org.firstinspires.ftc.teamcode.pedroPathing.replay;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+/**
+ * This is the RunLogReader class. This class handles reading back a run log written by the
+ * RunRecorder, one frame at a time, into a reused RunFrame.
+ *
+ * @version 1.0, 10/19/2026
+ */
+public class RunLogReader implements Closeable {
+    private final DataInputStream input;
+
+    /**
+     * This opens a run log and checks its header.
+     *
+     * @param file the run log to read.
+     * @throws IOException if the file can't be read or is not a run log of this version.
+     */
+    public RunLogReader(File file) throws IOException {
+        input = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 64 * 1024));
+
+        int magic = input.readInt();
+        int version = input.readInt();
+        int frameSize = input.readInt();
+        if (magic != RunRecorder.MAGIC) {
+            input.close();
+            throw new IOException(file + " is not a run log");
+        }
+        if (version != RunRecorder.VERSION || frameSize != RunFrame.SIZE) {
+            input.close();
+            throw new IOException(file + " is run log version " + version + ", but only version " + RunRecorder.VERSION + " can be read");
+        }
+    }
+
+    /**
+     * This reads the next frame of the run log.
+     *
+     * @param frame the frame to read into.
+     * @return returns true if a frame was read, or false at the end of the run log.
+     * @throws IOException if the run log can't be read.
+     */
+    public boolean next(RunFrame frame) throws IOException {
+        try {
+            frame.read(input);
+            return true;
+        } catch (EOFException e) {
+            // A frame cut off by the robot losing power is treated as the end of the log.
+            return false;
+        }
+    }
+
+    /**
+     * This closes the run log.
+     *
+     * @throws IOException if the run log can't be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+}
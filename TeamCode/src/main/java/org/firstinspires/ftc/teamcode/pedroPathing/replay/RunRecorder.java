@@ -0,0 +1,161 @@
+package org.firstinspires.ftc.teamcode.pedroPathing.replay;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This is the RunRecorder class. This class handles writing RunFrames to a compact binary run log
+ * while an OpMode is running, so the run can be replayed off of the robot with the RunReplayer.
+ *
+ * Recording never blocks the OpMode thread. Frames are written into a preallocated buffer, and full
+ * buffers are handed off through a queue to a background thread that writes them to the file. If
+ * the background thread falls so far behind that there are no free buffers, frames are dropped and
+ * counted instead of waiting.
+ *
+ * A run log starts with a header of the MAGIC number, the format VERSION, and the frame SIZE, and
+ * is followed by frames back to back.
+ *
+ * @version 1.0, 10/19/2026
+ */
+public class RunRecorder implements Closeable {
+    public static final int MAGIC = 0x50505243;
+    public static final int VERSION = 2;
+
+    public static int BUFFER_COUNT = 8;
+    public static int BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final ArrayBlockingQueue<ByteBuffer> freeBuffers;
+    private final ArrayBlockingQueue<ByteBuffer> fullBuffers;
+    private final Thread writerThread;
+
+    private ByteBuffer currentBuffer;
+
+    private volatile boolean closed;
+    private volatile IOException writeException;
+
+    private long framesRecorded;
+    private long framesDropped;
+
+    /**
+     * This creates a new RunRecorder that writes to a specified file, and starts its writer thread.
+     *
+     * @param file the file to write the run log to.
+     * @throws IOException if the file can't be opened.
+     */
+    public RunRecorder(File file) throws IOException {
+        channel = new FileOutputStream(file).getChannel();
+
+        freeBuffers = new ArrayBlockingQueue<>(BUFFER_COUNT);
+        fullBuffers = new ArrayBlockingQueue<>(BUFFER_COUNT);
+        for (int i = 0; i < BUFFER_COUNT - 1; i++) {
+            freeBuffers.add(ByteBuffer.allocateDirect(BUFFER_SIZE));
+        }
+        currentBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        currentBuffer.putInt(MAGIC);
+        currentBuffer.putInt(VERSION);
+        currentBuffer.putInt(RunFrame.SIZE);
+
+        writerThread = new Thread(this::writeBuffers, "RunRecorder");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * This records a frame. This only copies the frame into a buffer, and never waits on the file.
+     *
+     * @param frame the frame to record.
+     * @return returns if the frame was recorded, or false if it had to be dropped.
+     */
+    public boolean record(RunFrame frame) {
+        if (closed) return false;
+        if (currentBuffer == null || currentBuffer.remaining() < RunFrame.SIZE) {
+            if (currentBuffer != null) {
+                currentBuffer.flip();
+                fullBuffers.offer(currentBuffer);
+            }
+            currentBuffer = freeBuffers.poll();
+            if (currentBuffer == null) {
+                framesDropped++;
+                return false;
+            }
+        }
+        frame.write(currentBuffer);
+        framesRecorded++;
+        return true;
+    }
+
+    /**
+     * This returns the number of frames recorded so far.
+     *
+     * @return returns the number of frames recorded.
+     */
+    public long getFramesRecorded() {
+        return framesRecorded;
+    }
+
+    /**
+     * This returns the number of frames dropped because there was no free buffer.
+     *
+     * @return returns the number of frames dropped.
+     */
+    public long getFramesDropped() {
+        return framesDropped;
+    }
+
+    /**
+     * This writes out whatever is left in the current buffer, stops the writer thread, and closes
+     * the file. This waits for the writer thread, so it should be called when the OpMode stops.
+     *
+     * @throws IOException if writing the run log failed at any point.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        if (currentBuffer != null && currentBuffer.position() > 0) {
+            currentBuffer.flip();
+            fullBuffers.offer(currentBuffer);
+            currentBuffer = null;
+        }
+        closed = true;
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        if (writeException != null) throw writeException;
+    }
+
+    /**
+     * This is the loop the writer thread runs. It writes full buffers to the file and returns them
+     * to the free buffers, until the recorder is closed and every full buffer is written.
+     */
+    private void writeBuffers() {
+        while (!closed || !fullBuffers.isEmpty()) {
+            ByteBuffer buffer;
+            try {
+                buffer = fullBuffers.poll(20, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (buffer == null) continue;
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                writeException = e;
+            }
+            buffer.clear();
+            freeBuffers.offer(buffer);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package org.firstinspires.ftc.teamcode.pedroPathing.replay;
+
+import org.firstinspires.ftc.teamcode.pedroPathing.follower.Follower;
+import org.firstinspires.ftc.teamcode.pedroPathing.localization.Localizer;
+import org.firstinspires.ftc.teamcode.pedroPathing.localization.Pose;
+import org.firstinspires.ftc.teamcode.pedroPathing.localization.PoseUpdater;
+import org.firstinspires.ftc.teamcode.pedroPathing.localization.localizers.ReplayLocalizer;
+import org.firstinspires.ftc.teamcode.pedroPathing.localization.localizers.ThreeWheelLocalizer;
+import org.firstinspires.ftc.teamcode.pedroPathing.util.RobotClock;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * This is the RunReplayer class. This class handles replaying a run log recorded by the
+ * RunRecorder through a PoseUpdater and a Follower that do not use any hardware, so a run from the
+ * field can be reproduced on a desktop JVM.
+ *
+ * The replay is deterministic: every loop, the RobotClock is set to the recorded time stamp, the
+ * ReplayLocalizer plays back the recorded pose, and the battery voltage is set to the recorded
+ * voltage, so the Follower sees exactly what it saw on the robot. Nothing waits on real time, so
+ * the replay runs as fast as the Follower can update. The motor powers the Follower puts out are
+ * compared against the recorded powers, which shows if and where a controller change makes the
+ * Follower behave differently on the same data.
+ *
+ * If a LocalizerFactory is given, the pose is rebuilt instead, by re-running a Localizer on the raw
+ * sensor readings in each frame, starting from the first recorded pose. The rebuilt pose is
+ * compared against the recorded pose, which shows if and where a Localizer change moves the pose
+ * on the same readings. Whenever the recorded Encoder zero offsets change, the pose was set on the
+ * robot, so the rebuilt pose is set to the recorded pose at that frame too.
+ *
+ * Whenever the recorded marker changes, the ReplayListener is called, so it can make the same
+ * followPath() calls the OpMode made at that point.
+ *
+ * This can be run from a desktop JVM with the run log as the argument, and --raw to rebuild the
+ * pose with the ThreeWheelLocalizer.
+ *
+ * @version 1.0, 10/19/2026
+ */
+public class RunReplayer {
+    private final File log;
+
+    // Motor power differences at or below this are not counted as the replay diverging
+    public static double POWER_TOLERANCE = 0.001;
+
+    /**
+     * This is the ReplayListener interface. It is called whenever the recorded marker changes, and
+     * on the first frame.
+     */
+    public interface ReplayListener {
+        /**
+         * @param marker the new marker.
+         * @param follower the Follower the run is being replayed through.
+         */
+        void onMarker(int marker, Follower follower);
+    }
+
+    /**
+     * This is the LocalizerFactory interface. It creates the Localizer that rebuilds the pose from
+     * the raw readings of the frames being replayed.
+     */
+    public interface LocalizerFactory {
+        /**
+         * @param frame the frame being replayed, which is updated before every loop and holds the
+         *              first frame when this is called.
+         * @param startPose the first recorded pose, which the Localizer should start from.
+         * @return returns the Localizer.
+         */
+        Localizer create(RunFrame frame, Pose startPose);
+    }
+
+    /**
+     * This is the Result class. It holds how the replayed motor powers compared to the recorded
+     * ones, how far the rebuilt pose was from the recorded pose, and how long the replay took.
+     */
+    public static class Result {
+        public int frames;
+        public int firstDivergentFrame = -1;
+        public double maxPowerError;
+        public double rmsPowerError;
+        public double maxPoseError;
+        public double finalPoseError;
+        public double recordedSeconds;
+        public double replaySeconds;
+
+        /**
+         * This returns if the replayed motor powers matched the recorded powers on every frame.
+         *
+         * @return returns if the replay matched.
+         */
+        public boolean matches() {
+            return firstDivergentFrame < 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d frames, %.2f s recorded in %.3f s, max power error %.5f, rms power error %.5f, max pose error %.4f in, final pose error %.4f in, %s",
+                    frames, recordedSeconds, replaySeconds, maxPowerError, rmsPowerError, maxPoseError, finalPoseError,
+                    matches() ? "matches" : "diverges at frame " + firstDivergentFrame);
+        }
+    }
+
+    private final LocalizerFactory localizerFactory;
+
+    private ReplayLocalizer localizer;
+    private PoseUpdater poseUpdater;
+    private Follower follower;
+
+    /**
+     * This creates a new RunReplayer for a run log, which plays back the recorded poses.
+     *
+     * @param log the run log to replay.
+     */
+    public RunReplayer(File log) {
+        this(log, null);
+    }
+
+    /**
+     * This creates a new RunReplayer for a run log, which rebuilds the pose from the recorded raw
+     * readings with a Localizer from a LocalizerFactory.
+     *
+     * @param log the run log to replay.
+     * @param localizerFactory the LocalizerFactory, or null to play back the recorded poses.
+     */
+    public RunReplayer(File log, LocalizerFactory localizerFactory) {
+        this.log = log;
+        this.localizerFactory = localizerFactory;
+    }
+
+    /**
+     * This replays a run log from the command line, and prints the Result.
+     *
+     * @param args the run log, followed by --raw to rebuild the pose with the ThreeWheelLocalizer.
+     * @throws IOException if the run log can't be read.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("usage: RunReplayer <run log> [--raw]");
+            System.exit(2);
+        }
+        boolean raw = args.length > 1 && args[1].equals("--raw");
+        RunReplayer replayer = new RunReplayer(new File(args[0]), raw ? ThreeWheelLocalizer::fromRunFrame : null);
+        System.out.println(replayer.replay(null));
+    }
+
+    /**
+     * This replays the run log from the start, through a new PoseUpdater and Follower.
+     *
+     * @param listener the listener to call when the marker changes, or null.
+     * @return returns the comparison of the replayed motor powers to the recorded ones.
+     * @throws IOException if the run log can't be read.
+     */
+    public Result replay(ReplayListener listener) throws IOException {
+        localizer = new ReplayLocalizer();
+        poseUpdater = null;
+        follower = null;
+        boolean drawOnDashboard = Follower.drawOnDashboard;
+        Follower.drawOnDashboard = false;
+
+        Result result = new Result();
+        RunFrame frame = new RunFrame();
+        long startTime = System.nanoTime();
+        long firstTimestamp = 0;
+        double squaredErrorSum = 0;
+        int previousMarker = 0;
+        int[] previousOffsets = new int[RunFrame.MAX_ENCODERS];
+
+        try (RunLogReader reader = new RunLogReader(log)) {
+            while (reader.next(frame)) {
+                RobotClock.setTime(frame.timestamp);
+                localizer.setFrame(frame);
+                if (follower == null) {
+                    firstTimestamp = frame.timestamp;
+                    if (localizerFactory != null) {
+                        poseUpdater = new PoseUpdater(localizerFactory.create(localizer.getFrame(), new Pose(frame.x, frame.y, frame.heading)));
+                    } else {
+                        poseUpdater = new PoseUpdater(localizer);
+                    }
+                    follower = new Follower(poseUpdater);
+                }
+                follower.getVoltageService().setVoltage(frame.voltage);
+
+                if (listener != null && (result.frames == 0 || frame.marker != previousMarker)) {
+                    listener.onMarker(frame.marker, follower);
+                }
+                previousMarker = frame.marker;
+
+                follower.update();
+
+                if (localizerFactory != null) {
+                    Localizer rebuiltLocalizer = poseUpdater.getLocalizer();
+                    if (result.frames > 0 && offsetsChanged(previousOffsets, frame)) {
+                        rebuiltLocalizer.setPose(new Pose(frame.x, frame.y, frame.heading));
+                    }
+                    System.arraycopy(frame.encoderOffsets, 0, previousOffsets, 0, RunFrame.MAX_ENCODERS);
+
+                    Pose rebuiltPose = rebuiltLocalizer.getPose();
+                    result.finalPoseError = Math.hypot(rebuiltPose.getX() - frame.x, rebuiltPose.getY() - frame.y);
+                    result.maxPoseError = Math.max(result.maxPoseError, result.finalPoseError);
+                }
+
+                double[] powers = follower.getCommandedPowers();
+                for (int i = 0; i < RunFrame.MOTOR_COUNT; i++) {
+                    double error = Math.abs(powers[i] - frame.motorPowers[i]);
+                    result.maxPowerError = Math.max(result.maxPowerError, error);
+                    squaredErrorSum += error * error;
+                    if (error > POWER_TOLERANCE && result.firstDivergentFrame < 0) {
+                        result.firstDivergentFrame = result.frames;
+                    }
+                }
+                result.frames++;
+                result.recordedSeconds = (frame.timestamp - firstTimestamp) / Math.pow(10.0, 9);
+            }
+        } finally {
+            RobotClock.useSystemTime();
+            Follower.drawOnDashboard = drawOnDashboard;
+        }
+
+        if (result.frames > 0) {
+            result.rmsPowerError = Math.sqrt(squaredErrorSum / (result.frames * RunFrame.MOTOR_COUNT));
+        }
+        result.replaySeconds = (System.nanoTime() - startTime) / Math.pow(10.0, 9);
+        return result;
+    }
+
+    /**
+     * This returns if the Encoder zero offsets of a frame are different from the previous ones.
+     *
+     * @param previousOffsets the zero offsets of the previous frame.
+     * @param frame the frame.
+     * @return returns if the zero offsets changed.
+     */
+    private static boolean offsetsChanged(int[] previousOffsets, RunFrame frame) {
+        for (int i = 0; i < RunFrame.MAX_ENCODERS; i++) {
+            if (previousOffsets[i] != frame.encoderOffsets[i]) return true;
+        }
+        return false;
+    }
+
+    /**
+     * This returns the Follower used in the last replay, so its final state can be checked.
+     *
+     * @return returns the Follower, or null before the first replay.
+     */
+    public Follower getFollower() {
+        return follower;
+    }
+
+    /**
+     * This returns the PoseUpdater used in the last replay.
+     *
+     * @return returns the PoseUpdater, or null before the first replay.
+     */
+    public PoseUpdater getPoseUpdater() {
+        return poseUpdater;
+    }
+}
@@ -0,0 +1,292 @@
+package org.firstinspires.ftc.teamcode.pedroPathing.tuning;
+
+import static org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants.leftFrontMotorName;
+import static org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants.leftRearMotorName;
+import static org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants.rightFrontMotorName;
+import static org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants.rightRearMotorName;
+
+import com.acmerobotics.dashboard.FtcDashboard;
+import com.acmerobotics.dashboard.config.Config;
+import com.acmerobotics.dashboard.telemetry.MultipleTelemetry;
+import com.qualcomm.robotcore.eventloop.opmode.Autonomous;
+import com.qualcomm.robotcore.eventloop.opmode.OpMode;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
+import com.qualcomm.robotcore.hardware.DcMotorSimple;
+import com.qualcomm.robotcore.hardware.VoltageSensor;
+import com.qualcomm.robotcore.hardware.configuration.typecontainers.MotorConfigurationType;
+
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+import org.firstinspires.ftc.teamcode.pedroPathing.localization.PoseUpdater;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This is the DrivetrainFeedforwardTuner autonomous tuning OpMode. This finds the kV, kA, and
+ * kStatic of each drive wheel separately, for the per wheel feedforward coefficients in
+ * FollowerConstants that the DrivetrainModel uses.
+ *
+ * First, the robot ramps its power up slowly while driving forwards for some specified distance.
+ * Since the acceleration is small, the voltage normalized power of each wheel is fit against that
+ * wheel's velocity with least squares, giving kStatic as the intercept and kV as the slope. Then,
+ * the robot stops and drives backwards to where it started with a step in power. The power that
+ * kStatic and kV don't account for during the step is fit against each wheel's acceleration, giving
+ * kA.
+ *
+ * Wheel velocities come from the drive motor encoders. Each wheel's inches per tick is found by
+ * comparing how far its encoder turned with how far the localizer says the robot went forwards,
+ * so the localizer has to be tuned first. It is recommended to run this a few times on a full
+ * battery and average the results.
+ * You can adjust the distance and powers on FTC Dashboard: 192/168/43/1:8080/dash
+ *
+ * @version 1.0, 10/19/2026
+ */
+@Config
+@Autonomous (name = "Drivetrain Feedforward Tuner", group = "Autonomous Pathing Tuning")
+public class DrivetrainFeedforwardTuner extends OpMode {
+    private static final String[] WHEEL_NAMES = {"left front", "left rear", "right front", "right rear"};
+
+    private static final int RAMPING = 0;
+    private static final int STOPPING = 1;
+    private static final int STEPPING = 2;
+    private static final int DONE = 3;
+
+    private DcMotorEx leftFront;
+    private DcMotorEx leftRear;
+    private DcMotorEx rightFront;
+    private DcMotorEx rightRear;
+    private List<DcMotorEx> motors;
+
+    private PoseUpdater poseUpdater;
+
+    public static double DISTANCE = 48;
+    public static double RAMP_RATE = 0.15;
+    public static double STEP_POWER = 0.7;
+    public static double MINIMUM_VELOCITY = 1;
+    public static double MINIMUM_ACCELERATION = 10;
+
+    private Telemetry telemetryA;
+
+    private int state;
+    private long stateStartTimeNano;
+    private long previousTimeNano;
+
+    private double[] startTicks = new double[4];
+    private double[] inchesPerTick = new double[4];
+    private double[] previousVelocities = new double[4];
+
+    // least squares sums for power = kStatic + kV * velocity, with velocity in ticks/second
+    private double[] velocitySamples = new double[4];
+    private double[] velocitySum = new double[4];
+    private double[] powerSum = new double[4];
+    private double[] velocitySquaredSum = new double[4];
+    private double[] velocityPowerSum = new double[4];
+
+    // least squares sums for the leftover power = kA * acceleration, in inches/second^2
+    private double[] accelerationSquaredSum = new double[4];
+    private double[] accelerationPowerSum = new double[4];
+
+    private double[] kV = new double[4];
+    private double[] kA = new double[4];
+    private double[] kStatic = new double[4];
+
+    /**
+     * This initializes the drive motors and the FTC Dashboard telemetry.
+     */
+    @Override
+    public void init() {
+        poseUpdater = new PoseUpdater(hardwareMap);
+
+        leftFront = hardwareMap.get(DcMotorEx.class, leftFrontMotorName);
+        leftRear = hardwareMap.get(DcMotorEx.class, leftRearMotorName);
+        rightRear = hardwareMap.get(DcMotorEx.class, rightRearMotorName);
+        rightFront = hardwareMap.get(DcMotorEx.class, rightFrontMotorName);
+
+        // TODO: Make sure that this is the direction your motors need to be reversed in.
+        leftFront.setDirection(DcMotorSimple.Direction.REVERSE);
+        leftRear.setDirection(DcMotorSimple.Direction.REVERSE);
+
+        motors = Arrays.asList(leftFront, leftRear, rightFront, rightRear);
+
+        for (DcMotorEx motor : motors) {
+            MotorConfigurationType motorConfigurationType = motor.getMotorType().clone();
+            motorConfigurationType.setAchieveableMaxRPMFraction(1.0);
+            motor.setMotorType(motorConfigurationType);
+        }
+
+        for (DcMotorEx motor : motors) {
+            motor.setZeroPowerBehavior(DcMotor.ZeroPowerBehavior.BRAKE);
+        }
+
+        telemetryA = new MultipleTelemetry(this.telemetry, FtcDashboard.getInstance().getTelemetry());
+        telemetryA.addLine("The robot will slowly ramp up its power until it reaches " + DISTANCE + " inches forward.");
+        telemetryA.addLine("Then, it will stop and drive back to where it started at " + STEP_POWER + " power.");
+        telemetryA.addLine("Make sure you have enough room, since the robot has inertia after cutting power.");
+        telemetryA.addLine("After that, the kV, kA, and kStatic of each wheel will be displayed.");
+        telemetryA.addLine("Press CROSS or A on game pad 1 to stop.");
+        telemetryA.update();
+    }
+
+    /**
+     * This starts the OpMode by recording where the drive encoders start and starting the ramp.
+     */
+    @Override
+    public void start() {
+        for (int i = 0; i < motors.size(); i++) {
+            startTicks[i] = motors.get(i).getCurrentPosition();
+        }
+        setState(RAMPING);
+    }
+
+    /**
+     * This runs the OpMode. At any point during the running of the OpMode, pressing CROSS or A on
+     * game pad 1 will stop the OpMode. This ramps the power up while recording velocity samples,
+     * stops, steps the power backwards while recording acceleration samples, and then prints the
+     * coefficients of each wheel.
+     */
+    @Override
+    public void loop() {
+        if (gamepad1.cross || gamepad1.a) {
+            requestOpModeStop();
+        }
+
+        poseUpdater.update();
+        long now = System.nanoTime();
+        double deltaTime = (now - previousTimeNano) / Math.pow(10.0, 9);
+        previousTimeNano = now;
+
+        switch (state) {
+            case RAMPING:
+                double power = RAMP_RATE * (now - stateStartTimeNano) / Math.pow(10.0, 9);
+                if (poseUpdater.getPose().getX() > DISTANCE || power > 1) {
+                    findInchesPerTick();
+                    setPower(0);
+                    setState(STOPPING);
+                    break;
+                }
+                setPower(power);
+                // kStatic is the intercept of the moving samples, so nothing is recorded until the robot moves
+                if (poseUpdater.getVelocity().getMagnitude() < MINIMUM_VELOCITY) break;
+                double normalizedPower = power * getVoltage() / FollowerConstants.nominalVoltage;
+                for (int i = 0; i < motors.size(); i++) {
+                    double velocity = motors.get(i).getVelocity();
+                    velocitySamples[i]++;
+                    velocitySum[i] += velocity;
+                    powerSum[i] += normalizedPower;
+                    velocitySquaredSum[i] += velocity * velocity;
+                    velocityPowerSum[i] += velocity * normalizedPower;
+                }
+                break;
+            case STOPPING:
+                if (poseUpdater.getVelocity().getMagnitude() < FollowerConstants.pathEndVelocityConstraint) {
+                    findVelocityCoefficients();
+                    for (int i = 0; i < motors.size(); i++) {
+                        previousVelocities[i] = 0;
+                    }
+                    setPower(-STEP_POWER);
+                    setState(STEPPING);
+                }
+                break;
+            case STEPPING:
+                if (poseUpdater.getPose().getX() < 0) {
+                    setPower(0);
+                    findAccelerationCoefficients();
+                    setState(DONE);
+                    break;
+                }
+                double stepPower = -STEP_POWER * getVoltage() / FollowerConstants.nominalVoltage;
+                for (int i = 0; i < motors.size(); i++) {
+                    double velocity = motors.get(i).getVelocity() * inchesPerTick[i];
+                    double acceleration = deltaTime > 0 ? (velocity - previousVelocities[i]) / deltaTime : 0;
+                    previousVelocities[i] = velocity;
+                    if (Math.abs(acceleration) < MINIMUM_ACCELERATION || Math.abs(velocity) < MINIMUM_VELOCITY) continue;
+                    double leftover = stepPower - kStatic[i] * Math.signum(velocity) - kV[i] * velocity;
+                    accelerationSquaredSum[i] += acceleration * acceleration;
+                    accelerationPowerSum[i] += acceleration * leftover;
+                }
+                break;
+            case DONE:
+                for (int i = 0; i < motors.size(); i++) {
+                    telemetryA.addData(WHEEL_NAMES[i] + " kV:", kV[i]);
+                    telemetryA.addData(WHEEL_NAMES[i] + " kA:", kA[i]);
+                    telemetryA.addData(WHEEL_NAMES[i] + " kStatic:", kStatic[i]);
+                }
+                telemetryA.update();
+                break;
+        }
+    }
+
+    /**
+     * This switches to a new stage of the test.
+     *
+     * @param state the new stage.
+     */
+    private void setState(int state) {
+        this.state = state;
+        stateStartTimeNano = System.nanoTime();
+        previousTimeNano = stateStartTimeNano;
+    }
+
+    /**
+     * This sets all the drive motors to the same power.
+     *
+     * @param power the power.
+     */
+    private void setPower(double power) {
+        for (DcMotorEx motor : motors) {
+            motor.setPower(power);
+        }
+    }
+
+    /**
+     * This finds how many inches each wheel moves per encoder tick, from how far the localizer says
+     * the robot has driven forwards.
+     */
+    private void findInchesPerTick() {
+        double distance = poseUpdater.getPose().getX();
+        for (int i = 0; i < motors.size(); i++) {
+            double ticks = motors.get(i).getCurrentPosition() - startTicks[i];
+            inchesPerTick[i] = ticks != 0 ? distance / ticks : 0;
+        }
+    }
+
+    /**
+     * This solves the least squares fit of the ramp samples for kStatic and kV, converting kV from
+     * ticks to inches.
+     */
+    private void findVelocityCoefficients() {
+        for (int i = 0; i < motors.size(); i++) {
+            double n = velocitySamples[i];
+            double denominator = n * velocitySquaredSum[i] - velocitySum[i] * velocitySum[i];
+            if (n < 2 || denominator == 0 || inchesPerTick[i] == 0) continue;
+            double slope = (n * velocityPowerSum[i] - velocitySum[i] * powerSum[i]) / denominator;
+            kStatic[i] = (powerSum[i] - slope * velocitySum[i]) / n;
+            kV[i] = slope / inchesPerTick[i];
+        }
+    }
+
+    /**
+     * This solves the least squares fit of the step samples for kA.
+     */
+    private void findAccelerationCoefficients() {
+        for (int i = 0; i < motors.size(); i++) {
+            if (accelerationSquaredSum[i] > 0) kA[i] = accelerationPowerSum[i] / accelerationSquaredSum[i];
+        }
+    }
+
+    /**
+     * This returns the lowest reading of the voltage sensors, which is the battery voltage under
+     * the load of the drivetrain.
+     *
+     * @return returns the battery voltage.
+     */
+    public double getVoltage() {
+        double lowest = Double.POSITIVE_INFINITY;
+        for (VoltageSensor sensor : hardwareMap.voltageSensor) {
+            double reading = sensor.getVoltage();
+            if (reading > 0) lowest = Math.min(lowest, reading);
+        }
+        return Double.isInfinite(lowest) ? FollowerConstants.nominalVoltage : lowest;
+    }
+}
@@ -2,6 +2,7 @@ package org.firstinspires.ftc.teamcode.pedroPathing.tuning;
 
 import com.acmerobotics.dashboard.config.Config;
 
+import org.firstinspires.ftc.teamcode.pedroPathing.util.CustomFeedforwardCoefficients;
 import org.firstinspires.ftc.teamcode.pedroPathing.util.CustomFilteredPIDFCoefficients;
 import org.firstinspires.ftc.teamcode.pedroPathing.util.CustomPIDFCoefficients;
 import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.MathFunctions;
@@ -82,6 +83,69 @@ public class FollowerConstants {
             1);
 
 
+    // When this is true, the powers from the DriveVectorScaler are run through the DrivetrainModel,
+    // which uses the per wheel feedforward coefficients below to compensate for battery voltage and
+    // differences in friction between wheels. While following a Path, the DrivetrainModel also gets
+    // the Path's centripetal acceleration for its kA term, so the centripetal force correction
+    // vector is not used then.
+    public static boolean useDrivetrainModel = false;
+
+    // The battery voltage that the per wheel feedforward coefficients are tuned at
+    public static double nominalVoltage = 12.0;
+
+    // When this is true, the drive powers and the PIDF feedforward terms are scaled by the nominal
+    // voltage over the filtered battery voltage, so they push the robot the same amount as the
+    // battery drains. The DrivetrainModel does its own voltage compensation, so this does nothing
+    // when the DrivetrainModel is in use.
+    public static boolean useVoltageCompensation = false;
+
+    // How often the battery voltage is sampled, in milliseconds. Each sample is a synchronous read
+    // from the hub, so this should stay well above the loop time.
+    public static long voltageSamplePeriod = 250;
+
+    // Kalman filter parameters for the battery voltage filter
+    public static KalmanFilterParameters voltageKalmanFilterParameters = new KalmanFilterParameters(
+            0.0005,
+            0.05);
+
+    // The limits on the voltage scale factor, so a bad voltage reading can't cause a huge jump in
+    // power
+    public static double minimumVoltageScale = 0.8;
+    public static double maximumVoltageScale = 1.4;
+
+    // The distance from the center of the robot to the wheels, in inches, used to convert turning
+    // speed into wheel speed. This is half the track width plus half the wheelbase for mecanum.
+    public static double wheelTurnRadius = 14.0;
+
+    // The wheel velocity, in inches/second, below which the DrivetrainModel ramps kStatic down in
+    // proportion to the velocity instead of using all of it, so small holding corrections don't
+    // chatter back and forth across the static friction
+    public static double drivetrainModelStaticDeadband = 2.0;
+
+    // Per wheel feedforward coefficients (kV, kA, kStatic), in motor power at the nominal voltage
+    // per inch/second and per inch/second^2 of wheel travel. The DrivetrainFeedforwardTuner prints
+    // suggested values for each wheel.
+    public static CustomFeedforwardCoefficients leftFrontFeedforward = new CustomFeedforwardCoefficients(
+            0.0115,
+            0.002,
+            0.06);
+
+    public static CustomFeedforwardCoefficients leftRearFeedforward = new CustomFeedforwardCoefficients(
+            0.0115,
+            0.002,
+            0.06);
+
+    public static CustomFeedforwardCoefficients rightFrontFeedforward = new CustomFeedforwardCoefficients(
+            0.0115,
+            0.002,
+            0.06);
+
+    public static CustomFeedforwardCoefficients rightRearFeedforward = new CustomFeedforwardCoefficients(
+            0.0115,
+            0.002,
+            0.06);
+
+
     // Mass of robot in kilograms
     public static double mass = 7.62;
 
@@ -132,9 +196,72 @@ public class FollowerConstants {
     // This can be custom set for each Path.
     public static double pathEndTimeoutConstraint = 500;
 
+    // When this is on, the Follower also finishes a Path once the robot is predicted to coast to a
+    // stop within these tolerances of the end of the Path, using the measured zero power
+    // accelerations, and is already within the heading tolerance. This ends Paths without waiting
+    // for the robot to fully stop or for the timeout. These are in inches and radians.
+    public static boolean usePredictiveSettle = false;
+    public static double predictiveSettleTranslationalConstraint = 0.5;
+    public static double predictiveSettleHeadingConstraint = Math.toRadians(2);
+
     // This is how many steps the BezierCurve class uses to approximate the length of a BezierCurve.
     public static int APPROXIMATION_STEPS = 1000;
 
+    // When this is on, the Follower moves from one Path of a PathChain to the next without stopping
+    // the motors or resetting its controllers. The translational controllers are only reset where
+    // the Paths meet at a corner, and the heading controllers where the heading goal jumps.
+    public static boolean seamlessChainTransitions = false;
+
+    // Paths whose tangents are within this many radians of each other where they meet, and whose
+    // ends are within this many inches of each other, are treated as one continuous Path.
+    public static double chainTransitionTangentTolerance = Math.toRadians(10);
+    public static double chainTransitionDistanceTolerance = 1;
+
+    // The heading controllers are reset where one Path of a PathChain ends with a heading goal more
+    // than this many radians from the heading goal the next Path starts with.
+    public static double chainTransitionHeadingTolerance = Math.toRadians(5);
+
+    // When this is on, the Follower starts turning toward the next Path of a PathChain before it
+    // reaches a corner, instead of driving into the corner and then turning. The turn starts at most
+    // cornerBlendMaxLength inches before the corner, and is kept short enough that the robot cuts
+    // the corner by at most cornerBlendMaxDeviation inches. The robot slows down before the corner
+    // if it is going too fast to make the turn with at most cornerBlendMaxLateralAcceleration
+    // inches per second squared of lateral acceleration, cutting the drive power by
+    // cornerBlendSpeedGain for every inch per second it is over the speed it should be going.
+    public static boolean useCornerBlending = false;
+    public static double cornerBlendMaxLength = 12;
+    public static double cornerBlendMaxDeviation = 1;
+    public static double cornerBlendMaxLateralAcceleration = 60;
+    public static double cornerBlendSpeedGain = 0.05;
+
+    // When this is on, the Follower follows Paths with the ModelPredictiveController instead of the
+    // translational, heading, drive, and centripetal PIDFs. Every loop it plans the motor powers for
+    // the next mpcHorizon steps of mpcTimeStep seconds, using the per wheel feedforward coefficients
+    // above as the model of the drivetrain. If planning takes longer than mpcTimeBudget
+    // milliseconds, that loop falls back to the PIDFs. Holding a Point always uses the PIDFs.
+    public static boolean useModelPredictiveControl = false;
+    public static int mpcHorizon = 10;
+    public static double mpcTimeStep = 0.05;
+    public static double mpcTimeBudget = 4;
+    public static int mpcMaxIterations = 80;
+    public static double mpcTolerance = 0.0001;
+
+    // How much the ModelPredictiveController cares about each error over its plan: being off to the
+    // side of the Path (per inch), being ahead or behind where it should be along the Path (per
+    // inch), being off the heading goal (per radian), and using or changing motor power
+    public static double mpcCrossTrackWeight = 8;
+    public static double mpcAlongTrackWeight = 1;
+    public static double mpcHeadingWeight = 200;
+    public static double mpcPowerWeight = 0.01;
+    public static double mpcPowerChangeWeight = 0.2;
+
+    // The ModelPredictiveController plans to go at most this fraction of the drivetrain's top speed
+    // in the direction it is going, slows down so it has at most mpcMaxLateralAcceleration inches
+    // per second squared of lateral acceleration on curves, and slows down for the end of the last
+    // Path at the same deceleration as the drive PIDF.
+    public static double mpcMaxSpeedFraction = 0.95;
+    public static double mpcMaxLateralAcceleration = 100;
+
     // This is scales the translational error correction power when the Follower is holding a Point.
     public static double holdPointTranslationalScaling = 0.45;
 
@@ -151,6 +278,21 @@ public class FollowerConstants {
     // time.
     public static int BEZIER_CURVE_BINARY_STEP_LIMIT = 10;
 
+    // Curves with four or more control points are split into pieces whose control points are all
+    // within this many inches of a straight line, which are used to find the closest point on the
+    // curve. Smaller values give more pieces to check, but fewer that need refining.
+    public static double BEZIER_CURVE_SUBDIVISION_TOLERANCE = 0.5;
+
+    // This is the most, in inches, that the lines drawn on FTC Dashboard for a Path can be off from
+    // the actual curve. Straight sections only need a few points, so raising this sends less to the
+    // dashboard for curvy Paths.
+    public static double dashboardDrawingTolerance = 0.25;
+
+    // The number of worker threads and the most waiting callbacks for asynchronous PathCallbacks.
+    // These are only read when the first asynchronous PathCallback runs.
+    public static int callbackThreads = 2;
+    public static int callbackQueueCapacity = 16;
+
 
     // These activate / deactivate the secondary PIDs. These take over at errors under a set limit for
     // the translational, heading, and drive PIDs.
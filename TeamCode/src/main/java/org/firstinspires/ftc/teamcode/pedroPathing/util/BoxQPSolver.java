@@ -0,0 +1,197 @@
+package org.firstinspires.ftc.teamcode.pedroPathing.util;
+
+/**
+ * This is the BoxQPSolver class. It solves small quadratic programs where every variable has its
+ * own lower and upper bound, which is the shape of problem the ModelPredictiveController makes:
+ *
+ * minimize 1/2 xT H x + fT x, with lower <= x <= upper
+ *
+ * H has to be symmetric and positive definite. It is solved with accelerated projected gradient
+ * descent (FISTA), which only needs matrix-vector products and clamping, so the bounds are exact
+ * at every iteration and any iterate can be used if the solver runs out of time. The step size
+ * comes from a Gershgorin bound on the largest eigenvalue of H, and the momentum is restarted
+ * whenever it stops helping, which keeps it from overshooting on badly conditioned problems.
+ *
+ * All the arrays are made once when the BoxQPSolver is created, and solving never allocates. The
+ * problem is filled in directly through the arrays from getHessian(), getLinear(), getLower(),
+ * and getUpper(). The solution is kept between solves, so it can be shifted and used as a warm
+ * start for the next one.
+ *
+ * @version 1.0, 10/19/2026
+ */
+public class BoxQPSolver {
+    private final int size;
+
+    private final double[] hessian;
+    private final double[] linear;
+    private final double[] lower;
+    private final double[] upper;
+    private final double[] solution;
+
+    private final double[] momentum;
+    private final double[] gradient;
+    private final double[] previous;
+
+    private int iterations;
+    private boolean converged;
+
+    /**
+     * This creates a new BoxQPSolver for problems with a specified number of variables.
+     *
+     * @param size the number of variables.
+     */
+    public BoxQPSolver(int size) {
+        this.size = size;
+        hessian = new double[size * size];
+        linear = new double[size];
+        lower = new double[size];
+        upper = new double[size];
+        solution = new double[size];
+        momentum = new double[size];
+        gradient = new double[size];
+        previous = new double[size];
+    }
+
+    /**
+     * This solves the problem, starting from the current solution.
+     *
+     * @param maxIterations the most iterations to run.
+     * @param tolerance the solve stops once no variable moves more than this in an iteration.
+     * @param deadline the System.nanoTime() after which the solve is abandoned, or Long.MAX_VALUE
+     *                 for no deadline.
+     * @return returns true if the solve finished before the deadline, whether it converged or ran
+     *         out of iterations, and false if it ran past the deadline.
+     */
+    public boolean solve(int maxIterations, double tolerance, long deadline) {
+        iterations = 0;
+        converged = false;
+
+        double lipschitz = 0;
+        for (int i = 0; i < size; i++) {
+            double rowSum = 0;
+            for (int j = 0; j < size; j++) {
+                rowSum += Math.abs(hessian[i * size + j]);
+            }
+            lipschitz = Math.max(lipschitz, rowSum);
+        }
+        if (lipschitz <= 0) return false;
+        double step = 1 / lipschitz;
+
+        for (int i = 0; i < size; i++) {
+            solution[i] = clamp(solution[i], i);
+            momentum[i] = solution[i];
+        }
+
+        double t = 1;
+        while (iterations < maxIterations) {
+            if (System.nanoTime() > deadline) return false;
+            iterations++;
+
+            for (int i = 0; i < size; i++) {
+                double sum = linear[i];
+                int row = i * size;
+                for (int j = 0; j < size; j++) {
+                    sum += hessian[row + j] * momentum[j];
+                }
+                gradient[i] = sum;
+            }
+
+            double change = 0;
+            double progress = 0;
+            for (int i = 0; i < size; i++) {
+                previous[i] = solution[i];
+                solution[i] = clamp(momentum[i] - step * gradient[i], i);
+                double delta = solution[i] - previous[i];
+                change = Math.max(change, Math.abs(delta));
+                progress += gradient[i] * delta;
+            }
+
+            if (change < tolerance) {
+                converged = true;
+                return true;
+            }
+
+            // the momentum is restarted when it points uphill
+            if (progress > 0) {
+                t = 1;
+                System.arraycopy(solution, 0, momentum, 0, size);
+                continue;
+            }
+
+            double nextT = (1 + Math.sqrt(1 + 4 * t * t)) / 2;
+            double beta = (t - 1) / nextT;
+            for (int i = 0; i < size; i++) {
+                momentum[i] = solution[i] + beta * (solution[i] - previous[i]);
+            }
+            t = nextT;
+        }
+        return true;
+    }
+
+    /**
+     * This clamps a value between the bounds of a variable.
+     *
+     * @param value the value to clamp.
+     * @param index the index of the variable.
+     * @return returns the clamped value.
+     */
+    private double clamp(double value, int index) {
+        return Math.max(lower[index], Math.min(upper[index], value));
+    }
+
+    /**
+     * @return returns the number of variables.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return returns the Hessian H, row major, which is filled in by the caller.
+     */
+    public double[] getHessian() {
+        return hessian;
+    }
+
+    /**
+     * @return returns the linear term f, which is filled in by the caller.
+     */
+    public double[] getLinear() {
+        return linear;
+    }
+
+    /**
+     * @return returns the lower bounds, which are filled in by the caller.
+     */
+    public double[] getLower() {
+        return lower;
+    }
+
+    /**
+     * @return returns the upper bounds, which are filled in by the caller.
+     */
+    public double[] getUpper() {
+        return upper;
+    }
+
+    /**
+     * @return returns the solution, which is also the starting point of the next solve.
+     */
+    public double[] getSolution() {
+        return solution;
+    }
+
+    /**
+     * @return returns how many iterations the last solve ran.
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * @return returns if the last solve converged within the tolerance.
+     */
+    public boolean isConverged() {
+        return converged;
+    }
+}
@@ -0,0 +1,152 @@
+package org.firstinspires.ftc.teamcode.pedroPathing.util;
+
+import org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This is the CallbackExecutor class. This class handles running asynchronous PathCallbacks on a
+ * small pool of worker threads, so a callback that moves a servo, waits on a sensor, or writes to a
+ * file does not add its run time to the Follower's loop.
+ *
+ * The pool has callbackThreads threads and a queue that holds at most callbackQueueCapacity waiting
+ * callbacks. Submitting never blocks: if the queue is full, the submission is refused and the
+ * caller can try again on a later loop.
+ *
+ * If a callback throws, the exception is kept until throwIfFailed() is called, which the
+ * PathCallbackSchedule does every update, so the failure comes out on the OpMode thread just like
+ * it would from a synchronous callback instead of disappearing into the callback's Future.
+ *
+ * There is only one CallbackExecutor for the whole app, which is shared between OpModes. Its threads
+ * are daemon threads, so they never keep the app from closing.
+ *
+ * @version 1.0, 10/19/2026
+ */
+public class CallbackExecutor {
+    private static CallbackExecutor instance;
+
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicInteger rejectedCount = new AtomicInteger();
+    private final AtomicInteger failedCount = new AtomicInteger();
+
+    private volatile Throwable error;
+
+    /**
+     * This creates the CallbackExecutor's thread pool with the sizes in FollowerConstants.
+     */
+    private CallbackExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        int threads = Math.max(FollowerConstants.callbackThreads, 1);
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(FollowerConstants.callbackQueueCapacity, 1)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "PathCallback-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.prestartAllCoreThreads();
+    }
+
+    /**
+     * This returns the CallbackExecutor, creating and starting its thread pool the first time.
+     *
+     * @return returns the CallbackExecutor.
+     */
+    public static synchronized CallbackExecutor getInstance() {
+        if (instance == null) {
+            instance = new CallbackExecutor();
+        }
+        return instance;
+    }
+
+    /**
+     * This queues a Runnable to be run on one of the worker threads. If the Runnable throws, the
+     * exception is kept for throwIfFailed() as well as going into the Future.
+     *
+     * @param runnable the Runnable to run.
+     * @return returns a Future that completes when the Runnable is done, or null if the queue was
+     *         full and the Runnable was not queued.
+     */
+    public Future<?> submit(Runnable runnable) {
+        try {
+            return executor.submit(() -> {
+                try {
+                    runnable.run();
+                } catch (Throwable t) {
+                    failedCount.incrementAndGet();
+                    if (error == null) error = t;
+                    throw t;
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCount.incrementAndGet();
+            return null;
+        }
+    }
+
+    /**
+     * This returns the number of callbacks that are waiting for a worker thread.
+     *
+     * @return returns the number of queued callbacks.
+     */
+    public int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * This returns the number of callbacks that are running right now.
+     *
+     * @return returns the number of running callbacks.
+     */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * This returns the number of times a callback could not be queued because the queue was full.
+     *
+     * @return returns the number of refused submissions.
+     */
+    public int getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * This returns the number of callbacks that threw an exception.
+     *
+     * @return returns the number of failed callbacks.
+     */
+    public int getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * This returns the first exception thrown by a callback that has not been thrown by
+     * throwIfFailed() yet.
+     *
+     * @return returns the exception, or null if no callback has failed since.
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    /**
+     * This throws the first exception thrown by a callback since the last call, if there is one, so
+     * it can be seen on the calling thread. Each exception is only thrown once.
+     *
+     * @throws IllegalStateException if a callback threw an exception.
+     */
+    public void throwIfFailed() {
+        Throwable failure = error;
+        if (failure == null) return;
+        error = null;
+        throw new IllegalStateException("An asynchronous PathCallback failed", failure);
+    }
+}
@@ -0,0 +1,72 @@
+package org.firstinspires.ftc.teamcode.pedroPathing.util;
+
+import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.MathFunctions;
+
+import kotlin.jvm.JvmField;
+
+/**
+ * This is the CustomFeedforwardCoefficients class. This class handles holding the motor model
+ * coefficients for a single drive wheel, which are used by the DrivetrainModel to turn a desired
+ * wheel velocity and acceleration into a motor power.
+ *
+ * @version 1.0, 10/19/2026
+ */
+public class CustomFeedforwardCoefficients {
+    @JvmField public double kV;
+    @JvmField public double kA;
+    @JvmField public double kStatic;
+
+    /**
+     * This creates a new CustomFeedforwardCoefficients with specified coefficients. These are
+     * in terms of motor power at the nominal battery voltage.
+     *
+     * @param kV the power needed per inch/second of wheel velocity.
+     * @param kA the power needed per inch/second^2 of wheel acceleration.
+     * @param kStatic the power needed to overcome static friction.
+     */
+    public CustomFeedforwardCoefficients(double kV, double kA, double kStatic) {
+        this.kV = kV;
+        this.kA = kA;
+        this.kStatic = kStatic;
+    }
+
+    /**
+     * This returns the power, at the nominal battery voltage, needed for a wheel to hold a specified
+     * velocity and acceleration.
+     *
+     * @param velocity the wheel velocity, in inches/second.
+     * @param acceleration the wheel acceleration, in inches/second^2.
+     * @return returns the feedforward power.
+     */
+    public double getPower(double velocity, double acceleration) {
+        if (velocity == 0 && acceleration == 0) return 0;
+        double direction = velocity != 0 ? Math.signum(velocity) : Math.signum(acceleration);
+        return kStatic * direction + kV * velocity + kA * acceleration;
+    }
+
+    /**
+     * This returns the power, at the nominal battery voltage, needed for a wheel to hold a specified
+     * velocity and acceleration, with kStatic ramped in over a deadband. Below the deadband, kStatic
+     * is scaled down in proportion to the velocity, so small corrections around zero, like when
+     * holding a point, don't flip the full kStatic back and forth and make the wheels chatter.
+     *
+     * @param velocity the wheel velocity, in inches/second.
+     * @param acceleration the wheel acceleration, in inches/second^2.
+     * @param staticDeadband the wheel velocity at which the full kStatic is used, in inches/second.
+     * @return returns the feedforward power.
+     */
+    public double getPower(double velocity, double acceleration, double staticDeadband) {
+        if (staticDeadband <= 0) return getPower(velocity, acceleration);
+        return kStatic * MathFunctions.clamp(velocity / staticDeadband, -1, 1) + kV * velocity + kA * acceleration;
+    }
+
+    /**
+     * This returns the wheel velocity that a power of 1 holds at the nominal battery voltage.
+     *
+     * @return returns the free speed of the wheel, in inches/second.
+     */
+    public double getMaxVelocity() {
+        if (kV <= 0) return Double.POSITIVE_INFINITY;
+        return (1 - kStatic) / kV;
+    }
+}
@@ -1,26 +1,50 @@
 package org.firstinspires.ftc.teamcode.pedroPathing.util;
 
-import org.firstinspires.ftc.teamcode.pedroPathing.follower.Follower;
-import org.firstinspires.ftc.teamcode.pedroPathing.localization.PoseUpdater;
+import com.acmerobotics.dashboard.config.Config;
 
-import java.util.ArrayList;
+import org.firstinspires.ftc.teamcode.pedroPathing.localization.Pose;
+import org.firstinspires.ftc.teamcode.pedroPathing.localization.PoseUpdater;
+import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.MathFunctions;
 
 /**
  * This is the DashboardPoseTracker class. This tracks the pose history of the robot through a
- * PoseUpdater, adding to the pose history at specified increments of time and storing the history
- * for a specified length of time.
+ * PoseUpdater, adding to the pose history whenever the robot has moved or turned far enough from
+ * the last logged pose, and storing the history for a specified length of time.
+ *
+ * The history is kept in a circular buffer, so logging a pose never moves the rest of the history.
+ * The Arrays returned for drawing are copied out of the buffer in order, since FTC Dashboard only
+ * draws whole Arrays, but only when the history has changed since they were last asked for.
  *
  * @author Anyi Lin - 10158 Scott's Bots
  * @version 1.0, 5/13/2024
  */
+@Config
 public class DashboardPoseTracker {
+    // The longest the history can be, in milliseconds
+    public static long HISTORY_LENGTH = 30000;
+
+    // The most poses the history can hold
+    public static int HISTORY_CAPACITY = 2000;
+
+    // A pose is only logged once the robot has moved this many inches or turned this many radians
+    // from the last logged pose
+    public static double MINIMUM_DISTANCE = 0.5;
+    public static double MINIMUM_HEADING_CHANGE = Math.toRadians(5);
+
+    private PoseUpdater poseUpdater;
+
+    private int capacity;
     private double[] xPositions;
     private double[] yPositions;
-    private PoseUpdater poseUpdater;
-    private long lastUpdateTime;
-    private final int TRACKING_LENGTH = 1500;
-    private final long UPDATE_TIME = 50;
-    private final int TRACKING_SIZE = TRACKING_LENGTH / (int) UPDATE_TIME;
+    private long[] times;
+    private int start;
+    private int size;
+
+    private double lastHeading;
+
+    private boolean changed = true;
+    private double[] xPositionsView = new double[0];
+    private double[] yPositionsView = new double[0];
 
     /**
      * This creates a new DashboardPoseTracker from a PoseUpdater.
@@ -29,48 +53,134 @@ public class DashboardPoseTracker {
      */
     public DashboardPoseTracker(PoseUpdater poseUpdater) {
         this.poseUpdater = poseUpdater;
-        xPositions = new double[TRACKING_SIZE];
-        yPositions = new double[TRACKING_SIZE];
+        capacity = Math.max(HISTORY_CAPACITY, 2);
+        xPositions = new double[capacity];
+        yPositions = new double[capacity];
+        times = new long[capacity];
 
-        for (int i = 0; i < TRACKING_SIZE; i++) {
-            xPositions[i] = poseUpdater.getPose().getX();
-            yPositions[i] = poseUpdater.getPose().getY();
+        Pose pose = poseUpdater.getPose();
+        log(pose.getX(), pose.getY(), RobotClock.currentTimeMillis());
+        lastHeading = pose.getHeading();
+    }
+
+    /**
+     * This updates the DashboardPoseTracker. The current pose is logged if the robot has moved or
+     * turned far enough from the last logged pose, and poses older than the history length are
+     * dropped.
+     */
+    public synchronized void update() {
+        Pose pose = poseUpdater.getPose();
+        long time = RobotClock.currentTimeMillis();
+
+        int last = (start + size - 1) % capacity;
+        double distance = Math.hypot(pose.getX() - xPositions[last], pose.getY() - yPositions[last]);
+        if (distance >= MINIMUM_DISTANCE || MathFunctions.getSmallestAngleDifference(pose.getHeading(), lastHeading) >= MINIMUM_HEADING_CHANGE) {
+            log(pose.getX(), pose.getY(), time);
+            lastHeading = pose.getHeading();
         }
 
-        lastUpdateTime = System.currentTimeMillis() - UPDATE_TIME;
+        while (size > 1 && time - times[start] > HISTORY_LENGTH) {
+            start = (start + 1) % capacity;
+            size--;
+            changed = true;
+        }
     }
 
     /**
-     * This updates the DashboardPoseTracker. When the specified update time has passed from the last
-     * pose history log, another pose can be logged. The least recent log is also removed.
+     * This clears the pose history down to just the current pose.
      */
-    public void update() {
-        if (System.currentTimeMillis() - lastUpdateTime > UPDATE_TIME) {
-            lastUpdateTime = System.currentTimeMillis();
-            for (int i = TRACKING_SIZE - 1; i > 0; i--) {
-                xPositions[i] = xPositions[i - 1];
-                yPositions[i] = yPositions[i - 1];
-            }
-            xPositions[0] = poseUpdater.getPose().getX();
-            yPositions[0] = poseUpdater.getPose().getY();
-        }
+    public synchronized void clear() {
+        Pose pose = poseUpdater.getPose();
+        start = 0;
+        size = 0;
+        log(pose.getX(), pose.getY(), RobotClock.currentTimeMillis());
+        lastHeading = pose.getHeading();
     }
 
     /**
-     * This returns the x positions of the pose history as an Array of doubles.
+     * This returns the number of poses in the history.
+     *
+     * @return returns the number of logged poses
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * This returns the x positions of the pose history as an Array of doubles, from oldest to
+     * newest. The Array is not modified afterwards, so it is safe to keep.
      *
      * @return returns the x positions of the pose history
      */
-    public double[] getXPositionsArray() {
-        return xPositions;
+    public synchronized double[] getXPositionsArray() {
+        updateViews();
+        return xPositionsView;
     }
 
     /**
-     * This returns the y positions of the pose history as an Array of doubles.
+     * This returns the y positions of the pose history as an Array of doubles, from oldest to
+     * newest. The Array is not modified afterwards, so it is safe to keep.
      *
      * @return returns the y positions of the pose history
      */
-    public double[] getYPositionsArray() {
-        return yPositions;
+    public synchronized double[] getYPositionsArray() {
+        updateViews();
+        return yPositionsView;
+    }
+
+    /**
+     * This returns the x and y positions of the pose history together, from oldest to newest, so
+     * they always come from the same history even if another thread is updating it. The Arrays are
+     * not modified afterwards, so they are safe to keep.
+     *
+     * @return returns the x positions and the y positions of the pose history, in that order
+     */
+    public synchronized double[][] getPositionsArrays() {
+        updateViews();
+        return new double[][] {xPositionsView, yPositionsView};
+    }
+
+    /**
+     * This adds a pose to the end of the history, dropping the oldest pose if the history is full.
+     *
+     * @param x the x position
+     * @param y the y position
+     * @param time the time the pose was logged, in milliseconds
+     */
+    private void log(double x, double y, long time) {
+        if (size == capacity) {
+            start = (start + 1) % capacity;
+            size--;
+        }
+        int index = (start + size) % capacity;
+        xPositions[index] = x;
+        yPositions[index] = y;
+        times[index] = time;
+        size++;
+        changed = true;
+    }
+
+    /**
+     * This copies the history out into the Arrays returned for drawing, if it has changed.
+     */
+    private void updateViews() {
+        if (!changed) return;
+        xPositionsView = copyInOrder(xPositions);
+        yPositionsView = copyInOrder(yPositions);
+        changed = false;
+    }
+
+    /**
+     * This copies the history out of a circular buffer, from oldest to newest.
+     *
+     * @param buffer the circular buffer
+     * @return returns the history in order
+     */
+    private double[] copyInOrder(double[] buffer) {
+        double[] copy = new double[size];
+        int firstPart = Math.min(size, capacity - start);
+        System.arraycopy(buffer, start, copy, 0, firstPart);
+        System.arraycopy(buffer, 0, copy, firstPart, size - firstPart);
+        return copy;
     }
 }
@@ -0,0 +1,253 @@
+package org.firstinspires.ftc.teamcode.pedroPathing.util;
+
+import com.acmerobotics.dashboard.FtcDashboard;
+import com.acmerobotics.dashboard.canvas.Canvas;
+import com.acmerobotics.dashboard.config.Config;
+import com.acmerobotics.dashboard.telemetry.TelemetryPacket;
+
+import org.firstinspires.ftc.teamcode.pedroPathing.follower.Follower;
+import org.firstinspires.ftc.teamcode.pedroPathing.localization.Pose;
+import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.Path;
+import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.Vector;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * This is the DashboardPublisher class. This class handles sending the Follower's debug data and
+ * drawings to FTC Dashboard from a background thread, so the OpMode thread does not have to build
+ * and send a TelemetryPacket every loop. The OpMode's Telemetry is never touched by the background
+ * thread, so it is still written and updated on the OpMode thread.
+ *
+ * The OpMode thread only copies numbers from the Follower into a Snapshot it owns, and then swaps
+ * that Snapshot with the one in a shared slot. The background thread swaps the slot with its own
+ * Snapshot at most PUBLISH_RATE times a second, and builds and sends the packet from that. The
+ * three Snapshots are reused forever, so publishing never blocks the OpMode thread, and if the
+ * OpMode publishes faster than the background thread sends, older Snapshots are just skipped.
+ *
+ * A Snapshot only holds copied values, never the Follower's own objects. The Arrays for the Path
+ * and the pose history are shared instead of copied again, since they are copies that are never
+ * changed after they are made.
+ *
+ * There is only one DashboardPublisher and one background thread for the whole app, which is shared
+ * between OpModes.
+ *
+ * @version 1.0, 10/19/2026
+ */
+@Config
+public class DashboardPublisher {
+    // The most packets the background thread sends per second
+    public static double PUBLISH_RATE = 20;
+
+    private static DashboardPublisher instance;
+
+    private final AtomicReference<Snapshot> slot = new AtomicReference<>(new Snapshot());
+    private Snapshot writeSnapshot = new Snapshot();
+    private Snapshot readSnapshot = new Snapshot();
+
+    private Thread publisherThread;
+
+    private long packetsSent;
+
+    /**
+     * This is the Snapshot class. It holds the values needed to build one debug packet, all copied
+     * on the OpMode thread.
+     */
+    public static class Snapshot {
+        volatile boolean fresh;
+
+        public double x, y, heading, totalHeading;
+        public double velocityMagnitude, velocityHeading;
+
+        // the Path's drawing points, which the Path makes once and never changes, or null if there
+        // is no Path
+        public double[][] pathPoints;
+        public double closestX, closestY, closestHeadingGoal;
+        public double translationalErrorMagnitude, translationalErrorDirection;
+
+        public boolean busy;
+        public double headingError, driveError;
+        public double headingVectorMagnitude;
+        public double correctiveVectorMagnitude, correctiveVectorHeading;
+        public double translationalVectorMagnitude, translationalVectorHeading;
+        public double centripetalVectorMagnitude, centripetalVectorHeading;
+        public double driveVectorMagnitude, driveVectorHeading;
+        public double loopTime;
+
+        // copies of the pose history, which the DashboardPoseTracker never changes after returning
+        public double[] historyX, historyY;
+    }
+
+    private DashboardPublisher() {
+    }
+
+    /**
+     * This returns the DashboardPublisher, starting its background thread the first time.
+     *
+     * @return returns the DashboardPublisher.
+     */
+    public static synchronized DashboardPublisher getInstance() {
+        if (instance == null) {
+            instance = new DashboardPublisher();
+        }
+        instance.start();
+        return instance;
+    }
+
+    /**
+     * This copies the Follower's current state into a Snapshot and hands it off to the background
+     * thread, which builds and sends the debug packet. This should be called from the OpMode thread,
+     * and only does field copies and one atomic swap.
+     *
+     * @param follower the Follower to publish.
+     */
+    public void publish(Follower follower) {
+        Snapshot snapshot = writeSnapshot;
+
+        Pose pose = follower.getPose();
+        snapshot.x = pose.getX();
+        snapshot.y = pose.getY();
+        snapshot.heading = pose.getHeading();
+        snapshot.totalHeading = follower.getTotalHeading();
+        Vector velocity = follower.getVelocity();
+        snapshot.velocityMagnitude = velocity.getMagnitude();
+        snapshot.velocityHeading = velocity.getTheta();
+
+        Path path = follower.getCurrentPath();
+        Pose closestPose = follower.getClosestPose();
+        snapshot.pathPoints = null;
+        snapshot.translationalErrorMagnitude = 0;
+        snapshot.translationalErrorDirection = 0;
+        if (path != null && closestPose != null) {
+            snapshot.pathPoints = path.getDashboardDrawingPoints();
+            snapshot.closestX = closestPose.getX();
+            snapshot.closestY = closestPose.getY();
+            snapshot.closestHeadingGoal = closestPose.getHeading();
+            double xError = snapshot.closestX - snapshot.x;
+            double yError = snapshot.closestY - snapshot.y;
+            snapshot.translationalErrorMagnitude = Math.hypot(xError, yError);
+            snapshot.translationalErrorDirection = Math.atan2(yError, xError);
+        }
+
+        snapshot.busy = follower.isBusy();
+        snapshot.headingError = follower.headingError;
+        snapshot.driveError = follower.driveError;
+        snapshot.headingVectorMagnitude = follower.headingVector.getMagnitude();
+        snapshot.correctiveVectorMagnitude = follower.correctiveVector.getMagnitude();
+        snapshot.correctiveVectorHeading = follower.correctiveVector.getTheta();
+        snapshot.translationalVectorMagnitude = follower.translationalVector.getMagnitude();
+        snapshot.translationalVectorHeading = follower.translationalVector.getTheta();
+        snapshot.centripetalVectorMagnitude = follower.centripetalVector.getMagnitude();
+        snapshot.centripetalVectorHeading = follower.centripetalVector.getTheta();
+        snapshot.driveVectorMagnitude = follower.driveVector.getMagnitude();
+        snapshot.driveVectorHeading = follower.driveVector.getTheta();
+        snapshot.loopTime = follower.getLoopProfiler().getAverageLoopTime();
+
+        double[][] history = follower.getDashboardPoseTracker().getPositionsArrays();
+        snapshot.historyX = history[0];
+        snapshot.historyY = history[1];
+
+        snapshot.fresh = true;
+        writeSnapshot = slot.getAndSet(snapshot);
+    }
+
+    /**
+     * This returns the number of packets the background thread has sent.
+     *
+     * @return returns the number of packets sent.
+     */
+    public long getPacketsSent() {
+        return packetsSent;
+    }
+
+    /**
+     * This starts the background thread, if it is not already running.
+     */
+    private synchronized void start() {
+        if (publisherThread != null && publisherThread.isAlive()) return;
+        publisherThread = new Thread(this::run, "DashboardPublisher");
+        publisherThread.setDaemon(true);
+        publisherThread.start();
+    }
+
+    /**
+     * This is the loop the background thread runs. It sends a packet from the latest Snapshot if
+     * there is a new one, and then waits until it is allowed to send again.
+     */
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            long startTime = System.nanoTime();
+
+            if (slot.get().fresh) {
+                readSnapshot.fresh = false;
+                readSnapshot = slot.getAndSet(readSnapshot);
+                if (readSnapshot.fresh) {
+                    readSnapshot.fresh = false;
+                    try {
+                        FtcDashboard.getInstance().sendTelemetryPacket(buildPacket(readSnapshot));
+                        packetsSent++;
+                    } catch (RuntimeException e) {
+                        // The dashboard can be stopped or restarted by the app, so a failed send is
+                        // skipped rather than ending the background thread.
+                    }
+                }
+            }
+
+            long sleepTime = (long) (Math.pow(10.0, 9) / Math.max(PUBLISH_RATE, 0.1)) - (System.nanoTime() - startTime);
+            if (sleepTime > 0) {
+                try {
+                    Thread.sleep(sleepTime / 1000000, (int) (sleepTime % 1000000));
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * This builds the debug packet for a Snapshot, with the same data and drawings as
+     * Follower.telemetryDebug() and Drawing.drawDebug().
+     *
+     * @param snapshot the Snapshot to build the packet from.
+     * @return returns the packet.
+     */
+    private TelemetryPacket buildPacket(Snapshot snapshot) {
+        TelemetryPacket packet = new TelemetryPacket();
+
+        packet.put("follower busy", snapshot.busy);
+        packet.put("heading error", snapshot.headingError);
+        packet.put("heading vector magnitude", snapshot.headingVectorMagnitude);
+        packet.put("corrective vector magnitude", snapshot.correctiveVectorMagnitude);
+        packet.put("corrective vector heading", snapshot.correctiveVectorHeading);
+        packet.put("translational error magnitude", snapshot.translationalErrorMagnitude);
+        packet.put("translational error direction", snapshot.translationalErrorDirection);
+        packet.put("translational vector magnitude", snapshot.translationalVectorMagnitude);
+        packet.put("translational vector heading", snapshot.translationalVectorHeading);
+        packet.put("centripetal vector magnitude", snapshot.centripetalVectorMagnitude);
+        packet.put("centripetal vector heading", snapshot.centripetalVectorHeading);
+        packet.put("drive error", snapshot.driveError);
+        packet.put("drive vector magnitude", snapshot.driveVectorMagnitude);
+        packet.put("drive vector heading", snapshot.driveVectorHeading);
+        packet.put("x", snapshot.x);
+        packet.put("y", snapshot.y);
+        packet.put("heading", snapshot.heading);
+        packet.put("total heading", snapshot.totalHeading);
+        packet.put("velocity magnitude", snapshot.velocityMagnitude);
+        packet.put("velocity heading", snapshot.velocityHeading);
+        packet.put("loop time (ms)", snapshot.loopTime);
+
+        Canvas canvas = packet.fieldOverlay();
+        if (snapshot.pathPoints != null) {
+            canvas.setStroke("#3F51B5");
+            Drawing.drawPath(canvas, snapshot.pathPoints);
+            Drawing.drawRobotOnCanvas(canvas, new Pose(snapshot.closestX, snapshot.closestY, snapshot.closestHeadingGoal));
+        }
+        if (snapshot.historyX != null) {
+            canvas.setStroke("#4CAF50");
+            canvas.strokePolyline(snapshot.historyX, snapshot.historyY);
+        }
+        canvas.setStroke("#4CAF50");
+        Drawing.drawRobotOnCanvas(canvas, new Pose(snapshot.x, snapshot.y, snapshot.heading));
+
+        return packet;
+    }
+}
@@ -74,9 +74,10 @@ public class Drawing {
      * @param color the color to draw the PathChain with
      */
     public static void drawPath(PathChain pathChain, String color) {
-        for (int i = 0; i < pathChain.size(); i++) {
-            drawPath(pathChain.getPath(i), color);
-        }
+        if (packet == null) packet = new TelemetryPacket();
+
+        packet.fieldOverlay().setStroke(color);
+        Drawing.drawPath(packet.fieldOverlay(), pathChain.getDashboardDrawingPoints());
     }
 
     /**
@@ -90,7 +91,8 @@ public class Drawing {
         if (packet == null) packet = new TelemetryPacket();
 
         packet.fieldOverlay().setStroke(color);
-        packet.fieldOverlay().strokePolyline(poseTracker.getXPositionsArray(), poseTracker.getYPositionsArray());
+        double[][] positions = poseTracker.getPositionsArrays();
+        packet.fieldOverlay().strokePolyline(positions[0], positions[1]);
     }
 
     /**
@@ -55,8 +55,8 @@ public class FilteredPIDFController {
         previousError = error;
         error = targetPosition - position;
 
-        deltaTimeNano = System.nanoTime() - previousUpdateTimeNano;
-        previousUpdateTimeNano = System.nanoTime();
+        deltaTimeNano = RobotClock.nanoTime() - previousUpdateTimeNano;
+        previousUpdateTimeNano = RobotClock.nanoTime();
 
         errorIntegral += error * (deltaTimeNano / Math.pow(10.0, 9));
         previousDerivative = filteredDerivative;
@@ -74,8 +74,8 @@ public class FilteredPIDFController {
         previousError = this.error;
         this.error = error;
 
-        deltaTimeNano = System.nanoTime() - previousUpdateTimeNano;
-        previousUpdateTimeNano = System.nanoTime();
+        deltaTimeNano = RobotClock.nanoTime() - previousUpdateTimeNano;
+        previousUpdateTimeNano = RobotClock.nanoTime();
 
         errorIntegral += error * (deltaTimeNano / Math.pow(10.0, 9));
         previousDerivative = errorDerivative;
@@ -104,7 +104,7 @@ public class FilteredPIDFController {
         errorDerivative = 0;
         previousDerivative = 0;
         filteredDerivative = 0;
-        previousUpdateTimeNano = System.nanoTime();
+        previousUpdateTimeNano = RobotClock.nanoTime();
     }
 
     /**
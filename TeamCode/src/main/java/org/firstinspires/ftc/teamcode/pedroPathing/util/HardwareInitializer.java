@@ -0,0 +1,213 @@
+package org.firstinspires.ftc.teamcode.pedroPathing.util;
+
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * This is the HardwareInitializer class. It runs the slow parts of setting up hardware, like
+ * calibrating the OTOS IMU or configuring the drive motors, on background threads, so separate
+ * devices are set up at the same time instead of one after another on the init thread.
+ *
+ * Each device gets a Task, which is returned to whatever set it up. Whatever uses the device then
+ * calls await() on its Task right before it first needs the device, which is normally the first
+ * update after start, so the OpMode only ever waits on the devices it actually uses. The time each
+ * Task took is kept, and can be shown in telemetry with debug().
+ *
+ * There is only one HardwareInitializer for the whole app. Its threads are daemon threads that
+ * exit on their own when there is nothing to do.
+ *
+ * @version 1.0, 10/19/2026
+ */
+public class HardwareInitializer {
+    private static HardwareInitializer instance;
+
+    private final ExecutorService executor;
+    private final Map<String, Task> tasks = new LinkedHashMap<>();
+
+    /**
+     * This is the Task class. It holds the setup of one device, along with when it started and
+     * finished.
+     */
+    public static class Task {
+        private final String name;
+        private final long submitTime;
+        private volatile long finishTime = -1;
+        private volatile Throwable error;
+        private volatile boolean ready;
+        private final CountDownLatch finished = new CountDownLatch(1);
+
+        /**
+         * This creates a new Task.
+         *
+         * @param name the name of the device.
+         */
+        private Task(String name) {
+            this.name = name;
+            submitTime = System.nanoTime();
+        }
+
+        /**
+         * This waits for the Task to finish, if it hasn't already. Once the Task is finished, this
+         * only checks a flag, so it is cheap enough to call every loop.
+         *
+         * @throws IllegalStateException if the setup of the device failed.
+         */
+        public void await() {
+            boolean interrupted = false;
+            while (!ready) {
+                try {
+                    finished.await();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) Thread.currentThread().interrupt();
+            if (error != null) {
+                throw new IllegalStateException("Setting up " + name + " failed", error);
+            }
+        }
+
+        /**
+         * @return returns if the Task has finished, whether it worked or not.
+         */
+        public boolean isDone() {
+            return finishTime >= 0;
+        }
+
+        /**
+         * @return returns the name of the device.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return returns how long the Task took, in milliseconds, or how long it has been running
+         *         so far if it isn't finished.
+         */
+        public double getLatency() {
+            long end = isDone() ? finishTime : System.nanoTime();
+            return (end - submitTime) / 1e6;
+        }
+
+        /**
+         * @return returns what went wrong setting up the device, or null if nothing did.
+         */
+        public Throwable getError() {
+            return error;
+        }
+    }
+
+    /**
+     * This creates the HardwareInitializer, with a thread pool of daemon threads.
+     */
+    private HardwareInitializer() {
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "HardwareInitializer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * This returns the HardwareInitializer.
+     *
+     * @return returns the HardwareInitializer.
+     */
+    public static synchronized HardwareInitializer getInstance() {
+        if (instance == null) {
+            instance = new HardwareInitializer();
+        }
+        return instance;
+    }
+
+    /**
+     * This starts setting up a device on a background thread. A device with the same name as an
+     * earlier one replaces it in telemetry.
+     *
+     * @param name the name of the device, shown in telemetry.
+     * @param setup the setup to run.
+     * @return returns the Task, which has to be awaited before the device is used.
+     */
+    public Task submit(String name, Runnable setup) {
+        Task task = new Task(name);
+        synchronized (this) {
+            tasks.put(name, task);
+        }
+        executor.execute(() -> {
+            try {
+                setup.run();
+            } catch (Throwable t) {
+                task.error = t;
+            } finally {
+                task.finishTime = System.nanoTime();
+                task.ready = true;
+                task.finished.countDown();
+            }
+        });
+        return task;
+    }
+
+    /**
+     * This waits for every device to finish setting up. This should be called at start by OpModes
+     * that want everything ready before moving, instead of waiting on each device when it is first
+     * used.
+     *
+     * @throws IllegalStateException if the setup of any device failed.
+     */
+    public void awaitAll() {
+        for (Task task : getTasks()) {
+            task.await();
+        }
+    }
+
+    /**
+     * @return returns if every device has finished setting up.
+     */
+    public boolean isAllDone() {
+        for (Task task : getTasks()) {
+            if (!task.isDone()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return returns a copy of the list of Tasks, in the order they were submitted.
+     */
+    public synchronized List<Task> getTasks() {
+        return new ArrayList<>(tasks.values());
+    }
+
+    /**
+     * This clears the list of Tasks shown in telemetry. Tasks that are still running keep running.
+     */
+    public synchronized void clear() {
+        tasks.clear();
+    }
+
+    /**
+     * This writes how long each device took to set up to the Telemetry specified.
+     *
+     * @param telemetry the Telemetry to write to.
+     */
+    public void debug(Telemetry telemetry) {
+        for (Task task : getTasks()) {
+            String state;
+            if (task.getError() != null) {
+                state = "failed: " + task.getError().getMessage();
+            } else if (task.isDone()) {
+                state = String.format("%.1f ms", task.getLatency());
+            } else {
+                state = String.format("pending (%.0f ms)", task.getLatency());
+            }
+            telemetry.addData("init " + task.getName(), state);
+        }
+    }
+}
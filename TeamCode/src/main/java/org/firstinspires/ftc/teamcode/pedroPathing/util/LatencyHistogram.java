@@ -0,0 +1,109 @@
+package org.firstinspires.ftc.teamcode.pedroPathing.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This is the LatencyHistogram class. It counts how many times each latency was recorded, so
+ * percentiles like the median or the 99th percentile can be found without keeping every sample.
+ *
+ * Latencies are counted in microseconds, in buckets that are about 6% wide, from 0 up to about 16
+ * seconds. Each power of two is split into SUB_BUCKETS buckets, so the buckets stay the same size
+ * relative to the latencies in them. Recording is just incrementing atomic counters, so it never
+ * blocks or allocates, and the histogram can be read from another thread, like a telemetry or
+ * dashboard thread, while it is being recorded to.
+ *
+ * @version 1.0, 10/19/2026
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_BITS = 24;
+    private static final long MAX_MICROSECONDS = (1L << MAX_BITS) - 1;
+
+    private final AtomicLongArray buckets = new AtomicLongArray((MAX_BITS - SUB_BUCKET_BITS + 1) * SUB_BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalMicroseconds = new AtomicLong();
+
+    /**
+     * This records one latency.
+     *
+     * @param nanoseconds the latency, in nanoseconds.
+     */
+    public void record(long nanoseconds) {
+        long microseconds = Math.max(0, Math.min(nanoseconds / 1000, MAX_MICROSECONDS));
+        buckets.incrementAndGet(getIndex(microseconds));
+        count.incrementAndGet();
+        totalMicroseconds.addAndGet(microseconds);
+    }
+
+    /**
+     * This returns the bucket a latency is counted in.
+     *
+     * @param microseconds the latency, in microseconds.
+     * @return returns the index of the bucket.
+     */
+    private static int getIndex(long microseconds) {
+        if (microseconds < SUB_BUCKETS) return (int) microseconds;
+        int shift = 63 - Long.numberOfLeadingZeros(microseconds) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((microseconds >> shift) & (SUB_BUCKETS - 1));
+    }
+
+    /**
+     * This returns the largest latency that is counted in a bucket.
+     *
+     * @param index the index of the bucket.
+     * @return returns the largest latency in the bucket, in microseconds.
+     */
+    private static long getUpperBound(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int shift = index / SUB_BUCKETS - 1;
+        long subBucket = SUB_BUCKETS + index % SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * This returns a percentile of the recorded latencies. The result is the top of the bucket the
+     * percentile falls in, so it is never lower than the real percentile.
+     *
+     * @param percentile the percentile, from 0 to 100.
+     * @return returns the latency at the percentile, in milliseconds, or 0 if nothing was recorded.
+     */
+    public double getPercentile(double percentile) {
+        long total = count.get();
+        if (total == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            seen += buckets.get(i);
+            if (seen >= target) return getUpperBound(i) / 1000.0;
+        }
+        return MAX_MICROSECONDS / 1000.0;
+    }
+
+    /**
+     * @return returns the average of the recorded latencies, in milliseconds.
+     */
+    public double getMean() {
+        long total = count.get();
+        return total == 0 ? 0 : totalMicroseconds.get() / 1000.0 / total;
+    }
+
+    /**
+     * @return returns the number of latencies recorded.
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * This clears the histogram. Latencies recorded while this is running may or may not be kept.
+     */
+    public void reset() {
+        for (int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        totalMicroseconds.set(0);
+    }
+}
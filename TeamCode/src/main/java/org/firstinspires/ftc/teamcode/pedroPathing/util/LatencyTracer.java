@@ -0,0 +1,143 @@
+package org.firstinspires.ftc.teamcode.pedroPathing.util;
+
+import com.qualcomm.robotcore.hardware.Gamepad;
+
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+
+/**
+ * This is the LatencyTracer class. It measures how long it takes from a change on the gamepad
+ * sticks to the motor powers for it being written, which is how laggy teleop feels to the driver.
+ *
+ * Each new input is stamped with System.nanoTime() when the OpMode first sees the change with
+ * onGamepad(), or with its own time with onInput(). The gamepad's own timestamp is not used, since
+ * it comes from the driver station's clock, so the time before the OpMode sees the input is not
+ * measured. The drive code then calls onCommand() when it takes in the drive values, and
+ * onActuation() right after it actually writes a power to a motor. The time from the input to each
+ * of those is recorded in LatencyHistograms, split into the time before the drive code got the
+ * input and the time the drive code took to write the motor powers. If more input arrives before
+ * the motors are written, the oldest input is the one that is measured.
+ *
+ * The Follower and the MecanumDrive both take a LatencyTracer, so the two drive paths can be
+ * compared. The marks should all be made from the OpMode thread, but the histograms can be read
+ * from any thread.
+ *
+ * @version 1.0, 10/19/2026
+ */
+public class LatencyTracer {
+    private final String name;
+    private final LatencyHistogram inputToActuation = new LatencyHistogram();
+    private final LatencyHistogram inputToCommand = new LatencyHistogram();
+    private final LatencyHistogram commandToActuation = new LatencyHistogram();
+
+    private long inputTime = -1;
+    private long commandTime = -1;
+
+    private float leftStickX = Float.NaN, leftStickY = Float.NaN, rightStickX = Float.NaN, rightStickY = Float.NaN;
+
+    /**
+     * This creates a new LatencyTracer.
+     *
+     * @param name the name shown in telemetry, like the drive path being measured.
+     */
+    public LatencyTracer(String name) {
+        this.name = name;
+    }
+
+    /**
+     * This checks if the gamepad sticks changed since the last call, and if they did, stamps a new
+     * input at the current time. This should be called at the start of every loop, before the
+     * sticks are used.
+     *
+     * @param gamepad the gamepad to check.
+     * @return returns if the sticks changed.
+     */
+    public boolean onGamepad(Gamepad gamepad) {
+        if (gamepad.left_stick_x == leftStickX && gamepad.left_stick_y == leftStickY && gamepad.right_stick_x == rightStickX && gamepad.right_stick_y == rightStickY) {
+            return false;
+        }
+        leftStickX = gamepad.left_stick_x;
+        leftStickY = gamepad.left_stick_y;
+        rightStickX = gamepad.right_stick_x;
+        rightStickY = gamepad.right_stick_y;
+        onInput(System.nanoTime());
+        return true;
+    }
+
+    /**
+     * This stamps a new input, unless an earlier input is still waiting to be written to the motors.
+     *
+     * @param timeNano when the input arrived, from System.nanoTime().
+     */
+    public void onInput(long timeNano) {
+        if (inputTime < 0) inputTime = timeNano;
+    }
+
+    /**
+     * This marks that the drive code took in the drive values for the waiting input.
+     */
+    public void onCommand() {
+        if (inputTime >= 0 && commandTime < 0) commandTime = System.nanoTime();
+    }
+
+    /**
+     * This marks that the motor powers were written, and records the latencies of the waiting input.
+     * This should only be called when a power was actually written, so an input whose powers were
+     * all skipped waits for the next write.
+     */
+    public void onActuation() {
+        if (inputTime < 0) return;
+        long now = System.nanoTime();
+        inputToActuation.record(now - inputTime);
+        if (commandTime >= 0) {
+            inputToCommand.record(commandTime - inputTime);
+            commandToActuation.record(now - commandTime);
+        }
+        inputTime = -1;
+        commandTime = -1;
+    }
+
+    /**
+     * @return returns the latencies from the input to the motor powers being written.
+     */
+    public LatencyHistogram getInputToActuation() {
+        return inputToActuation;
+    }
+
+    /**
+     * @return returns the latencies from the input to the drive code taking it in.
+     */
+    public LatencyHistogram getInputToCommand() {
+        return inputToCommand;
+    }
+
+    /**
+     * @return returns the latencies from the drive code taking in the input to the motor powers
+     *         being written.
+     */
+    public LatencyHistogram getCommandToActuation() {
+        return commandToActuation;
+    }
+
+    /**
+     * This clears all the recorded latencies and any waiting input.
+     */
+    public void reset() {
+        inputToActuation.reset();
+        inputToCommand.reset();
+        commandToActuation.reset();
+        inputTime = -1;
+        commandTime = -1;
+    }
+
+    /**
+     * This writes the p50 and p99 latencies to the Telemetry specified.
+     *
+     * @param telemetry the Telemetry to write to.
+     */
+    public void debug(Telemetry telemetry) {
+        telemetry.addData(name + " stick to motor p50/p99 (ms)", String.format("%.2f / %.2f", inputToActuation.getPercentile(50), inputToActuation.getPercentile(99)));
+        telemetry.addData(name + " stick to command p50/p99 (ms)", String.format("%.2f / %.2f", inputToCommand.getPercentile(50), inputToCommand.getPercentile(99)));
+        telemetry.addData(name + " command to motor p50/p99 (ms)", String.format("%.2f / %.2f", commandToActuation.getPercentile(50), commandToActuation.getPercentile(99)));
+        telemetry.addData(name + " latency samples", inputToActuation.getCount());
+    }
+}
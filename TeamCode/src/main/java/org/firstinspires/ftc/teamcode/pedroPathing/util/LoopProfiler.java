@@ -0,0 +1,151 @@
+package org.firstinspires.ftc.teamcode.pedroPathing.util;
+
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This is the LoopProfiler class. This class handles timing the sections of a loop, such as
+ * localization, voltage sampling, and control in the Follower. Each loop is started with
+ * startLoop(), and every call to mark() records the time since the last mark as the named section.
+ * The last, average, and max time of each section are kept so they can be shown in telemetry.
+ *
+ * Sections are stored in the order they are first marked, so they show up in telemetry in the
+ * same order they run in the loop.
+ *
+ * @version 1.0, 10/19/2026
+ */
+public class LoopProfiler {
+    // How much each new loop counts towards the average times
+    public static double AVERAGE_WEIGHT = 0.05;
+
+    private List<Section> sections = new ArrayList<>();
+
+    private long loopStartTime;
+    private long markTime;
+    private long lastLoopTime;
+    private double averageLoopTime;
+    private boolean started;
+
+    /**
+     * This is the Section class. It holds the timing of one named section of the loop.
+     */
+    public static class Section {
+        public final String name;
+        private long lastTime;
+        private long maxTime;
+        private double averageTime;
+
+        private Section(String name) {
+            this.name = name;
+        }
+
+        private void record(long time) {
+            lastTime = time;
+            maxTime = Math.max(maxTime, time);
+            averageTime = averageTime == 0 ? time : averageTime + AVERAGE_WEIGHT * (time - averageTime);
+        }
+
+        /**
+         * @return returns the time the section took in the last loop, in milliseconds.
+         */
+        public double getLastTime() {
+            return lastTime / Math.pow(10.0, 6);
+        }
+
+        /**
+         * @return returns the average time the section takes, in milliseconds.
+         */
+        public double getAverageTime() {
+            return averageTime / Math.pow(10.0, 6);
+        }
+
+        /**
+         * @return returns the longest time the section has taken, in milliseconds.
+         */
+        public double getMaxTime() {
+            return maxTime / Math.pow(10.0, 6);
+        }
+    }
+
+    /**
+     * This starts timing a new loop, and records the length of the previous loop.
+     */
+    public void startLoop() {
+        long now = System.nanoTime();
+        if (started) {
+            lastLoopTime = now - loopStartTime;
+            averageLoopTime = averageLoopTime == 0 ? lastLoopTime : averageLoopTime + AVERAGE_WEIGHT * (lastLoopTime - averageLoopTime);
+        }
+        started = true;
+        loopStartTime = now;
+        markTime = now;
+    }
+
+    /**
+     * This records the time since the last mark, or the start of the loop, as a section.
+     *
+     * @param name the name of the section that just finished.
+     */
+    public void mark(String name) {
+        long now = System.nanoTime();
+        getSection(name).record(now - markTime);
+        markTime = now;
+    }
+
+    /**
+     * This returns the section with a specified name, creating it if it does not exist yet.
+     *
+     * @param name the name of the section.
+     * @return returns the section.
+     */
+    public Section getSection(String name) {
+        for (Section section : sections) {
+            if (section.name.equals(name)) return section;
+        }
+        Section section = new Section(name);
+        sections.add(section);
+        return section;
+    }
+
+    /**
+     * This returns the length of the last full loop.
+     *
+     * @return returns the loop time, in milliseconds.
+     */
+    public double getLoopTime() {
+        return lastLoopTime / Math.pow(10.0, 6);
+    }
+
+    /**
+     * This returns the average length of a full loop.
+     *
+     * @return returns the average loop time, in milliseconds.
+     */
+    public double getAverageLoopTime() {
+        return averageLoopTime / Math.pow(10.0, 6);
+    }
+
+    /**
+     * This clears all the recorded times.
+     */
+    public void reset() {
+        sections.clear();
+        started = false;
+        lastLoopTime = 0;
+        averageLoopTime = 0;
+    }
+
+    /**
+     * This writes the average and max times of every section to the Telemetry specified.
+     *
+     * @param telemetry the Telemetry to write to.
+     */
+    public void debug(Telemetry telemetry) {
+        telemetry.addData("loop time (ms)", getAverageLoopTime());
+        for (Section section : sections) {
+            telemetry.addData(section.name + " avg/max (ms)", String.format("%.3f / %.3f", section.getAverageTime(), section.getMaxTime()));
+        }
+    }
+}
@@ -57,8 +57,8 @@ public class PIDFController {
         previousError = error;
         error = targetPosition - position;
 
-        deltaTimeNano = System.nanoTime() - previousUpdateTimeNano;
-        previousUpdateTimeNano = System.nanoTime();
+        deltaTimeNano = RobotClock.nanoTime() - previousUpdateTimeNano;
+        previousUpdateTimeNano = RobotClock.nanoTime();
 
         errorIntegral += error * (deltaTimeNano / Math.pow(10.0, 9));
         errorDerivative = (error - previousError) / (deltaTimeNano / Math.pow(10.0, 9));
@@ -74,8 +74,8 @@ public class PIDFController {
         previousError = this.error;
         this.error = error;
 
-        deltaTimeNano = System.nanoTime() - previousUpdateTimeNano;
-        previousUpdateTimeNano = System.nanoTime();
+        deltaTimeNano = RobotClock.nanoTime() - previousUpdateTimeNano;
+        previousUpdateTimeNano = RobotClock.nanoTime();
 
         errorIntegral += error * (deltaTimeNano / Math.pow(10.0, 9));
         errorDerivative = (error - previousError) / (deltaTimeNano / Math.pow(10.0, 9));
@@ -100,7 +100,7 @@ public class PIDFController {
         targetPosition = 0;
         errorIntegral = 0;
         errorDerivative = 0;
-        previousUpdateTimeNano = System.nanoTime();
+        previousUpdateTimeNano = RobotClock.nanoTime();
     }
 
     /**
@@ -0,0 +1,61 @@
+package org.firstinspires.ftc.teamcode.pedroPathing.util;
+
+/**
+ * This is the RobotClock class. This class is the source of time for the timers, PIDFs, and the
+ * Follower. On the robot, it just returns the system time. When replaying a recorded run, the
+ * replayer sets the time to the time stamp of each recorded loop instead, so every timer and
+ * derivative sees the same time steps as the original run, no matter how fast the replay runs.
+ *
+ * @version 1.0, 10/19/2026
+ */
+public class RobotClock {
+    private static volatile boolean useSystemTime = true;
+    private static volatile long replayTimeNano;
+
+    /**
+     * This returns the current time in nanoseconds, in the same way as System.nanoTime().
+     *
+     * @return returns the current time in nanoseconds.
+     */
+    public static long nanoTime() {
+        return useSystemTime ? System.nanoTime() : replayTimeNano;
+    }
+
+    /**
+     * This returns the current time in milliseconds, in the same way as
+     * System.currentTimeMillis(). During a replay, this is derived from the replay time instead of
+     * the wall clock, so only differences between two of these times are meaningful.
+     *
+     * @return returns the current time in milliseconds.
+     */
+    public static long currentTimeMillis() {
+        return useSystemTime ? System.currentTimeMillis() : replayTimeNano / 1000000;
+    }
+
+    /**
+     * This stops using the system time and sets the current time to a specified time. This is
+     * used by the replayer to step through recorded loops.
+     *
+     * @param timeNano the time to set, in nanoseconds.
+     */
+    public static void setTime(long timeNano) {
+        replayTimeNano = timeNano;
+        useSystemTime = false;
+    }
+
+    /**
+     * This goes back to using the system time.
+     */
+    public static void useSystemTime() {
+        useSystemTime = true;
+    }
+
+    /**
+     * This returns if the system time is being used, as opposed to a time set by setTime().
+     *
+     * @return returns if the system time is being used.
+     */
+    public static boolean isUsingSystemTime() {
+        return useSystemTime;
+    }
+}
@@ -0,0 +1,102 @@
+package org.firstinspires.ftc.teamcode.pedroPathing.util;
+
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+
+/**
+ * This is the SettleStatistics class. It keeps track of how long the Follower takes to settle at
+ * the end of a Path, from when the Path reaches its parametric end to when the Follower declares
+ * it finished, and what let the Follower finish it.
+ *
+ * A Path finishes in one of three ways: the robot has actually stopped within the end constraints,
+ * the robot is predicted to coast to a stop within tolerance, or the end timeout runs out. If most
+ * finishes are timeouts, the end constraints are too tight for the robot.
+ *
+ * @version 1.0, 10/19/2026
+ */
+public class SettleStatistics {
+    public static final int STOPPED = 0;
+    public static final int PREDICTED = 1;
+    public static final int TIMEOUT = 2;
+
+    private int count;
+    private final int[] reasonCounts = new int[3];
+    private double lastTime;
+    private double totalTime;
+    private double maxTime;
+    private int lastReason = -1;
+
+    /**
+     * This records one time the Path was finished.
+     *
+     * @param time how long the Follower took to settle, in milliseconds.
+     * @param reason how the Path was finished, using the class constants.
+     */
+    public void record(double time, int reason) {
+        count++;
+        reasonCounts[reason]++;
+        lastTime = time;
+        totalTime += time;
+        maxTime = Math.max(maxTime, time);
+        lastReason = reason;
+    }
+
+    /**
+     * This returns the number of times the Path has been finished.
+     *
+     * @return returns the number of settles.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * This returns the number of times the Path was finished a certain way.
+     *
+     * @param reason the way the Path was finished, using the class constants.
+     * @return returns the number of settles finished that way.
+     */
+    public int getCount(int reason) {
+        return reasonCounts[reason];
+    }
+
+    /**
+     * @return returns how long the last settle took, in milliseconds.
+     */
+    public double getLastTime() {
+        return lastTime;
+    }
+
+    /**
+     * @return returns the average settle time, in milliseconds.
+     */
+    public double getAverageTime() {
+        return count == 0 ? 0 : totalTime / count;
+    }
+
+    /**
+     * @return returns the longest settle time, in milliseconds.
+     */
+    public double getMaxTime() {
+        return maxTime;
+    }
+
+    /**
+     * @return returns how the Path was last finished, using the class constants, or -1 if it has
+     *         not been finished.
+     */
+    public int getLastReason() {
+        return lastReason;
+    }
+
+    /**
+     * This writes the settle statistics to the Telemetry specified.
+     *
+     * @param telemetry the Telemetry to write to.
+     */
+    public void debug(Telemetry telemetry) {
+        telemetry.addData("settle time (ms)", lastTime);
+        telemetry.addData("average settle time (ms)", getAverageTime());
+        telemetry.addData("max settle time (ms)", maxTime);
+        telemetry.addData("settles stopped/predicted/timeout", reasonCounts[STOPPED] + "/" + reasonCounts[PREDICTED] + "/" + reasonCounts[TIMEOUT]);
+    }
+}
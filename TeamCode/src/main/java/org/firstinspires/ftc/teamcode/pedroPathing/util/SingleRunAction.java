@@ -57,4 +57,23 @@ public class SingleRunAction {
     public void reset() {
         hasBeenRun = false;
     }
+
+    /**
+     * This returns the Runnable of the SingleRunAction, so subclasses can run it in their own way.
+     *
+     * @return This returns the Runnable.
+     */
+    protected Runnable getRunnable() {
+        return runnable;
+    }
+
+    /**
+     * This sets if the SingleRunAction has been run, for subclasses that run the Runnable without
+     * calling run().
+     *
+     * @param set This sets if it has been run.
+     */
+    protected void setHasBeenRun(boolean set) {
+        hasBeenRun = set;
+    }
 }
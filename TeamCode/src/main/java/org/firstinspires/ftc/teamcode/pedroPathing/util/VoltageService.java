@@ -0,0 +1,149 @@
+package org.firstinspires.ftc.teamcode.pedroPathing.util;
+
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import com.qualcomm.robotcore.hardware.VoltageSensor;
+
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.MathFunctions;
+import org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This is the VoltageService class. This class handles reading the battery voltage for the
+ * Follower. Reading a voltage sensor is a synchronous read from the hub, so the voltage is only
+ * sampled once every voltageSamplePeriod milliseconds, and the samples are run through a Kalman
+ * filter to smooth out the dips from current spikes. Every other call to update() only checks a
+ * timer, so the voltage service adds almost nothing to most loops.
+ *
+ * The filtered voltage is exposed as a cached scale factor of the nominal voltage over the actual
+ * voltage, which can be multiplied into motor powers and feedforward terms so they mean the same
+ * thing regardless of how drained the battery is.
+ *
+ * @version 1.0, 10/19/2026
+ */
+public class VoltageService {
+    private List<VoltageSensor> voltageSensors = new ArrayList<>();
+
+    private KalmanFilter voltageFilter = new KalmanFilter(FollowerConstants.voltageKalmanFilterParameters);
+
+    private Timer sampleTimer = new Timer();
+
+    private boolean hasSample;
+
+    private double lastSample = FollowerConstants.nominalVoltage;
+    private double voltage = FollowerConstants.nominalVoltage;
+    private double voltageScale = 1;
+
+    private long sampleCount;
+
+    /**
+     * This creates a new VoltageService without any voltage sensors. The voltage stays at the
+     * nominal voltage, which is used when replaying a recorded run off of the robot.
+     */
+    public VoltageService() {
+    }
+
+    /**
+     * This creates a new VoltageService from the voltage sensors in a HardwareMap, and takes the
+     * first sample.
+     *
+     * @param hardwareMap the HardwareMap to get the voltage sensors from.
+     */
+    public VoltageService(HardwareMap hardwareMap) {
+        for (VoltageSensor sensor : hardwareMap.voltageSensor) {
+            voltageSensors.add(sensor);
+        }
+        sample();
+    }
+
+    /**
+     * This samples the voltage if at least voltageSamplePeriod milliseconds have passed since the
+     * last sample. Otherwise, this does nothing.
+     *
+     * @return returns if a sample was taken.
+     */
+    public boolean update() {
+        if (sampleTimer.getElapsedTime() < FollowerConstants.voltageSamplePeriod) return false;
+        sample();
+        return true;
+    }
+
+    /**
+     * This reads the voltage sensors right away and adds the reading to the filter. The lowest
+     * reading is used, since that is the hub that will brown out first.
+     */
+    public void sample() {
+        sampleTimer.resetTimer();
+        double reading = Double.POSITIVE_INFINITY;
+        for (VoltageSensor sensor : voltageSensors) {
+            double sensorVoltage = sensor.getVoltage();
+            if (sensorVoltage > 0) reading = Math.min(reading, sensorVoltage);
+        }
+        if (Double.isInfinite(reading)) return;
+
+        lastSample = reading;
+        sampleCount++;
+        if (!hasSample) {
+            hasSample = true;
+            voltageFilter.reset(reading, 1, 1);
+        } else {
+            voltageFilter.update(0, reading);
+        }
+        voltage = voltageFilter.getState();
+        voltageScale = MathFunctions.clamp(FollowerConstants.nominalVoltage / voltage, FollowerConstants.minimumVoltageScale, FollowerConstants.maximumVoltageScale);
+    }
+
+    /**
+     * This sets the filtered voltage directly, without reading any voltage sensors. This is used
+     * when replaying a recorded run, so the Follower compensates for the same voltage it did on the
+     * robot.
+     *
+     * @param setVoltage the voltage to use.
+     */
+    public void setVoltage(double setVoltage) {
+        voltage = setVoltage;
+        voltageScale = MathFunctions.clamp(FollowerConstants.nominalVoltage / voltage, FollowerConstants.minimumVoltageScale, FollowerConstants.maximumVoltageScale);
+    }
+
+    /**
+     * This returns the filtered battery voltage.
+     *
+     * @return returns the filtered voltage.
+     */
+    public double getVoltage() {
+        return voltage;
+    }
+
+    /**
+     * This returns the unfiltered voltage from the last sample.
+     *
+     * @return returns the last voltage sample.
+     */
+    public double getLastSample() {
+        return lastSample;
+    }
+
+    /**
+     * This returns the nominal voltage divided by the filtered voltage, clamped to the limits in
+     * FollowerConstants. This is cached, so it is free to call as many times as needed.
+     *
+     * @return returns the voltage scale factor.
+     */
+    public double getVoltageScale() {
+        return voltageScale;
+    }
+
+    /**
+     * This writes the voltage service's state to the Telemetry specified.
+     *
+     * @param telemetry the Telemetry to write to.
+     */
+    public void debug(Telemetry telemetry) {
+        telemetry.addData("battery voltage", voltage);
+        telemetry.addData("battery voltage sample", lastSample);
+        telemetry.addData("voltage scale", voltageScale);
+        telemetry.addData("voltage samples", sampleCount);
+    }
+}
@@ -1,77 +1,63 @@
 package org.firstinspires.ftc.teamcode.teleop;
 import com.qualcomm.robotcore.eventloop.opmode.OpMode;
 import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
-import com.qualcomm.hardware.sparkfun.SparkFunOTOS;
+import com.qualcomm.robotcore.hardware.DcMotor;
 
-import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
-import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
-import org.firstinspires.ftc.teamcode.mechanisms.MecanumDrive;
-import org.firstinspires.ftc.teamcode.support.Constants;
+import org.firstinspires.ftc.teamcode.pedroPathing.follower.Follower;
+import org.firstinspires.ftc.teamcode.pedroPathing.follower.RobotContext;
+import org.firstinspires.ftc.teamcode.pedroPathing.localization.Pose;
+import org.firstinspires.ftc.teamcode.pedroPathing.util.LatencyTracer;
 
 @TeleOp(name = "Main TeleOp")
 public class MainTeleop extends OpMode {
-    MecanumDrive drive = new MecanumDrive();
-    SparkFunOTOS sparkfunOTOS;
+    private Follower follower;
+    private boolean previousResetButton;
+    private boolean previousCalibrateButton;
+    private final LatencyTracer latencyTracer = new LatencyTracer("follower");
 
     @Override
     public void init() {
-        drive.init(hardwareMap);
-
-        sparkfunOTOS = hardwareMap.get(SparkFunOTOS.class, "sensor_otos");
-        configureOTOS();
-
+        // The Follower keeps the pose from autonomous, and reads the localizer once per loop
+        follower = RobotContext.getFollower(hardwareMap);
+        follower.setLatencyTracer(latencyTracer);
+        // The Follower resets its motors to FLOAT for every OpMode, but the drivers expect BRAKE
+        follower.setZeroPowerBehavior(DcMotor.ZeroPowerBehavior.BRAKE);
     }
 
-    private void configureOTOS() {
-        sparkfunOTOS.setLinearUnit(DistanceUnit.INCH);
-        sparkfunOTOS.setAngularUnit(AngleUnit.DEGREES);
-        sparkfunOTOS.setOffset(new SparkFunOTOS.Pose2D(Constants.X_OFFSET, Constants.Y_OFFSET, Constants.H_OFFSET));
-        sparkfunOTOS.setLinearScalar(Constants.L_SCALER);
-        sparkfunOTOS.setAngularScalar(Constants.L_SCALER);
-        sparkfunOTOS.resetTracking();
-        sparkfunOTOS.setPosition(new SparkFunOTOS.Pose2D(Constants.X_INIT, Constants.Y_INIT, Constants.H_INIT));
-        sparkfunOTOS.calibrateImu(255, false);
-    }
-
-    private void driveFieldRelative(double forward, double right, double rotate) {
-        SparkFunOTOS.Pose2D pos = sparkfunOTOS.getPosition();
-        double robotAngle = Math.toRadians(pos.h);
-        double theta = Math.atan2(forward, right);
-        double r = Math.hypot(forward, right);
-        theta = AngleUnit.normalizeRadians(theta - robotAngle);
-
-        // convert back to cartesian
-        double newForward = r * Math.sin(theta);
-        double newRight = r * Math.cos(theta);
-
-        drive.drive(newForward, newRight, rotate);
+    @Override
+    public void start() {
+        follower.startTeleopDrive();
     }
 
     @Override
     public void loop() {
-        SparkFunOTOS.Pose2D pos = sparkfunOTOS.getPosition();
-        telemetry.addData("X (inch)", pos. x);
-        telemetry.addData("Y (inch)", pos.y);
-        telemetry.addData("Heading (degrees)", pos.h);
-        double forward = -gamepad1.left_stick_y;
-        double right = gamepad1.left_stick_x;
-        double rotate = gamepad1.right_stick_x;
+        latencyTracer.onGamepad(gamepad1);
+        follower.setFieldCentricTeleOpDrive(gamepad1.left_stick_x, gamepad1.left_stick_y, gamepad1.right_stick_x);
+        follower.update();
+
+        Pose pose = follower.getPose();
 
-        // Reset the tracking if the user requests it
-        if (gamepad1.y) {
-            sparkfunOTOS.resetTracking();
+        // Make the direction the robot is facing forward for the driver if the user requests it,
+        // without touching the pose the Follower tracks
+        if (gamepad1.y && !previousResetButton) {
+            follower.setFieldCentricOffset(pose.getHeading());
         }
+        previousResetButton = gamepad1.y;
 
-        // Re-calibrate the IMU if the user requests it
-        if (gamepad1.x) {
-            sparkfunOTOS.calibrateImu();
+        // Recalibrate the IMU if the user requests it
+        if (gamepad1.x && !previousCalibrateButton) {
+            follower.calibrateIMU();
         }
+        previousCalibrateButton = gamepad1.x;
+
+        telemetry.addData("X (inch)", pose.getX());
+        telemetry.addData("Y (inch)", pose.getY());
+        telemetry.addData("Heading (degrees)", Math.toDegrees(pose.getHeading()));
+        latencyTracer.debug(telemetry);
 
         // Inform user of available controls
-        telemetry.addLine("Press Y (triangle) on Gamepad to reset tracking");
+        telemetry.addLine("Press Y (triangle) on Gamepad to reset the heading");
         telemetry.addLine("Press X (square) on Gamepad to calibrate the IMU");
         telemetry.addLine();
-
-        driveFieldRelative(forward, right, rotate);
     }
 }
@@ -0,0 +1,270 @@
+package org.firstinspires.ftc.teamcode.pedroPathing.follower;
+
+import org.firstinspires.ftc.teamcode.pedroPathing.localization.Localizer;
+import org.firstinspires.ftc.teamcode.pedroPathing.localization.Pose;
+import org.firstinspires.ftc.teamcode.pedroPathing.localization.PoseUpdater;
+import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.BezierCurve;
+import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.BezierLine;
+import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.Path;
+import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.PathChain;
+import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.Point;
+import org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration.Vector;
+import org.firstinspires.ftc.teamcode.pedroPathing.tuning.FollowerConstants;
+import org.firstinspires.ftc.teamcode.pedroPathing.util.RobotClock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This is the ModelPredictiveControlSimulation class. This class drives the Follower around a few
+ * Paths on a simulated mecanum drivetrain, once with the PIDFs and once with the
+ * ModelPredictiveController, and prints how long each took and how far the robot strayed from the
+ * Path. It runs on a desktop JVM with its main method, and takes the loop time in milliseconds as
+ * an optional argument.
+ *
+ * The simulated wheels are first order lags with static friction, with kV, kA, and kStatic between
+ * 3 and 25 percent off of the FollowerConstants feedforward coefficients, so the controller's model
+ * is wrong the way a real one would be. The motor powers the Follower puts out in one loop drive
+ * the wheels for the whole next loop, in 1 millisecond steps. The RobotClock is set to the
+ * simulated time, so the ModelPredictiveController never runs out of time and the results don't
+ * depend on how fast the machine is.
+ *
+ * @version 1.0, 10/19/2026
+ */
+public class ModelPredictiveControlSimulation {
+    private static final double VOLTAGE = 12.6;
+    private static final double TIME_LIMIT = 15;
+
+    // The plant's coefficients for each wheel, in the same order as the drive motors
+    private static final double[] K_V = {0.0115 * 1.06, 0.0115 * 0.97, 0.0115 * 1.03, 0.0115 * 1.08};
+    private static final double[] K_A = {0.002 * 1.2, 0.002 * 1.1, 0.002 * 1.25, 0.002 * 1.15};
+    private static final double[] K_STATIC = {0.07, 0.05, 0.065, 0.06};
+
+    // The ratio of forward to strafe wheel travel, from the mecanum vectors in FollowerConstants
+    private static final double STRAFE_RATIO = 81.34056 / 65.43028;
+
+    /**
+     * This is the SimulatedLocalizer class. It puts out the simulated pose directly, and leaves
+     * the velocity to the PoseUpdater.
+     */
+    private static class SimulatedLocalizer extends Localizer {
+        private Pose pose = new Pose();
+
+        @Override
+        public Pose getPose() {
+            return pose.copy();
+        }
+
+        @Override
+        public Pose getVelocity() {
+            return new Pose();
+        }
+
+        @Override
+        public Vector getVelocityVector() {
+            return new Vector();
+        }
+
+        @Override
+        public void setStartPose(Pose setStart) {
+            pose = setStart.copy();
+        }
+
+        @Override
+        public void setPose(Pose setPose) {
+            pose = setPose.copy();
+        }
+
+        @Override
+        public void update() {
+        }
+
+        @Override
+        public double getTotalHeading() {
+            return 0;
+        }
+
+        @Override
+        public double getForwardMultiplier() {
+            return 1;
+        }
+
+        @Override
+        public double getLateralMultiplier() {
+            return 1;
+        }
+
+        @Override
+        public double getTurningMultiplier() {
+            return 1;
+        }
+    }
+
+    private final double[] wheelVelocities = new double[4];
+    private double x, y, heading;
+
+    /**
+     * This moves the simulated robot forward in time with some motor powers.
+     *
+     * @param powers the motor powers.
+     * @param deltaTime the time to move forward, in seconds.
+     */
+    private void step(double[] powers, double deltaTime) {
+        for (int i = 0; i < 4; i++) {
+            double power = powers[i] * VOLTAGE / 12.0;
+            double friction = K_STATIC[i] * Math.signum(wheelVelocities[i]);
+            if (wheelVelocities[i] == 0) {
+                if (Math.abs(power) <= K_STATIC[i]) continue;
+                friction = K_STATIC[i] * Math.signum(power);
+            }
+            double next = wheelVelocities[i] + deltaTime * (power - friction - K_V[i] * wheelVelocities[i]) / K_A[i];
+            // static friction stops the wheel instead of pushing it back the other way
+            if (Math.signum(next) != Math.signum(wheelVelocities[i]) && Math.abs(power) <= K_STATIC[i]) next = 0;
+            wheelVelocities[i] = next;
+        }
+        double[] v = wheelVelocities;
+        double forward = (v[0] + v[1] + v[2] + v[3]) / 4;
+        double strafe = (-v[0] + v[1] + v[2] - v[3]) / (4 * STRAFE_RATIO);
+        double turn = (-v[0] - v[1] + v[2] + v[3]) / (4 * FollowerConstants.wheelTurnRadius);
+        x += deltaTime * (Math.cos(heading) * forward - Math.sin(heading) * strafe);
+        y += deltaTime * (Math.sin(heading) * forward + Math.cos(heading) * strafe);
+        heading += deltaTime * turn;
+    }
+
+    /**
+     * This follows a Path or PathChain from a start pose until the Follower is done, and returns a
+     * line of results.
+     *
+     * @param name the name to print.
+     * @param modelPredictive if the ModelPredictiveController is used instead of the PIDFs.
+     * @param start the start pose.
+     * @param target the Path or PathChain to follow.
+     * @param paths the Paths, for measuring how far the robot strayed.
+     * @param loopTime the loop time, in milliseconds.
+     * @return returns the results.
+     */
+    private String run(String name, boolean modelPredictive, Pose start, Object target, List<Path> paths, int loopTime) {
+        boolean useModelPredictiveControl = FollowerConstants.useModelPredictiveControl;
+        FollowerConstants.useModelPredictiveControl = modelPredictive;
+        Arrays.fill(wheelVelocities, 0);
+        x = start.getX();
+        y = start.getY();
+        heading = start.getHeading();
+
+        long now = 1000000000L;
+        RobotClock.setTime(now);
+        try {
+            SimulatedLocalizer localizer = new SimulatedLocalizer();
+            localizer.setStartPose(start);
+            Follower follower = new Follower(new PoseUpdater(localizer));
+            follower.setStartingPose(start);
+            if (target instanceof Path) {
+                follower.followPath((Path) target);
+            } else {
+                follower.followPath((PathChain) target, false);
+            }
+
+            List<double[]> polyline = getPolyline(paths);
+            double squaredErrorSum = 0;
+            double maxError = 0;
+            int loops = 0;
+            double time = 0;
+            double[] powers = new double[4];
+            while (follower.isBusy() && time < TIME_LIMIT) {
+                for (int i = 0; i < loopTime; i++) {
+                    step(powers, 0.001);
+                }
+                now += loopTime * 1000000L;
+                time += loopTime / 1000.0;
+                RobotClock.setTime(now);
+                localizer.pose = new Pose(x, y, heading);
+                follower.update();
+                System.arraycopy(follower.getCommandedPowers(), 0, powers, 0, 4);
+
+                double error = getDistance(polyline, x, y);
+                squaredErrorSum += error * error;
+                maxError = Math.max(maxError, error);
+                loops++;
+            }
+
+            Point end = paths.get(paths.size() - 1).getPoint(1);
+            String results = String.format("%-6s %-4s time %.3f s, cross-track rms %.3f max %.3f in, end error %.3f in",
+                    name, modelPredictive ? "MPC" : "PIDF", time, Math.sqrt(squaredErrorSum / Math.max(loops, 1)), maxError, Math.hypot(x - end.getX(), y - end.getY()));
+            if (modelPredictive) {
+                ModelPredictiveController controller = follower.getModelPredictiveController();
+                results += String.format(", %d solves, %d unconverged", controller.getSolves(), controller.getUnconverged());
+            }
+            return results;
+        } finally {
+            RobotClock.useSystemTime();
+            FollowerConstants.useModelPredictiveControl = useModelPredictiveControl;
+        }
+    }
+
+    /**
+     * This samples Paths finely into a polyline.
+     *
+     * @param paths the Paths.
+     * @return returns the points of the polyline.
+     */
+    private static List<double[]> getPolyline(List<Path> paths) {
+        List<double[]> points = new ArrayList<>();
+        for (Path path : paths) {
+            for (int i = 0; i <= 3000; i++) {
+                Point point = path.getPoint(i / 3000.0);
+                points.add(new double[]{point.getX(), point.getY()});
+            }
+        }
+        return points;
+    }
+
+    /**
+     * This returns the distance from a point to a polyline.
+     *
+     * @param points the points of the polyline.
+     * @param x the x of the point.
+     * @param y the y of the point.
+     * @return returns the distance.
+     */
+    private static double getDistance(List<double[]> points, double x, double y) {
+        double best = Double.POSITIVE_INFINITY;
+        for (int i = 0; i + 1 < points.size(); i++) {
+            double[] a = points.get(i), b = points.get(i + 1);
+            double dx = b[0] - a[0], dy = b[1] - a[1];
+            double lengthSquared = dx * dx + dy * dy;
+            double t = lengthSquared == 0 ? 0 : Math.max(0, Math.min(1, ((x - a[0]) * dx + (y - a[1]) * dy) / lengthSquared));
+            best = Math.min(best, Math.hypot(a[0] + t * dx - x, a[1] + t * dy - y));
+        }
+        return best;
+    }
+
+    public static void main(String[] args) {
+        int loopTime = args.length > 0 ? Integer.parseInt(args[0]) : 15;
+        ModelPredictiveControlSimulation simulation = new ModelPredictiveControlSimulation();
+
+        for (boolean modelPredictive : new boolean[]{false, true}) {
+            Pose curveStart = new Pose(8.5, 84, 0);
+            Path curve = new Path(new BezierCurve(new Point(curveStart), new Point(8.5, 80.5, Point.CARTESIAN), new Point(48, 135, Point.CARTESIAN), new Point(52, 104, Point.CARTESIAN)));
+            curve.setLinearHeadingInterpolation(0, Math.toRadians(270));
+            curve.setPathEndTimeoutConstraint(0);
+            System.out.println(simulation.run("curve", modelPredictive, curveStart, curve, Collections.singletonList(curve), loopTime));
+
+            Path line = new Path(new BezierLine(new Point(10, 10, Point.CARTESIAN), new Point(70, 10, Point.CARTESIAN)));
+            line.setConstantHeadingInterpolation(0);
+            line.setPathEndTimeoutConstraint(0);
+            System.out.println(simulation.run("line", modelPredictive, new Pose(10, 10, 0), line, Collections.singletonList(line), loopTime));
+
+            Pose chainStart = new Pose(44, 121.75, Math.toRadians(270));
+            Path first = new Path(new BezierLine(new Point(chainStart), new Point(28, 84, Point.CARTESIAN)));
+            first.setConstantHeadingInterpolation(Math.toRadians(270));
+            Path second = new Path(new BezierLine(new Point(28, 84, Point.CARTESIAN), new Point(28, 36, Point.CARTESIAN)));
+            second.setConstantHeadingInterpolation(Math.toRadians(270));
+            Path third = new Path(new BezierCurve(new Point(28, 36, Point.CARTESIAN), new Point(26, 12, Point.CARTESIAN), new Point(44, 36, Point.CARTESIAN), new Point(46, 11.5, Point.CARTESIAN)));
+            third.setConstantHeadingInterpolation(Math.toRadians(270));
+            third.setPathEndTimeoutConstraint(0);
+            System.out.println(simulation.run("chain", modelPredictive, chainStart, new PathChain(first, second, third), Arrays.asList(first, second, third), loopTime));
+        }
+    }
+}
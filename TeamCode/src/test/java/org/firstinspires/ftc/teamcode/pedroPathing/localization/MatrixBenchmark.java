@@ -0,0 +1,116 @@
+package org.firstinspires.ftc.teamcode.pedroPathing.localization;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This is the MatrixBenchmark class. This is a JMH benchmark of the Matrix operations the
+ * localizers and estimators use every loop. It runs on a desktop JVM, not on the robot, so the
+ * times are only useful for comparing two versions of Matrix against each other on the same
+ * machine. It can be run with its main method from the test classpath.
+ *
+ * @version 1.0, 10/19/2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatrixBenchmark {
+    private Matrix rotation;
+    private Matrix vector;
+    private Matrix a;
+    private Matrix b;
+    private Matrix product;
+
+    private Matrix positiveDefinite;
+    private Matrix rightHandSide;
+    private Matrix decomposition;
+    private Matrix solution;
+    private int[] pivots;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(43);
+        rotation = random(random, 3, 3);
+        vector = random(random, 3, 1);
+        a = random(random, 6, 6);
+        b = random(random, 6, 6);
+        product = new Matrix(6, 6);
+
+        Matrix c = random(random, 6, 6);
+        positiveDefinite = new Matrix(6, 6);
+        Matrix cTranspose = new Matrix(6, 6);
+        Matrix.transposeInto(c, cTranspose);
+        Matrix.multiplyInto(c, cTranspose, positiveDefinite);
+        for (int i = 0; i < 6; i++) {
+            positiveDefinite.set(i, i, positiveDefinite.get(i, i) + 6);
+        }
+        rightHandSide = random(random, 6, 1);
+        decomposition = new Matrix(6, 6);
+        solution = new Matrix(6, 1);
+        pivots = new int[6];
+    }
+
+    /**
+     * This is the robot to field rotation the three wheel localizers do every loop.
+     */
+    @Benchmark
+    public Matrix multiply3x3By3x1() {
+        return Matrix.multiply(rotation, vector);
+    }
+
+    @Benchmark
+    public Matrix multiply6x6() {
+        return Matrix.multiply(a, b);
+    }
+
+    @Benchmark
+    public Matrix multiplyInto6x6() {
+        Matrix.multiplyInto(a, b, product);
+        return product;
+    }
+
+    @Benchmark
+    public Matrix choleskySolve6x6() {
+        Matrix.choleskyDecompose(positiveDefinite, decomposition);
+        Matrix.choleskySolve(decomposition, rightHandSide, solution);
+        return solution;
+    }
+
+    @Benchmark
+    public Matrix luSolve6x6() {
+        Matrix.luDecompose(positiveDefinite, decomposition, pivots);
+        Matrix.luSolve(decomposition, pivots, rightHandSide, solution);
+        return solution;
+    }
+
+    private static Matrix random(Random random, int rows, int columns) {
+        Matrix matrix = new Matrix(rows, columns);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                matrix.set(i, j, random.nextDouble() * 2 - 1);
+            }
+        }
+        return matrix;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MatrixBenchmark.class.getSimpleName()).build()).run();
+    }
+}
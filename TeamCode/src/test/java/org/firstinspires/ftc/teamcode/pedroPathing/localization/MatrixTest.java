@@ -0,0 +1,251 @@
+package org.firstinspires.ftc.teamcode.pedroPathing.localization;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * This is the MatrixTest class. This class checks the Matrix views and the Cholesky and LU solvers
+ * against plain loops over 2D Arrays.
+ *
+ * @version 1.0, 10/19/2026
+ */
+public class MatrixTest {
+    private static final double TOLERANCE = 1e-9;
+
+    private final Random random = new Random(43);
+
+    @Test
+    public void viewSharesMemory() {
+        Matrix matrix = new Matrix(new double[][]{{1, 2, 3}, {4, 5, 6}, {7, 8, 9}});
+        Matrix view = matrix.view(1, 1, 2, 2);
+
+        assertEquals(2, view.getRows());
+        assertEquals(2, view.getColumns());
+        assertMatrixEquals(new double[][]{{5, 6}, {8, 9}}, view.getMatrix());
+        assertArrayEquals(new double[]{8, 9}, view.get(1), 0);
+
+        view.set(0, 1, 60);
+        assertEquals(60, matrix.get(1, 2), 0);
+        matrix.set(2, 1, 80);
+        assertEquals(80, view.get(1, 0), 0);
+    }
+
+    @Test
+    public void viewOperationsOnlyTouchTheBlock() {
+        Matrix matrix = new Matrix(new double[][]{{1, 2, 3}, {4, 5, 6}, {7, 8, 9}});
+        Matrix view = matrix.view(0, 1, 3, 2);
+        view.scalarMultiply(2);
+        view.add(new Matrix(new double[][]{{1, 1}, {1, 1}, {1, 1}}));
+
+        assertMatrixEquals(new double[][]{{1, 5, 7}, {4, 11, 13}, {7, 17, 19}}, matrix.getMatrix());
+    }
+
+    @Test
+    public void viewOfAView() {
+        Matrix matrix = random(5, 5);
+        Matrix inner = matrix.view(1, 1, 4, 4).view(1, 2, 2, 2);
+        assertEquals(matrix.get(2, 3), inner.get(0, 0), 0);
+        assertEquals(matrix.get(3, 4), inner.get(1, 1), 0);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void viewMustFit() {
+        new Matrix(3, 3).view(2, 0, 2, 1);
+    }
+
+    @Test
+    public void viewCantBeResized() {
+        Matrix matrix = new Matrix(3, 3);
+        Matrix view = matrix.view(0, 0, 2, 2);
+        assertFalse(view.setMatrix(new double[][]{{1, 2, 3}}));
+        assertTrue(view.setMatrix(new double[][]{{1, 2}, {3, 4}}));
+        assertMatrixEquals(new double[][]{{1, 2, 0}, {3, 4, 0}, {0, 0, 0}}, matrix.getMatrix());
+    }
+
+    @Test
+    public void multiplyIntoViews() {
+        Matrix a = random(6, 6);
+        Matrix b = random(6, 6);
+        Matrix out = new Matrix(6, 6);
+
+        assertTrue(Matrix.multiplyInto(a.view(1, 2, 3, 4), b.view(0, 1, 4, 2), out.view(2, 3, 3, 2)));
+
+        double[][] expected = multiply(sub(a.getMatrix(), 1, 2, 3, 4), sub(b.getMatrix(), 0, 1, 4, 2));
+        assertMatrixEquals(expected, out.view(2, 3, 3, 2).getMatrix());
+        assertEquals(0, out.get(0, 0), 0);
+        assertEquals(0, out.get(5, 5), 0);
+    }
+
+    @Test
+    public void multiplyMatchesLoops() {
+        Matrix a = random(4, 3);
+        Matrix b = random(3, 5);
+        assertMatrixEquals(multiply(a.getMatrix(), b.getMatrix()), Matrix.multiply(a, b).getMatrix());
+        assertFalse(Matrix.multiplyInto(a, a, new Matrix(4, 3)));
+    }
+
+    @Test
+    public void transposeIntoView() {
+        Matrix a = random(2, 3);
+        Matrix out = new Matrix(4, 4);
+        assertTrue(Matrix.transposeInto(a, out.view(1, 1, 3, 2)));
+        for (int i = 0; i < 2; i++) {
+            for (int j = 0; j < 3; j++) {
+                assertEquals(a.get(i, j), out.get(1 + j, 1 + i), 0);
+            }
+        }
+    }
+
+    @Test
+    public void choleskyReconstructsInput() {
+        Matrix a = randomPositiveDefinite(6);
+        Matrix l = new Matrix(6, 6);
+        assertTrue(Matrix.choleskyDecompose(a, l));
+
+        for (int i = 0; i < 6; i++) {
+            for (int j = i + 1; j < 6; j++) {
+                assertEquals(0, l.get(i, j), 0);
+            }
+        }
+        double[][] lt = transpose(l.getMatrix());
+        assertMatrixEquals(a.getMatrix(), multiply(l.getMatrix(), lt));
+    }
+
+    @Test
+    public void choleskySolvesInPlace() {
+        for (int n = 1; n <= 6; n++) {
+            Matrix a = randomPositiveDefinite(n);
+            Matrix b = random(n, 3);
+
+            Matrix decomposition = new Matrix(a);
+            assertTrue(Matrix.choleskyDecompose(decomposition, decomposition));
+            Matrix x = new Matrix(b);
+            assertTrue(Matrix.choleskySolve(decomposition, x, x));
+
+            assertMatrixEquals(b.getMatrix(), multiply(a.getMatrix(), x.getMatrix()));
+        }
+    }
+
+    @Test
+    public void choleskyRejectsIndefinite() {
+        Matrix a = new Matrix(new double[][]{{1, 2}, {2, 1}});
+        assertFalse(Matrix.choleskyDecompose(a, new Matrix(2, 2)));
+        assertFalse(Matrix.choleskyDecompose(new Matrix(2, 3), new Matrix(2, 3)));
+    }
+
+    @Test
+    public void luSolves() {
+        for (int n = 1; n <= 6; n++) {
+            Matrix a = random(n, n);
+            Matrix b = random(n, 2);
+
+            Matrix decomposition = new Matrix(n, n);
+            int[] pivots = new int[n];
+            assertTrue(Matrix.luDecompose(a, decomposition, pivots));
+            Matrix x = new Matrix(n, 2);
+            assertTrue(Matrix.luSolve(decomposition, pivots, b, x));
+
+            assertMatrixEquals(b.getMatrix(), multiply(a.getMatrix(), x.getMatrix()));
+        }
+    }
+
+    @Test
+    public void luNeedsPivoting() {
+        Matrix a = new Matrix(new double[][]{{0, 2, 1}, {1, 0, 0}, {3, 1, 4}});
+        Matrix b = new Matrix(new double[][]{{5}, {1}, {16}});
+
+        int[] pivots = new int[3];
+        Matrix decomposition = new Matrix(a);
+        assertTrue(Matrix.luDecompose(decomposition, decomposition, pivots));
+        assertTrue(Matrix.luSolve(decomposition, pivots, b, b));
+
+        assertMatrixEquals(new double[][]{{1}, {1}, {3}}, b.getMatrix());
+    }
+
+    @Test
+    public void luRejectsSingular() {
+        Matrix a = new Matrix(new double[][]{{1, 2}, {2, 4}});
+        assertFalse(Matrix.luDecompose(a, new Matrix(2, 2), new int[2]));
+        assertFalse(Matrix.luDecompose(new Matrix(3, 3), new Matrix(3, 3), new int[2]));
+    }
+
+    @Test
+    public void solversWorkOnViews() {
+        Matrix storage = new Matrix(8, 8);
+        Matrix a = storage.view(1, 1, 4, 4);
+        a.setMatrix(randomPositiveDefinite(4));
+        Matrix original = new Matrix(a);
+        Matrix b = storage.view(1, 6, 4, 1);
+        b.setMatrix(random(4, 1));
+        Matrix rightHandSide = new Matrix(b);
+
+        assertTrue(Matrix.choleskyDecompose(a, a));
+        assertTrue(Matrix.choleskySolve(a, b, b));
+
+        assertMatrixEquals(rightHandSide.getMatrix(), multiply(original.getMatrix(), b.getMatrix()));
+        assertEquals(0, storage.get(0, 0), 0);
+        assertEquals(0, storage.get(7, 7), 0);
+    }
+
+    private Matrix random(int rows, int columns) {
+        Matrix matrix = new Matrix(rows, columns);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                matrix.set(i, j, random.nextDouble() * 2 - 1);
+            }
+        }
+        return matrix;
+    }
+
+    private Matrix randomPositiveDefinite(int n) {
+        double[][] a = random(n, n).getMatrix();
+        double[][] product = multiply(a, transpose(a));
+        for (int i = 0; i < n; i++) {
+            product[i][i] += n;
+        }
+        return new Matrix(product);
+    }
+
+    private static double[][] multiply(double[][] one, double[][] two) {
+        double[][] product = new double[one.length][two[0].length];
+        for (int i = 0; i < one.length; i++) {
+            for (int j = 0; j < two[0].length; j++) {
+                for (int k = 0; k < two.length; k++) {
+                    product[i][j] += one[i][k] * two[k][j];
+                }
+            }
+        }
+        return product;
+    }
+
+    private static double[][] transpose(double[][] matrix) {
+        double[][] transpose = new double[matrix[0].length][matrix.length];
+        for (int i = 0; i < matrix.length; i++) {
+            for (int j = 0; j < matrix[0].length; j++) {
+                transpose[j][i] = matrix[i][j];
+            }
+        }
+        return transpose;
+    }
+
+    private static double[][] sub(double[][] matrix, int startRow, int startColumn, int rows, int columns) {
+        double[][] block = new double[rows][columns];
+        for (int i = 0; i < rows; i++) {
+            System.arraycopy(matrix[startRow + i], startColumn, block[i], 0, columns);
+        }
+        return block;
+    }
+
+    private static void assertMatrixEquals(double[][] expected, double[][] actual) {
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertArrayEquals("row " + i, expected[i], actual[i], TOLERANCE);
+        }
+    }
+}
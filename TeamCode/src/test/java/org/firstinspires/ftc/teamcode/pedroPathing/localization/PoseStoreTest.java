@@ -0,0 +1,161 @@
+package org.firstinspires.ftc.teamcode.pedroPathing.localization;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+/**
+ * This is the PoseStoreTest class. This class checks that the PoseStore keeps the latest pose
+ * between instances on the same file, and falls back to the save before it when the newest one is
+ * damaged.
+ *
+ * @version 1.0, 10/19/2026
+ */
+public class PoseStoreTest {
+    private static final double TOLERANCE = 0;
+
+    // The offsets of the two slots in the file, from the layout in PoseStore
+    private static final int FIRST_SLOT = 16;
+    private static final int SECOND_SLOT = 64;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private static void assertPose(double x, double y, double heading, Pose pose) {
+        assertNotNull(pose);
+        assertEquals(x, pose.getX(), TOLERANCE);
+        assertEquals(y, pose.getY(), TOLERANCE);
+        assertEquals(heading, pose.getHeading(), TOLERANCE);
+    }
+
+    @Test
+    public void emptyFileHasNoPose() throws IOException {
+        PoseStore store = new PoseStore(new File(folder.getRoot(), "pose.dat"));
+
+        assertTrue(store.isAvailable());
+        assertNull(store.load(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void savedPoseIsLoaded() throws IOException {
+        PoseStore store = new PoseStore(new File(folder.getRoot(), "pose.dat"));
+
+        store.save(12.5, -3.25, 1.5);
+        assertPose(12.5, -3.25, 1.5, store.load(Long.MAX_VALUE));
+
+        store.save(new Pose(40, 41, 0.5));
+        assertPose(40, 41, 0.5, store.load(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void poseSurvivesReopening() throws IOException {
+        File file = new File(folder.getRoot(), "nested/pose.dat");
+        PoseStore store = new PoseStore(file);
+        for (int i = 0; i < 5; i++) {
+            store.save(i, 2 * i, 0.1 * i);
+        }
+
+        PoseStore reopened = new PoseStore(file);
+        assertPose(4, 8, 0.1 * 4, reopened.load(Long.MAX_VALUE));
+
+        // the sequence carries on from the file, so the next save is still the newest
+        reopened.save(100, 200, 3);
+        assertPose(100, 200, 3, new PoseStore(file).load(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void damagedSaveFallsBackToThePreviousOne() throws IOException {
+        File file = new File(folder.getRoot(), "pose.dat");
+        PoseStore store = new PoseStore(file);
+        store.save(1, 2, 3);
+        store.save(4, 5, 6);
+
+        // the second save went into the first slot, so flip a bit of its x, like a torn write
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            randomAccessFile.seek(FIRST_SLOT + 16);
+            int value = randomAccessFile.read();
+            randomAccessFile.seek(FIRST_SLOT + 16);
+            randomAccessFile.write(value ^ 1);
+        }
+
+        assertPose(1, 2, 3, new PoseStore(file).load(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void bothSlotsDamagedHasNoPose() throws IOException {
+        File file = new File(folder.getRoot(), "pose.dat");
+        PoseStore store = new PoseStore(file);
+        store.save(1, 2, 3);
+        store.save(4, 5, 6);
+
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            for (int slot : new int[]{FIRST_SLOT, SECOND_SLOT}) {
+                randomAccessFile.seek(slot + 40);
+                randomAccessFile.writeLong(12345);
+            }
+        }
+
+        assertNull(new PoseStore(file).load(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void oldPoseIsNotLoaded() throws Exception {
+        PoseStore store = new PoseStore(new File(folder.getRoot(), "pose.dat"));
+        store.save(1, 2, 3);
+        Thread.sleep(20);
+
+        assertNull(store.load(5));
+        assertNotNull(store.load(60000));
+    }
+
+    @Test
+    public void clearRemovesThePose() throws IOException {
+        File file = new File(folder.getRoot(), "pose.dat");
+        PoseStore store = new PoseStore(file);
+        store.save(1, 2, 3);
+
+        store.clear();
+
+        assertNull(store.load(Long.MAX_VALUE));
+        assertNull(new PoseStore(file).load(Long.MAX_VALUE));
+        store.save(7, 8, 0.9);
+        assertPose(7, 8, 0.9, store.load(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void otherFileContentsAreReplaced() throws IOException {
+        File file = folder.newFile("pose.dat");
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            for (int i = 0; i < 200; i++) {
+                randomAccessFile.writeByte(i);
+            }
+        }
+
+        PoseStore store = new PoseStore(file);
+
+        assertTrue(store.isAvailable());
+        assertNull(store.load(Long.MAX_VALUE));
+        assertEquals(112, file.length());
+    }
+
+    @Test
+    public void unopenableFileDoesNothing() throws IOException {
+        File notADirectory = folder.newFile("file");
+        PoseStore store = new PoseStore(new File(notADirectory, "pose.dat"));
+
+        assertFalse(store.isAvailable());
+        store.save(1, 2, 3);
+        assertNull(store.load(Long.MAX_VALUE));
+        store.clear();
+    }
+}
@@ -0,0 +1,192 @@
+package org.firstinspires.ftc.teamcode.pedroPathing.localization;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * This is the SlipMonitorTest class. This class checks that the SlipMonitor ignores ordinary
+ * disagreement between two noisy sources, and starts and ends slip and collision events when they
+ * drift apart.
+ *
+ * @version 1.0, 10/19/2026
+ */
+public class SlipMonitorTest {
+    private static final double DELTA_TIME = 0.02;
+    private static final long LOOP_NANOS = 20000000L;
+
+    // The reference source moves 0.5 inches forward every loop, which is 25 inches per second
+    private static final double STEP = 0.5;
+
+    private final Random random = new Random(44);
+    private SlipMonitor monitor;
+    private long time;
+
+    @Before
+    public void setUp() {
+        monitor = new SlipMonitor();
+        time = 0;
+    }
+
+    /**
+     * This runs one loop where the primary source moves by the reference source's movement plus some
+     * extra, with a little noise on both.
+     */
+    private void loop(double extraX, double extraHeading) {
+        double noise = 0.01;
+        double referenceX = STEP + noise * random.nextGaussian();
+        double referenceY = noise * random.nextGaussian();
+        double referenceHeading = 0.001 * random.nextGaussian();
+        time += LOOP_NANOS;
+        monitor.update(referenceX + extraX + noise * random.nextGaussian(), referenceY + noise * random.nextGaussian(), referenceHeading + extraHeading + 0.001 * random.nextGaussian(), referenceX, referenceY, referenceHeading, DELTA_TIME, time);
+    }
+
+    private void agree(int loops) {
+        for (int i = 0; i < loops; i++) {
+            loop(0, 0);
+        }
+    }
+
+    @Test
+    public void noisyAgreementIsNotAnEvent() {
+        agree(1000);
+
+        assertFalse(monitor.isInEvent());
+        assertEquals(0, monitor.getSlipCount());
+        assertEquals(0, monitor.getCollisionCount());
+        assertNull(monitor.getLastEvent());
+    }
+
+    @Test
+    public void slipStartsAndEnds() {
+        agree(SlipMonitor.WINDOW_SIZE);
+        long firstDisagreeingTime = time + LOOP_NANOS;
+
+        for (int i = 1; i < SlipMonitor.EVENT_START_LOOPS; i++) {
+            loop(0.5, 0);
+            assertFalse(monitor.isInEvent());
+            assertEquals(i, monitor.getDisagreeingLoops());
+        }
+        loop(0.5, 0);
+
+        assertTrue(monitor.isInEvent());
+        assertTrue(monitor.hasEventStarted());
+        assertEquals(SlipMonitor.SLIP, monitor.getCurrentType());
+        SlipMonitor.Event event = monitor.getCurrentEvent();
+        assertEquals(SlipMonitor.SLIP, event.getType());
+        assertEquals(firstDisagreeingTime, event.getStartTime());
+        assertTrue(event.isActive());
+        // the drift is counted from the first loop that disagreed
+        assertEquals(0.5 * SlipMonitor.EVENT_START_LOOPS, event.getTranslationalDrift(), 0.1);
+        assertEquals(25, event.getPeakTranslationalDifference(), 5);
+
+        loop(0.5, 0);
+        assertFalse(monitor.hasEventStarted());
+        assertEquals(0.5 * (SlipMonitor.EVENT_START_LOOPS + 1), event.getTranslationalDrift(), 0.1);
+
+        for (int i = 1; i < SlipMonitor.EVENT_END_LOOPS; i++) {
+            loop(0, 0);
+            assertTrue(monitor.isInEvent());
+        }
+        loop(0, 0);
+
+        assertFalse(monitor.isInEvent());
+        assertEquals(SlipMonitor.NONE, monitor.getCurrentType());
+        assertEquals(event, monitor.getLastEvent());
+        assertFalse(event.isActive());
+        assertEquals(time, event.getEndTime());
+        assertEquals(1, monitor.getSlipCount());
+        assertEquals(0, monitor.getCollisionCount());
+    }
+
+    @Test
+    public void collisionWhenThePrimarySourceMovesLess() {
+        agree(SlipMonitor.WINDOW_SIZE);
+
+        for (int i = 0; i < SlipMonitor.EVENT_START_LOOPS; i++) {
+            loop(-STEP, 0);
+        }
+
+        assertTrue(monitor.isInEvent());
+        assertEquals(SlipMonitor.COLLISION, monitor.getCurrentType());
+        assertEquals(0, monitor.getSlipCount());
+        assertEquals(1, monitor.getCollisionCount());
+    }
+
+    @Test
+    public void headingDisagreementStartsAnEvent() {
+        agree(SlipMonitor.WINDOW_SIZE);
+
+        for (int i = 0; i < SlipMonitor.EVENT_START_LOOPS; i++) {
+            loop(0, 0.05);
+        }
+
+        assertTrue(monitor.isInEvent());
+        assertEquals(0.05 * SlipMonitor.EVENT_START_LOOPS, monitor.getCurrentEvent().getHeadingDrift(), 0.01);
+    }
+
+    @Test
+    public void shortDisagreementIsNotAnEvent() {
+        agree(SlipMonitor.WINDOW_SIZE);
+
+        for (int i = 0; i < 10; i++) {
+            for (int j = 1; j < SlipMonitor.EVENT_START_LOOPS; j++) {
+                loop(0.5, 0);
+            }
+            loop(0, 0);
+            assertEquals(0, monitor.getDisagreeingLoops());
+        }
+
+        assertFalse(monitor.isInEvent());
+        assertEquals(0, monitor.getSlipCount());
+    }
+
+    @Test
+    public void speedRaisesTheThreshold() {
+        agree(SlipMonitor.WINDOW_SIZE);
+
+        // 5 in/s is above the minimum threshold, but within the allowance for 25 in/s
+        for (int i = 0; i < 10; i++) {
+            loop(0.1, 0);
+        }
+
+        assertFalse(monitor.isInEvent());
+        assertEquals(0, monitor.getDisagreeingLoops());
+    }
+
+    @Test
+    public void resetEndsTheEvent() {
+        agree(SlipMonitor.WINDOW_SIZE);
+        for (int i = 0; i < SlipMonitor.EVENT_START_LOOPS; i++) {
+            loop(0.5, 0);
+        }
+        assertTrue(monitor.isInEvent());
+
+        monitor.reset();
+
+        assertFalse(monitor.isInEvent());
+        assertNull(monitor.getCurrentEvent());
+        assertEquals(SlipMonitor.NONE, monitor.getCurrentType());
+        assertEquals(0, monitor.getDisagreeingLoops());
+        assertNull(monitor.getLastEvent());
+        agree(20);
+        assertFalse(monitor.isInEvent());
+    }
+
+    @Test
+    public void zeroDeltaTimeIsIgnored() {
+        agree(SlipMonitor.WINDOW_SIZE);
+        for (int i = 0; i < SlipMonitor.EVENT_START_LOOPS; i++) {
+            monitor.update(10, 0, 0, 0, 0, 0, 0, time);
+        }
+
+        assertFalse(monitor.isInEvent());
+        assertEquals(0, monitor.getDisagreeingLoops());
+    }
+}
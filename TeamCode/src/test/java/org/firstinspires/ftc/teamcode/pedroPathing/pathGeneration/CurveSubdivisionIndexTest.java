@@ -0,0 +1,106 @@
+package org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration;
+
+import static org.junit.Assert.assertEquals;
+
+import org.firstinspires.ftc.teamcode.pedroPathing.localization.Pose;
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+/**
+ * This is the CurveSubdivisionIndexTest class. This class checks the closest point found by the
+ * CurveSubdivisionIndex against a brute force search over the whole curve.
+ *
+ * @version 1.0, 10/19/2026
+ */
+public class CurveSubdivisionIndexTest {
+    private static final int BRUTE_FORCE_STEPS = 200000;
+    private static final double TOLERANCE = 1e-3;
+
+    @Test
+    public void repeatedStartPoint() {
+        double[][] controlPoints = {{0, 0}, {0, 0}, {10, 5}, {20, 0}};
+        assertMatchesBruteForce(controlPoints, 4, 2);
+        assertEquals(0.58, getDistance(controlPoints, 4, 2), 0.01);
+    }
+
+    @Test
+    public void repeatedEndPoint() {
+        double[][] controlPoints = {{0, 0}, {5, 5}, {20, 0}, {20, 0}};
+        assertMatchesBruteForce(controlPoints, 16, 2);
+        assertEquals(0.88, getDistance(controlPoints, 16, 2), 0.01);
+    }
+
+    @Test
+    public void repeatedEndPointsAcrossTheCurve() {
+        double[][][] curves = {
+                {{0, 0}, {0, 0}, {10, 5}, {20, 0}},
+                {{0, 0}, {5, 5}, {20, 0}, {20, 0}},
+                {{0, 0}, {0, 0}, {20, 10}, {20, 10}},
+                {{0, 0}, {0, 0}, {0, 0}, {15, 20}, {30, 0}},
+        };
+        for (double[][] controlPoints : curves) {
+            for (double x = -5; x <= 35; x += 2.5) {
+                for (double y = -10; y <= 15; y += 2.5) {
+                    assertMatchesBruteForce(controlPoints, x, y);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void sCurve() {
+        double[][] controlPoints = {{0, 0}, {30, 0}, {-10, 20}, {20, 20}};
+        for (double x = -10; x <= 30; x += 2.5) {
+            for (double y = -5; y <= 25; y += 2.5) {
+                assertMatchesBruteForce(controlPoints, x, y);
+            }
+        }
+    }
+
+    /**
+     * This checks that the distance to the closest point found by the index is the same as the
+     * distance found by brute force.
+     */
+    private void assertMatchesBruteForce(double[][] controlPoints, double x, double y) {
+        double bruteForce = Double.POSITIVE_INFINITY;
+        for (int i = 0; i <= BRUTE_FORCE_STEPS; i++) {
+            double[] point = evaluate(controlPoints, i / (double) BRUTE_FORCE_STEPS);
+            bruteForce = Math.min(bruteForce, Math.hypot(point[0] - x, point[1] - y));
+        }
+        assertEquals("pose (" + x + ", " + y + ")", bruteForce, getDistance(controlPoints, x, y), TOLERANCE);
+    }
+
+    /**
+     * This returns the distance from a pose to the closest point the index finds.
+     */
+    private double getDistance(double[][] controlPoints, double x, double y) {
+        ArrayList<Point> points = new ArrayList<>();
+        for (double[] controlPoint : controlPoints) {
+            points.add(new Point(controlPoint[0], controlPoint[1], Point.CARTESIAN));
+        }
+        double t = new CurveSubdivisionIndex(points).getClosestPointTValue(new Pose(x, y, 0));
+        double[] point = evaluate(controlPoints, t);
+        return Math.hypot(point[0] - x, point[1] - y);
+    }
+
+    /**
+     * This evaluates a Bezier curve with de Casteljau's algorithm.
+     */
+    private double[] evaluate(double[][] controlPoints, double t) {
+        int n = controlPoints.length;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = controlPoints[i][0];
+            y[i] = controlPoints[i][1];
+        }
+        for (int level = n - 1; level > 0; level--) {
+            for (int i = 0; i < level; i++) {
+                x[i] += t * (x[i + 1] - x[i]);
+                y[i] += t * (y[i + 1] - y[i]);
+            }
+        }
+        return new double[]{x[0], y[0]};
+    }
+}
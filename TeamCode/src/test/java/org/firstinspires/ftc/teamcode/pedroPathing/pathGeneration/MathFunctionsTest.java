@@ -0,0 +1,122 @@
+package org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * This is the MathFunctionsTest class. This class checks the closed form polynomial root finders
+ * in MathFunctions.
+ *
+ * @version 1.0, 10/19/2026
+ */
+public class MathFunctionsTest {
+    private static final double TOLERANCE = 1e-9;
+
+    private final double[] roots = new double[3];
+
+    @Test
+    public void quadraticTwoRoots() {
+        // (x - 2)(x + 3)
+        assertEquals(2, MathFunctions.solveQuadratic(1, 1, -6, roots));
+        assertRoots(new double[]{-3, 2}, 2);
+    }
+
+    @Test
+    public void quadraticDoubleRoot() {
+        // 2(x - 1.5)^2
+        assertEquals(2, MathFunctions.solveQuadratic(2, -6, 4.5, roots));
+        assertRoots(new double[]{1.5, 1.5}, 2);
+    }
+
+    @Test
+    public void quadraticNoRealRoots() {
+        assertEquals(0, MathFunctions.solveQuadratic(1, 0, 1, roots));
+    }
+
+    @Test
+    public void quadraticFallsBackToLinear() {
+        assertEquals(1, MathFunctions.solveQuadratic(0, 4, -2, roots));
+        assertEquals(0.5, roots[0], TOLERANCE);
+        assertEquals(0, MathFunctions.solveQuadratic(0, 0, 3, roots));
+    }
+
+    @Test
+    public void quadraticKeepsPrecisionWithCancellation() {
+        // roots 1e-8 and 1e8, where the textbook formula loses the small root
+        assertEquals(2, MathFunctions.solveQuadratic(1, -(1e8 + 1e-8), 1, roots));
+        assertRoots(new double[]{1e-8, 1e8}, 2);
+        double small = Math.min(roots[0], roots[1]);
+        assertEquals(1e-8, small, 1e-20);
+    }
+
+    @Test
+    public void quadraticZeroRoot() {
+        // x(x - 4)
+        assertEquals(2, MathFunctions.solveQuadratic(1, -4, 0, roots));
+        assertRoots(new double[]{0, 4}, 2);
+    }
+
+    @Test
+    public void cubicThreeRoots() {
+        // (x - 1)(x - 2)(x - 3)
+        assertEquals(3, MathFunctions.solveCubic(1, -6, 11, -6, roots));
+        assertRoots(new double[]{1, 2, 3}, 3);
+    }
+
+    @Test
+    public void cubicOneRoot() {
+        // (x - 2)(x^2 + 1)
+        assertEquals(1, MathFunctions.solveCubic(1, -2, 1, -2, roots));
+        assertEquals(2, roots[0], TOLERANCE);
+    }
+
+    @Test
+    public void cubicTripleRoot() {
+        // 3(x + 1)^3
+        assertEquals(1, MathFunctions.solveCubic(3, 9, 9, 3, roots));
+        assertEquals(-1, roots[0], TOLERANCE);
+    }
+
+    @Test
+    public void cubicFallsBackToQuadratic() {
+        assertEquals(2, MathFunctions.solveCubic(0, 1, 1, -6, roots));
+        assertRoots(new double[]{-3, 2}, 2);
+    }
+
+    @Test
+    public void randomCubicsHaveEveryRoot() {
+        Random random = new Random(38);
+        for (int trial = 0; trial < 1000; trial++) {
+            double[] expected = {random.nextDouble() * 20 - 10, random.nextDouble() * 20 - 10, random.nextDouble() * 20 - 10};
+            double scale = random.nextDouble() * 4 + 0.25;
+            double a = scale;
+            double b = -scale * (expected[0] + expected[1] + expected[2]);
+            double c = scale * (expected[0] * expected[1] + expected[0] * expected[2] + expected[1] * expected[2]);
+            double d = -scale * expected[0] * expected[1] * expected[2];
+
+            assertEquals(3, MathFunctions.solveCubic(a, b, c, d, roots));
+            Arrays.sort(expected);
+            double[] found = Arrays.copyOf(roots, 3);
+            Arrays.sort(found);
+            assertArrayEquals("trial " + trial, expected, found, 1e-6);
+        }
+    }
+
+    /**
+     * This checks that the first count roots found are the expected roots, in any order.
+     */
+    private void assertRoots(double[] expected, int count) {
+        double[] found = Arrays.copyOf(roots, count);
+        Arrays.sort(found);
+        double[] sorted = expected.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < count; i++) {
+            assertEquals(sorted[i], found[i], TOLERANCE * Math.max(1, Math.abs(sorted[i])));
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package org.firstinspires.ftc.teamcode.pedroPathing.pathGeneration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This is the PathCallbackScheduleTest class. This class checks that the PathCallbackSchedule runs
+ * parametric and time callbacks in order, at the right point on the right Path, and only once.
+ *
+ * @version 1.0, 10/19/2026
+ */
+public class PathCallbackScheduleTest {
+    private final List<String> ran = new ArrayList<>();
+
+    private PathCallback parametric(double t, int index, String name) {
+        return new PathCallback(t, () -> ran.add(name), PathCallback.PARAMETRIC, index);
+    }
+
+    private PathCallback time(double milliseconds, int index, String name) {
+        return new PathCallback(milliseconds, () -> ran.add(name), PathCallback.TIME, index);
+    }
+
+    @Test
+    public void parametricCallbacksRunInOrder() {
+        PathCallbackSchedule schedule = new PathCallbackSchedule(1, Arrays.asList(
+                parametric(0.75, 0, "c"), parametric(0.25, 0, "a"), parametric(0.5, 0, "b")));
+        schedule.reset(0);
+
+        schedule.update(0, 0.1, 0);
+        assertEquals(Arrays.asList(), ran);
+        schedule.update(0, 0.3, 0);
+        assertEquals(Arrays.asList("a"), ran);
+        // skipping over several start conditions in one update runs all of them, in order
+        schedule.update(0, 0.9, 0);
+        assertEquals(Arrays.asList("a", "b", "c"), ran);
+        schedule.update(0, 1, 0);
+        assertEquals(3, ran.size());
+    }
+
+    @Test
+    public void parametricCallbacksOnlyRunOnTheirPath() {
+        PathCallbackSchedule schedule = new PathCallbackSchedule(3, Arrays.asList(
+                parametric(0.5, 1, "second"), parametric(0.2, 2, "third"), parametric(0.5, 5, "missing")));
+        schedule.reset(0);
+
+        schedule.update(0, 0.9, 0);
+        assertEquals(Arrays.asList(), ran);
+        schedule.update(1, 0.1, 0);
+        assertEquals(Arrays.asList(), ran);
+        schedule.update(1, 0.6, 0);
+        assertEquals(Arrays.asList("second"), ran);
+        schedule.update(2, 1, 0);
+        assertEquals(Arrays.asList("second", "third"), ran);
+    }
+
+    @Test
+    public void roughlyReachedConditionRuns() {
+        PathCallbackSchedule schedule = new PathCallbackSchedule(1, Arrays.asList(parametric(1, 0, "end")));
+        schedule.reset(0);
+
+        schedule.update(0, 1 - 1e-12, 0);
+
+        assertEquals(Arrays.asList("end"), ran);
+    }
+
+    @Test
+    public void timeCallbacksRunAfterTheirPathStarts() {
+        PathCallbackSchedule schedule = new PathCallbackSchedule(2, Arrays.asList(
+                time(200, 1, "second"), time(100, 0, "first")));
+        schedule.reset(1000);
+
+        schedule.update(0, 0, 1100);
+        assertEquals(Arrays.asList(), ran);
+        schedule.update(0, 0, 1101);
+        assertEquals(Arrays.asList("first"), ran);
+
+        // the second Path's timer starts when it does
+        schedule.update(1, 0, 1500);
+        schedule.update(1, 0, 1650);
+        assertEquals(Arrays.asList("first"), ran);
+        schedule.update(1, 0, 1701);
+        assertEquals(Arrays.asList("first", "second"), ran);
+    }
+
+    @Test
+    public void timeCallbacksKeepRunningAfterTheirPath() {
+        PathCallbackSchedule schedule = new PathCallbackSchedule(3, Arrays.asList(
+                time(500, 0, "late"), time(50, 2, "third")));
+        schedule.reset(0);
+
+        schedule.update(1, 0, 100);
+        schedule.update(2, 0, 120);
+        assertEquals(Arrays.asList(), ran);
+        // the first Path's callback is due at 500, and the third Path's at 170
+        schedule.update(2, 0, 600);
+        assertEquals(Arrays.asList("third", "late"), ran);
+    }
+
+    @Test
+    public void skippedPathsStartWhenTheFollowerMovesPastThem() {
+        PathCallbackSchedule schedule = new PathCallbackSchedule(3, Arrays.asList(time(10, 1, "second")));
+        schedule.reset(0);
+
+        schedule.update(2, 0, 100);
+        schedule.update(2, 0, 111);
+
+        assertEquals(Arrays.asList("second"), ran);
+    }
+
+    @Test
+    public void resetRunsEverythingAgain() {
+        PathCallbackSchedule schedule = new PathCallbackSchedule(2, Arrays.asList(
+                parametric(0.5, 0, "parametric"), time(10, 1, "time")));
+        schedule.reset(0);
+        schedule.update(0, 1, 0);
+        schedule.update(1, 0, 0);
+        schedule.update(1, 0, 20);
+        assertEquals(Arrays.asList("parametric", "time"), ran);
+
+        ran.clear();
+        schedule.reset(1000);
+        schedule.update(0, 0.2, 1000);
+        assertEquals(Arrays.asList(), ran);
+        schedule.update(0, 0.6, 1000);
+        schedule.update(1, 0, 1000);
+        schedule.update(1, 0, 1005);
+        assertEquals(Arrays.asList("parametric"), ran);
+        schedule.update(1, 0, 1011);
+        assertEquals(Arrays.asList("parametric", "time"), ran);
+    }
+
+    @Test
+    public void asyncCallbacksAreTrackedUntilFinished() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        PathCallback callback = new PathCallback(0.5, () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            finished.countDown();
+        }, PathCallback.PARAMETRIC, 0, true);
+        PathCallbackSchedule schedule = new PathCallbackSchedule(1, Arrays.asList(callback));
+        schedule.reset(0);
+
+        assertTrue(schedule.areCallbacksFinished());
+        schedule.update(0, 0.6, 0);
+        assertTrue(callback.hasBeenRun());
+        assertFalse(schedule.areCallbacksFinished());
+
+        release.countDown();
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!schedule.areCallbacksFinished() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertTrue(schedule.areCallbacksFinished());
+    }
+}
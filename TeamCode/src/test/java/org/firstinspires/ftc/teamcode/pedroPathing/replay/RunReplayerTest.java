@@ -0,0 +1,62 @@
+package org.firstinspires.ftc.teamcode.pedroPathing.replay;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.firstinspires.ftc.teamcode.pedroPathing.localization.Pose;
+import org.firstinspires.ftc.teamcode.pedroPathing.localization.localizers.ThreeWheelLocalizer;
+import org.junit.Test;
+
+import java.io.File;
+
+/**
+ * This is the RunReplayerTest class. This class replays a small run log through the RunReplayer.
+ *
+ * The run log is 150 frames of a three wheel robot driving an S curve at 50 Hz, with the pose set
+ * 3 inches over, 2 inches down, and 0.1 radians around at frame 75. The recorded poses are the ones
+ * the ThreeWheelLocalizer put out on the recorded Encoder ticks, and no Path was followed, so every
+ * recorded motor power is 0.
+ *
+ * @version 1.0, 10/19/2026
+ */
+public class RunReplayerTest {
+    private static File getLog() throws Exception {
+        return new File(RunReplayerTest.class.getResource("/replay/three_wheel_s_curve.runlog").toURI());
+    }
+
+    @Test
+    public void playsBackRecordedPoses() throws Exception {
+        RunReplayer.Result result = new RunReplayer(getLog()).replay(null);
+
+        assertEquals(150, result.frames);
+        assertTrue(result.toString(), result.matches());
+        assertEquals(0, result.maxPoseError, 0);
+    }
+
+    @Test
+    public void rebuildsPoseFromRawEncoderTicks() throws Exception {
+        RunReplayer replayer = new RunReplayer(getLog(), ThreeWheelLocalizer::fromRunFrame);
+        RunReplayer.Result result = replayer.replay(null);
+
+        assertEquals(150, result.frames);
+        assertTrue(result.toString(), result.matches());
+        assertEquals(0, result.maxPoseError, 1e-9);
+        assertTrue(replayer.getPoseUpdater().getLocalizer() instanceof ThreeWheelLocalizer);
+
+        Pose pose = replayer.getPoseUpdater().getLocalizer().getPose();
+        assertEquals(52.00, pose.getX(), 0.01);
+        assertEquals(53.59, pose.getY(), 0.01);
+    }
+
+    @Test
+    public void rebuiltPoseFollowsLocalizerTuning() throws Exception {
+        double forwardTicksToInches = ThreeWheelLocalizer.FORWARD_TICKS_TO_INCHES;
+        ThreeWheelLocalizer.FORWARD_TICKS_TO_INCHES *= 1.02;
+        try {
+            RunReplayer.Result result = new RunReplayer(getLog(), ThreeWheelLocalizer::fromRunFrame).replay(null);
+            assertTrue(result.toString(), result.maxPoseError > 0.5);
+        } finally {
+            ThreeWheelLocalizer.FORWARD_TICKS_TO_INCHES = forwardTicksToInches;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package org.firstinspires.ftc.teamcode.pedroPathing.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * This is the BoxQPSolverTest class. This class checks the BoxQPSolver against problems with known
+ * solutions, and against the optimality conditions of random problems.
+ *
+ * @version 1.0, 10/19/2026
+ */
+public class BoxQPSolverTest {
+    private static final double TOLERANCE = 1e-6;
+
+    /**
+     * This makes a solver for minimizing 1/2 xT H x + fT x with H = [[4, 1], [1, 3]] and
+     * f = [-1, -2], with bounds that are far away.
+     */
+    private static BoxQPSolver twoVariableProblem() {
+        BoxQPSolver solver = new BoxQPSolver(2);
+        System.arraycopy(new double[]{4, 1, 1, 3}, 0, solver.getHessian(), 0, 4);
+        System.arraycopy(new double[]{-1, -2}, 0, solver.getLinear(), 0, 2);
+        Arrays.fill(solver.getLower(), -100);
+        Arrays.fill(solver.getUpper(), 100);
+        return solver;
+    }
+
+    @Test
+    public void unconstrained() {
+        BoxQPSolver solver = twoVariableProblem();
+
+        assertTrue(solver.solve(1000, 1e-12, Long.MAX_VALUE));
+
+        assertTrue(solver.isConverged());
+        assertEquals(1.0 / 11, solver.getSolution()[0], TOLERANCE);
+        assertEquals(7.0 / 11, solver.getSolution()[1], TOLERANCE);
+    }
+
+    @Test
+    public void upperBoundActive() {
+        BoxQPSolver solver = twoVariableProblem();
+        solver.getUpper()[1] = 0.5;
+
+        assertTrue(solver.solve(1000, 1e-12, Long.MAX_VALUE));
+
+        assertTrue(solver.isConverged());
+        assertEquals(0.125, solver.getSolution()[0], TOLERANCE);
+        assertEquals(0.5, solver.getSolution()[1], 0);
+    }
+
+    @Test
+    public void lowerBoundActive() {
+        BoxQPSolver solver = twoVariableProblem();
+        solver.getLower()[0] = 0.5;
+
+        assertTrue(solver.solve(1000, 1e-12, Long.MAX_VALUE));
+
+        assertEquals(0.5, solver.getSolution()[0], 0);
+        assertEquals(0.5, solver.getSolution()[1], TOLERANCE);
+    }
+
+    @Test
+    public void deadlineExpired() {
+        BoxQPSolver solver = twoVariableProblem();
+        solver.getUpper()[0] = -1;
+        solver.getSolution()[0] = 5;
+
+        assertFalse(solver.solve(1000, 1e-12, System.nanoTime() - 1));
+
+        assertEquals(0, solver.getIterations());
+        assertFalse(solver.isConverged());
+        // the starting point is still clamped, so it can be used as is
+        assertEquals(-1, solver.getSolution()[0], 0);
+    }
+
+    @Test
+    public void runsOutOfIterations() {
+        BoxQPSolver solver = twoVariableProblem();
+
+        assertTrue(solver.solve(2, 1e-12, Long.MAX_VALUE));
+
+        assertEquals(2, solver.getIterations());
+        assertFalse(solver.isConverged());
+    }
+
+    @Test
+    public void warmStartConvergesImmediately() {
+        BoxQPSolver solver = twoVariableProblem();
+        solver.solve(1000, 1e-12, Long.MAX_VALUE);
+        int coldIterations = solver.getIterations();
+
+        assertTrue(solver.solve(1000, 1e-9, Long.MAX_VALUE));
+
+        assertTrue(solver.isConverged());
+        assertTrue(solver.getIterations() < coldIterations);
+        assertEquals(1, solver.getIterations());
+    }
+
+    @Test
+    public void zeroHessianIsRejected() {
+        BoxQPSolver solver = new BoxQPSolver(2);
+        assertFalse(solver.solve(10, 1e-9, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void randomProblemsAreOptimal() {
+        Random random = new Random(50);
+        int size = 12;
+        for (int trial = 0; trial < 20; trial++) {
+            BoxQPSolver solver = new BoxQPSolver(size);
+            double[] hessian = solver.getHessian();
+            double[][] a = new double[size][size];
+            for (double[] row : a) {
+                for (int j = 0; j < size; j++) {
+                    row[j] = random.nextDouble() * 2 - 1;
+                }
+            }
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    double sum = i == j ? 0.5 : 0;
+                    for (int k = 0; k < size; k++) {
+                        sum += a[i][k] * a[j][k];
+                    }
+                    hessian[i * size + j] = sum;
+                }
+                solver.getLinear()[i] = random.nextDouble() * 10 - 5;
+                solver.getLower()[i] = -random.nextDouble();
+                solver.getUpper()[i] = random.nextDouble();
+            }
+
+            assertTrue(solver.solve(100000, 1e-13, Long.MAX_VALUE));
+
+            // at the optimum, the gradient is 0 where a variable is between its bounds, and points
+            // into the bound where it is on one
+            double[] x = solver.getSolution();
+            for (int i = 0; i < size; i++) {
+                double gradient = solver.getLinear()[i];
+                for (int j = 0; j < size; j++) {
+                    gradient += hessian[i * size + j] * x[j];
+                }
+                assertTrue(x[i] >= solver.getLower()[i] && x[i] <= solver.getUpper()[i]);
+                if (x[i] == solver.getLower()[i]) {
+                    assertTrue("trial " + trial + " variable " + i, gradient > -1e-6);
+                } else if (x[i] == solver.getUpper()[i]) {
+                    assertTrue("trial " + trial + " variable " + i, gradient < 1e-6);
+                } else {
+                    assertEquals("trial " + trial + " variable " + i, 0, gradient, 1e-6);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package org.firstinspires.ftc.teamcode.pedroPathing.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This is the HardwareInitializerTest class. This class checks that the HardwareInitializer sets up
+ * devices at the same time, and that waiting on a Task hands back any failure.
+ *
+ * @version 1.0, 10/19/2026
+ */
+public class HardwareInitializerTest {
+    private final HardwareInitializer initializer = HardwareInitializer.getInstance();
+
+    @Before
+    public void setUp() {
+        initializer.clear();
+    }
+
+    @After
+    public void tearDown() {
+        initializer.clear();
+    }
+
+    @Test
+    public void tasksRunAtTheSameTime() {
+        // neither setup can get past the barrier unless the other one is running too
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        Runnable setup = () -> {
+            try {
+                barrier.await(5, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+        HardwareInitializer.Task imu = initializer.submit("imu", setup);
+        HardwareInitializer.Task motors = initializer.submit("motors", setup);
+
+        initializer.awaitAll();
+
+        assertTrue(imu.isDone());
+        assertTrue(motors.isDone());
+        assertNull(imu.getError());
+        assertNull(motors.getError());
+        assertTrue(initializer.isAllDone());
+    }
+
+    @Test
+    public void awaitWaitsForTheSetup() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        boolean[] setUp = new boolean[1];
+        HardwareInitializer.Task task = initializer.submit("slow", () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            setUp[0] = true;
+        });
+
+        Thread.sleep(20);
+        assertFalse(task.isDone());
+        assertFalse(initializer.isAllDone());
+        assertTrue(task.getLatency() >= 10);
+
+        release.countDown();
+        task.await();
+
+        assertTrue(setUp[0]);
+        assertTrue(task.isDone());
+        double latency = task.getLatency();
+        Thread.sleep(5);
+        assertEquals(latency, task.getLatency(), 0);
+    }
+
+    @Test
+    public void failedSetupIsThrownFromAwait() {
+        RuntimeException failure = new RuntimeException("not connected");
+        HardwareInitializer.Task task = initializer.submit("otos", () -> {
+            throw failure;
+        });
+
+        try {
+            task.await();
+            fail();
+        } catch (IllegalStateException e) {
+            assertSame(failure, e.getCause());
+            assertTrue(e.getMessage().contains("otos"));
+        }
+        assertTrue(task.isDone());
+        assertSame(failure, task.getError());
+
+        try {
+            initializer.awaitAll();
+            fail();
+        } catch (IllegalStateException e) {
+            assertSame(failure, e.getCause());
+        }
+    }
+
+    @Test
+    public void tasksAreKeptByName() {
+        HardwareInitializer.Task first = initializer.submit("imu", () -> { });
+        HardwareInitializer.Task second = initializer.submit("motors", () -> { });
+        HardwareInitializer.Task replacement = initializer.submit("imu", () -> { });
+        initializer.awaitAll();
+
+        assertEquals(2, initializer.getTasks().size());
+        assertSame(replacement, initializer.getTasks().get(0));
+        assertSame(second, initializer.getTasks().get(1));
+        // a replaced Task still runs, it just isn't waited on by awaitAll()
+        first.await();
+        assertTrue(first.isDone());
+
+        initializer.clear();
+        assertTrue(initializer.getTasks().isEmpty());
+        assertTrue(initializer.isAllDone());
+    }
+}
@@ -0,0 +1,125 @@
+package org.firstinspires.ftc.teamcode.pedroPathing.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * This is the LatencyHistogramTest class. This class checks the LatencyHistogram's percentiles
+ * against percentiles of the sorted samples.
+ *
+ * @version 1.0, 10/19/2026
+ */
+public class LatencyHistogramTest {
+    private static final double TOLERANCE = 1e-9;
+
+    @Test
+    public void emptyHistogramIsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(50), 0);
+        assertEquals(0, histogram.getMean(), 0);
+    }
+
+    @Test
+    public void smallLatenciesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int microseconds = 1; microseconds <= 10; microseconds++) {
+            histogram.record(microseconds * 1000L);
+        }
+
+        assertEquals(0.001, histogram.getPercentile(0), TOLERANCE);
+        assertEquals(0.005, histogram.getPercentile(50), TOLERANCE);
+        assertEquals(0.009, histogram.getPercentile(90), TOLERANCE);
+        assertEquals(0.010, histogram.getPercentile(100), TOLERANCE);
+        assertEquals(0.0055, histogram.getMean(), TOLERANCE);
+    }
+
+    @Test
+    public void percentilesAreWithinABucket() {
+        Random random = new Random(49);
+        LatencyHistogram histogram = new LatencyHistogram();
+        long[] samples = new long[20000];
+        for (int i = 0; i < samples.length; i++) {
+            // mostly a few milliseconds, with a long tail, like loop and frame latencies
+            samples[i] = (long) (Math.exp(random.nextGaussian() * 1.2 + 8) * 1000);
+            histogram.record(samples[i]);
+        }
+        Arrays.sort(samples);
+
+        assertEquals(samples.length, histogram.getCount());
+        for (double percentile : new double[]{1, 10, 50, 90, 99, 99.9, 100}) {
+            int rank = (int) Math.max(1, Math.ceil(samples.length * percentile / 100.0));
+            double expected = samples[rank - 1] / 1000 / 1000.0;
+            double actual = histogram.getPercentile(percentile);
+            assertTrue(percentile + "th percentile " + actual + " is below " + expected, actual >= expected - TOLERANCE);
+            assertTrue(percentile + "th percentile " + actual + " is too far above " + expected, actual <= expected * (1 + 1.0 / 16) + 0.001);
+        }
+    }
+
+    @Test
+    public void everyBucketBoundaryIsCountedOnce() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long microseconds = 0; microseconds < 5000; microseconds++) {
+            histogram.record(microseconds * 1000);
+        }
+
+        // every latency is at or below the percentile that includes it
+        for (long microseconds = 0; microseconds < 5000; microseconds += 7) {
+            double percentile = (microseconds + 1) * 100.0 / 5000;
+            double actual = histogram.getPercentile(percentile) * 1000;
+            assertTrue(actual + " for " + microseconds, actual >= microseconds - TOLERANCE);
+            assertTrue(actual + " for " + microseconds, actual <= microseconds * (1 + 1.0 / 16) + 1);
+        }
+    }
+
+    @Test
+    public void outOfRangeLatenciesAreClamped() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5000);
+        histogram.record(Long.MAX_VALUE);
+
+        assertEquals(2, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(50), 0);
+        assertEquals(((1L << 24) - 1) / 1000.0, histogram.getPercentile(100), TOLERANCE);
+    }
+
+    @Test
+    public void resetClearsEverything() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(20000000);
+        histogram.reset();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMean(), 0);
+
+        histogram.record(3000);
+        assertEquals(0.003, histogram.getPercentile(100), TOLERANCE);
+    }
+
+    @Test
+    public void concurrentRecordingKeepsEverySample() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 100000; j++) {
+                    histogram.record(2000000);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(400000, histogram.getCount());
+        assertEquals(2, histogram.getMean(), TOLERANCE);
+        assertEquals(2, histogram.getPercentile(50), 2 / 16.0);
+    }
+}